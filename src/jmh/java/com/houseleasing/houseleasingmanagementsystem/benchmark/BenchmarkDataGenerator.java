@@ -0,0 +1,206 @@
+package com.houseleasing.houseleasingmanagementsystem.benchmark;
+
+import com.houseleasing.houseleasingmanagementsystem.model.enums.ContractStatus;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.HouseStatus;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.MaintenanceStatus;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.PaymentCycle;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.PaymentStatus;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.ReviewType;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.RollupScope;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+/**
+ * 基准测试数据生成器：直接用 JDBC 批量写入，按租金记录规模生成一套完整的租赁组合
+ * 每份合同一套房源、一个租客、12 期月付；50 套房源一个房东；另按合同数的 1/10 生成维修单和评价
+ * 10k 租金记录约 834 份合同，10M 约 83 万份合同；月度收入汇总表（ALL 维度）同步写入，统计面板无需重建
+ * 只在空库上调用：各表主键从 min(id) 起连续分配
+ */
+public final class BenchmarkDataGenerator {
+
+    public static final int PAYMENTS_PER_CONTRACT = 12;
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int HOUSES_PER_LANDLORD = 50;
+
+    private static final String PAYMENT_INSERT = "insert into rent_payments (contract_id, due_date, amount, paid_at, "
+            + "status, period_start, period_end, overdue_processed) values (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String[] HOUSE_TYPES = {"一室一厅", "两室一厅", "三室一厅", "三室两厅", "四室两厅"};
+    private static final String[] DECORATIONS = {"毛坯", "简装", "精装", "豪装"};
+
+    /**
+     * 生成结果：各表的首个主键与行数，供基准方法挑选查询参数
+     */
+    public record Portfolio(long firstLandlordId, int landlords,
+                            long firstHouseId, long firstContractId, int contracts,
+                            long payments, LocalDate firstDueDate, LocalDate lastDueDate) {
+    }
+
+    private BenchmarkDataGenerator() {
+    }
+
+    /**
+     * 按租金记录数生成完整组合；合同开始日期分布在最近 36 个月内，已到期的记录 90% 已支付、其余逾期
+     */
+    public static Portfolio seedPortfolio(JdbcTemplate jdbc, long payments) {
+        Random random = new Random(42);
+        int contracts = (int) ((payments + PAYMENTS_PER_CONTRACT - 1) / PAYMENTS_PER_CONTRACT);
+        int landlords = Math.max(1, contracts / HOUSES_PER_LANDLORD);
+        long firstLandlordId = seedUsers(jdbc, "房东", "L", "LANDLORD", landlords);
+        long firstTenantId = seedUsers(jdbc, "租客", "T", "TENANT", contracts);
+        long firstHouseId = seedHouses(jdbc, contracts, firstLandlordId, landlords, random);
+
+        LocalDate today = LocalDate.now();
+        YearMonth firstMonth = YearMonth.from(today).minusMonths(35);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        double[] rents = new double[contracts];
+        LocalDate[] starts = new LocalDate[contracts];
+        for (int i = 0; i < contracts; i++) {
+            rents[i] = 1000 + random.nextInt(90) * 100.0;
+            starts[i] = firstMonth.plusMonths(random.nextInt(36)).atDay(1 + random.nextInt(28));
+            LocalDate end = starts[i].plusMonths(PAYMENTS_PER_CONTRACT).minusDays(1);
+            rows.add(new Object[]{
+                    String.format("HT%010d", i),
+                    firstHouseId + i,
+                    firstTenantId + i,
+                    landlordOf(i, firstLandlordId, landlords),
+                    Date.valueOf(starts[i]),
+                    Date.valueOf(end),
+                    rents[i],
+                    PaymentCycle.MONTHLY.name(),
+                    (end.isBefore(today) ? ContractStatus.EXPIRED : ContractStatus.ACTIVE).name(),
+                    now});
+            flush(jdbc, rows, i == contracts - 1, "insert into contracts (contract_no, house_id, tenant_id, landlord_id, "
+                    + "start_date, end_date, rent_amount, payment_cycle, status, signed_at) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+        }
+        long firstContractId = firstId(jdbc, "contracts");
+
+        // 按月累计应收 / 实收 / 笔数，最后写入汇总表
+        Map<YearMonth, double[]> monthly = new TreeMap<>();
+        long written = 0;
+        LocalDate firstDue = null;
+        LocalDate lastDue = null;
+        for (int i = 0; i < contracts && written < payments; i++) {
+            for (int k = 0; k < PAYMENTS_PER_CONTRACT && written < payments; k++, written++) {
+                LocalDate due = starts[i].plusMonths(k);
+                boolean past = due.isBefore(today);
+                PaymentStatus status = !past ? PaymentStatus.PENDING
+                        : random.nextInt(10) == 0 ? PaymentStatus.OVERDUE : PaymentStatus.PAID;
+                rows.add(new Object[]{
+                        firstContractId + i,
+                        Date.valueOf(due),
+                        rents[i],
+                        status == PaymentStatus.PAID ? Timestamp.valueOf(due.atTime(10, 0)) : null,
+                        status.name(),
+                        Date.valueOf(due),
+                        Date.valueOf(due.plusMonths(1).minusDays(1)),
+                        status == PaymentStatus.OVERDUE});
+                flush(jdbc, rows, false, PAYMENT_INSERT);
+                double[] acc = monthly.computeIfAbsent(YearMonth.from(due), m -> new double[3]);
+                acc[0] += rents[i];
+                acc[1] += status == PaymentStatus.PAID ? rents[i] : 0;
+                acc[2] += 1;
+                if (firstDue == null || due.isBefore(firstDue)) firstDue = due;
+                if (lastDue == null || due.isAfter(lastDue)) lastDue = due;
+            }
+        }
+        flush(jdbc, rows, true, PAYMENT_INSERT);
+
+        for (Map.Entry<YearMonth, double[]> e : monthly.entrySet()) {
+            double[] acc = e.getValue();
+            rows.add(new Object[]{e.getKey().toString(), RollupScope.ALL.name(), acc[0], acc[1], (long) acc[2], now});
+        }
+        flush(jdbc, rows, true, "insert into monthly_revenue_rollup (revenue_month, scope, landlord_id, house_id, "
+                + "total_amount, paid_amount, payment_count, updated_at) values (?, ?, 0, 0, ?, ?, ?, ?)");
+
+        int extras = Math.max(1, contracts / 10);
+        for (int i = 0; i < extras; i++) {
+            int c = random.nextInt(contracts);
+            rows.add(new Object[]{firstHouseId + c, "维修问题" + i,
+                    (random.nextBoolean() ? MaintenanceStatus.PENDING : MaintenanceStatus.COMPLETED).name(), now});
+            flush(jdbc, rows, i == extras - 1,
+                    "insert into maintenance_requests (house_id, description, status, created_at) values (?, ?, ?, ?)");
+        }
+        for (int i = 0; i < extras; i++) {
+            int c = random.nextInt(contracts);
+            rows.add(new Object[]{firstContractId + c, firstTenantId + c,
+                    landlordOf(c, firstLandlordId, landlords),
+                    ReviewType.TENANT_TO_LANDLORD.name(), 1 + random.nextInt(5), "评价内容" + i, now});
+            flush(jdbc, rows, i == extras - 1, "insert into reviews (contract_id, reviewer_id, reviewee_id, review_type, "
+                    + "rating, comment, created_at) values (?, ?, ?, ?, ?, ?, ?)");
+        }
+        return new Portfolio(firstLandlordId, landlords, firstHouseId, firstContractId, contracts, written, firstDue, lastDue);
+    }
+
+    /**
+     * 生成 count 个用户，返回第一个用户的 id
+     */
+    public static long seedUsers(JdbcTemplate jdbc, String namePrefix, String idCardPrefix, String role, int count) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[]{namePrefix + i, idCardPrefix + String.format("%017d", i),
+                    "138" + String.format("%08d", i % 100_000_000), role, now});
+            flush(jdbc, rows, i == count - 1,
+                    "insert into users (real_name, id_card, phone, role, created_at) values (?, ?, ?, ?, ?)");
+        }
+        return jdbc.queryForObject("select min(id) from users where id_card like ?", Long.class, idCardPrefix + "%");
+    }
+
+    /**
+     * 生成 count 套北京五环内的房源，依次轮流分配给 [firstLandlordId, firstLandlordId + landlords) 的房东，返回第一套的 id
+     */
+    public static long seedHouses(JdbcTemplate jdbc, int count, long firstLandlordId, int landlords, Random random) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[]{
+                    "城区" + (i % 20) + "路" + i + "号",
+                    HOUSE_TYPES[random.nextInt(HOUSE_TYPES.length)],
+                    30 + random.nextInt(150) + 0.5,
+                    1000 + random.nextInt(90) * 100.0,
+                    DECORATIONS[random.nextInt(DECORATIONS.length)],
+                    "空调,冰箱,洗衣机",
+                    random.nextInt(4) == 0 ? HouseStatus.RENTED.name() : HouseStatus.AVAILABLE.name(),
+                    "房源描述" + i,
+                    random.nextInt(10) == 0,
+                    landlordOf(i, firstLandlordId, landlords),
+                    39.75 + random.nextDouble() * 0.30,
+                    116.20 + random.nextDouble() * 0.40,
+                    now,
+                    now});
+            flush(jdbc, rows, i == count - 1, "insert into houses (address, house_type, area, rent, decoration, facilities, "
+                    + "status, description, recommended, landlord_id, latitude, longitude, created_at, updated_at) "
+                    + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+        }
+        return firstId(jdbc, "houses");
+    }
+
+    // 与 seedHouses 的分配规则一致：第 i 套房源属于第 i % landlords 个房东
+    private static long landlordOf(int houseIndex, long firstLandlordId, int landlords) {
+        return firstLandlordId + houseIndex % landlords;
+    }
+
+    private static void flush(JdbcTemplate jdbc, List<Object[]> rows, boolean force, String sql) {
+        if (rows.size() >= BATCH_SIZE || (force && !rows.isEmpty())) {
+            jdbc.batchUpdate(sql, rows);
+            rows.clear();
+        }
+    }
+
+    private static long firstId(JdbcTemplate jdbc, String table) {
+        return jdbc.queryForObject("select min(id) from " + table, Long.class);
+    }
+}
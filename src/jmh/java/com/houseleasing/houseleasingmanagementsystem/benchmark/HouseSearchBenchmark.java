@@ -0,0 +1,133 @@
+package com.houseleasing.houseleasingmanagementsystem.benchmark;
+
+import com.houseleasing.houseleasingmanagementsystem.Application;
+import com.houseleasing.houseleasingmanagementsystem.cache.HouseSearchIndex;
+import com.houseleasing.houseleasingmanagementsystem.dto.GeoFilter;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.HouseStatus;
+import com.houseleasing.houseleasingmanagementsystem.service.HouseService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 房源搜索：内存索引 vs Specification 两阶段分页（H2 内存库，test 配置），含筛选、深分页、半径搜索和分面计数
+ * 运行：mvn -Pbenchmark test-compile exec:exec -Djmh.include=HouseSearch
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HouseSearchBenchmark {
+
+    private static final String[] FACET_QUERIES = {
+            "select h.houseType, count(h) from House h where h.rent between :min and :max group by h.houseType",
+            "select h.decoration, count(h) from House h where h.rent between :min and :max group by h.decoration",
+            "select h.status, count(h) from House h where h.rent between :min and :max group by h.status",
+            "select h.recommended, count(h) from House h where h.rent between :min and :max group by h.recommended"};
+
+    // 国贸附近，半径 3 km
+    private static final GeoFilter NEARBY = GeoFilter.of(39.9087, 116.4599, 3.0, null, null, null, null);
+
+    // 百万级：-p houses=1000000
+    @Param({"10000"})
+    private int houses;
+
+    // index：内存索引；database：关闭索引，走 Specification 路径
+    @Param({"index", "database"})
+    private String path;
+
+    private ConfigurableApplicationContext context;
+    private HouseService houseService;
+    private EntityManagerFactory entityManagerFactory;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                // 用命令行参数覆盖配置：properties() 设置的只是默认值，会被 application-test.properties 覆盖
+                .run("--app.house-index.enabled=" + "index".equals(path),
+                        "--spring.jpa.properties.hibernate.generate_statistics=false",
+                        "--logging.level.root=WARN");
+        seed(context.getBean(JdbcTemplate.class), houses);
+        context.getBean(HouseSearchIndex.class).rebuild();
+        houseService = context.getBean(HouseService.class);
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // 等值 + 范围筛选，按租金排序的第一页
+    @Benchmark
+    public Object filteredFirstPage() {
+        return houseService.searchHouses(null, null, "两室一厅", 50.0, null, 2000.0, 6000.0, "精装", null,
+                HouseStatus.AVAILABLE, null, null, null, null, PageRequest.of(0, 20, Sort.by("rent")));
+    }
+
+    // 无筛选条件的深分页（按 id）
+    @Benchmark
+    public Object deepPage() {
+        return houseService.searchHouses(null, null, null, null, null, null, null, null, null,
+                null, null, null, null, null, PageRequest.of(houses / 20 - 1, 20));
+    }
+
+    // 国贸周边 3 km，按距离排序的第一页
+    @Benchmark
+    public Object nearbyFirstPage() {
+        return houseService.searchHouses(null, null, null, null, null, null, null, null, null,
+                HouseStatus.AVAILABLE, null, null, null, NEARBY, PageRequest.of(0, 20));
+    }
+
+    // 四个分面的计数；数据库路径为四条 group by 查询
+    @Benchmark
+    public Object facets() {
+        if ("index".equals(path)) {
+            return houseService.searchFacets(null, null, null, 2000.0, 6000.0, null, null, null, null, null);
+        }
+        EntityManager em = entityManagerFactory.createEntityManager();
+        try {
+            List<Object> result = new ArrayList<>(FACET_QUERIES.length);
+            for (String jpql : FACET_QUERIES) {
+                result.add(em.createQuery(jpql, Object[].class)
+                        .setParameter("min", 2000.0)
+                        .setParameter("max", 6000.0)
+                        .getResultList());
+            }
+            return result;
+        } finally {
+            em.close();
+        }
+    }
+
+    private static void seed(JdbcTemplate jdbc, int houses) {
+        int landlords = Math.max(1, houses / 50);
+        long firstLandlord = BenchmarkDataGenerator.seedUsers(jdbc, "房东", "L", "LANDLORD", landlords);
+        BenchmarkDataGenerator.seedHouses(jdbc, houses, firstLandlord, landlords, new Random(42));
+    }
+
+    // 索引路径确认索引已加载，避免悄悄退回数据库路径
+    @Setup(Level.Iteration)
+    public void check() {
+        Map<String, Map<String, Integer>> facets = houseService.searchFacets(null, null, null, null, null, null, null, null, null, null);
+        if ("index".equals(path) && facets == null) {
+            throw new IllegalStateException("house index not loaded");
+        }
+    }
+}
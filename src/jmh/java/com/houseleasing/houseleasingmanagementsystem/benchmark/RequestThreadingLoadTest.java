@@ -0,0 +1,226 @@
+package com.houseleasing.houseleasingmanagementsystem.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.houseleasing.houseleasingmanagementsystem.Application;
+import com.houseleasing.houseleasingmanagementsystem.util.TokenUtil;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 请求线程模式对比压测：分别以 Tomcat 平台线程池（platform）和虚拟线程（virtual）启动应用（H2 内存库，test 配置），
+ * 2000 个并发客户端循环请求房源、租金记录、合同搜索接口，记录吞吐量、p50/p99 延迟、错误数和峰值平台线程数，
+ * 结果写入 target/loadtest-<mode>.json
+ * 每次 prepareStatement 前注入固定延迟（默认 20ms），模拟慢 MySQL 调用占住请求线程；连接池放大到 400，
+ * 使瓶颈落在请求线程上而不是连接池上
+ * 运行：mvn -Pbenchmark test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.houseleasing.houseleasingmanagementsystem.benchmark.RequestThreadingLoadTest -Dexec.args="platform virtual"
+ * 可用 -Dloadtest.clients / seconds / warmup-seconds / db-latency-ms / pool-size 调整
+ */
+public final class RequestThreadingLoadTest {
+
+    private static final int CLIENTS = Integer.getInteger("loadtest.clients", 2000);
+    private static final long SECONDS = Long.getLong("loadtest.seconds", 30);
+    private static final long WARMUP_SECONDS = Long.getLong("loadtest.warmup-seconds", 5);
+    private static final long DB_LATENCY_MS = Long.getLong("loadtest.db-latency-ms", 20);
+    private static final int POOL_SIZE = Integer.getInteger("loadtest.pool-size", 400);
+
+    private static final List<String> PATHS = List.of(
+            "/api/houses/search?minRent=2000&maxRent=6000&page=0&size=20",
+            "/api/rent-payments/search?status=OVERDUE&page=0&size=20",
+            "/api/contracts/search?status=ACTIVE&page=0&size=20");
+
+    private RequestThreadingLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        // devtools 在类路径上时会在新线程中用 run(...) 的参数重新调用本类的 main，压测时关闭
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        for (String mode : args.length > 0 ? args : new String[]{"platform", "virtual"}) {
+            Map<String, Object> result = run(mode);
+            File file = new File("target/loadtest-" + mode + ".json");
+            file.getParentFile().mkdirs();
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, result);
+            System.out.println(result);
+        }
+    }
+
+    private static Map<String, Object> run(String mode) throws Exception {
+        // 以命令行参数传入，优先级高于 application(-test).properties；properties(...) 只是默认值，会被配置文件覆盖
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .profiles("test")
+                .initializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(new BeanPostProcessor() {
+                    @Override
+                    public Object postProcessAfterInitialization(Object bean, String beanName) {
+                        return bean instanceof DataSource dataSource ? slowDataSource(dataSource) : bean;
+                    }
+                }))
+                .run("--server.port=0",
+                        "--management.server.port=-1",
+                        "--spring.threads.virtual.enabled=" + "virtual".equals(mode),
+                        "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                        // 压测对象是请求线程，关闭限流；房源搜索走数据库路径，受注入的延迟影响
+                        "--app.rate-limit.enabled=false",
+                        "--app.house-index.enabled=false",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false",
+                        "--logging.level.root=WARN");
+        try {
+            BenchmarkDataGenerator.seedPortfolio(context.getBean(JdbcTemplate.class), 10_000);
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            String authorization = "Bearer " + context.getBean(TokenUtil.class).generateToken();
+            return load(mode, baseUrl, authorization);
+        } finally {
+            context.close();
+        }
+    }
+
+    private static Map<String, Object> load(String mode, String baseUrl, String authorization) throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        AtomicInteger peakThreads = new AtomicInteger(threads.getThreadCount());
+        Thread sampler = Thread.ofPlatform().daemon().start(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                peakThreads.accumulateAndGet(threads.getThreadCount(), Math::max);
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+
+        long warmupEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(WARMUP_SECONDS);
+        long deadline = warmupEnd + TimeUnit.SECONDS.toNanos(SECONDS);
+        long[][] latencies = new long[CLIENTS][];
+        int[] counts = new int[CLIENTS];
+        AtomicLong errors = new AtomicLong();
+        // 客户端用虚拟线程，不计入服务端的平台线程数
+        ExecutorService httpExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        try (HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(httpExecutor)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+             // 逆序关闭：先等所有客户端结束，再关闭 HttpClient
+             ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CLIENTS; c++) {
+                int client = c;
+                clients.submit(() -> {
+                    long[] samples = new long[1024];
+                    int n = 0;
+                    for (int i = client; System.nanoTime() < deadline; i++) {
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + PATHS.get(i % PATHS.size())))
+                                .header("Authorization", authorization)
+                                .timeout(Duration.ofSeconds(60))
+                                .build();
+                        long start = System.nanoTime();
+                        boolean ok;
+                        try {
+                            ok = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+                        } catch (Exception e) {
+                            ok = false;
+                        }
+                        long end = System.nanoTime();
+                        if (start < warmupEnd || end > deadline) continue;
+                        if (!ok) {
+                            errors.incrementAndGet();
+                            continue;
+                        }
+                        if (n == samples.length) samples = Arrays.copyOf(samples, n * 2);
+                        samples[n++] = end - start;
+                    }
+                    latencies[client] = samples;
+                    counts[client] = n;
+                });
+            }
+        } finally {
+            httpExecutor.close();
+            sampler.interrupt();
+        }
+
+        int total = Arrays.stream(counts).sum();
+        long[] all = new long[total];
+        int offset = 0;
+        for (int c = 0; c < CLIENTS; c++) {
+            if (latencies[c] == null) continue;
+            System.arraycopy(latencies[c], 0, all, offset, counts[c]);
+            offset += counts[c];
+        }
+        Arrays.sort(all);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("mode", mode);
+        result.put("clients", CLIENTS);
+        result.put("seconds", SECONDS);
+        result.put("dbLatencyMs", DB_LATENCY_MS);
+        result.put("poolSize", POOL_SIZE);
+        result.put("requests", total);
+        result.put("errors", errors.get());
+        result.put("throughputPerSecond", total / (double) SECONDS);
+        result.put("p50Ms", percentileMillis(all, 0.50));
+        result.put("p99Ms", percentileMillis(all, 0.99));
+        result.put("peakPlatformThreads", peakThreads.get());
+        return result;
+    }
+
+    private static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) return 0;
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    // 每条语句在拿到连接之后、准备语句之前等待 DB_LATENCY_MS，连接在等待期间保持占用
+    private static DataSource slowDataSource(DataSource target) {
+        return (DataSource) Proxy.newProxyInstance(RequestThreadingLoadTest.class.getClassLoader(),
+                new Class<?>[]{DataSource.class}, (proxy, method, args) -> {
+                    Object result = invoke(target, method, args);
+                    return result instanceof Connection connection ? slowConnection(connection) : result;
+                });
+    }
+
+    private static Connection slowConnection(Connection target) {
+        return (Connection) Proxy.newProxyInstance(RequestThreadingLoadTest.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    if (method.getName().startsWith("prepare") || method.getName().equals("createStatement")) {
+                        Thread.sleep(DB_LATENCY_MS);
+                    }
+                    return switch (method.getName()) {
+                        case "equals" -> proxy == args[0];
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        default -> invoke(target, method, args);
+                    };
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.houseleasing.houseleasingmanagementsystem.benchmark;
+
+import com.houseleasing.houseleasingmanagementsystem.Application;
+import com.houseleasing.houseleasingmanagementsystem.cache.HouseSearchIndex;
+import com.houseleasing.houseleasingmanagementsystem.controller.StatsController;
+import com.houseleasing.houseleasingmanagementsystem.model.Contract;
+import com.houseleasing.houseleasingmanagementsystem.model.House;
+import com.houseleasing.houseleasingmanagementsystem.model.RentPayment;
+import com.houseleasing.houseleasingmanagementsystem.model.User;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.ContractStatus;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.HouseStatus;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.PaymentCycle;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.PaymentStatus;
+import com.houseleasing.houseleasingmanagementsystem.repository.RentPaymentRepository;
+import com.houseleasing.houseleasingmanagementsystem.service.ContractService;
+import com.houseleasing.houseleasingmanagementsystem.service.HouseService;
+import com.houseleasing.houseleasingmanagementsystem.service.RentPaymentService;
+import com.houseleasing.houseleasingmanagementsystem.service.RevenueRollupService;
+import com.houseleasing.houseleasingmanagementsystem.service.StatsService;
+import com.houseleasing.houseleasingmanagementsystem.util.RentScheduleCalculator;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 服务层热点路径：房源搜索、租金记录搜索、合同搜索、统计面板和租金计划生成（H2 内存库，test 配置）
+ * legacyGenerateScheduleForContract 为租金计划生成改动前的实现，用作对照
+ * 数据由 BenchmarkDataGenerator 按租金记录规模生成，默认 1 万条；更大规模：-Djmh.args="-p payments=1000000"
+ * 运行：mvn -Pbenchmark test-compile exec:exec -Djmh.include=ServiceHotPath
+ * 如需对比 MySQL，可追加 -jvmArgsAppend 覆盖 spring.datasource.* 与 hibernate.dialect
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceHotPathBenchmark {
+
+    // 10000 / 100000 / 1000000 / 10000000
+    @Param({"10000"})
+    private long payments;
+
+    private ConfigurableApplicationContext context;
+    private HouseService houseService;
+    private RentPaymentService rentPaymentService;
+    private ContractService contractService;
+    private StatsService statsService;
+    private StatsController statsController;
+    private BenchmarkDataGenerator.Portfolio portfolio;
+    private Long middleContractId;
+    private Long middleLandlordId;
+    private LocalDate dueFrom;
+    private LocalDate dueTo;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                // 用命令行参数覆盖配置：properties() 设置的只是默认值，会被 application-test.properties 覆盖
+                .run("--app.house-index.enabled=true",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false",
+                        "--logging.level.root=WARN");
+        portfolio = BenchmarkDataGenerator.seedPortfolio(context.getBean(JdbcTemplate.class), payments);
+        context.getBean(HouseSearchIndex.class).rebuild();
+        houseService = context.getBean(HouseService.class);
+        rentPaymentService = context.getBean(RentPaymentService.class);
+        contractService = context.getBean(ContractService.class);
+        statsService = context.getBean(StatsService.class);
+        statsController = context.getBean(StatsController.class);
+        middleContractId = portfolio.firstContractId() + portfolio.contracts() / 2;
+        middleLandlordId = portfolio.firstLandlordId() + portfolio.landlords() / 2;
+        // 最近一个月到期的记录
+        dueTo = LocalDate.now();
+        dueFrom = dueTo.minusMonths(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object houseSearch() {
+        return houseService.searchHouses(null, null, "两室一厅", 50.0, null, 2000.0, 6000.0, "精装", null,
+                HouseStatus.AVAILABLE, null, null, null, null, PageRequest.of(0, 20, Sort.by("rent")));
+    }
+
+    // 催缴列表：最近一个月到期的逾期记录第一页
+    @Benchmark
+    public Object rentPaymentSearch() {
+        return rentPaymentService.search(null, PaymentStatus.OVERDUE, dueFrom, dueTo,
+                PageRequest.of(0, 20, Sort.by("dueDate")));
+    }
+
+    // 单个合同的租金计划
+    @Benchmark
+    public Object rentPaymentSearchByContract() {
+        return rentPaymentService.search(middleContractId, null, null, null, PageRequest.of(0, 20, Sort.by("dueDate")));
+    }
+
+    // 某房东生效中的合同第一页
+    @Benchmark
+    public Object contractSearch() {
+        return contractService.searchContracts(null, null, middleLandlordId, null, ContractStatus.ACTIVE,
+                null, null, null, null, PageRequest.of(0, 20));
+    }
+
+    // 控制器入口：命中概览快照缓存
+    @Benchmark
+    public Object statsOverview() {
+        return statsController.overview(null, null);
+    }
+
+    // 不经缓存，直接执行概览的全部查询
+    @Benchmark
+    public Object statsOverviewUncached() {
+        return statsService.overview(null, null);
+    }
+
+    // 为一份 3 年月付合同生成 36 期租金计划（每次调用前清空该合同的计划）
+    @Benchmark
+    public void generateScheduleForContract(ScheduleState state) {
+        rentPaymentService.generateScheduleForContract(state.contract, false);
+    }
+
+    // 对照：改动前的实现，每期一次 existsByContract_IdAndDueDate 和一次 save
+    @Benchmark
+    public void legacyGenerateScheduleForContract(ScheduleState state) {
+        state.transaction.executeWithoutResult(status -> {
+            Contract contract = state.contract;
+            if (state.rentPaymentRepository.existsByContract_Id(contract.getId())) return;
+            int stepMonths = RentScheduleCalculator.stepMonths(contract.getPaymentCycle());
+            LocalDate cursor = contract.getStartDate();
+            LocalDate end = contract.getEndDate();
+            List<RentPayment> created = new ArrayList<>();
+            while (!cursor.isAfter(end)) {
+                LocalDate periodStart = cursor.withDayOfMonth(1);
+                LocalDate periodEnd = periodStart.plusMonths(stepMonths).minusDays(1);
+                if (periodEnd.isAfter(end)) periodEnd = end;
+                if (!state.rentPaymentRepository.existsByContract_IdAndDueDate(contract.getId(), cursor)) {
+                    RentPayment rp = new RentPayment();
+                    rp.setContract(contract);
+                    rp.setDueDate(cursor);
+                    rp.setAmount(contract.getRentAmount());
+                    rp.setStatus(PaymentStatus.PENDING);
+                    rp.setPeriodStart(periodStart);
+                    rp.setPeriodEnd(periodEnd);
+                    rp.setOverdueProcessed(false);
+                    created.add(state.rentPaymentRepository.save(rp));
+                }
+                cursor = periodStart.plusMonths(stepMonths);
+            }
+            state.revenueRollupService.applyInserted(created);
+        });
+    }
+
+    /**
+     * 租金计划生成用的独立合同；房源、房东只需 id
+     */
+    @State(Scope.Benchmark)
+    public static class ScheduleState {
+
+        private JdbcTemplate jdbc;
+        private Contract contract;
+        private RentPaymentRepository rentPaymentRepository;
+        private RevenueRollupService revenueRollupService;
+        private TransactionTemplate transaction;
+
+        @Setup(Level.Trial)
+        public void setUp(ServiceHotPathBenchmark benchmark) {
+            jdbc = benchmark.context.getBean(JdbcTemplate.class);
+            rentPaymentRepository = benchmark.context.getBean(RentPaymentRepository.class);
+            revenueRollupService = benchmark.context.getBean(RevenueRollupService.class);
+            transaction = new TransactionTemplate(benchmark.context.getBean(PlatformTransactionManager.class));
+            BenchmarkDataGenerator.Portfolio portfolio = benchmark.portfolio;
+            LocalDate start = LocalDate.now().withDayOfMonth(1);
+            LocalDate end = start.plusYears(3).minusDays(1);
+            jdbc.update("insert into contracts (contract_no, house_id, tenant_id, landlord_id, start_date, end_date, "
+                            + "rent_amount, payment_cycle, status) values (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                    "BENCH-SCHEDULE", portfolio.firstHouseId(), portfolio.firstLandlordId(), portfolio.firstLandlordId(),
+                    Date.valueOf(start), Date.valueOf(end), 3000.0, PaymentCycle.MONTHLY.name(), ContractStatus.ACTIVE.name());
+
+            House house = new House();
+            house.setId(portfolio.firstHouseId());
+            User landlord = new User();
+            landlord.setId(portfolio.firstLandlordId());
+            contract = new Contract();
+            contract.setId(jdbc.queryForObject("select id from contracts where contract_no = 'BENCH-SCHEDULE'", Long.class));
+            contract.setHouse(house);
+            contract.setLandlord(landlord);
+            contract.setStartDate(start);
+            contract.setEndDate(end);
+            contract.setRentAmount(3000.0);
+            contract.setPaymentCycle(PaymentCycle.MONTHLY);
+            contract.setStatus(ContractStatus.ACTIVE);
+        }
+
+        @Setup(Level.Invocation)
+        public void clearSchedule() {
+            jdbc.update("delete from rent_payments where contract_id = ?", contract.getId());
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.houseleasing.houseleasingmanagementsystem.benchmark;
+
+import com.houseleasing.houseleasingmanagementsystem.util.TokenUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token 校验：TokenAuthenticationFilter 对每个 /api/* 请求调用一次 validateToken
+ * legacyValidToken 为改动前的实现（每次重建密钥和解析器），用作对照；cacheSize=0 时只复用密钥和解析器
+ * 不启动 Spring，直接按配置默认值构造 TokenUtil
+ * 运行：mvn -Pbenchmark test-compile exec:exec -Djmh.include=TokenValidation
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenValidationBenchmark {
+
+    private static final String SECRET = "mySecretKeyForHouseLeasingSystem2024!@#$";
+
+    // 0：关闭已校验 token 缓存
+    @Param({"10000", "0"})
+    private int cacheSize;
+
+    private TokenUtil tokenUtil;
+    private String validToken;
+    private String tamperedToken;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tokenUtil = new TokenUtil(SECRET, 86400L, cacheSize);
+        validToken = tokenUtil.generateToken();
+        // 改动签名中间的一个字符（末位字符含填充位，改动后可能仍解码为同一签名）
+        int i = validToken.length() - 10;
+        char c = validToken.charAt(i);
+        tamperedToken = validToken.substring(0, i) + (c == 'A' ? 'B' : 'A') + validToken.substring(i + 1);
+    }
+
+    @Benchmark
+    public boolean validToken() {
+        return tokenUtil.validateToken(validToken);
+    }
+
+    @Benchmark
+    public boolean tamperedToken() {
+        return tokenUtil.validateToken(tamperedToken);
+    }
+
+    @Benchmark
+    public boolean legacyValidToken() {
+        try {
+            Claims claims = Jwts.parser()
+                    .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                    .build()
+                    .parseSignedClaims(validToken)
+                    .getPayload();
+            return claims.getExpiration().after(new Date());
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,524 @@
+package com.houseleasing.houseleasingmanagementsystem.cache;
+
+import com.houseleasing.houseleasingmanagementsystem.dto.GeoFilter;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.HouseStatus;
+import com.houseleasing.houseleasingmanagementsystem.repository.HouseRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.projection.HouseListItem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 房源内存检索索引：房源目录整体常驻内存，按户型/装修/状态/推荐、租金和面积范围筛选、排序、分页及分面计数都不访问数据库
+ * 租金、面积、房东按列存放在基本类型数组中；每个分面取值一个 BitSet，组合筛选即按位与
+ * 槽位按 id 递增追加、删除只清除存活位，因此按位遍历即为 id 升序；已删除槽位过多时整体压缩
+ * 坐标另按固定大小的经纬度网格登记槽位，半径/边界框查询只检查覆盖到的网格，再按精确距离过滤并排序
+ * HouseService 的写操作在事务提交后按 id 从数据库重新加载对应行
+ */
+@Component
+public class HouseSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(HouseSearchIndex.class);
+
+    public static final String FACET_HOUSE_TYPE = "houseType";
+    public static final String FACET_DECORATION = "decoration";
+    public static final String FACET_STATUS = "status";
+    public static final String FACET_RECOMMENDED = "recommended";
+
+    private static final List<String> FACETS = List.of(FACET_HOUSE_TYPE, FACET_DECORATION, FACET_STATUS, FACET_RECOMMENDED);
+    private static final Set<String> SORTABLE = Set.of("id", "rent", "area");
+    private static final int MIN_DEAD_TO_COMPACT = 1024;
+    // 网格边长约 0.01°（纬度方向约 1.1 km）；查询覆盖的网格数超过上限时改为直接扫描坐标列
+    private static final double CELL_DEGREES = 0.01;
+    private static final long MAX_QUERY_CELLS = 40_000;
+
+    /**
+     * 索引支持的筛选条件；字符串/对象条件为空表示不过滤，范围条件为闭区间；geo 不为空时结果按距离排序
+     */
+    public record Filter(String houseType, String decoration, HouseStatus status, Boolean recommended,
+                         Long landlordId, Double minRent, Double maxRent, Double minArea, Double maxArea,
+                         GeoFilter geo) {
+    }
+
+    @Autowired
+    private HouseRepository houseRepository;
+
+    @Value("${app.house-index.enabled:true}")
+    private boolean enabled;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+    // 加载完成前到达的刷新（受写锁保护），加载后补做，避免加载查询读到的快照早于这些提交
+    private final Set<Long> pending = new HashSet<>();
+    // 串行化“读库 + 写入索引”：后开始的刷新必然在先开始的刷新写入之后才读库，旧快照不会覆盖新快照
+    // 与读写锁分开，读库期间不阻塞搜索
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    // 列存储，下标为槽位；空值的租金/面积存为 NaN（范围比较恒为 false，与 SQL 一致）
+    private HouseListItem[] rows = new HouseListItem[0];
+    private long[] ids = new long[0];
+    private double[] rents = new double[0];
+    private double[] areas = new double[0];
+    private long[] landlordIds = new long[0];
+    private double[] lats = new double[0];
+    private double[] lngs = new double[0];
+    private int slots;
+    private int dead;
+    private final BitSet live = new BitSet();
+    private final Map<Long, Integer> slotById = new HashMap<>();
+    // 分面 -> 取值 -> 命中槽位
+    private final Map<String, Map<String, BitSet>> facetBits = new HashMap<>();
+    // 网格 -> 落在其中的槽位（没有坐标的房源不登记）
+    private final Map<Long, SlotList> cells = new HashMap<>();
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    /**
+     * 排序字段全部是 id、rent、area 时可由索引完成
+     */
+    public boolean supports(Sort sort) {
+        for (Sort.Order order : sort) {
+            if (!SORTABLE.contains(order.getProperty())) return false;
+        }
+        return true;
+    }
+
+    /**
+     * 启动后从数据库全量加载；加载期间持有写锁，加载完成前到达的刷新先排队，加载后再按 id 补做
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) return;
+        long start = System.nanoTime();
+        List<Long> queued;
+        lock.writeLock().lock();
+        try {
+            load(houseRepository.findAllListItems());
+            queued = new ArrayList<>(pending);
+            pending.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (!queued.isEmpty()) refresh(queued);
+        logger.info("house search index loaded {} houses in {} ms ({} queued refreshes)",
+                size(), (System.nanoTime() - start) / 1_000_000, queued.size());
+    }
+
+    /**
+     * 房源写入后调用：事务提交后从数据库重新加载该房源（已删除则移出索引）
+     */
+    public void refreshAfterCommit(Long houseId) {
+        if (houseId == null) return;
+        afterCommit(() -> refresh(List.of(houseId)));
+    }
+
+    /**
+     * 房东信息变化后调用：刷新该房东名下所有房源（列表行里带有房东姓名）
+     */
+    public void refreshLandlordAfterCommit(Long landlordId) {
+        if (landlordId == null) return;
+        afterCommit(() -> {
+            List<Long> houseIds = new ArrayList<>();
+            lock.readLock().lock();
+            try {
+                for (int i = live.nextSetBit(0); i >= 0; i = live.nextSetBit(i + 1)) {
+                    if (landlordIds[i] == landlordId) houseIds.add(ids[i]);
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            if (!houseIds.isEmpty()) refresh(houseIds);
+        });
+    }
+
+    /**
+     * 筛选 + 排序 + 分页；调用前应确认 isReady() 且 supports(pageable.getSort())
+     */
+    public Page<HouseListItem> search(Filter filter, Pageable pageable) {
+        lock.readLock().lock();
+        try {
+            BitSet hits = (BitSet) live.clone();
+            applyFacets(hits, filter, null);
+            applyGeo(hits, filter.geo());
+            applyRanges(hits, filter);
+            int total = hits.cardinality();
+            int offset = pageable.isPaged() ? (int) Math.min(pageable.getOffset(), total) : 0;
+            int limit = pageable.isPaged() ? pageable.getPageSize() : total;
+            List<HouseListItem> content = new ArrayList<>(Math.min(limit, total - offset));
+
+            Sort sort = pageable.getSort();
+            Sort.Order idOrder = sort.getOrderFor("id");
+            if (filter.geo() != null) {
+                // 按到中心点的距离排序，距离相同再按调用方指定的排序
+                GeoFilter geo = filter.geo();
+                int[] matched = hits.stream().toArray();
+                double[] distance = new double[matched.length];
+                Integer[] order = new Integer[matched.length];
+                for (int i = 0; i < matched.length; i++) {
+                    distance[i] = geo.distanceKm(lats[matched[i]], lngs[matched[i]]);
+                    order[i] = i;
+                }
+                Comparator<Integer> tie = comparator(sort);
+                Arrays.sort(order, Comparator.<Integer>comparingDouble(i -> distance[i])
+                        .thenComparing((a, b) -> tie.compare(matched[a], matched[b])));
+                for (int i = offset; i < order.length && content.size() < limit; i++) {
+                    content.add(rows[matched[order[i]]]);
+                }
+            } else if (sort.isUnsorted() || (idOrder != null && sort.stream().count() == 1)) {
+                // 槽位顺序即 id 顺序，直接按位遍历，不需要排序
+                boolean desc = idOrder != null && idOrder.isDescending();
+                int skipped = 0;
+                for (int i = desc ? hits.previousSetBit(slots - 1) : hits.nextSetBit(0);
+                     i >= 0 && content.size() < limit;
+                     i = desc ? hits.previousSetBit(i - 1) : hits.nextSetBit(i + 1)) {
+                    if (skipped++ < offset) continue;
+                    content.add(rows[i]);
+                }
+            } else {
+                int[] matched = hits.stream().toArray();
+                Integer[] boxed = new Integer[matched.length];
+                for (int i = 0; i < matched.length; i++) boxed[i] = matched[i];
+                Arrays.sort(boxed, comparator(sort));
+                for (int i = offset; i < boxed.length && content.size() < limit; i++) {
+                    content.add(rows[boxed[i]]);
+                }
+            }
+            return new PageImpl<>(content, pageable, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 分面计数：某个分面的计数应用除它自身以外的全部条件，便于前端展示“切换到该取值后有多少套”
+     */
+    public Map<String, Map<String, Integer>> facets(Filter filter) {
+        lock.readLock().lock();
+        try {
+            BitSet base = (BitSet) live.clone();
+            applyGeo(base, filter.geo());
+            applyRanges(base, filter);
+            Map<String, Map<String, Integer>> result = new LinkedHashMap<>();
+            for (String facet : FACETS) {
+                BitSet scope = (BitSet) base.clone();
+                applyFacets(scope, filter, facet);
+                Map<String, Integer> counts = new TreeMap<>();
+                for (Map.Entry<String, BitSet> e : facetBits.getOrDefault(facet, Map.of()).entrySet()) {
+                    BitSet bits = (BitSet) e.getValue().clone();
+                    bits.and(scope);
+                    int count = bits.cardinality();
+                    if (count > 0) counts.put(e.getKey(), count);
+                }
+                result.put(facet, counts);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ---- 维护 ----
+
+    // 全量替换（调用方持有写锁或处于单线程初始化）
+    void load(List<HouseListItem> items) {
+        List<HouseListItem> sorted = new ArrayList<>(items);
+        sorted.sort(Comparator.comparing(HouseListItem::id));
+        int capacity = Math.max(16, sorted.size() + sorted.size() / 4);
+        rows = new HouseListItem[capacity];
+        ids = new long[capacity];
+        rents = new double[capacity];
+        areas = new double[capacity];
+        landlordIds = new long[capacity];
+        lats = new double[capacity];
+        lngs = new double[capacity];
+        slots = 0;
+        dead = 0;
+        live.clear();
+        slotById.clear();
+        facetBits.clear();
+        cells.clear();
+        for (HouseListItem item : sorted) append(item);
+        ready = true;
+    }
+
+    void upsert(HouseListItem item) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotById.get(item.id());
+            if (slot != null) {
+                setFacets(slot, rows[slot], false);
+                removeFromCell(slot);
+                write(slot, item);
+                return;
+            }
+            boolean outOfOrder = slots > 0 && item.id() < ids[slots - 1];
+            append(item);
+            // 新 id 小于已有最大 id 时槽位顺序不再等于 id 顺序，重新整理
+            if (outOfOrder) compact();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotById.remove(id);
+            if (slot == null) return;
+            setFacets(slot, rows[slot], false);
+            removeFromCell(slot);
+            live.clear(slot);
+            rows[slot] = null;
+            dead++;
+            if (dead >= MIN_DEAD_TO_COMPACT && dead > slots / 4) compact();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void refresh(Collection<Long> houseIds) {
+        if (!enabled) return;
+        if (!ready) {
+            lock.writeLock().lock();
+            try {
+                // 加载尚未完成（或尚未开始）：记下 id，由 rebuild 在加载后补做
+                if (!ready) {
+                    pending.addAll(houseIds);
+                    return;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        refreshLock.lock();
+        try {
+            Map<Long, HouseListItem> found = new HashMap<>();
+            for (HouseListItem item : houseRepository.findListItemsByIdIn(houseIds)) found.put(item.id(), item);
+            for (Long id : houseIds) {
+                HouseListItem item = found.get(id);
+                if (item != null) upsert(item);
+                else remove(id);
+            }
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private void append(HouseListItem item) {
+        if (slots == rows.length) grow();
+        int slot = slots++;
+        slotById.put(item.id(), slot);
+        live.set(slot);
+        write(slot, item);
+    }
+
+    private void write(int slot, HouseListItem item) {
+        rows[slot] = item;
+        ids[slot] = item.id();
+        rents[slot] = item.rent() == null ? Double.NaN : item.rent();
+        areas[slot] = item.area() == null ? Double.NaN : item.area();
+        landlordIds[slot] = item.landlordId() == null ? 0L : item.landlordId();
+        lats[slot] = item.latitude() == null ? Double.NaN : item.latitude();
+        lngs[slot] = item.longitude() == null ? Double.NaN : item.longitude();
+        setFacets(slot, item, true);
+        if (!Double.isNaN(lats[slot]) && !Double.isNaN(lngs[slot])) {
+            cells.computeIfAbsent(cellKey(lats[slot], lngs[slot]), k -> new SlotList()).add(slot);
+        }
+    }
+
+    private void removeFromCell(int slot) {
+        if (Double.isNaN(lats[slot]) || Double.isNaN(lngs[slot])) return;
+        long key = cellKey(lats[slot], lngs[slot]);
+        SlotList list = cells.get(key);
+        if (list == null) return;
+        list.remove(slot);
+        if (list.size == 0) cells.remove(key);
+    }
+
+    private void setFacets(int slot, HouseListItem item, boolean on) {
+        setFacet(FACET_HOUSE_TYPE, item.houseType(), slot, on);
+        setFacet(FACET_DECORATION, item.decoration(), slot, on);
+        setFacet(FACET_STATUS, item.status() == null ? null : item.status().name(), slot, on);
+        setFacet(FACET_RECOMMENDED, item.recommended() == null ? null : item.recommended().toString(), slot, on);
+    }
+
+    private void setFacet(String facet, String value, int slot, boolean on) {
+        if (value == null) return;
+        Map<String, BitSet> values = facetBits.computeIfAbsent(facet, k -> new HashMap<>());
+        if (on) {
+            values.computeIfAbsent(value, k -> new BitSet()).set(slot);
+        } else {
+            BitSet bits = values.get(value);
+            if (bits == null) return;
+            bits.clear(slot);
+            if (bits.isEmpty()) values.remove(value);
+        }
+    }
+
+    private void grow() {
+        int capacity = Math.max(16, rows.length + (rows.length >> 1));
+        rows = Arrays.copyOf(rows, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+        rents = Arrays.copyOf(rents, capacity);
+        areas = Arrays.copyOf(areas, capacity);
+        landlordIds = Arrays.copyOf(landlordIds, capacity);
+        lats = Arrays.copyOf(lats, capacity);
+        lngs = Arrays.copyOf(lngs, capacity);
+    }
+
+    // 丢弃已删除槽位并按 id 重新排列（调用方持有写锁）
+    private void compact() {
+        List<HouseListItem> current = new ArrayList<>(slotById.size());
+        for (int i = live.nextSetBit(0); i >= 0; i = live.nextSetBit(i + 1)) current.add(rows[i]);
+        load(current);
+    }
+
+    // ---- 查询 ----
+
+    private void applyFacets(BitSet bits, Filter f, String excluded) {
+        if (f.houseType() != null && !f.houseType().isBlank()) and(bits, FACET_HOUSE_TYPE, f.houseType(), excluded);
+        if (f.decoration() != null && !f.decoration().isBlank()) and(bits, FACET_DECORATION, f.decoration(), excluded);
+        if (f.status() != null) and(bits, FACET_STATUS, f.status().name(), excluded);
+        if (f.recommended() != null) and(bits, FACET_RECOMMENDED, f.recommended().toString(), excluded);
+    }
+
+    private void and(BitSet bits, String facet, String value, String excluded) {
+        if (facet.equals(excluded)) return;
+        BitSet valueBits = facetBits.getOrDefault(facet, Map.of()).get(value);
+        if (valueBits == null) bits.clear();
+        else bits.and(valueBits);
+    }
+
+    // 先按覆盖的网格缩小候选，再逐个做精确的边界框/半径判断
+    private void applyGeo(BitSet bits, GeoFilter geo) {
+        if (geo == null) return;
+        long latFrom = cell(geo.minLat(), 90), latTo = cell(geo.maxLat(), 90);
+        long lngFrom = cell(geo.minLng(), 180), lngTo = cell(geo.maxLng(), 180);
+        if ((latTo - latFrom + 1) * (lngTo - lngFrom + 1) <= MAX_QUERY_CELLS) {
+            BitSet inCells = new BitSet(slots);
+            for (long la = latFrom; la <= latTo; la++) {
+                for (long ln = lngFrom; ln <= lngTo; ln++) {
+                    SlotList list = cells.get((la << 32) | ln);
+                    if (list == null) continue;
+                    for (int i = 0; i < list.size; i++) inCells.set(list.slots[i]);
+                }
+            }
+            bits.and(inCells);
+        }
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            if (!geo.contains(lats[i], lngs[i])) bits.clear(i);
+        }
+    }
+
+    private static long cellKey(double lat, double lng) {
+        return (cell(lat, 90) << 32) | cell(lng, 180);
+    }
+
+    // 坐标平移到非负区间后按网格边长取整
+    private static long cell(double degrees, double offset) {
+        return (long) Math.floor((degrees + offset) / CELL_DEGREES);
+    }
+
+    private void applyRanges(BitSet bits, Filter f) {
+        boolean rentRange = f.minRent() != null || f.maxRent() != null;
+        boolean areaRange = f.minArea() != null || f.maxArea() != null;
+        if (!rentRange && !areaRange && f.landlordId() == null) return;
+        double minRent = f.minRent() != null ? f.minRent() : Double.NEGATIVE_INFINITY;
+        double maxRent = f.maxRent() != null ? f.maxRent() : Double.POSITIVE_INFINITY;
+        double minArea = f.minArea() != null ? f.minArea() : Double.NEGATIVE_INFINITY;
+        double maxArea = f.maxArea() != null ? f.maxArea() : Double.POSITIVE_INFINITY;
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            if ((rentRange && !(rents[i] >= minRent && rents[i] <= maxRent))
+                    || (areaRange && !(areas[i] >= minArea && areas[i] <= maxArea))
+                    || (f.landlordId() != null && landlordIds[i] != f.landlordId())) {
+                bits.clear(i);
+            }
+        }
+    }
+
+    // 按 Sort 比较槽位，最后按 id 升序保证稳定；空值（NaN）排在最后
+    private Comparator<Integer> comparator(Sort sort) {
+        Comparator<Integer> cmp = null;
+        for (Sort.Order order : sort) {
+            Comparator<Integer> c = switch (order.getProperty()) {
+                case "rent" -> nanLast(rents, order.isAscending());
+                case "area" -> nanLast(areas, order.isAscending());
+                default -> order.isAscending()
+                        ? (a, b) -> Long.compare(ids[a], ids[b])
+                        : (a, b) -> Long.compare(ids[b], ids[a]);
+            };
+            cmp = cmp == null ? c : cmp.thenComparing(c);
+        }
+        Comparator<Integer> byId = (a, b) -> Long.compare(ids[a], ids[b]);
+        return cmp == null ? byId : cmp.thenComparing(byId);
+    }
+
+    private static Comparator<Integer> nanLast(double[] column, boolean ascending) {
+        return (a, b) -> {
+            double x = column[a];
+            double y = column[b];
+            boolean xn = Double.isNaN(x);
+            boolean yn = Double.isNaN(y);
+            if (xn || yn) return xn == yn ? 0 : (xn ? 1 : -1);
+            return ascending ? Double.compare(x, y) : Double.compare(y, x);
+        };
+    }
+
+    // 网格内的槽位列表（无装箱的可增长 int 数组）
+    private static final class SlotList {
+        private int[] slots = new int[4];
+        private int size;
+
+        void add(int slot) {
+            if (size == slots.length) slots = Arrays.copyOf(slots, size * 2);
+            slots[size++] = slot;
+        }
+
+        void remove(int slot) {
+            for (int i = 0; i < size; i++) {
+                if (slots[i] == slot) {
+                    slots[i] = slots[--size];
+                    return;
+                }
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
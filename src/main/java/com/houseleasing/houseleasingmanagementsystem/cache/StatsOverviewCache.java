@@ -0,0 +1,185 @@
+package com.houseleasing.houseleasingmanagementsystem.cache;
+
+import com.houseleasing.houseleasingmanagementsystem.service.StatsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 统计面板概览快照缓存（stale-while-revalidate）
+ * 每个 from/to 组合一个快照；过期或被写操作失效后，先返回旧快照，同时在后台刷新
+ */
+@Component
+public class StatsOverviewCache {
+
+    private static final Logger log = LoggerFactory.getLogger(StatsOverviewCache.class);
+
+    @Autowired
+    private StatsService statsService;
+
+    @Autowired
+    @Qualifier("statsRefreshExecutor")
+    private Executor refreshExecutor;
+
+    @Value("${app.stats.cache-ttl-seconds:30}")
+    private long ttlSeconds;
+
+    @Value("${app.stats.cache-max-entries:64}")
+    private int maxEntries;
+
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    // 正在首次加载的 key：同一 key 的并发冷启动请求等待同一次加载，不重复执行概览查询
+    private final Map<String, CompletableFuture<Map<String, Object>>> loading = new ConcurrentHashMap<>();
+
+    // 每次失效递增；快照记录生成时的代数，代数落后即视为过期
+    private final AtomicLong generation = new AtomicLong();
+
+    private static final class Snapshot {
+        volatile Map<String, Object> payload;
+        volatile long loadedAt;
+        volatile long generation;
+        final AtomicBoolean refreshing = new AtomicBoolean(false);
+
+        Snapshot(Map<String, Object> payload, long loadedAt, long generation) {
+            this.payload = payload;
+            this.loadedAt = loadedAt;
+            this.generation = generation;
+        }
+    }
+
+    public Map<String, Object> get(LocalDate from, LocalDate to) {
+        String key = from + "|" + to;
+        Snapshot snapshot = snapshots.get(key);
+        if (snapshot == null) {
+            return loadCold(key, from, to);
+        }
+        if (isStale(snapshot)) {
+            refreshAsync(snapshot, from, to);
+        }
+        return snapshot.payload;
+    }
+
+    // 首次访问同步加载；只有抢到 loading 占位的请求执行查询，其余请求等待其结果（异常同样传给等待方，不缓存）
+    private Map<String, Object> loadCold(String key, LocalDate from, LocalDate to) {
+        CompletableFuture<Map<String, Object>> mine = new CompletableFuture<>();
+        CompletableFuture<Map<String, Object>> inFlight = loading.putIfAbsent(key, mine);
+        if (inFlight != null) {
+            return await(inFlight);
+        }
+        try {
+            // 占位前另一个请求可能刚好加载完成
+            Snapshot loaded = snapshots.get(key);
+            if (loaded != null) {
+                mine.complete(loaded.payload);
+                return loaded.payload;
+            }
+            long gen = generation.get();
+            Map<String, Object> payload = statsService.overview(from, to);
+            // 部分结果不缓存，下次访问重新加载
+            if (!isPartial(payload)) {
+                if (snapshots.size() >= maxEntries) {
+                    evictOldest();
+                }
+                snapshots.put(key, new Snapshot(payload, System.currentTimeMillis(), gen));
+            }
+            mine.complete(payload);
+            return payload;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, mine);
+        }
+    }
+
+    private static Map<String, Object> await(CompletableFuture<Map<String, Object>> inFlight) {
+        try {
+            return inFlight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            if (e.getCause() instanceof Error error) throw error;
+            throw e;
+        }
+    }
+
+    /**
+     * 使所有快照失效；在事务中调用时等提交后再失效，避免后台刷新读到未提交前的数据
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    generation.incrementAndGet();
+                }
+            });
+        } else {
+            generation.incrementAndGet();
+        }
+    }
+
+    private boolean isStale(Snapshot snapshot) {
+        return snapshot.generation != generation.get()
+                || System.currentTimeMillis() - snapshot.loadedAt > ttlSeconds * 1000;
+    }
+
+    private static boolean isPartial(Map<String, Object> payload) {
+        return Boolean.TRUE.equals(payload.get(StatsService.PARTIAL));
+    }
+
+    private void refreshAsync(Snapshot snapshot, LocalDate from, LocalDate to) {
+        if (!snapshot.refreshing.compareAndSet(false, true)) return;
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    long gen = generation.get();
+                    Map<String, Object> payload = statsService.overview(from, to);
+                    // 部分结果不覆盖完整的旧快照，旧快照保持过期状态，下次访问再刷新
+                    if (isPartial(payload)) {
+                        log.warn("stats overview refresh returned a partial payload, keep serving the previous one");
+                        return;
+                    }
+                    snapshot.payload = payload;
+                    snapshot.loadedAt = System.currentTimeMillis();
+                    snapshot.generation = gen;
+                } catch (Exception e) {
+                    log.warn("refresh stats overview snapshot failed, keep serving the previous one", e);
+                } finally {
+                    snapshot.refreshing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            snapshot.refreshing.set(false);
+        }
+    }
+
+    private void evictOldest() {
+        String oldestKey = null;
+        long oldest = Long.MAX_VALUE;
+        for (Map.Entry<String, Snapshot> e : snapshots.entrySet()) {
+            if (e.getValue().loadedAt < oldest) {
+                oldest = e.getValue().loadedAt;
+                oldestKey = e.getKey();
+            }
+        }
+        if (oldestKey != null) {
+            snapshots.remove(oldestKey);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.houseleasing.houseleasingmanagementsystem.config;
+
+import com.houseleasing.houseleasingmanagementsystem.monitoring.SqlStatementTracker;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 后台任务线程池配置
+ */
+@Configuration
+public class AsyncConfig {
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    /**
+     * 统计面板快照的后台刷新线程池；队列满时直接丢弃（调用方继续返回旧快照）
+     * 虚拟线程模式下池中线程为虚拟线程，池大小和队列上限不变，等待数据库时不占用平台线程
+     */
+    @Bean(name = "statsRefreshExecutor")
+    public Executor statsRefreshExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(16);
+        executor.setThreadNamePrefix("stats-refresh-");
+        if (virtualThreads) {
+            executor.setThreadFactory(Thread.ofVirtual().name("stats-refresh-", 1).factory());
+        }
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 统计面板概览的子查询并行执行线程池；线程数即统计查询最多同时占用的数据库连接数
+     * 队列满时拒绝（AbortPolicy），对应子查询记为不可用，不在请求线程上串行执行
+     * 子查询的 SQL 统计计入发起请求的处理器（X-SQL-* 响应头与 http.server.sql.* 指标）
+     */
+    @Bean(name = "statsQueryExecutor")
+    public Executor statsQueryExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(8);
+        executor.setMaxPoolSize(8);
+        executor.setQueueCapacity(64);
+        executor.setThreadNamePrefix("stats-query-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setTaskDecorator(SqlStatementTracker::propagate);
+        if (virtualThreads) {
+            executor.setThreadFactory(Thread.ofVirtual().name("stats-query-", 1).factory());
+        }
+        executor.initialize();
+        return executor;
+    }
+}
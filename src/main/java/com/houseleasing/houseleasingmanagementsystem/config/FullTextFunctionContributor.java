@@ -0,0 +1,24 @@
+package com.houseleasing.houseleasingmanagementsystem.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * 注册 MySQL 全文检索函数，供 Criteria/JPQL 使用：
+ * house_fulltext(address, description, facilities, :q) -> MATCH(...) AGAINST(:q IN NATURAL LANGUAGE MODE)
+ * 返回相关度得分（未命中为 0），列顺序必须与 houses 表的 FULLTEXT 索引一致
+ * 通过 META-INF/services/org.hibernate.boot.model.FunctionContributor 注册
+ */
+public class FullTextFunctionContributor implements FunctionContributor {
+
+    public static final String HOUSE_FULLTEXT = "house_fulltext";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        functionContributions.getFunctionRegistry().registerPattern(
+                HOUSE_FULLTEXT,
+                "match(?1, ?2, ?3) against (?4 in natural language mode)",
+                functionContributions.getTypeConfiguration().getBasicTypeRegistry().resolve(StandardBasicTypes.DOUBLE));
+    }
+}
@@ -0,0 +1,60 @@
+package com.houseleasing.houseleasingmanagementsystem.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * 启动时为房源创建 FULLTEXT 索引（ngram 分词，支持中文），ddl-auto=update 不会创建全文索引
+ * 索引已存在时跳过；索引不存在或创建失败时 {@link #isAvailable()} 为 false，关键词搜索退化为模糊匹配
+ */
+@Component
+public class HouseFullTextIndexInitializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(HouseFullTextIndexInitializer.class);
+
+    public static final String INDEX_NAME = "ft_houses_text";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.house-search.create-fulltext-index:true}")
+    private boolean createIndex;
+
+    private volatile boolean available;
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndex() {
+        try {
+            Integer existing = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM information_schema.statistics " +
+                    "WHERE table_schema = DATABASE() AND table_name = 'houses' AND index_name = ?",
+                    Integer.class, INDEX_NAME);
+            if (existing != null && existing > 0) {
+                available = true;
+                return;
+            }
+            if (!createIndex) {
+                logger.info("fulltext index {} not found, keyword search falls back to LIKE", INDEX_NAME);
+                return;
+            }
+            long start = System.currentTimeMillis();
+            // 列顺序与 FullTextFunctionContributor 中的 MATCH(...) 一致
+            jdbcTemplate.execute("ALTER TABLE houses ADD FULLTEXT INDEX " + INDEX_NAME +
+                    " (address, description, facilities) WITH PARSER ngram");
+            available = true;
+            logger.info("created fulltext index {} in {} ms", INDEX_NAME, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            logger.warn("fulltext index {} unavailable, keyword search falls back to LIKE: {}", INDEX_NAME, e.getMessage());
+        }
+    }
+}
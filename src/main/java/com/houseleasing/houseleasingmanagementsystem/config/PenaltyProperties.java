@@ -0,0 +1,50 @@
+package com.houseleasing.houseleasingmanagementsystem.config;
+
+import com.houseleasing.houseleasingmanagementsystem.model.enums.PaymentCycle;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 逾期罚金规则配置（app.penalty.*），可按支付周期分别配置
+ * 例：app.penalty.rules.MONTHLY.daily-rate=0.0005；按周期的规则中未配置的字段沿用 defaultRule
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.penalty")
+public class PenaltyProperties {
+
+    private boolean enabled = true;
+
+    // 每块处理的 id 区间大小
+    private int chunkSize = 5000;
+
+    // 未单独配置的支付周期使用默认规则
+    private Rule defaultRule = new Rule(0.0005, 0.1, 3);
+
+    private Map<PaymentCycle, Rule> rules = new EnumMap<>(PaymentCycle.class);
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Rule {
+        private Double dailyRate;    // 每逾期一天按租金金额计收的比例
+        private Double capRate;      // 罚金上限（占租金金额的比例）
+        private Integer graceDays;   // 宽限天数，宽限期内不计罚金
+    }
+
+    // 按周期的规则合并到默认规则上：只覆盖配置了的字段
+    public Rule ruleFor(PaymentCycle cycle) {
+        Rule override = rules.get(cycle);
+        if (override == null) return defaultRule;
+        return new Rule(
+                override.getDailyRate() != null ? override.getDailyRate() : defaultRule.getDailyRate(),
+                override.getCapRate() != null ? override.getCapRate() : defaultRule.getCapRate(),
+                override.getGraceDays() != null ? override.getGraceDays() : defaultRule.getGraceDays());
+    }
+}
@@ -0,0 +1,20 @@
+package com.houseleasing.houseleasingmanagementsystem.config;
+
+import com.houseleasing.houseleasingmanagementsystem.security.InMemoryRateLimitStore;
+import com.houseleasing.houseleasingmanagementsystem.security.RateLimitStore;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Fallback;
+
+/**
+ * 限流令牌桶存储：默认单机内存实现，另外注册的 RateLimitStore 优先
+ */
+@Configuration
+public class RateLimitConfig {
+
+    @Bean
+    @Fallback
+    public RateLimitStore inMemoryRateLimitStore(RateLimitProperties rateLimitProperties) {
+        return new InMemoryRateLimitStore(rateLimitProperties.getMaxTrackedKeys());
+    }
+}
@@ -0,0 +1,49 @@
+package com.houseleasing.houseleasingmanagementsystem.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * /api/* 限流与并发控制配置（app.rate-limit.*）
+ * 每类接口一个预算：每个 token 的令牌桶（rate-per-second / burst），同一 IP 的令牌桶为其 ip-multiplier 倍；
+ * max-concurrent 为该类接口同时处理中的请求上限（0 表示只受全局上限约束）
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // 全部 /api/* 请求同时处理中的上限，超过立即返回 429
+    private int maxConcurrent = 150;
+
+    // 同一 IP 下可能有多个用户（NAT、办公网），IP 桶按 token 桶的倍数放宽
+    private double ipMultiplier = 4;
+
+    // 限流状态最多跟踪的 key 数，写满时淘汰较旧的桶
+    private int maxTrackedKeys = 100_000;
+
+    private Budget defaults = new Budget(20, 50, 0);
+
+    // 各 /search 接口
+    private Budget search = new Budget(5, 20, 40);
+
+    // /api/rent-payments/report*、/api/contracts/import
+    private Budget report = new Budget(0.2, 3, 4);
+
+    // /api/stats/*
+    private Budget stats = new Budget(1, 5, 8);
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Budget {
+        private double ratePerSecond;
+        private int burst;
+        private int maxConcurrent;
+    }
+}
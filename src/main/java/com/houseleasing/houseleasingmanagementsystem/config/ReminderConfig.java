@@ -0,0 +1,22 @@
+package com.houseleasing.houseleasingmanagementsystem.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.houseleasing.houseleasingmanagementsystem.service.ReminderSender;
+import com.houseleasing.houseleasingmanagementsystem.service.impl.OutboxReminderSender;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Fallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * 提醒发送通道：默认写入 reminder_outbox 表，另外注册的 ReminderSender 优先
+ */
+@Configuration
+public class ReminderConfig {
+
+    @Bean
+    @Fallback
+    public ReminderSender outboxReminderSender(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        return new OutboxReminderSender(jdbcTemplate, objectMapper);
+    }
+}
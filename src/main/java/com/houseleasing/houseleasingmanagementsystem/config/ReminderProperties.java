@@ -0,0 +1,33 @@
+package com.houseleasing.houseleasingmanagementsystem.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 租金批量提醒配置（app.reminder.*）
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.reminder")
+public class ReminderProperties {
+
+    private boolean enabled = true;
+
+    // 应付日期在今天之后多少天内的待付记录也会提醒（已逾期的一律提醒）
+    private int dueSoonDays = 3;
+
+    // 每批读取的租金记录数，一批处理完才读下一批
+    private int batchSize = 500;
+
+    // 同一条记录两次提醒的最小间隔
+    private Duration resendAfter = Duration.ofHours(24);
+
+    // 发送限速：每秒最多发送的租客消息数，以及允许的突发量
+    private double ratePerSecond = 50;
+    private int burst = 100;
+
+    private Duration lockAtMost = Duration.ofHours(1);
+}
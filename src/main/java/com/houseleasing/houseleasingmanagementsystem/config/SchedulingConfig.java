@@ -0,0 +1,12 @@
+package com.houseleasing.houseleasingmanagementsystem.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 启用定时任务（逾期清扫等），多节点部署时由 SchedulerLockService 保证同一任务只在一个节点执行
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
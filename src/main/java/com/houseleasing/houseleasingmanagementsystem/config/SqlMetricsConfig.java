@@ -0,0 +1,48 @@
+package com.houseleasing.houseleasingmanagementsystem.config;
+
+import com.houseleasing.houseleasingmanagementsystem.monitoring.InstrumentedDataSource;
+import com.houseleasing.houseleasingmanagementsystem.monitoring.SlowQueryLog;
+import com.houseleasing.houseleasingmanagementsystem.monitoring.SqlMetricsInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+/**
+ * SQL 统计配置：包装数据源，并按处理器记录每个请求的语句数 / 行数 / JDBC 耗时
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.sql-metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlMetricsConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * 静态方法注册，避免 BeanPostProcessor 提前初始化本配置类
+     */
+    @Bean
+    public static BeanPostProcessor sqlMetricsDataSourcePostProcessor(ObjectProvider<SlowQueryLog> slowQueryLog) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource) {
+                    return InstrumentedDataSource.wrap(dataSource, slowQueryLog);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new SqlMetricsInterceptor(meterRegistry)).addPathPatterns("/api/**");
+    }
+}
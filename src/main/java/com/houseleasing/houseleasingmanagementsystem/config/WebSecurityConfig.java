@@ -1,5 +1,6 @@
 package com.houseleasing.houseleasingmanagementsystem.config;
 
+import com.houseleasing.houseleasingmanagementsystem.security.RateLimitFilter;
 import com.houseleasing.houseleasingmanagementsystem.security.TokenAuthenticationFilter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
@@ -10,7 +11,7 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.filter.CorsFilter;
 
 /**
- * Web配置，注册Token验证过滤器和CORS配置
+ * Web配置，注册Token验证过滤器、限流过滤器和CORS配置
  */
 @Configuration
 public class WebSecurityConfig {
@@ -18,6 +19,9 @@ public class WebSecurityConfig {
     @Autowired
     private TokenAuthenticationFilter tokenAuthenticationFilter;
 
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
     @Bean
     public FilterRegistrationBean<TokenAuthenticationFilter> authenticationFilter() {
         FilterRegistrationBean<TokenAuthenticationFilter> registrationBean = new FilterRegistrationBean<>();
@@ -27,6 +31,18 @@ public class WebSecurityConfig {
         return registrationBean;
     }
 
+    /**
+     * 限流与并发控制，在 Token 验证之后执行，被拒绝的认证请求不消耗限流额度
+     */
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration() {
+        FilterRegistrationBean<RateLimitFilter> registrationBean = new FilterRegistrationBean<>();
+        registrationBean.setFilter(rateLimitFilter);
+        registrationBean.addUrlPatterns("/api/*");
+        registrationBean.setOrder(3);
+        return registrationBean;
+    }
+
     /**
      * CORS 跨域配置
      * 允许前端（localhost:5173）访问后端 API
@@ -2,6 +2,7 @@
 
 import com.houseleasing.houseleasingmanagementsystem.model.User;
 import com.houseleasing.houseleasingmanagementsystem.repository.UserRepository;
+import com.houseleasing.houseleasingmanagementsystem.service.RevenueRollupService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -17,6 +18,9 @@ public class AdminController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private RevenueRollupService revenueRollupService;
+
     @GetMapping("/roles")
     public ResponseEntity<List<String>> roles() {
         // provide a simple role list
@@ -43,6 +47,18 @@ public class AdminController {
         return ResponseEntity.ok(r);
     }
 
+    // 从租金明细全量重建月度收入汇总表
+    @PostMapping("/revenue-rollup/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildRevenueRollup() {
+        long start = System.currentTimeMillis();
+        int rows = revenueRollupService.rebuild();
+        Map<String, Object> r = new HashMap<>();
+        r.put("rows", rows);
+        r.put("elapsedMs", System.currentTimeMillis() - start);
+        r.put("timestamp", System.currentTimeMillis());
+        return ResponseEntity.ok(r);
+    }
+
     @PostMapping("/restore")
     public ResponseEntity<?> restore(@RequestBody Map<String, Object> payload) {
         // in real app you would validate and restore; here just echo
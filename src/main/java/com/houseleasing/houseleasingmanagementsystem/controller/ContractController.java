@@ -1,9 +1,12 @@
 package com.houseleasing.houseleasingmanagementsystem.controller;
 
+import com.houseleasing.houseleasingmanagementsystem.dto.ContractImportResult;
 import com.houseleasing.houseleasingmanagementsystem.model.Contract;
 import com.houseleasing.houseleasingmanagementsystem.model.House;
 import com.houseleasing.houseleasingmanagementsystem.model.User;
 import com.houseleasing.houseleasingmanagementsystem.model.enums.ContractStatus;
+import com.houseleasing.houseleasingmanagementsystem.repository.projection.ContractListItem;
+import com.houseleasing.houseleasingmanagementsystem.service.ContractImportService;
 import com.houseleasing.houseleasingmanagementsystem.service.ContractService;
 import com.houseleasing.houseleasingmanagementsystem.service.HouseService;
 import com.houseleasing.houseleasingmanagementsystem.service.UserService;
@@ -14,7 +17,10 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDate;
 
 @RestController
@@ -30,6 +36,9 @@ public class ContractController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private ContractImportService contractImportService;
+
     // 生成合同模板所需数据：根据传入 houseId/landlordId/tenantId 可返回基础信息（前端自行渲染模板）
     @GetMapping("/template-data")
     public ResponseEntity<Contract> getTemplateData(
@@ -72,6 +81,25 @@ public class ContractController {
         return ResponseEntity.ok(saved);
     }
 
+    // 批量导入合同（CSV 或 JSON Lines 文件），同时生成租金计划；单行错误不影响其它行
+    @PostMapping("/import")
+    public ResponseEntity<?> importContracts(@RequestParam("file") MultipartFile file,
+                                             @RequestParam(required = false) String format) {
+        String fmt = format;
+        if (fmt == null || fmt.isBlank()) {
+            String name = file.getOriginalFilename();
+            fmt = name != null && name.toLowerCase().endsWith(".csv") ? "csv" : "jsonl";
+        }
+        try (InputStream in = file.getInputStream()) {
+            ContractImportResult result = contractImportService.importContracts(in, fmt);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body("读取导入文件失败: " + e.getMessage());
+        }
+    }
+
     // 更新合同
     @PutMapping("/{id}")
     public ResponseEntity<?> update(@PathVariable Long id, @Valid @RequestBody Contract contract) {
@@ -110,8 +138,9 @@ public class ContractController {
     }
 
     // 合同查询（分页）
+    // keyset=true 或携带 cursor 时使用游标分页（按 id 升序，不返回总数）
     @GetMapping("/search")
-    public ResponseEntity<Page<Contract>> search(
+    public ResponseEntity<?> search(
             @RequestParam(required = false) String contractNo,
             @RequestParam(required = false) Long houseId,
             @RequestParam(required = false) Long landlordId,
@@ -122,10 +151,20 @@ public class ContractController {
             @RequestParam(required = false) LocalDate endDateFrom,
             @RequestParam(required = false) LocalDate endDateTo,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean keyset,
+            @RequestParam(required = false) String cursor
     ) {
+        if (keyset || cursor != null) {
+            try {
+                return ResponseEntity.ok(contractService.searchContractsKeyset(contractNo, houseId, landlordId,
+                        tenantId, status, startDateFrom, startDateTo, endDateFrom, endDateTo, cursor, size));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+        }
         Pageable pageable = PageRequest.of(page, size);
-        Page<Contract> res = contractService.searchContracts(contractNo, houseId, landlordId, tenantId,
+        Page<ContractListItem> res = contractService.searchContracts(contractNo, houseId, landlordId, tenantId,
                 status, startDateFrom, startDateTo, endDateFrom, endDateTo, pageable);
         return ResponseEntity.ok(res);
     }
@@ -1,19 +1,26 @@
 package com.houseleasing.houseleasingmanagementsystem.controller;
 
+import com.houseleasing.houseleasingmanagementsystem.dto.GeoFilter;
+import com.houseleasing.houseleasingmanagementsystem.dto.GeoPoint;
 import com.houseleasing.houseleasingmanagementsystem.dto.HouseDTO;
 import com.houseleasing.houseleasingmanagementsystem.model.House;
 import com.houseleasing.houseleasingmanagementsystem.model.User;
 import com.houseleasing.houseleasingmanagementsystem.model.enums.HouseStatus;
+import com.houseleasing.houseleasingmanagementsystem.repository.projection.HouseListItem;
+import com.houseleasing.houseleasingmanagementsystem.service.GeocodingService;
 import com.houseleasing.houseleasingmanagementsystem.service.HouseService;
 import com.houseleasing.houseleasingmanagementsystem.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import jakarta.validation.Valid;
 
+import java.util.Map;
+
 
 @RestController
 @RequestMapping("/api/houses")
@@ -25,6 +32,9 @@ public class HouseController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private GeocodingService geocodingService;
+
     private House convertToEntity(HouseDTO houseDTO) {
         House house = new House();
         house.setId(houseDTO.getId());
@@ -37,12 +47,18 @@ public class HouseController {
         house.setStatus(houseDTO.getStatus());
         house.setDescription(houseDTO.getDescription());
         house.setRecommended(houseDTO.getRecommended());
+        house.setLatitude(houseDTO.getLatitude());
+        house.setLongitude(houseDTO.getLongitude());
         return house;
     }
 
     // 搜索房源
+    // q 为关键词：在地址、描述、配套设施中全文检索，按相关度排序，可与其它筛选条件组合
+    // keyset=true 或携带 cursor 时使用游标分页：按 id 升序，不返回总数，nextCursor 用于请求下一页（不支持 q）
+    // 地理筛选：lat+lng+radiusKm（或 near=地名+radiusKm）按半径，minLat/maxLat/minLng/maxLng 按边界框，结果按距离排序
     @GetMapping("/search")
-    public ResponseEntity<Page<House>> searchHouses(
+    public ResponseEntity<?> searchHouses(
+            @RequestParam(required = false) String q,
             @RequestParam(required = false) String address,
             @RequestParam(required = false) String houseType,
             @RequestParam(required = false) Double minArea,
@@ -55,14 +71,94 @@ public class HouseController {
             @RequestParam(required = false) Boolean recommended,
             @RequestParam(required = false) Long landlordId,
             @RequestParam(required = false) String landlordName,
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lng,
+            @RequestParam(required = false) String near,
+            @RequestParam(required = false) Double radiusKm,
+            @RequestParam(required = false) Double minLat,
+            @RequestParam(required = false) Double maxLat,
+            @RequestParam(required = false) Double minLng,
+            @RequestParam(required = false) Double maxLng,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean keyset,
+            @RequestParam(required = false) String cursor) {
+        GeoFilter geo;
+        try {
+            geo = geoFilter(lat, lng, near, radiusKm, minLat, maxLat, minLng, maxLng);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        if (keyset || cursor != null) {
+            if (q != null && !q.isBlank()) {
+                return ResponseEntity.badRequest().body("关键词搜索按相关度排序，不支持游标分页");
+            }
+            if (geo != null) {
+                return ResponseEntity.badRequest().body("地理搜索按距离排序，不支持游标分页");
+            }
+            try {
+                return ResponseEntity.ok(houseService.searchHousesKeyset(address, houseType, minArea, maxArea,
+                        minRent, maxRent, decoration, facilities, status, recommended, landlordId, landlordName,
+                        cursor, size));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+        }
         Pageable pageable = PageRequest.of(page, size);
-        Page<House> houses = houseService.searchHouses(address, houseType, minArea, maxArea, minRent, maxRent, decoration, facilities, status, recommended, landlordId, landlordName, pageable);
+        Page<HouseListItem> houses = houseService.searchHouses(q, address, houseType, minArea, maxArea, minRent, maxRent, decoration, facilities, status, recommended, landlordId, landlordName, geo, pageable);
         return ResponseEntity.ok(houses);
     }
 
 
+    // 搜索分面计数：每个分面的计数应用除自身以外的全部条件
+    @GetMapping("/search/facets")
+    public ResponseEntity<?> searchFacets(
+            @RequestParam(required = false) String houseType,
+            @RequestParam(required = false) Double minArea,
+            @RequestParam(required = false) Double maxArea,
+            @RequestParam(required = false) Double minRent,
+            @RequestParam(required = false) Double maxRent,
+            @RequestParam(required = false) String decoration,
+            @RequestParam(required = false) HouseStatus status,
+            @RequestParam(required = false) Boolean recommended,
+            @RequestParam(required = false) Long landlordId,
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lng,
+            @RequestParam(required = false) String near,
+            @RequestParam(required = false) Double radiusKm,
+            @RequestParam(required = false) Double minLat,
+            @RequestParam(required = false) Double maxLat,
+            @RequestParam(required = false) Double minLng,
+            @RequestParam(required = false) Double maxLng) {
+        GeoFilter geo;
+        try {
+            geo = geoFilter(lat, lng, near, radiusKm, minLat, maxLat, minLng, maxLng);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        Map<String, Map<String, Integer>> facets = houseService.searchFacets(houseType, minArea, maxArea,
+                minRent, maxRent, decoration, status, recommended, landlordId, geo);
+        if (facets == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("房源索引尚未加载完成");
+        }
+        return ResponseEntity.ok(facets);
+    }
+
+    // near 为地名（如地铁站），解析为中心点后与 lat/lng 等价
+    private GeoFilter geoFilter(Double lat, Double lng, String near, Double radiusKm,
+                                Double minLat, Double maxLat, Double minLng, Double maxLng) {
+        if (near != null && !near.isBlank()) {
+            if (lat != null || lng != null) {
+                throw new IllegalArgumentException("near 与 lat/lng 不能同时使用");
+            }
+            GeoPoint center = geocodingService.geocode(near)
+                    .orElseThrow(() -> new IllegalArgumentException("无法识别的位置: " + near));
+            lat = center.latitude();
+            lng = center.longitude();
+        }
+        return GeoFilter.of(lat, lng, radiusKm, minLat, maxLat, minLng, maxLng);
+    }
+
     // 根据ID获取房源
     @GetMapping("/{id}")
     public ResponseEntity<House> getHouseById(@PathVariable Long id) {
@@ -5,6 +5,7 @@ import com.houseleasing.houseleasingmanagementsystem.model.Contract;
 import com.houseleasing.houseleasingmanagementsystem.model.House;
 import com.houseleasing.houseleasingmanagementsystem.model.MaintenanceRequest;
 import com.houseleasing.houseleasingmanagementsystem.model.enums.MaintenanceStatus;
+import com.houseleasing.houseleasingmanagementsystem.repository.projection.MaintenanceRequestListItem;
 import com.houseleasing.houseleasingmanagementsystem.repository.ContractRepository;
 import com.houseleasing.houseleasingmanagementsystem.service.HouseService;
 import com.houseleasing.houseleasingmanagementsystem.service.MaintenanceRequestService;
@@ -102,11 +103,11 @@ public class MaintenanceRequestController {
      * 获取所有维修申请（分页，按创建时间倒序）
      */
     @GetMapping
-    public ResponseEntity<Page<MaintenanceRequest>> getAllMaintenanceRequests(
+    public ResponseEntity<Page<MaintenanceRequestListItem>> getAllMaintenanceRequests(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
-        Page<MaintenanceRequest> requests = maintenanceRequestService.getAllMaintenanceRequests(pageable);
+        Page<MaintenanceRequestListItem> requests = maintenanceRequestService.getAllMaintenanceRequests(pageable);
         return ResponseEntity.ok(requests);
     }
 
@@ -114,12 +115,12 @@ public class MaintenanceRequestController {
      * 根据租客ID获取维修申请（租客查看自己的申请记录）
      */
     @GetMapping("/tenant/{tenantId}")
-    public ResponseEntity<Page<MaintenanceRequest>> getMaintenanceRequestsByTenant(
+    public ResponseEntity<Page<MaintenanceRequestListItem>> getMaintenanceRequestsByTenant(
             @PathVariable Long tenantId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
-        Page<MaintenanceRequest> requests = maintenanceRequestService.getMaintenanceRequestsByTenantId(tenantId, pageable);
+        Page<MaintenanceRequestListItem> requests = maintenanceRequestService.getMaintenanceRequestsByTenantId(tenantId, pageable);
         return ResponseEntity.ok(requests);
     }
 
@@ -127,20 +128,21 @@ public class MaintenanceRequestController {
      * 根据状态获取维修申请（查看待处理申请列表）
      */
     @GetMapping("/status/{status}")
-    public ResponseEntity<Page<MaintenanceRequest>> getMaintenanceRequestsByStatus(
+    public ResponseEntity<Page<MaintenanceRequestListItem>> getMaintenanceRequestsByStatus(
             @PathVariable MaintenanceStatus status,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
-        Page<MaintenanceRequest> requests = maintenanceRequestService.getMaintenanceRequestsByStatus(status, pageable);
+        Page<MaintenanceRequestListItem> requests = maintenanceRequestService.getMaintenanceRequestsByStatus(status, pageable);
         return ResponseEntity.ok(requests);
     }
 
     /**
      * 搜索维修申请（支持多条件筛选：租客ID、房源ID、状态、时间范围、描述模糊搜索）
+     * keyset=true 或携带 cursor 时使用游标分页（按创建时间倒序，不返回总数）
      */
     @GetMapping("/search")
-    public ResponseEntity<Page<MaintenanceRequest>> searchMaintenanceRequests(
+    public ResponseEntity<?> searchMaintenanceRequests(
             @RequestParam(required = false) Long tenantId,
             @RequestParam(required = false) Long houseId,
             @RequestParam(required = false) MaintenanceStatus status,
@@ -148,9 +150,19 @@ public class MaintenanceRequestController {
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean keyset,
+            @RequestParam(required = false) String cursor) {
+        if (keyset || cursor != null) {
+            try {
+                return ResponseEntity.ok(maintenanceRequestService.searchMaintenanceRequestsKeyset(
+                        tenantId, houseId, status, description, startDate, endDate, cursor, size));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+        }
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
-        Page<MaintenanceRequest> requests = maintenanceRequestService.searchMaintenanceRequests(
+        Page<MaintenanceRequestListItem> requests = maintenanceRequestService.searchMaintenanceRequests(
                 tenantId, houseId, status, description, startDate, endDate, pageable);
         return ResponseEntity.ok(requests);
     }
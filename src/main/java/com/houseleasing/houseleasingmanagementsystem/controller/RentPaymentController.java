@@ -2,19 +2,32 @@ package com.houseleasing.houseleasingmanagementsystem.controller;
 
 import com.houseleasing.houseleasingmanagementsystem.model.Contract;
 import com.houseleasing.houseleasingmanagementsystem.model.RentPayment;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.ExportFormat;
 import com.houseleasing.houseleasingmanagementsystem.model.enums.PaymentStatus;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.ReportGroupBy;
+import com.houseleasing.houseleasingmanagementsystem.repository.projection.RentPaymentListItem;
 import com.houseleasing.houseleasingmanagementsystem.service.ContractService;
+import com.houseleasing.houseleasingmanagementsystem.service.PenaltyService;
+import com.houseleasing.houseleasingmanagementsystem.service.ReminderService;
+import com.houseleasing.houseleasingmanagementsystem.service.RentPaymentExportService;
 import com.houseleasing.houseleasingmanagementsystem.service.RentPaymentService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/rent-payments")
@@ -26,6 +39,15 @@ public class RentPaymentController {
     @Autowired
     private ContractService contractService;
 
+    @Autowired
+    private PenaltyService penaltyService;
+
+    @Autowired
+    private ReminderService reminderService;
+
+    @Autowired
+    private RentPaymentExportService rentPaymentExportService;
+
     // 创建租金支付记录
     @PostMapping
     public ResponseEntity<?> create(@Valid @RequestBody RentPayment rentPayment) {
@@ -70,6 +92,19 @@ public class RentPaymentController {
         return rp != null ? ResponseEntity.ok(rp) : ResponseEntity.notFound().build();
     }
 
+    // 按规则为所有未处理的逾期记录批量计算罚金（与定时任务相同，可重复执行）
+    @PostMapping("/penalties/apply")
+    public ResponseEntity<Map<String, Object>> applyPenalties() {
+        int processed = penaltyService.applyPenalties(LocalDate.now());
+        return ResponseEntity.ok(Map.of("processed", processed));
+    }
+
+    // 为即将到期和已逾期的租金批量发送提醒（与定时任务相同）
+    @PostMapping("/reminders/dispatch")
+    public ResponseEntity<Map<String, Object>> dispatchReminders() {
+        return ResponseEntity.ok(reminderService.dispatch(LocalDate.now()));
+    }
+
     // 删除
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable Long id) {
@@ -78,31 +113,98 @@ public class RentPaymentController {
     }
 
     // 查询（分页）
+    // keyset=true 或携带 cursor 时使用游标分页（按应付日期、id 升序，不返回总数）
     @GetMapping("/search")
-    public ResponseEntity<Page<RentPayment>> search(@RequestParam(required = false) Long contractId,
-                                                    @RequestParam(required = false) PaymentStatus status,
-                                                    @RequestParam(required = false) LocalDate dueFrom,
-                                                    @RequestParam(required = false) LocalDate dueTo,
-                                                    @RequestParam(defaultValue = "0") int page,
-                                                    @RequestParam(defaultValue = "10") int size) {
+    public ResponseEntity<?> search(@RequestParam(required = false) Long contractId,
+                                    @RequestParam(required = false) PaymentStatus status,
+                                    @RequestParam(required = false) LocalDate dueFrom,
+                                    @RequestParam(required = false) LocalDate dueTo,
+                                    @RequestParam(defaultValue = "0") int page,
+                                    @RequestParam(defaultValue = "10") int size,
+                                    @RequestParam(defaultValue = "false") boolean keyset,
+                                    @RequestParam(required = false) String cursor) {
+        if (keyset || cursor != null) {
+            try {
+                return ResponseEntity.ok(rentPaymentService.searchKeyset(contractId, status, dueFrom, dueTo, cursor, size));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+        }
         Pageable pageable = PageRequest.of(page, size);
-        Page<RentPayment> res = rentPaymentService.search(contractId, status, dueFrom, dueTo, pageable);
+        Page<RentPaymentListItem> res = rentPaymentService.search(contractId, status, dueFrom, dueTo, pageable);
         return ResponseEntity.ok(res);
     }
 
     // 报表：日期范围列表（不分页，前端自行统计）
-    @GetMapping("/report")
-    public ResponseEntity<List<RentPayment>> report(@RequestParam LocalDate from,
-                                                    @RequestParam LocalDate to) {
-        List<RentPayment> list = rentPaymentService.listByDueDateBetween(from, to);
-        return ResponseEntity.ok(list);
+    @GetMapping(value = "/report", params = "!format")
+    public ResponseEntity<List<RentPaymentListItem>> report(@RequestParam LocalDate from,
+                                                            @RequestParam LocalDate to) {
+        return ResponseEntity.ok(rentPaymentService.listByDueDateBetween(from, to));
+    }
+
+    // 报表流式导出：format=csv|ndjson，逐行写出不占用堆内存；gzip=true 时压缩输出
+    // 返回类型必须声明为 ResponseEntity<StreamingResponseBody>，否则不会按异步流式响应处理
+    @GetMapping(value = "/report", params = "format")
+    public ResponseEntity<StreamingResponseBody> exportReport(@RequestParam LocalDate from,
+                                                              @RequestParam LocalDate to,
+                                                              @RequestParam(name = "format") String formatParam,
+                                                              @RequestParam(defaultValue = "false") boolean gzip) {
+        ExportFormat format;
+        try {
+            format = ExportFormat.valueOf(formatParam.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return badRequest("format 只支持 csv 或 ndjson");
+        }
+        if (from.isAfter(to)) {
+            return badRequest("from 不能晚于 to");
+        }
+        StreamingResponseBody body = out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, 64 * 1024) : out;
+            rentPaymentExportService.export(from, to, format, target);
+            if (target instanceof GZIPOutputStream gz) gz.finish();
+        };
+        String ext = format == ExportFormat.CSV ? "csv" : "ndjson";
+        MediaType type = format == ExportFormat.CSV
+                ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                : new MediaType("application", "x-ndjson", StandardCharsets.UTF_8);
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(type)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"rent-payments-" + from + "-" + to + "." + ext + "\"");
+        if (gzip) builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        return builder.body(body);
+    }
+
+    private static ResponseEntity<StreamingResponseBody> badRequest(String message) {
+        byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+        return ResponseEntity.badRequest()
+                .contentType(new MediaType("text", "plain", StandardCharsets.UTF_8))
+                .body(out -> out.write(bytes));
+    }
+
+    // 报表汇总：groupBy=month|landlord|house|status|method，返回各组应收、实收、罚金和收缴率
+    @GetMapping("/report/summary")
+    public ResponseEntity<?> reportSummary(@RequestParam LocalDate from,
+                                           @RequestParam LocalDate to,
+                                           @RequestParam(defaultValue = "month") String groupBy) {
+        ReportGroupBy dimension;
+        try {
+            dimension = ReportGroupBy.valueOf(groupBy.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("groupBy 只支持 month、landlord、house、status、method");
+        }
+        try {
+            return ResponseEntity.ok(rentPaymentService.summarize(from, to, dimension));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     // 逾期/即将逾期列表（不分页）
     @GetMapping("/overdue")
-    public ResponseEntity<List<RentPayment>> overdue(@RequestParam(required = false) LocalDate beforeDate) {
+    public ResponseEntity<List<RentPaymentListItem>> overdue(@RequestParam(required = false) LocalDate beforeDate) {
         LocalDate target = beforeDate != null ? beforeDate : LocalDate.now();
-        List<RentPayment> list = rentPaymentService.listOverduePending(target);
+        List<RentPaymentListItem> list = rentPaymentService.listOverduePending(target);
         return ResponseEntity.ok(list);
     }
 
@@ -7,6 +7,7 @@ import com.houseleasing.houseleasingmanagementsystem.model.User;
 import com.houseleasing.houseleasingmanagementsystem.model.enums.ReviewType;
 import com.houseleasing.houseleasingmanagementsystem.repository.ContractRepository;
 import com.houseleasing.houseleasingmanagementsystem.repository.UserRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.projection.ReviewListItem;
 import com.houseleasing.houseleasingmanagementsystem.service.ReviewService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -92,9 +93,10 @@ public class ReviewController {
      * 获取所有评价（分页）
      * GET /api/reviews?page=0&size=10&sort=createdAt,desc
      * 支持可选过滤参数：reviewerId, revieweeId, reviewType, contractId, minRating
+     * keyset=true 或携带 cursor 时使用游标分页（过滤条件可组合，不返回总数）
      */
     @GetMapping
-    public ResponseEntity<Page<Review>> getAllReviews(
+    public ResponseEntity<?> getAllReviews(
             @RequestParam(required = false) Long reviewerId,
             @RequestParam(required = false) Long revieweeId,
             @RequestParam(required = false) Long contractId,
@@ -102,14 +104,25 @@ public class ReviewController {
             @RequestParam(required = false) Integer minRating,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(defaultValue = "createdAt,desc") String[] sort) {
+            @RequestParam(defaultValue = "createdAt,desc") String[] sort,
+            @RequestParam(defaultValue = "false") boolean keyset,
+            @RequestParam(required = false) String cursor) {
 
         // 处理排序参数
         Sort.Direction direction = sort.length > 1 && sort[1].equalsIgnoreCase("asc")
                 ? Sort.Direction.ASC : Sort.Direction.DESC;
+
+        if (keyset || cursor != null) {
+            try {
+                return ResponseEntity.ok(reviewService.searchReviewsKeyset(reviewerId, revieweeId, contractId,
+                        reviewType, minRating, sort[0], direction, cursor, size));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+        }
         Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sort[0]));
 
-        Page<Review> reviews;
+        Page<ReviewListItem> reviews;
 
         // 根据提供的参数进行过滤
         if (reviewerId != null) {
@@ -169,12 +182,12 @@ public class ReviewController {
      * GET /api/reviews/contract/{contractId}
      */
     @GetMapping("/contract/{contractId}")
-    public ResponseEntity<Page<Review>> getReviewsByContract(
+    public ResponseEntity<Page<ReviewListItem>> getReviewsByContract(
             @PathVariable Long contractId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
-        Page<Review> reviews = reviewService.getReviewsByContractId(contractId, pageable);
+        Page<ReviewListItem> reviews = reviewService.getReviewsByContractId(contractId, pageable);
         return ResponseEntity.ok(reviews);
     }
 
@@ -183,8 +196,8 @@ public class ReviewController {
      * GET /api/reviews/contract/{contractId}/all
      */
     @GetMapping("/contract/{contractId}/all")
-    public ResponseEntity<List<Review>> getAllReviewsByContract(@PathVariable Long contractId) {
-        List<Review> reviews = reviewService.getReviewsByContract(contractId);
+    public ResponseEntity<List<ReviewListItem>> getAllReviewsByContract(@PathVariable Long contractId) {
+        List<ReviewListItem> reviews = reviewService.getReviewsByContract(contractId);
         return ResponseEntity.ok(reviews);
     }
 
@@ -193,12 +206,12 @@ public class ReviewController {
      * GET /api/reviews/reviewer/{reviewerId}
      */
     @GetMapping("/reviewer/{reviewerId}")
-    public ResponseEntity<Page<Review>> getReviewsByReviewer(
+    public ResponseEntity<Page<ReviewListItem>> getReviewsByReviewer(
             @PathVariable Long reviewerId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
-        Page<Review> reviews = reviewService.getReviewsByReviewerId(reviewerId, pageable);
+        Page<ReviewListItem> reviews = reviewService.getReviewsByReviewerId(reviewerId, pageable);
         return ResponseEntity.ok(reviews);
     }
 
@@ -207,12 +220,12 @@ public class ReviewController {
      * GET /api/reviews/reviewee/{revieweeId}
      */
     @GetMapping("/reviewee/{revieweeId}")
-    public ResponseEntity<Page<Review>> getReviewsByReviewee(
+    public ResponseEntity<Page<ReviewListItem>> getReviewsByReviewee(
             @PathVariable Long revieweeId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
-        Page<Review> reviews = reviewService.getReviewsByRevieweeId(revieweeId, pageable);
+        Page<ReviewListItem> reviews = reviewService.getReviewsByRevieweeId(revieweeId, pageable);
         return ResponseEntity.ok(reviews);
     }
 
@@ -221,12 +234,12 @@ public class ReviewController {
      * GET /api/reviews/type/{reviewType}
      */
     @GetMapping("/type/{reviewType}")
-    public ResponseEntity<Page<Review>> getReviewsByType(
+    public ResponseEntity<Page<ReviewListItem>> getReviewsByType(
             @PathVariable ReviewType reviewType,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
-        Page<Review> reviews = reviewService.getReviewsByType(reviewType, pageable);
+        Page<ReviewListItem> reviews = reviewService.getReviewsByType(reviewType, pageable);
         return ResponseEntity.ok(reviews);
     }
 
@@ -252,12 +265,12 @@ public class ReviewController {
      * GET /api/reviews/high-rating?minRating=4
      */
     @GetMapping("/high-rating")
-    public ResponseEntity<Page<Review>> getHighRatingReviews(
+    public ResponseEntity<Page<ReviewListItem>> getHighRatingReviews(
             @RequestParam(defaultValue = "4") Integer minRating,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "rating"));
-        Page<Review> reviews = reviewService.getReviewsByMinRating(minRating, pageable);
+        Page<ReviewListItem> reviews = reviewService.getReviewsByMinRating(minRating, pageable);
         return ResponseEntity.ok(reviews);
     }
 
@@ -2,6 +2,7 @@ package com.houseleasing.houseleasingmanagementsystem.controller;
 
 import com.houseleasing.houseleasingmanagementsystem.dto.UserDTO;
 import com.houseleasing.houseleasingmanagementsystem.model.User;
+import com.houseleasing.houseleasingmanagementsystem.repository.projection.UserListItem;
 import com.houseleasing.houseleasingmanagementsystem.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -31,11 +32,11 @@ public class UserController {
 
     // 分页获取所有用户
     @GetMapping
-    public ResponseEntity<Page<User>> getAllUsers(
+    public ResponseEntity<Page<UserListItem>> getAllUsers(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         Pageable pageable = PageRequest.of(page, size);
-        Page<User> users = userService.getAllUsers(pageable);
+        Page<UserListItem> users = userService.getAllUsers(pageable);
         return ResponseEntity.ok(users);
     }
 
@@ -93,13 +94,23 @@ public class UserController {
     }
 
     // 分页模糊查询（按姓名关键字）
+    // keyset=true 或携带 cursor 时使用游标分页（按 id 升序，不返回总数）
     @GetMapping("/search")
-    public ResponseEntity<Page<User>> searchByRealName(
+    public ResponseEntity<?> searchByRealName(
             @RequestParam(required = false) String realName,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean keyset,
+            @RequestParam(required = false) String cursor) {
+        if (keyset || cursor != null) {
+            try {
+                return ResponseEntity.ok(userService.searchByRealNameKeyset(realName, cursor, size));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+        }
         Pageable pageable = PageRequest.of(page, size);
-        Page<User> users = userService.searchByRealName(realName, pageable);
+        Page<UserListItem> users = userService.searchByRealName(realName, pageable);
         return ResponseEntity.ok(users);
     }
 
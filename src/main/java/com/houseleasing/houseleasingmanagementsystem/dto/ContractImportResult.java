@@ -0,0 +1,71 @@
+package com.houseleasing.houseleasingmanagementsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 合同批量导入结果：成功/失败数量以及逐行错误（最多保留 MAX_ERRORS 条）
+ */
+@Data
+@NoArgsConstructor
+public class ContractImportResult {
+    public static final int MAX_ERRORS = 1000;
+
+    private long totalRows;
+    private long imported;
+    private long failed;
+    private long rentPaymentsCreated;
+    private boolean errorsTruncated;
+    private List<RowError> errors = new ArrayList<>();
+
+    /**
+     * 行错误码；对外只返回固定的错误码和说明，不返回底层异常信息
+     */
+    public enum ErrorCode {
+        PARSE_ERROR("无法解析该行（日期格式 yyyy-MM-dd，数字、枚举取值需合法）"),
+        MISSING_CONTRACT_NO("contractNo 不能为空"),
+        CONTRACT_NO_EXISTS("合同编号已存在"),
+        DUPLICATE_IN_FILE("文件中合同编号重复"),
+        HOUSE_NOT_FOUND("house 不存在"),
+        LANDLORD_NOT_FOUND("landlord 不存在"),
+        TENANT_NOT_FOUND("tenant 不存在"),
+        MISSING_DATES("startDate/endDate 不能为空"),
+        INVALID_DATE_RANGE("endDate 不能早于 startDate"),
+        INVALID_RENT_AMOUNT("rentAmount 必须大于0"),
+        CONSTRAINT_VIOLATION("违反数据约束，所在批次已回滚"),
+        WRITE_FAILED("写入失败，所在批次已回滚");
+
+        private final String message;
+
+        ErrorCode(String message) {
+            this.message = message;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long line;           // 文件中的行号（从 1 开始）
+        private String contractNo;
+        private ErrorCode code;
+        private String message;
+    }
+
+    public void addError(long line, String contractNo, ErrorCode code) {
+        failed++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new RowError(line, contractNo, code, code.getMessage()));
+        } else {
+            errorsTruncated = true;
+        }
+    }
+}
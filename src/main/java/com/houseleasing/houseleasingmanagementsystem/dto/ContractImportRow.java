@@ -0,0 +1,28 @@
+package com.houseleasing.houseleasingmanagementsystem.dto;
+
+import com.houseleasing.houseleasingmanagementsystem.model.enums.ContractStatus;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.PaymentCycle;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.PaymentMethod;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * 合同批量导入的一行（CSV 列名 / JSON 字段名与属性名一致）
+ */
+@Data
+@NoArgsConstructor
+public class ContractImportRow {
+    private String contractNo;
+    private Long houseId;
+    private Long landlordId;
+    private Long tenantId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Double rentAmount;
+    private PaymentCycle paymentCycle;
+    private PaymentMethod paymentMethod;
+    private ContractStatus status;
+    private String breachClause;
+}
@@ -0,0 +1,109 @@
+package com.houseleasing.houseleasingmanagementsystem.dto;
+
+/**
+ * 房源地理筛选：半径（中心点 + radiusKm）和/或边界框，结果按到中心点的距离升序
+ * 统一规整为边界框 + 可选半径；只给边界框时以框中心作为排序中心；不支持跨越 180° 经线的边界框
+ */
+public record GeoFilter(double centerLat, double centerLng, Double radiusKm,
+                        double minLat, double maxLat, double minLng, double maxLng) {
+
+    public static final double MAX_RADIUS_KM = 100;
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = 111.32;
+
+    /**
+     * 由请求参数构造；全部为空时返回 null，参数不完整或越界时抛出 IllegalArgumentException
+     */
+    public static GeoFilter of(Double lat, Double lng, Double radiusKm,
+                               Double minLat, Double maxLat, Double minLng, Double maxLng) {
+        boolean hasCenter = lat != null || lng != null;
+        boolean hasBox = minLat != null || maxLat != null || minLng != null || maxLng != null;
+        if (!hasCenter && !hasBox && radiusKm == null) {
+            return null;
+        }
+        if (hasCenter && (lat == null || lng == null)) {
+            throw new IllegalArgumentException("lat 和 lng 需同时提供");
+        }
+        if (hasBox && (minLat == null || maxLat == null || minLng == null || maxLng == null)) {
+            throw new IllegalArgumentException("边界框需同时提供 minLat、maxLat、minLng、maxLng");
+        }
+        if (radiusKm != null && !hasCenter) {
+            throw new IllegalArgumentException("radiusKm 需配合 lat、lng 使用");
+        }
+        if (!hasBox && radiusKm == null) {
+            throw new IllegalArgumentException("按距离搜索需提供 radiusKm 或边界框");
+        }
+        if (radiusKm != null && !(radiusKm > 0 && radiusKm <= MAX_RADIUS_KM)) {
+            throw new IllegalArgumentException("radiusKm 须在 (0, " + (int) MAX_RADIUS_KM + "] 范围内");
+        }
+        if (hasCenter) {
+            checkPoint(lat, lng);
+        }
+        double boxMinLat = -90, boxMaxLat = 90, boxMinLng = -180, boxMaxLng = 180;
+        if (hasBox) {
+            checkPoint(minLat, minLng);
+            checkPoint(maxLat, maxLng);
+            if (minLat > maxLat || minLng > maxLng) {
+                throw new IllegalArgumentException("边界框的最小值不能大于最大值");
+            }
+            boxMinLat = minLat;
+            boxMaxLat = maxLat;
+            boxMinLng = minLng;
+            boxMaxLng = maxLng;
+        }
+        if (radiusKm != null) {
+            // 半径换算为外接矩形，与边界框取交集
+            double dLat = radiusKm / KM_PER_DEGREE;
+            double dLng = radiusKm / (KM_PER_DEGREE * Math.max(0.01, Math.cos(Math.toRadians(lat))));
+            boxMinLat = Math.max(boxMinLat, lat - dLat);
+            boxMaxLat = Math.min(boxMaxLat, lat + dLat);
+            boxMinLng = Math.max(boxMinLng, lng - dLng);
+            boxMaxLng = Math.min(boxMaxLng, lng + dLng);
+        }
+        double centerLat = hasCenter ? lat : (boxMinLat + boxMaxLat) / 2;
+        double centerLng = hasCenter ? lng : (boxMinLng + boxMaxLng) / 2;
+        return new GeoFilter(centerLat, centerLng, radiusKm, boxMinLat, boxMaxLat, boxMinLng, boxMaxLng);
+    }
+
+    /**
+     * 坐标是否满足筛选条件（坐标为空或 NaN 时不满足）
+     */
+    public boolean contains(double lat, double lng) {
+        if (!(lat >= minLat && lat <= maxLat && lng >= minLng && lng <= maxLng)) {
+            return false;
+        }
+        return radiusKm == null || distanceKm(lat, lng) <= radiusKm;
+    }
+
+    /**
+     * 到中心点的球面距离（haversine，单位 km）
+     */
+    public double distanceKm(double lat, double lng) {
+        double dLat = Math.toRadians(lat - centerLat);
+        double dLng = Math.toRadians(lng - centerLng);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(centerLat)) * Math.cos(Math.toRadians(lat)) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /**
+     * 经度方向每度对应的距离相对纬度方向的比例（等距矩形近似，数据库路径排序用）
+     */
+    public double lngScale() {
+        return Math.cos(Math.toRadians(centerLat));
+    }
+
+    /**
+     * 半径换算成的纬度度数（数据库路径的近似半径判断用）
+     */
+    public Double radiusDegrees() {
+        return radiusKm == null ? null : radiusKm / KM_PER_DEGREE;
+    }
+
+    private static void checkPoint(double lat, double lng) {
+        if (lat < -90 || lat > 90 || lng < -180 || lng > 180) {
+            throw new IllegalArgumentException("经纬度超出范围");
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.houseleasing.houseleasingmanagementsystem.dto;
+
+/**
+ * 经纬度坐标（WGS84，单位：度）
+ */
+public record GeoPoint(double latitude, double longitude) {
+}
@@ -1,6 +1,8 @@
 package com.houseleasing.houseleasingmanagementsystem.dto;
 
 import com.houseleasing.houseleasingmanagementsystem.model.enums.HouseStatus;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
@@ -33,6 +35,15 @@ public class HouseDTO {
 
     private String description;
     private Boolean recommended;
+
+    @DecimalMin(value = "-90", message = "纬度超出范围")
+    @DecimalMax(value = "90", message = "纬度超出范围")
+    private Double latitude;
+
+    @DecimalMin(value = "-180", message = "经度超出范围")
+    @DecimalMax(value = "180", message = "经度超出范围")
+    private Double longitude;
+
     private Long landlordId;
 
 }
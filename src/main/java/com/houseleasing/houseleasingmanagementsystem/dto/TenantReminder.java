@@ -0,0 +1,40 @@
+package com.houseleasing.houseleasingmanagementsystem.dto;
+
+import com.houseleasing.houseleasingmanagementsystem.model.enums.PaymentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 发给一个租客的提醒消息，合并该租客在本次运行中的全部待付/逾期租金
+ */
+@Data
+@NoArgsConstructor
+public class TenantReminder {
+    private Long tenantId;
+    private String tenantName;
+    private String tenantPhone;
+    private List<Item> items = new ArrayList<>();
+
+    public TenantReminder(Long tenantId, String tenantName, String tenantPhone) {
+        this.tenantId = tenantId;
+        this.tenantName = tenantName;
+        this.tenantPhone = tenantPhone;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        private Long paymentId;
+        private String contractNo;
+        private String houseAddress;
+        private LocalDate dueDate;
+        private Double amount;
+        private PaymentStatus status;
+    }
+}
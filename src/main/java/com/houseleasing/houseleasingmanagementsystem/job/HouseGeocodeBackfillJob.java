@@ -0,0 +1,65 @@
+package com.houseleasing.houseleasingmanagementsystem.job;
+
+import com.houseleasing.houseleasingmanagementsystem.dto.GeoPoint;
+import com.houseleasing.houseleasingmanagementsystem.repository.HouseRepository;
+import com.houseleasing.houseleasingmanagementsystem.service.GeocodingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 坐标回填：启动时为尚无经纬度的房源按地址离线解析坐标
+ * 排在房源内存索引加载之前执行，索引加载时即可看到回填结果
+ */
+@Component
+@ConditionalOnProperty(name = "app.geocode-backfill.enabled", havingValue = "true", matchIfMissing = true)
+public class HouseGeocodeBackfillJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(HouseGeocodeBackfillJob.class);
+
+    @Autowired
+    private HouseRepository houseRepository;
+
+    @Autowired
+    private GeocodingService geocodingService;
+
+    @Value("${app.geocode-backfill.batch-size:500}")
+    private int batchSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void run() {
+        long afterId = 0;
+        int located = 0;
+        int unresolved = 0;
+        while (true) {
+            List<Object[]> batch = houseRepository.findUngeocoded(afterId, PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) break;
+            for (Object[] row : batch) {
+                Long id = (Long) row[0];
+                Optional<GeoPoint> point = geocodingService.geocode((String) row[1]);
+                if (point.isPresent()) {
+                    houseRepository.updateCoordinates(id, point.get().latitude(), point.get().longitude());
+                    located++;
+                } else {
+                    unresolved++;
+                }
+                afterId = id;
+            }
+        }
+        if (located > 0 || unresolved > 0) {
+            logger.info("geocode backfill: {} houses located, {} addresses not in lookup table", located, unresolved);
+        }
+    }
+}
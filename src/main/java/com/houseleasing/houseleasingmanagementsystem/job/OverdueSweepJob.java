@@ -0,0 +1,89 @@
+package com.houseleasing.houseleasingmanagementsystem.job;
+
+import com.houseleasing.houseleasingmanagementsystem.model.enums.PaymentStatus;
+import com.houseleasing.houseleasingmanagementsystem.repository.RentPaymentRepository;
+import com.houseleasing.houseleasingmanagementsystem.service.SchedulerLockService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+/**
+ * 逾期清扫：定时把已过应付日期仍为 PENDING 的租金记录持久化为 OVERDUE
+ * 按 id 区间分块执行集合更新，每块单独提交，避免长事务和大范围锁
+ */
+@Component
+@ConditionalOnProperty(name = "app.overdue-sweeper.enabled", havingValue = "true", matchIfMissing = true)
+public class OverdueSweepJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(OverdueSweepJob.class);
+
+    private static final String LOCK_NAME = "overdue-sweeper";
+
+    @Autowired
+    private RentPaymentRepository rentPaymentRepository;
+
+    @Autowired
+    private SchedulerLockService schedulerLockService;
+
+    @Value("${app.overdue-sweeper.chunk-size:5000}")
+    private long chunkSize;
+
+    @Value("${app.overdue-sweeper.lock-at-most:PT30M}")
+    private Duration lockAtMost;
+
+    private final Counter transitionedCounter;
+    private final Timer sweepTimer;
+
+    public OverdueSweepJob(MeterRegistry meterRegistry) {
+        this.transitionedCounter = Counter.builder("rent.payments.overdue.transitioned")
+                .description("Rent payments moved from PENDING to OVERDUE by the sweeper")
+                .register(meterRegistry);
+        this.sweepTimer = Timer.builder("rent.payments.overdue.sweep")
+                .description("Duration of overdue sweeper runs")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${app.overdue-sweeper.cron:0 5 * * * *}")
+    public void run() {
+        if (!schedulerLockService.tryLock(LOCK_NAME, lockAtMost)) {
+            logger.debug("overdue sweeper is running on another node, skip");
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            int transitioned = sweep(LocalDate.now());
+            sweepTimer.record(Duration.ofNanos(System.nanoTime() - start));
+            if (transitioned > 0) {
+                logger.info("overdue sweeper marked {} rent payments as OVERDUE", transitioned);
+            }
+        } finally {
+            schedulerLockService.unlock(LOCK_NAME);
+        }
+    }
+
+    // 返回本次置为 OVERDUE 的记录数
+    public int sweep(LocalDate today) {
+        Long minId = rentPaymentRepository.findMinIdByStatusAndDueDateBefore(PaymentStatus.PENDING, today);
+        Long maxId = rentPaymentRepository.findMaxIdByStatusAndDueDateBefore(PaymentStatus.PENDING, today);
+        if (minId == null || maxId == null) return 0;
+        int total = 0;
+        for (long from = minId; from <= maxId; from += chunkSize) {
+            long to = Math.min(from + chunkSize - 1, maxId);
+            int updated = rentPaymentRepository.markOverdueInIdRange(from, to, today,
+                    PaymentStatus.PENDING, PaymentStatus.OVERDUE);
+            transitionedCounter.increment(updated);
+            total += updated;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,54 @@
+package com.houseleasing.houseleasingmanagementsystem.job;
+
+import com.houseleasing.houseleasingmanagementsystem.config.PenaltyProperties;
+import com.houseleasing.houseleasingmanagementsystem.service.PenaltyService;
+import com.houseleasing.houseleasingmanagementsystem.service.SchedulerLockService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+/**
+ * 定时计算逾期罚金（在逾期清扫之后执行），多节点时只在持有运行锁的节点执行
+ */
+@Component
+public class PenaltyJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(PenaltyJob.class);
+
+    private static final String LOCK_NAME = "penalty-engine";
+
+    @Autowired
+    private PenaltyService penaltyService;
+
+    @Autowired
+    private PenaltyProperties penaltyProperties;
+
+    @Autowired
+    private SchedulerLockService schedulerLockService;
+
+    @Value("${app.penalty.lock-at-most:PT1H}")
+    private Duration lockAtMost;
+
+    @Scheduled(cron = "${app.penalty.cron:0 30 1 * * *}")
+    public void run() {
+        if (!penaltyProperties.isEnabled()) return;
+        if (!schedulerLockService.tryLock(LOCK_NAME, lockAtMost)) {
+            logger.debug("penalty engine is running on another node, skip");
+            return;
+        }
+        try {
+            int applied = penaltyService.applyPenalties(LocalDate.now());
+            if (applied > 0) {
+                logger.info("penalty engine processed {} overdue rent payments", applied);
+            }
+        } finally {
+            schedulerLockService.unlock(LOCK_NAME);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.houseleasing.houseleasingmanagementsystem.job;
+
+import com.houseleasing.houseleasingmanagementsystem.config.ReminderProperties;
+import com.houseleasing.houseleasingmanagementsystem.service.ReminderService;
+import com.houseleasing.houseleasingmanagementsystem.service.SchedulerLockService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * 定时批量发送租金提醒，多节点时只在持有运行锁的节点执行
+ */
+@Component
+public class ReminderJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReminderJob.class);
+
+    private static final String LOCK_NAME = "rent-reminder";
+
+    @Autowired
+    private ReminderService reminderService;
+
+    @Autowired
+    private ReminderProperties reminderProperties;
+
+    @Autowired
+    private SchedulerLockService schedulerLockService;
+
+    @Scheduled(cron = "${app.reminder.cron:0 0 9 * * *}")
+    public void run() {
+        if (!reminderProperties.isEnabled()) return;
+        if (!schedulerLockService.tryLock(LOCK_NAME, reminderProperties.getLockAtMost())) {
+            logger.debug("reminder dispatch is running on another node, skip");
+            return;
+        }
+        try {
+            Map<String, Object> result = reminderService.dispatch(LocalDate.now());
+            logger.info("reminder dispatch finished: {}", result);
+        } finally {
+            schedulerLockService.unlock(LOCK_NAME);
+        }
+    }
+}
@@ -11,11 +11,16 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import org.hibernate.Hibernate;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "houses")
+@Table(name = "houses",
+        indexes = {@Index(name = "idx_houses_latitude_longitude", columnList = "latitude, longitude")})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "house")
 @EntityListeners(AuditingEntityListener.class)
 @Data
 @NoArgsConstructor
@@ -48,6 +53,10 @@ public class House {
 
     private Boolean recommended;     // 是否推荐
 
+    private Double latitude;         // 纬度（WGS84，未提供时按地址离线解析）
+
+    private Double longitude;        // 经度
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "landlord_id")
     @JsonIgnore // 避免序列化触发懒加载
@@ -0,0 +1,49 @@
+package com.houseleasing.houseleasingmanagementsystem.model;
+
+import com.houseleasing.houseleasingmanagementsystem.model.enums.RollupScope;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 月度租金收入汇总（物化表），由 RentPaymentService 写操作增量维护
+ * landlordId/houseId 为 0 表示该维度不区分
+ */
+@Entity
+@Table(name = "monthly_revenue_rollup",
+        uniqueConstraints = {@UniqueConstraint(columnNames = {"revenue_month", "scope", "landlord_id", "house_id"})})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonthlyRevenueRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "revenue_month", length = 7, nullable = false)
+    private String revenueMonth;     // 应付月份 yyyy-MM
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16, nullable = false)
+    private RollupScope scope;       // 汇总维度
+
+    @Column(nullable = false)
+    private Long landlordId;         // 房东ID（0 表示不区分）
+
+    @Column(nullable = false)
+    private Long houseId;            // 房源ID（0 表示不区分）
+
+    @Column(nullable = false)
+    private Double totalAmount;      // 应收租金合计
+
+    @Column(nullable = false)
+    private Double paidAmount;       // 已收租金合计
+
+    @Column(nullable = false)
+    private Long paymentCount;       // 租金记录数
+
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,36 @@
+package com.houseleasing.houseleasingmanagementsystem.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 待投递的租金提醒（默认发送通道），由外部投递程序读取后发送
+ */
+@Entity
+@Table(name = "reminder_outbox",
+        indexes = {@Index(name = "idx_reminder_outbox_created_at", columnList = "created_at")})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReminderOutbox {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long tenantId;
+
+    private String tenantPhone;
+
+    @Lob
+    @Column(columnDefinition = "TEXT")
+    private String payload;          // 提醒内容（JSON）
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    private LocalDateTime deliveredAt;   // 投递时间（由投递程序回写）
+}
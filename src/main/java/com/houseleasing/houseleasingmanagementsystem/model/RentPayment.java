@@ -12,7 +12,9 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "rent_payments", uniqueConstraints = {@UniqueConstraint(columnNames = {"contract_id", "due_date"})})
+@Table(name = "rent_payments",
+        uniqueConstraints = {@UniqueConstraint(columnNames = {"contract_id", "due_date"})},
+        indexes = {@Index(name = "idx_rent_payments_status_due_date", columnList = "status, due_date")})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -41,8 +43,9 @@ public class RentPayment {
 
     // 提醒与逾期处理
     private LocalDateTime remindedAt;    // 上次提醒时间
-    private Boolean overdueProcessed;    // 逾期是否已处理
+    private Boolean overdueProcessed;    // 逾期是否已处理（罚金已封顶或已人工结算，不再累计）
     private Double penalty;              // 逾期罚金（可选）
+    private LocalDate penaltyAccruedThrough;  // 罚金已累计到的日期
 
     // 仅用于序列化输出的便捷字段
     @Transient
@@ -0,0 +1,30 @@
+package com.houseleasing.houseleasingmanagementsystem.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 定时任务运行锁：lockedUntil 之前只有 lockedBy 节点可以执行该任务
+ */
+@Entity
+@Table(name = "scheduler_locks")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SchedulerLock {
+    @Id
+    @Column(length = 64)
+    private String name;             // 任务名
+
+    @Column(nullable = false)
+    private LocalDateTime lockedUntil;   // 锁过期时间
+
+    private LocalDateTime lockedAt;      // 加锁时间
+
+    @Column(length = 128)
+    private String lockedBy;             // 持有锁的节点
+}
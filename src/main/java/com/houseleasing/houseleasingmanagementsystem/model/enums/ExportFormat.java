@@ -0,0 +1,6 @@
+package com.houseleasing.houseleasingmanagementsystem.model.enums;
+
+public enum ExportFormat {
+    CSV,            // 逗号分隔，带表头
+    NDJSON          // 每行一个 JSON 对象
+}
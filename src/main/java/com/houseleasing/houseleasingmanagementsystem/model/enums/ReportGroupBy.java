@@ -0,0 +1,9 @@
+package com.houseleasing.houseleasingmanagementsystem.model.enums;
+
+public enum ReportGroupBy {
+    MONTH,          // 按应付月份
+    LANDLORD,       // 按房东
+    HOUSE,          // 按房源
+    STATUS,         // 按支付状态
+    METHOD          // 按合同支付方式
+}
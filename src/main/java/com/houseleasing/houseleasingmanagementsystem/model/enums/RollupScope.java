@@ -0,0 +1,7 @@
+package com.houseleasing.houseleasingmanagementsystem.model.enums;
+
+public enum RollupScope {
+    ALL,            // 全部房源合计
+    LANDLORD,       // 按房东汇总
+    HOUSE           // 按房源汇总
+}
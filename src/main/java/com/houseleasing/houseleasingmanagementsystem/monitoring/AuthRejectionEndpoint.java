@@ -0,0 +1,32 @@
+package com.houseleasing.houseleasingmanagementsystem.monitoring;
+
+import com.houseleasing.houseleasingmanagementsystem.security.AuthRejectionTracker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * /actuator/authrejections：认证失败次数最多的客户端 IP
+ * 与 slowqueries 一样只在管理端口（management.server.port，绑定 127.0.0.1）上提供
+ */
+@Component
+@Endpoint(id = "authrejections")
+public class AuthRejectionEndpoint {
+
+    private static final int TOP_CLIENTS = 20;
+
+    @Autowired
+    private AuthRejectionTracker authRejectionTracker;
+
+    @ReadOperation
+    public Map<String, Object> authRejections() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("trackedClients", authRejectionTracker.trackedClients());
+        result.put("topClients", authRejectionTracker.topClients(TOP_CLIENTS));
+        return result;
+    }
+}
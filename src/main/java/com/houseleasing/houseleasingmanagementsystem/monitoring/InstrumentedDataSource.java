@@ -0,0 +1,120 @@
+package com.houseleasing.houseleasingmanagementsystem.monitoring;
+
+import org.springframework.beans.factory.ObjectProvider;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * 数据源包装：用 JDK 动态代理包装 Connection / Statement / ResultSet，
+ * 把语句数、JDBC 执行耗时、读取行数累加到 SqlStatementTracker，超过阈值的语句写入 SlowQueryLog
+ * unwrap / isWrapperFor 直接转发给连接池，Hikari 指标和健康检查不受影响
+ */
+public final class InstrumentedDataSource {
+
+    private final ObjectProvider<SlowQueryLog> slowQueryLogProvider;
+    // 数据源先于 SlowQueryLog 创建，首次执行语句时再取
+    private volatile SlowQueryLog slowQueryLog;
+
+    private InstrumentedDataSource(ObjectProvider<SlowQueryLog> slowQueryLogProvider) {
+        this.slowQueryLogProvider = slowQueryLogProvider;
+    }
+
+    public static DataSource wrap(DataSource target, ObjectProvider<SlowQueryLog> slowQueryLogProvider) {
+        InstrumentedDataSource instrumentation = new InstrumentedDataSource(slowQueryLogProvider);
+        return proxy(DataSource.class, target, (proxy, method, args) -> {
+            Object result = forward(target, method, args);
+            if (result instanceof Connection connection && "getConnection".equals(method.getName())) {
+                return instrumentation.connection(connection);
+            }
+            return result;
+        });
+    }
+
+    private Connection connection(Connection target) {
+        return proxy(Connection.class, target, (proxy, method, args) -> {
+            Object result = forward(target, method, args);
+            if (result instanceof Statement statement) {
+                Class<?> type = method.getReturnType();
+                if (type == Statement.class || type == PreparedStatement.class || type == CallableStatement.class) {
+                    // prepareStatement / prepareCall 的第一个参数即 SQL；createStatement 在执行时才给出
+                    String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                    return statement(type, statement, sql);
+                }
+            }
+            return result;
+        });
+    }
+
+    private Object statement(Class<?> type, Statement target, String preparedSql) {
+        return proxy(type, target, (proxy, method, args) -> {
+            String name = method.getName();
+            if (!name.startsWith("execute")) {
+                Object result = forward(target, method, args);
+                return result instanceof ResultSet rs ? resultSet(rs) : result;
+            }
+            long start = System.nanoTime();
+            Object result = forward(target, method, args);
+            long elapsed = System.nanoTime() - start;
+            // executeBatch 是一次往返，按一条语句计
+            SqlStatementTracker.statementExecuted(elapsed);
+            SlowQueryLog log = slowQueryLog();
+            if (log != null && log.isSlow(elapsed)) {
+                String sql = preparedSql != null ? preparedSql
+                        : args != null && args.length > 0 && args[0] instanceof String s ? s : name;
+                SqlStatementTracker.Stats stats = SqlStatementTracker.current();
+                log.record(stats != null ? stats.getHandler() : null, sql, elapsed);
+            }
+            return result instanceof ResultSet rs ? resultSet(rs) : result;
+        });
+    }
+
+    private ResultSet resultSet(ResultSet target) {
+        return proxy(ResultSet.class, target, (proxy, method, args) -> {
+            Object result = forward(target, method, args);
+            if (Boolean.TRUE.equals(result) && "next".equals(method.getName())) {
+                SqlStatementTracker.rowFetched();
+            }
+            return result;
+        });
+    }
+
+    private SlowQueryLog slowQueryLog() {
+        SlowQueryLog log = slowQueryLog;
+        if (log == null) {
+            log = slowQueryLogProvider.getIfAvailable();
+            slowQueryLog = log;
+        }
+        return log;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<?> type, Object target, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(InstrumentedDataSource.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> switch (method.getName()) {
+                    // 代理之间按引用比较，DataSourceUtils 释放连接时依赖 equals
+                    case "equals" -> args != null && args.length == 1 && proxy == args[0];
+                    case "hashCode" -> method.getParameterCount() == 0 ? System.identityHashCode(proxy)
+                            : handler.invoke(proxy, method, args);
+                    case "toString" -> method.getParameterCount() == 0 ? "Instrumented[" + target + "]"
+                            : handler.invoke(proxy, method, args);
+                    default -> handler.invoke(proxy, method, args);
+                });
+    }
+
+    private static Object forward(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
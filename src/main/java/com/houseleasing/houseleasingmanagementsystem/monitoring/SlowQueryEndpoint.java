@@ -0,0 +1,31 @@
+package com.houseleasing.houseleasingmanagementsystem.monitoring;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * /actuator/slowqueries：只读，查看最近的慢 SQL 采样（含原始 SQL）
+ * 仅在管理端口（management.server.port，绑定 127.0.0.1）上提供，不对外暴露
+ */
+@Component
+@Endpoint(id = "slowqueries")
+public class SlowQueryEndpoint {
+
+    @Autowired
+    private SlowQueryLog slowQueryLog;
+
+    @ReadOperation
+    public Map<String, Object> slowQueries() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("thresholdMs", slowQueryLog.getThresholdMillis());
+        result.put("capacity", slowQueryLog.getCapacity());
+        result.put("totalRecorded", slowQueryLog.totalRecorded());
+        result.put("entries", slowQueryLog.recent());
+        return result;
+    }
+}
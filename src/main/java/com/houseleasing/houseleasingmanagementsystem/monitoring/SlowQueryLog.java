@@ -0,0 +1,102 @@
+package com.houseleasing.houseleasingmanagementsystem.monitoring;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 慢 SQL 采样：固定容量的环形缓冲区，写满后覆盖最旧的记录
+ * 通过 /actuator/slowqueries 查看
+ * 在 JDBC 调用路径上执行，使用 ReentrantLock 而非 synchronized，避免虚拟线程被钉住
+ */
+@Component
+public class SlowQueryLog {
+
+    private static final int MAX_SQL_LENGTH = 2000;
+
+    public record Entry(Instant at, String handler, String sql, long millis, String thread) {
+    }
+
+    private final long thresholdMillis;
+    private final long thresholdNanos;
+    private final Entry[] ring;
+    private final ReentrantLock lock = new ReentrantLock();
+    // 累计写入次数，ring[written % 容量] 为下一个写入位置
+    private long written;
+
+    public SlowQueryLog(@Value("${app.sql-metrics.slow-query-ms:200}") long thresholdMillis,
+                        @Value("${app.sql-metrics.slow-query-capacity:100}") int capacity) {
+        this.thresholdMillis = thresholdMillis;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.ring = new Entry[Math.max(1, capacity)];
+    }
+
+    public boolean isSlow(long nanos) {
+        return nanos >= thresholdNanos;
+    }
+
+    public void record(String handler, String sql, long nanos) {
+        if (sql != null && sql.length() > MAX_SQL_LENGTH) {
+            sql = sql.substring(0, MAX_SQL_LENGTH) + "...";
+        }
+        Entry entry = new Entry(Instant.now(), handler, sql, TimeUnit.NANOSECONDS.toMillis(nanos),
+                Thread.currentThread().getName());
+        lock.lock();
+        try {
+            ring[(int) (written % ring.length)] = entry;
+            written++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 最近的慢 SQL，最新的在前
+     */
+    public List<Entry> recent() {
+        lock.lock();
+        try {
+            int size = (int) Math.min(written, ring.length);
+            List<Entry> entries = new ArrayList<>(size);
+            for (int i = 1; i <= size; i++) {
+                entries.add(ring[(int) ((written - i) % ring.length)]);
+            }
+            return entries;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long totalRecorded() {
+        lock.lock();
+        try {
+            return written;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            Arrays.fill(ring, null);
+            written = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getThresholdMillis() {
+        return thresholdMillis;
+    }
+
+    public int getCapacity() {
+        return ring.length;
+    }
+}
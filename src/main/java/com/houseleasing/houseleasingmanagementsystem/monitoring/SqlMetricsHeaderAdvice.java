@@ -0,0 +1,45 @@
+package com.houseleasing.houseleasingmanagementsystem.monitoring;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 调试模式（app.sql-metrics.debug-header=true）下在响应头中返回本次请求的 SQL 统计
+ * 响应体写出前添加，此时处理器内的查询均已执行完毕
+ */
+@ControllerAdvice
+@ConditionalOnProperty(name = "app.sql-metrics.debug-header", havingValue = "true")
+public class SqlMetricsHeaderAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String HEADER_HANDLER = "X-SQL-Handler";
+    public static final String HEADER_STATEMENTS = "X-SQL-Statements";
+    public static final String HEADER_ROWS = "X-SQL-Rows";
+    public static final String HEADER_TIME = "X-SQL-Time-Ms";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        SqlStatementTracker.Stats stats = SqlStatementTracker.current();
+        if (stats != null) {
+            response.getHeaders().set(HEADER_HANDLER, stats.getHandler());
+            response.getHeaders().set(HEADER_STATEMENTS, String.valueOf(stats.getStatements()));
+            response.getHeaders().set(HEADER_ROWS, String.valueOf(stats.getRows()));
+            response.getHeaders().set(HEADER_TIME, String.valueOf(TimeUnit.NANOSECONDS.toMillis(stats.getJdbcNanos())));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,66 @@
+package com.houseleasing.houseleasingmanagementsystem.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按 Spring MVC 处理器（如 StatsController.overview）统计每个请求的 SQL 语句数、读取行数和 JDBC 耗时，
+ * 记录为 http.server.sql.* 指标，tag handler 为“控制器类名.方法名”
+ */
+public class SqlMetricsInterceptor implements AsyncHandlerInterceptor {
+
+    private final MeterRegistry meterRegistry;
+
+    public SqlMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod) {
+            SqlStatementTracker.begin(handlerName(handlerMethod));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        SqlStatementTracker.Stats stats = SqlStatementTracker.end();
+        if (stats == null) {
+            return;
+        }
+        String handlerName = stats.getHandler();
+        DistributionSummary.builder("http.server.sql.statements")
+                .description("SQL statements executed per request")
+                .tag("handler", handlerName)
+                .register(meterRegistry)
+                .record(stats.getStatements());
+        DistributionSummary.builder("http.server.sql.rows")
+                .description("Result set rows fetched per request")
+                .tag("handler", handlerName)
+                .register(meterRegistry)
+                .record(stats.getRows());
+        Timer.builder("http.server.sql.time")
+                .description("JDBC execute time per request")
+                .tag("handler", handlerName)
+                .register(meterRegistry)
+                .record(stats.getJdbcNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // 异步请求在其它线程完成，这里只清理当前线程，不记录不完整的统计
+        SqlStatementTracker.end();
+    }
+
+    static String handlerName(HandlerMethod handlerMethod) {
+        return handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+    }
+}
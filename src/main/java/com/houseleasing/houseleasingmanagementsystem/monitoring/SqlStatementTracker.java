@@ -0,0 +1,100 @@
+package com.houseleasing.houseleasingmanagementsystem.monitoring;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 当前请求线程的 SQL 统计：由 SqlMetricsInterceptor 在进入/离开处理器时开启和结束，
+ * InstrumentedDataSource 在每次执行语句、读取一行结果时累加
+ * 请求提交到线程池的子任务经 {@link #propagate(Runnable)} 带上同一个 Stats，语句计入发起请求的处理器
+ * 未开启统计的线程（定时任务、启动任务）不记录
+ */
+public final class SqlStatementTracker {
+
+    private static final ThreadLocal<Stats> CURRENT = new ThreadLocal<>();
+
+    private SqlStatementTracker() {
+    }
+
+    public static void begin(String handler) {
+        CURRENT.set(new Stats(handler));
+    }
+
+    public static Stats current() {
+        return CURRENT.get();
+    }
+
+    public static Stats end() {
+        Stats stats = CURRENT.get();
+        CURRENT.remove();
+        return stats;
+    }
+
+    /**
+     * 用作线程池的 TaskDecorator：提交时捕获调用线程的 Stats，任务执行期间在工作线程上生效，结束后恢复
+     */
+    public static Runnable propagate(Runnable task) {
+        Stats stats = CURRENT.get();
+        if (stats == null) {
+            return task;
+        }
+        return () -> {
+            Stats previous = CURRENT.get();
+            CURRENT.set(stats);
+            try {
+                task.run();
+            } finally {
+                if (previous == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            }
+        };
+    }
+
+    static void statementExecuted(long nanos) {
+        Stats stats = CURRENT.get();
+        if (stats != null) {
+            stats.statements.increment();
+            stats.jdbcNanos.add(nanos);
+        }
+    }
+
+    static void rowFetched() {
+        Stats stats = CURRENT.get();
+        if (stats != null) {
+            stats.rows.increment();
+        }
+    }
+
+    /**
+     * 单个请求的累计值；请求线程和它分出的子任务线程会同时累加
+     */
+    public static final class Stats {
+
+        private final String handler;
+        private final LongAdder statements = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder jdbcNanos = new LongAdder();
+
+        private Stats(String handler) {
+            this.handler = handler;
+        }
+
+        public String getHandler() {
+            return handler;
+        }
+
+        public int getStatements() {
+            return statements.intValue();
+        }
+
+        public long getRows() {
+            return rows.sum();
+        }
+
+        public long getJdbcNanos() {
+            return jdbcNanos.sum();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.houseleasing.houseleasingmanagementsystem.repository;
+
+import com.houseleasing.houseleasingmanagementsystem.model.Contract;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * 合同的 JDBC 批量写入（批量导入使用），插入后通过合同编号回查主键
+ */
+@Repository
+public class ContractBatchRepository {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_SQL = "INSERT INTO contracts " +
+            "(contract_no, house_id, tenant_id, landlord_id, start_date, end_date, rent_amount, " +
+            "payment_cycle, payment_method, breach_clause, status, signed_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public void batchInsert(List<Contract> contracts) {
+        if (contracts == null || contracts.isEmpty()) return;
+        jdbcTemplate.batchUpdate(INSERT_SQL, contracts, BATCH_SIZE, (ps, c) -> {
+            ps.setString(1, c.getContractNo());
+            setId(ps, 2, c.getHouse() == null ? null : c.getHouse().getId());
+            setId(ps, 3, c.getTenant() == null ? null : c.getTenant().getId());
+            setId(ps, 4, c.getLandlord() == null ? null : c.getLandlord().getId());
+            ps.setObject(5, c.getStartDate());
+            ps.setObject(6, c.getEndDate());
+            ps.setDouble(7, c.getRentAmount());
+            ps.setString(8, c.getPaymentCycle() == null ? null : c.getPaymentCycle().name());
+            ps.setString(9, c.getPaymentMethod() == null ? null : c.getPaymentMethod().name());
+            ps.setString(10, c.getBreachClause());
+            ps.setString(11, c.getStatus() == null ? null : c.getStatus().name());
+            ps.setObject(12, c.getSignedAt());
+        });
+    }
+
+    private static void setId(PreparedStatement ps, int index, Long id) throws SQLException {
+        if (id != null) ps.setLong(index, id); else ps.setNull(index, Types.BIGINT);
+    }
+}
@@ -2,6 +2,7 @@ package com.houseleasing.houseleasingmanagementsystem.repository;
 
 import com.houseleasing.houseleasingmanagementsystem.model.Contract;
 import com.houseleasing.houseleasingmanagementsystem.model.enums.ContractStatus;
+import com.houseleasing.houseleasingmanagementsystem.repository.projection.ContractListItem;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -10,6 +11,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -25,6 +28,10 @@ public interface ContractRepository extends JpaRepository<Contract, Long>, JpaSp
             "where c.id = :id")
     Optional<Contract> findByIdWithRelations(@Param("id") Long id);
 
+    // 两阶段分页第二步：按 id 投影合同列表行（含房源地址、房东/租客姓名）
+    @Query(ContractListItem.SELECT + "where c.id in :ids")
+    List<ContractListItem> findListItemsByIdIn(@Param("ids") Collection<Long> ids);
+
     @Query("select c from Contract c " +
             "join fetch c.tenant t " +
             "where c.house.id = :houseId " +
@@ -35,4 +42,8 @@ public interface ContractRepository extends JpaRepository<Contract, Long>, JpaSp
 
     // count contracts by status (used by stats controller)
     long countByStatus(ContractStatus status);
+
+    // 批量导入：按合同编号查询已存在合同的 [contractNo, id]
+    @Query("select c.contractNo, c.id from Contract c where c.contractNo in :contractNos")
+    List<Object[]> findIdsByContractNoIn(@Param("contractNos") Collection<String> contractNos);
 }
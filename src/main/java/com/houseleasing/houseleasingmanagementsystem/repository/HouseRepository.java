@@ -1,10 +1,17 @@
 package com.houseleasing.houseleasingmanagementsystem.repository;
 
 import com.houseleasing.houseleasingmanagementsystem.model.House;
+import com.houseleasing.houseleasingmanagementsystem.repository.projection.HouseListItem;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -12,4 +19,21 @@ public interface HouseRepository extends JpaRepository<House, Long>, JpaSpecific
     List<House> findByRecommendedTrue();
 
     List<House> findByRentBetween(Double minRent, Double maxRent);
+
+    // 两阶段分页第二步：按 id 投影房源列表行（含房东姓名）
+    @Query(HouseListItem.SELECT + "where h.id in :ids")
+    List<HouseListItem> findListItemsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // 内存检索索引全量加载
+    @Query(HouseListItem.SELECT + "order by h.id")
+    List<HouseListItem> findAllListItems();
+
+    // 坐标回填：按 id 顺序分批取出尚无坐标的房源 (id, address)
+    @Query("select h.id, h.address from House h where h.latitude is null and h.id > :afterId order by h.id")
+    List<Object[]> findUngeocoded(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("update House h set h.latitude = :latitude, h.longitude = :longitude where h.id = :id")
+    int updateCoordinates(@Param("id") Long id, @Param("latitude") Double latitude, @Param("longitude") Double longitude);
 }
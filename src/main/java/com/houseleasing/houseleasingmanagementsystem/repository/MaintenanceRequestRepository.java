@@ -2,6 +2,7 @@ package com.houseleasing.houseleasingmanagementsystem.repository;
 
 import com.houseleasing.houseleasingmanagementsystem.model.MaintenanceRequest;
 import com.houseleasing.houseleasingmanagementsystem.model.enums.MaintenanceStatus;
+import com.houseleasing.houseleasingmanagementsystem.repository.projection.MaintenanceRequestListItem;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -10,6 +11,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,23 +24,17 @@ public interface MaintenanceRequestRepository extends JpaRepository<MaintenanceR
            "WHERE mr.id = :id")
     Optional<MaintenanceRequest> findByIdWithHouse(@Param("id") Long id);
 
-    // 分页查询所有维修申请（JOIN FETCH）
-    @Query(value = "SELECT mr FROM MaintenanceRequest mr " +
-           "LEFT JOIN FETCH mr.house",
+    // 列表投影：只取列表需要的列及房源地址，分页与排序在数据库端完成
+    @Query(value = MaintenanceRequestListItem.SELECT,
            countQuery = "SELECT COUNT(mr) FROM MaintenanceRequest mr")
-    Page<MaintenanceRequest> findAllWithHouse(Pageable pageable);
+    Page<MaintenanceRequestListItem> findListItems(Pageable pageable);
 
-    // 根据状态查询维修申请（JOIN FETCH）
-    @Query(value = "SELECT mr FROM MaintenanceRequest mr " +
-           "LEFT JOIN FETCH mr.house " +
-           "WHERE mr.status = :status",
+    @Query(value = MaintenanceRequestListItem.SELECT + "WHERE mr.status = :status",
            countQuery = "SELECT COUNT(mr) FROM MaintenanceRequest mr WHERE mr.status = :status")
-    Page<MaintenanceRequest> findByStatusWithHouse(@Param("status") MaintenanceStatus status, Pageable pageable);
+    Page<MaintenanceRequestListItem> findListItemsByStatus(@Param("status") MaintenanceStatus status, Pageable pageable);
 
     // 根据租客ID查询维修申请（通过房源的有效合同关联）
-    // 根据租客ID查询维修申请（通过房源的有效合同关联）
-    @Query(value = "SELECT mr FROM MaintenanceRequest mr " +
-            "LEFT JOIN FETCH mr.house h " +
+    @Query(value = MaintenanceRequestListItem.SELECT +
             "JOIN Contract c ON c.house.id = h.id " +
             "WHERE c.tenant.id = :tenantId " +
             "AND c.status = 'ACTIVE' " +
@@ -48,14 +44,13 @@ public interface MaintenanceRequestRepository extends JpaRepository<MaintenanceR
             "WHERE c.tenant.id = :tenantId " +
             "AND c.status = 'ACTIVE' " +
             "AND mr.createdAt BETWEEN c.startDate AND c.endDate")
-    Page<MaintenanceRequest> findByTenantId(@Param("tenantId") Long tenantId, Pageable pageable);
+    Page<MaintenanceRequestListItem> findListItemsByTenantId(@Param("tenantId") Long tenantId, Pageable pageable);
 
     // 根据状态查询维修申请
     Page<MaintenanceRequest> findByStatus(MaintenanceStatus status, Pageable pageable);
 
     // 根据租客ID和状态查询维修申请（通过房源的有效合同关联）
-    @Query(value = "SELECT mr FROM MaintenanceRequest mr " +
-            "LEFT JOIN FETCH mr.house h " +
+    @Query(value = MaintenanceRequestListItem.SELECT +
             "JOIN Contract c ON c.house.id = h.id " +
             "WHERE c.tenant.id = :tenantId " +
             "AND c.status = 'ACTIVE' " +
@@ -67,9 +62,13 @@ public interface MaintenanceRequestRepository extends JpaRepository<MaintenanceR
             "AND c.status = 'ACTIVE' " +
             "AND mr.status = :status " +
             "AND mr.createdAt BETWEEN c.startDate AND c.endDate")
-    Page<MaintenanceRequest> findByTenantIdAndStatus(@Param("tenantId") Long tenantId,
-                                                       @Param("status") MaintenanceStatus status,
-                                                       Pageable pageable);
+    Page<MaintenanceRequestListItem> findListItemsByTenantIdAndStatus(@Param("tenantId") Long tenantId,
+                                                                      @Param("status") MaintenanceStatus status,
+                                                                      Pageable pageable);
+
+    // 两阶段分页第二步：按 id 投影报修列表行
+    @Query(MaintenanceRequestListItem.SELECT + "WHERE mr.id IN :ids")
+    List<MaintenanceRequestListItem> findListItemsByIdIn(@Param("ids") Collection<Long> ids);
 
     // 根据房源ID查询维修申请
     @Query("SELECT mr FROM MaintenanceRequest mr " +
@@ -0,0 +1,95 @@
+package com.houseleasing.houseleasingmanagementsystem.repository;
+
+import com.houseleasing.houseleasingmanagementsystem.model.MonthlyRevenueRollup;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.RollupScope;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface MonthlyRevenueRollupRepository extends JpaRepository<MonthlyRevenueRollup, Long> {
+
+    // 应付日期所在月份 yyyy-MM；不用 DATE_FORMAT，MySQL 与测试用的 H2（MODE=MySQL）都能执行
+    String DUE_MONTH = "CONCAT(YEAR(rp.due_date), '-', LPAD(MONTH(rp.due_date), 2, '0'))";
+
+    // 按维度读取月份区间内的汇总行（revenueMonth 为 yyyy-MM，可直接按字符串比较）
+    List<MonthlyRevenueRollup> findByScopeAndRevenueMonthBetween(RollupScope scope, String fromMonth, String toMonth);
+
+    List<MonthlyRevenueRollup> findByScopeAndLandlordIdAndRevenueMonthBetween(RollupScope scope, Long landlordId,
+                                                                            String fromMonth, String toMonth);
+
+    List<MonthlyRevenueRollup> findByScopeAndHouseIdAndRevenueMonthBetween(RollupScope scope, Long houseId,
+                                                                         String fromMonth, String toMonth);
+
+    // 增量累加：不存在则插入，存在则在原值上加上差值
+    @Modifying
+    // 声明原生语句影响的表，否则 Hibernate 会清空全部二级缓存区域
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "monthly_revenue_rollup"))
+    @Query(value = "INSERT INTO monthly_revenue_rollup " +
+            "(revenue_month, scope, landlord_id, house_id, total_amount, paid_amount, payment_count, updated_at) " +
+            "VALUES (:month, :scope, :landlordId, :houseId, :total, :paid, :cnt, NOW()) " +
+            "ON DUPLICATE KEY UPDATE total_amount = total_amount + :total, " +
+            "paid_amount = paid_amount + :paid, " +
+            "payment_count = payment_count + :cnt, " +
+            "updated_at = NOW()", nativeQuery = true)
+    int upsertDelta(@Param("month") String month,
+                    @Param("scope") String scope,
+                    @Param("landlordId") Long landlordId,
+                    @Param("houseId") Long houseId,
+                    @Param("total") double total,
+                    @Param("paid") double paid,
+                    @Param("cnt") long count);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "monthly_revenue_rollup"))
+    @Query(value = "DELETE FROM monthly_revenue_rollup", nativeQuery = true)
+    int deleteAllRows();
+
+    // 全量重建：从 rent_payments 分组汇总写入三个维度
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "monthly_revenue_rollup"))
+    @Query(value = "INSERT INTO monthly_revenue_rollup " +
+            "(revenue_month, scope, landlord_id, house_id, total_amount, paid_amount, payment_count, updated_at) " +
+            "SELECT " + DUE_MONTH + ", 'ALL', 0, 0, " +
+            "COALESCE(SUM(rp.amount), 0), " +
+            "COALESCE(SUM(CASE WHEN rp.status = 'PAID' THEN rp.amount ELSE 0 END), 0), " +
+            "COUNT(*), NOW() " +
+            "FROM rent_payments rp " +
+            "WHERE rp.due_date IS NOT NULL " +
+            "GROUP BY " + DUE_MONTH, nativeQuery = true)
+    int rebuildAllScope();
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "monthly_revenue_rollup"))
+    @Query(value = "INSERT INTO monthly_revenue_rollup " +
+            "(revenue_month, scope, landlord_id, house_id, total_amount, paid_amount, payment_count, updated_at) " +
+            "SELECT " + DUE_MONTH + ", 'LANDLORD', COALESCE(c.landlord_id, 0), 0, " +
+            "COALESCE(SUM(rp.amount), 0), " +
+            "COALESCE(SUM(CASE WHEN rp.status = 'PAID' THEN rp.amount ELSE 0 END), 0), " +
+            "COUNT(*), NOW() " +
+            "FROM rent_payments rp JOIN contracts c ON c.id = rp.contract_id " +
+            "WHERE rp.due_date IS NOT NULL " +
+            "GROUP BY " + DUE_MONTH + ", COALESCE(c.landlord_id, 0)", nativeQuery = true)
+    int rebuildLandlordScope();
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "monthly_revenue_rollup"))
+    @Query(value = "INSERT INTO monthly_revenue_rollup " +
+            "(revenue_month, scope, landlord_id, house_id, total_amount, paid_amount, payment_count, updated_at) " +
+            "SELECT " + DUE_MONTH + ", 'HOUSE', COALESCE(c.landlord_id, 0), COALESCE(c.house_id, 0), " +
+            "COALESCE(SUM(rp.amount), 0), " +
+            "COALESCE(SUM(CASE WHEN rp.status = 'PAID' THEN rp.amount ELSE 0 END), 0), " +
+            "COUNT(*), NOW() " +
+            "FROM rent_payments rp JOIN contracts c ON c.id = rp.contract_id " +
+            "WHERE rp.due_date IS NOT NULL " +
+            "GROUP BY " + DUE_MONTH + ", COALESCE(c.landlord_id, 0), COALESCE(c.house_id, 0)",
+            nativeQuery = true)
+    int rebuildHouseScope();
+}
@@ -0,0 +1,25 @@
+package com.houseleasing.houseleasingmanagementsystem.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * 按自然键（身份证号、合同编号等）加载实体：先查自然键缓存得到 id，再按 id 走实体二级缓存
+ * 派生查询 findByXxx 会直接发 SQL，不经过二级缓存
+ */
+@Repository
+public class NaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Transactional(readOnly = true)
+    public <T> Optional<T> findBySimpleNaturalId(Class<T> type, Object naturalId) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(type).loadOptional(naturalId);
+    }
+}
@@ -0,0 +1,45 @@
+package com.houseleasing.houseleasingmanagementsystem.repository;
+
+import com.houseleasing.houseleasingmanagementsystem.model.RentPayment;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * 租金记录的 JDBC 批量写入
+ * RentPayment 使用 IDENTITY 主键，Hibernate 无法合并 insert；这里直接走 JDBC batch，
+ * 配合连接参数 rewriteBatchedStatements=true 由 MySQL 驱动改写为多值 insert，主键仍由数据库自增生成
+ */
+@Repository
+public class RentPaymentBatchRepository {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_SQL = "INSERT INTO rent_payments " +
+            "(contract_id, due_date, amount, paid_at, status, period_start, period_end, " +
+            "reminded_at, overdue_processed, penalty) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // 批量插入（调用方保证 contract 已持久化且 id 不为空）
+    public void batchInsert(List<RentPayment> rentPayments) {
+        if (rentPayments == null || rentPayments.isEmpty()) return;
+        jdbcTemplate.batchUpdate(INSERT_SQL, rentPayments, BATCH_SIZE, (ps, rp) -> {
+            ps.setLong(1, rp.getContract().getId());
+            ps.setObject(2, rp.getDueDate());
+            if (rp.getAmount() != null) ps.setDouble(3, rp.getAmount()); else ps.setNull(3, Types.DOUBLE);
+            ps.setObject(4, rp.getPaidAt());
+            ps.setString(5, rp.getStatus() == null ? null : rp.getStatus().name());
+            ps.setObject(6, rp.getPeriodStart());
+            ps.setObject(7, rp.getPeriodEnd());
+            ps.setObject(8, rp.getRemindedAt());
+            if (rp.getOverdueProcessed() != null) ps.setBoolean(9, rp.getOverdueProcessed()); else ps.setNull(9, Types.BIT);
+            if (rp.getPenalty() != null) ps.setDouble(10, rp.getPenalty()); else ps.setNull(10, Types.DOUBLE);
+        });
+    }
+}
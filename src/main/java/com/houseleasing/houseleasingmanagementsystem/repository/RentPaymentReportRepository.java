@@ -0,0 +1,49 @@
+package com.houseleasing.houseleasingmanagementsystem.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+
+/**
+ * 租金报表的流式读取：只读、单向游标逐行回调，不创建实体也不进入持久化上下文
+ * MySQL 驱动在 fetchSize = Integer.MIN_VALUE 时逐行从服务端流式读取，结果集不会整体载入内存
+ */
+@Repository
+public class RentPaymentReportRepository {
+
+    public static final String[] COLUMNS = {
+            "id", "contractId", "contractNo", "tenantName", "landlordName", "houseAddress",
+            "dueDate", "amount", "status", "paidAt", "periodStart", "periodEnd",
+            "remindedAt", "overdueProcessed", "penalty"
+    };
+
+    private static final String REPORT_SQL = "SELECT rp.id, rp.contract_id, c.contract_no, " +
+            "t.real_name, l.real_name, h.address, " +
+            "rp.due_date, rp.amount, rp.status, rp.paid_at, rp.period_start, rp.period_end, " +
+            "rp.reminded_at, rp.overdue_processed, rp.penalty " +
+            "FROM rent_payments rp " +
+            "JOIN contracts c ON c.id = rp.contract_id " +
+            "LEFT JOIN users t ON t.id = c.tenant_id " +
+            "LEFT JOIN users l ON l.id = c.landlord_id " +
+            "LEFT JOIN houses h ON h.id = c.house_id " +
+            "WHERE rp.due_date BETWEEN ? AND ? " +
+            "ORDER BY rp.due_date, rp.id";
+
+    private final JdbcTemplate streamingJdbcTemplate;
+
+    public RentPaymentReportRepository(DataSource dataSource,
+                                       @Value("${app.report.stream-fetch-size:-2147483648}") int fetchSize) {
+        // 单独的 JdbcTemplate，避免影响全局 JdbcTemplate 的 fetchSize
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    // 按应付日期范围逐行回调，列顺序与 COLUMNS 一致（下标从 1 开始）
+    public void streamByDueDateBetween(LocalDate from, LocalDate to, RowCallbackHandler handler) {
+        streamingJdbcTemplate.query(REPORT_SQL, handler, from, to);
+    }
+}
@@ -2,16 +2,27 @@ package com.houseleasing.houseleasingmanagementsystem.repository;
 
 import com.houseleasing.houseleasingmanagementsystem.model.RentPayment;
 import com.houseleasing.houseleasingmanagementsystem.model.enums.PaymentStatus;
+import com.houseleasing.houseleasingmanagementsystem.repository.projection.MonthlyRevenue;
+import com.houseleasing.houseleasingmanagementsystem.repository.projection.ReminderCandidate;
+import com.houseleasing.houseleasingmanagementsystem.repository.projection.ReportSummaryRow;
+import com.houseleasing.houseleasingmanagementsystem.repository.projection.RentPaymentListItem;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,7 +39,53 @@ public interface RentPaymentRepository extends JpaRepository<RentPayment, Long>,
     // Check if a rent payment already exists for a contract on a specific due date
     boolean existsByContract_IdAndDueDate(Long contractId, java.time.LocalDate dueDate);
 
-    List<RentPayment> findByDueDateBetween(LocalDate from, LocalDate to);
+    // 合同已有租金记录的应付日期（生成租金计划时一次性查出，用于去重）
+    @Query("select rp.dueDate from RentPayment rp where rp.contract.id = :contractId")
+    List<LocalDate> findDueDatesByContractId(@Param("contractId") Long contractId);
+
+    // 单个合同按月汇总（合同更换房东/房源时迁移月度汇总）
+    @Query("select year(rp.dueDate) as incomeYear, month(rp.dueDate) as incomeMonth, " +
+           "sum(rp.amount) as total, " +
+           "sum(case when rp.status = 'PAID' then rp.amount else 0.0 end) as paid, " +
+           "count(rp) as paymentCount " +
+           "from RentPayment rp " +
+           "where rp.contract.id = :contractId and rp.dueDate is not null " +
+           "group by year(rp.dueDate), month(rp.dueDate)")
+    List<MonthlyRevenue> sumRevenueByContractGroupByMonth(@Param("contractId") Long contractId);
+
+    // 报表汇总：各维度分组的笔数、应收、实收、罚金，全部在数据库端聚合
+    String SUMMARY_COLUMNS = "count(rp) as paymentCount, " +
+            "coalesce(sum(rp.amount), 0.0) as totalAmount, " +
+            "coalesce(sum(case when rp.status = 'PAID' then rp.amount else 0.0 end), 0.0) as paidAmount, " +
+            "coalesce(sum(rp.penalty), 0.0) as penaltyTotal ";
+
+    // 分组表达式与选择列保持一致，否则在 ONLY_FULL_GROUP_BY 下会被拒绝
+    @Query("select year(rp.dueDate) * 100 + month(rp.dueDate) as groupKey, " + SUMMARY_COLUMNS +
+           "from RentPayment rp where rp.dueDate between :from and :to " +
+           "group by year(rp.dueDate) * 100 + month(rp.dueDate) order by groupKey")
+    List<ReportSummaryRow> summarizeByMonth(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("select l.id as groupKey, l.realName as groupLabel, " + SUMMARY_COLUMNS +
+           "from RentPayment rp join rp.contract c left join c.landlord l " +
+           "where rp.dueDate between :from and :to " +
+           "group by l.id, l.realName order by l.id")
+    List<ReportSummaryRow> summarizeByLandlord(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("select h.id as groupKey, h.address as groupLabel, " + SUMMARY_COLUMNS +
+           "from RentPayment rp join rp.contract c left join c.house h " +
+           "where rp.dueDate between :from and :to " +
+           "group by h.id, h.address order by h.id")
+    List<ReportSummaryRow> summarizeByHouse(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("select rp.status as groupKey, " + SUMMARY_COLUMNS +
+           "from RentPayment rp where rp.dueDate between :from and :to " +
+           "group by rp.status order by rp.status")
+    List<ReportSummaryRow> summarizeByStatus(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("select c.paymentMethod as groupKey, " + SUMMARY_COLUMNS +
+           "from RentPayment rp join rp.contract c where rp.dueDate between :from and :to " +
+           "group by c.paymentMethod order by c.paymentMethod")
+    List<ReportSummaryRow> summarizeByPaymentMethod(@Param("from") LocalDate from, @Param("to") LocalDate to);
 
     List<RentPayment> findByStatusAndDueDateBefore(PaymentStatus status, LocalDate date);
 
@@ -40,12 +97,91 @@ public interface RentPaymentRepository extends JpaRepository<RentPayment, Long>,
            "where rp.id = :id")
     Optional<RentPayment> findByIdWithRelations(@Param("id") Long id);
 
-    @Query("select rp from RentPayment rp " +
-           "left join fetch rp.contract c " +
-           "left join fetch c.house h " +
-           "left join fetch c.landlord l " +
-           "left join fetch c.tenant t " +
-           "where rp.dueDate < :date and rp.status in :statuses")
-    List<RentPayment> findOverdueBefore(@Param("date") LocalDate date,
-                                        @Param("statuses") List<com.houseleasing.houseleasingmanagementsystem.model.enums.PaymentStatus> statuses);
+    // 两阶段分页第二步：按 id 投影租金记录列表行（含合同编号、租客/房东姓名、房源地址）
+    @Query(RentPaymentListItem.SELECT + "where rp.id in :ids")
+    List<RentPaymentListItem> findListItemsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(RentPaymentListItem.SELECT + "where rp.dueDate < :date and rp.status in :statuses order by rp.dueDate, rp.id")
+    List<RentPaymentListItem> findOverdueListItems(@Param("date") LocalDate date,
+                                                   @Param("statuses") List<PaymentStatus> statuses);
+
+    @Query(RentPaymentListItem.SELECT + "where rp.dueDate between :from and :to order by rp.dueDate, rp.id")
+    List<RentPaymentListItem> findListItemsByDueDateBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // 逾期清扫：待清扫记录的 id 范围，用于按 id 区间分块更新
+    @Query("select min(rp.id) from RentPayment rp where rp.status = :status and rp.dueDate < :date")
+    Long findMinIdByStatusAndDueDateBefore(@Param("status") PaymentStatus status, @Param("date") LocalDate date);
+
+    @Query("select max(rp.id) from RentPayment rp where rp.status = :status and rp.dueDate < :date")
+    Long findMaxIdByStatusAndDueDateBefore(@Param("status") PaymentStatus status, @Param("date") LocalDate date);
+
+    // 逾期清扫：一个 id 区间内的 PENDING 且已过应付日期的记录批量置为 OVERDUE（每次调用单独提交）
+    @Transactional
+    @Modifying
+    @Query("update RentPayment rp set rp.status = :overdue " +
+           "where rp.id between :fromId and :toId and rp.status = :pending and rp.dueDate < :today")
+    int markOverdueInIdRange(@Param("fromId") Long fromId,
+                             @Param("toId") Long toId,
+                             @Param("today") LocalDate today,
+                             @Param("pending") PaymentStatus pending,
+                             @Param("overdue") PaymentStatus overdue);
+
+    // 罚金计算：未处理的逾期记录 id 范围
+    @Query("select min(rp.id) from RentPayment rp " +
+           "where rp.status = :status and (rp.overdueProcessed is null or rp.overdueProcessed = false)")
+    Long findMinUnprocessedIdByStatus(@Param("status") PaymentStatus status);
+
+    @Query("select max(rp.id) from RentPayment rp " +
+           "where rp.status = :status and (rp.overdueProcessed is null or rp.overdueProcessed = false)")
+    Long findMaxUnprocessedIdByStatus(@Param("status") PaymentStatus status);
+
+    // 罚金累计：按支付周期规则从应付日重新计算罚金并记录累计日期（每天最多计算一次，可重复执行）
+    // 达到上限后标记已处理，不再累计；已支付（不再是 OVERDUE）的记录保留最后一次的罚金
+    @Transactional
+    @Modifying
+    // 声明原生语句影响的表，否则 Hibernate 会清空全部二级缓存区域
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "rent_payments"))
+    @Query(value = "UPDATE rent_payments " +
+            "SET penalty = ROUND(LEAST(amount * :dailyRate * TIMESTAMPDIFF(DAY, due_date, :today), " +
+            "amount * :capRate), 2), " +
+            "overdue_processed = CASE WHEN amount * :dailyRate * TIMESTAMPDIFF(DAY, due_date, :today) " +
+            ">= amount * :capRate THEN TRUE ELSE FALSE END, " +
+            "penalty_accrued_through = :today " +
+            "WHERE id BETWEEN :fromId AND :toId " +
+            "AND status = 'OVERDUE' " +
+            "AND (overdue_processed IS NULL OR overdue_processed = FALSE) " +
+            "AND (penalty_accrued_through IS NULL OR penalty_accrued_through < :today) " +
+            "AND amount IS NOT NULL " +
+            "AND due_date < :graceCutoff " +
+            "AND contract_id IN (SELECT c.id FROM contracts c WHERE COALESCE(c.payment_cycle, 'MONTHLY') = :cycle)",
+            nativeQuery = true)
+    int applyPenaltyInIdRange(@Param("fromId") Long fromId,
+                              @Param("toId") Long toId,
+                              @Param("cycle") String cycle,
+                              @Param("dailyRate") double dailyRate,
+                              @Param("capRate") double capRate,
+                              @Param("today") LocalDate today,
+                              @Param("graceCutoff") LocalDate graceCutoff);
+
+    // 批量提醒：按 (租客, id) 递增分批读取待提醒记录（keyset 分页，不做 count），同一租客的记录相邻；无租客按 0 排序
+    @Query("select rp.id as paymentId, t.id as tenantId, t.realName as tenantName, t.phone as tenantPhone, " +
+           "c.contractNo as contractNo, h.address as houseAddress, " +
+           "rp.dueDate as dueDate, rp.amount as amount, rp.status as status, rp.remindedAt as remindedAt " +
+           "from RentPayment rp join rp.contract c left join c.tenant t left join c.house h " +
+           "where (coalesce(t.id, 0) > :afterTenantId or (coalesce(t.id, 0) = :afterTenantId and rp.id > :afterId)) " +
+           "and rp.status in :statuses and rp.dueDate <= :dueBefore " +
+           "and (rp.remindedAt is null or rp.remindedAt < :remindedBefore) " +
+           "order by coalesce(t.id, 0), rp.id")
+    List<ReminderCandidate> findReminderCandidates(@Param("afterTenantId") Long afterTenantId,
+                                                   @Param("afterId") Long afterId,
+                                                   @Param("statuses") List<PaymentStatus> statuses,
+                                                   @Param("dueBefore") LocalDate dueBefore,
+                                                   @Param("remindedBefore") LocalDateTime remindedBefore,
+                                                   Pageable pageable);
+
+    // 批量提醒：一批发送成功后一次性回写提醒时间
+    @Transactional
+    @Modifying
+    @Query("update RentPayment rp set rp.remindedAt = :now where rp.id in :ids")
+    int markRemindedByIds(@Param("ids") List<Long> ids, @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,45 @@
+package com.houseleasing.houseleasingmanagementsystem.repository;
+
+import com.houseleasing.houseleasingmanagementsystem.model.SchedulerLock;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface SchedulerLockRepository extends JpaRepository<SchedulerLock, String> {
+
+    // 仅当锁已过期时抢占，返回 1 表示加锁成功
+    @Transactional
+    @Modifying
+    @Query("update SchedulerLock l set l.lockedUntil = :until, l.lockedAt = :now, l.lockedBy = :owner " +
+           "where l.name = :name and l.lockedUntil <= :now")
+    int tryAcquire(@Param("name") String name,
+                   @Param("owner") String owner,
+                   @Param("now") LocalDateTime now,
+                   @Param("until") LocalDateTime until);
+
+    // 首次运行时插入锁记录；主键冲突说明其它节点已插入
+    @Transactional
+    @Modifying
+    // 声明原生语句影响的表，否则 Hibernate 会清空全部二级缓存区域
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "scheduler_locks"))
+    @Query(value = "INSERT INTO scheduler_locks (name, locked_until, locked_at, locked_by) " +
+            "VALUES (:name, :until, :now, :owner)", nativeQuery = true)
+    int insertLock(@Param("name") String name,
+                   @Param("owner") String owner,
+                   @Param("now") LocalDateTime now,
+                   @Param("until") LocalDateTime until);
+
+    @Transactional
+    @Modifying
+    @Query("update SchedulerLock l set l.lockedUntil = :now where l.name = :name and l.lockedBy = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,160 @@
+package com.houseleasing.houseleasingmanagementsystem.repository;
+
+import com.houseleasing.houseleasingmanagementsystem.dto.KeysetPage;
+import com.houseleasing.houseleasingmanagementsystem.util.KeysetPager;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * 两阶段分页：先按过滤条件分页查出 id（窄行，数据库端 LIMIT/OFFSET），再按 id 一次性加载列表行投影
+ * 避免 JOIN FETCH 与 Pageable 混用导致的宽行查询和内存分页（HHH90003004），也不把实体整体序列化到响应
+ * 每页固定：id 查询 1 条 + 投影查询 1 条 + count 查询（最后一页不足一页时省略；游标分页不做 count）
+ * 注册为普通组件而非 @Repository：游标、排序字段无效时的 IllegalArgumentException 需原样交给控制器返回 400，
+ * 不能被持久化异常转换包装成 InvalidDataAccessApiUsageException
+ */
+@Component
+public class TwoPhasePageRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * spec 只应包含过滤条件（不做 fetch）；loader 按 id 集合加载列表行（一条 JOIN 投影查询），返回顺序任意
+     */
+    public <T, R> Page<R> findPage(Class<T> type,
+                                   Specification<T> spec,
+                                   Pageable pageable,
+                                   Function<Collection<Long>, List<R>> loader,
+                                   Function<R, Long> idOf) {
+        return findPage(type, spec, null, pageable, loader, idOf);
+    }
+
+    /**
+     * 同上，leadingOrder 排在 pageable 的排序之前（如全文检索按相关度排序），为 null 时忽略
+     */
+    public <T, R> Page<R> findPage(Class<T> type,
+                                   Specification<T> spec,
+                                   LeadingOrder<T> leadingOrder,
+                                   Pageable pageable,
+                                   Function<Collection<Long>, List<R>> loader,
+                                   Function<R, Long> idOf) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> idQuery = cb.createQuery(Long.class);
+        Root<T> root = idQuery.from(type);
+        Predicate where = spec == null ? null : spec.toPredicate(root, idQuery, cb);
+        if (where != null) idQuery.where(where);
+        idQuery.select(root.get("id"));
+        // 追加 id 作为排序的最后一列，保证翻页结果稳定
+        List<Order> orders = new ArrayList<>();
+        if (leadingOrder != null) orders.add(leadingOrder.toOrder(root, cb));
+        orders.addAll(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        if (pageable.getSort().getOrderFor("id") == null) orders.add(cb.asc(root.get("id")));
+        idQuery.orderBy(orders);
+
+        TypedQuery<Long> query = entityManager.createQuery(idQuery);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        List<Long> ids = query.getResultList();
+
+        List<R> content = ids.isEmpty() ? List.of() : inIdOrder(loader.apply(ids), ids, idOf);
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(type, spec));
+    }
+
+    /**
+     * 游标分页版本：第一步只查 (id, 排序字段) 共 size + 1 行，第二步同样按 id 加载列表行
+     * cursor 为空表示第一页，游标格式见 {@link KeysetPager}
+     */
+    public <T, R> KeysetPage<R> findKeysetPage(Class<T> type,
+                                               Specification<T> spec,
+                                               String sortField,
+                                               Sort.Direction direction,
+                                               String cursor,
+                                               int size,
+                                               Function<Collection<Long>, List<R>> loader,
+                                               Function<R, Long> idOf) {
+        int limit = KeysetPager.limit(size);
+        Class<?> valueType = entityManager.getMetamodel().entity(type).getAttribute(sortField).getJavaType();
+        Specification<T> after = KeysetPager.after(cursor, sortField, direction, valueType);
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> keyQuery = cb.createQuery(Object[].class);
+        Root<T> root = keyQuery.from(type);
+        List<Predicate> where = new ArrayList<>(2);
+        Predicate filter = spec == null ? null : spec.toPredicate(root, keyQuery, cb);
+        if (filter != null) where.add(filter);
+        if (after != null) where.add(after.toPredicate(root, keyQuery, cb));
+        if (!where.isEmpty()) keyQuery.where(where.toArray(new Predicate[0]));
+
+        Path<Long> id = root.get("id");
+        Path<Object> field = root.get(sortField);
+        keyQuery.multiselect(id, field);
+        boolean asc = direction == Sort.Direction.ASC;
+        List<Order> orders = new ArrayList<>(2);
+        orders.add(asc ? cb.asc(field) : cb.desc(field));
+        if (!"id".equals(sortField)) orders.add(asc ? cb.asc(id) : cb.desc(id));
+        keyQuery.orderBy(orders);
+
+        List<Object[]> keys = entityManager.createQuery(keyQuery).setMaxResults(limit + 1).getResultList();
+        boolean hasNext = keys.size() > limit;
+        if (hasNext) keys = keys.subList(0, limit);
+
+        List<Long> ids = new ArrayList<>(keys.size());
+        for (Object[] k : keys) ids.add((Long) k[0]);
+        List<R> content = ids.isEmpty() ? List.of() : inIdOrder(loader.apply(ids), ids, idOf);
+
+        String next = null;
+        if (hasNext) {
+            Object[] last = keys.get(keys.size() - 1);
+            next = KeysetPager.encode(sortField, direction, "id".equals(sortField) ? null : last[1], (Long) last[0]);
+        }
+        return new KeysetPage<>(content, content.size(), hasNext, next);
+    }
+
+    /**
+     * 按表达式排序（Sort 只能表达属性排序）
+     */
+    @FunctionalInterface
+    public interface LeadingOrder<T> {
+        Order toOrder(Root<T> root, CriteriaBuilder cb);
+    }
+
+    private <T> long count(Class<T> type, Specification<T> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
+        Root<T> root = countQuery.from(type);
+        Predicate where = spec == null ? null : spec.toPredicate(root, countQuery, cb);
+        if (where != null) countQuery.where(where);
+        countQuery.select(cb.count(root));
+        return entityManager.createQuery(countQuery).getSingleResult();
+    }
+
+    private static <R> List<R> inIdOrder(List<R> rows, List<Long> ids, Function<R, Long> idOf) {
+        Map<Long, R> byId = new HashMap<>(rows.size() * 2);
+        for (R r : rows) byId.put(idOf.apply(r), r);
+        List<R> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            R r = byId.get(id);
+            if (r != null) ordered.add(r);
+        }
+        return ordered;
+    }
+}
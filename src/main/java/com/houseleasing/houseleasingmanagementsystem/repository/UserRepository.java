@@ -1,22 +1,31 @@
 package com.houseleasing.houseleasingmanagementsystem.repository;
 
 import com.houseleasing.houseleasingmanagementsystem.model.User;
+import com.houseleasing.houseleasingmanagementsystem.repository.projection.UserListItem;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User> {
     List<User> findByRealName(String realName);
 
     List<User> findByRealNameContainingIgnoreCase(String realName);
 
-    // 新增：分页版本
-    Page<User> findByRealNameContainingIgnoreCase(String realName, Pageable pageable);
+    // 列表投影
+    @Query(value = UserListItem.SELECT, countQuery = "select count(u) from User u")
+    Page<UserListItem> findListItems(Pageable pageable);
+
+    @Query(UserListItem.SELECT + "where u.id in :ids")
+    List<UserListItem> findListItemsByIdIn(@Param("ids") Collection<Long> ids);
 
     Optional<User> findByIdCard(String idCard);
 }
@@ -0,0 +1,35 @@
+package com.houseleasing.houseleasingmanagementsystem.repository.projection;
+
+import com.houseleasing.houseleasingmanagementsystem.model.enums.ContractStatus;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.PaymentCycle;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.PaymentMethod;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 合同列表行（房源地址、租客/房东姓名通过 LEFT JOIN 取出）
+ */
+public record ContractListItem(
+        Long id,
+        String contractNo,
+        LocalDate startDate,
+        LocalDate endDate,
+        Double rentAmount,
+        PaymentCycle paymentCycle,
+        PaymentMethod paymentMethod,
+        String breachClause,
+        ContractStatus status,
+        LocalDateTime signedAt,
+        Long houseId,
+        String houseAddress,
+        Long tenantId,
+        String tenantName,
+        Long landlordId,
+        String landlordName) {
+
+    public static final String SELECT = "select new com.houseleasing.houseleasingmanagementsystem.repository.projection.ContractListItem("
+            + "c.id, c.contractNo, c.startDate, c.endDate, c.rentAmount, c.paymentCycle, c.paymentMethod, "
+            + "c.breachClause, c.status, c.signedAt, h.id, h.address, t.id, t.realName, l.id, l.realName) "
+            + "from Contract c left join c.house h left join c.tenant t left join c.landlord l ";
+}
@@ -0,0 +1,32 @@
+package com.houseleasing.houseleasingmanagementsystem.repository.projection;
+
+import com.houseleasing.houseleasingmanagementsystem.model.enums.HouseStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * 房源列表行（JPQL 构造表达式直接投影，不加载实体；字段与房源实体的 JSON 输出一致）
+ */
+public record HouseListItem(
+        Long id,
+        String address,
+        String houseType,
+        Double area,
+        Double rent,
+        String decoration,
+        String facilities,
+        HouseStatus status,
+        String description,
+        Boolean recommended,
+        Double latitude,
+        Double longitude,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        Long landlordId,
+        String landlordName) {
+
+    public static final String SELECT = "select new com.houseleasing.houseleasingmanagementsystem.repository.projection.HouseListItem("
+            + "h.id, h.address, h.houseType, h.area, h.rent, h.decoration, h.facilities, h.status, "
+            + "h.description, h.recommended, h.latitude, h.longitude, h.createdAt, h.updatedAt, l.id, l.realName) "
+            + "from House h left join h.landlord l ";
+}
@@ -0,0 +1,26 @@
+package com.houseleasing.houseleasingmanagementsystem.repository.projection;
+
+import com.houseleasing.houseleasingmanagementsystem.model.enums.MaintenanceStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * 报修列表行（房源地址通过 LEFT JOIN 取出）
+ */
+public record MaintenanceRequestListItem(
+        Long id,
+        String description,
+        Double cost,
+        MaintenanceStatus status,
+        LocalDateTime createdAt,
+        LocalDateTime completedAt,
+        String requesterName,
+        String contact,
+        Long houseId,
+        String houseAddress) {
+
+    public static final String SELECT = "select new com.houseleasing.houseleasingmanagementsystem.repository.projection.MaintenanceRequestListItem("
+            + "mr.id, mr.description, mr.cost, mr.status, mr.createdAt, mr.completedAt, "
+            + "mr.requesterName, mr.contact, h.id, h.address) "
+            + "from MaintenanceRequest mr left join mr.house h ";
+}
@@ -0,0 +1,16 @@
+package com.houseleasing.houseleasingmanagementsystem.repository.projection;
+
+/**
+ * 按年月分组的应收/已收租金合计（月度收入汇总表的增量维护与重建使用）
+ */
+public interface MonthlyRevenue {
+    Integer getIncomeYear();
+
+    Integer getIncomeMonth();
+
+    Double getTotal();
+
+    Double getPaid();
+
+    Long getPaymentCount();
+}
@@ -0,0 +1,31 @@
+package com.houseleasing.houseleasingmanagementsystem.repository.projection;
+
+import com.houseleasing.houseleasingmanagementsystem.model.enums.PaymentStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 待提醒的租金记录（只取发送提醒需要的列）
+ */
+public interface ReminderCandidate {
+    Long getPaymentId();
+
+    Long getTenantId();
+
+    String getTenantName();
+
+    String getTenantPhone();
+
+    String getContractNo();
+
+    String getHouseAddress();
+
+    LocalDate getDueDate();
+
+    Double getAmount();
+
+    PaymentStatus getStatus();
+
+    LocalDateTime getRemindedAt();
+}
@@ -0,0 +1,32 @@
+package com.houseleasing.houseleasingmanagementsystem.repository.projection;
+
+import com.houseleasing.houseleasingmanagementsystem.model.enums.PaymentStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 租金记录列表行（合同编号、租客、房东、房源地址通过 LEFT JOIN 取出）
+ */
+public record RentPaymentListItem(
+        Long id,
+        LocalDate dueDate,
+        Double amount,
+        LocalDateTime paidAt,
+        PaymentStatus status,
+        LocalDate periodStart,
+        LocalDate periodEnd,
+        LocalDateTime remindedAt,
+        Boolean overdueProcessed,
+        Double penalty,
+        Long contractId,
+        String contractNo,
+        String tenantName,
+        String landlordName,
+        String houseAddress) {
+
+    public static final String SELECT = "select new com.houseleasing.houseleasingmanagementsystem.repository.projection.RentPaymentListItem("
+            + "rp.id, rp.dueDate, rp.amount, rp.paidAt, rp.status, rp.periodStart, rp.periodEnd, "
+            + "rp.remindedAt, rp.overdueProcessed, rp.penalty, c.id, c.contractNo, t.realName, l.realName, h.address) "
+            + "from RentPayment rp left join rp.contract c left join c.tenant t left join c.landlord l left join c.house h ";
+}
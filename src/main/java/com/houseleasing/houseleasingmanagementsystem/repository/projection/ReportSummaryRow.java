@@ -0,0 +1,18 @@
+package com.houseleasing.houseleasingmanagementsystem.repository.projection;
+
+/**
+ * 租金报表分组汇总的一行（分组键随分组维度不同：yyyyMM 整数、用户/房源 id 或枚举）
+ */
+public interface ReportSummaryRow {
+    Object getGroupKey();
+
+    String getGroupLabel();
+
+    Long getPaymentCount();
+
+    Double getTotalAmount();
+
+    Double getPaidAmount();
+
+    Double getPenaltyTotal();
+}
@@ -0,0 +1,27 @@
+package com.houseleasing.houseleasingmanagementsystem.repository.projection;
+
+import com.houseleasing.houseleasingmanagementsystem.model.enums.ReviewType;
+
+import java.time.LocalDateTime;
+
+/**
+ * 评价列表行（合同编号、评价人/被评价人姓名通过 LEFT JOIN 取出）
+ */
+public record ReviewListItem(
+        Long id,
+        ReviewType reviewType,
+        Integer rating,
+        String comment,
+        LocalDateTime createdAt,
+        Long contractId,
+        String contractNo,
+        Long reviewerId,
+        String reviewerName,
+        Long revieweeId,
+        String revieweeName) {
+
+    public static final String SELECT = "select new com.houseleasing.houseleasingmanagementsystem.repository.projection.ReviewListItem("
+            + "r.id, r.reviewType, r.rating, r.comment, r.createdAt, c.id, c.contractNo, "
+            + "rv.id, rv.realName, re.id, re.realName) "
+            + "from Review r left join r.contract c left join r.reviewer rv left join r.reviewee re ";
+}
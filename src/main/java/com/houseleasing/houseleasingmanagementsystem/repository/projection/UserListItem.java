@@ -0,0 +1,19 @@
+package com.houseleasing.houseleasingmanagementsystem.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * 用户列表行
+ */
+public record UserListItem(
+        Long id,
+        String realName,
+        String idCard,
+        String phone,
+        LocalDateTime createdAt,
+        String role) {
+
+    public static final String SELECT = "select new com.houseleasing.houseleasingmanagementsystem.repository.projection.UserListItem("
+            + "u.id, u.realName, u.idCard, u.phone, u.createdAt, u.role) "
+            + "from User u ";
+}
@@ -0,0 +1,101 @@
+package com.houseleasing.houseleasingmanagementsystem.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.houseleasing.houseleasingmanagementsystem.util.TokenBucket;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 按客户端 IP 统计认证失败次数，并为每个 IP 维护一个令牌桶：每次被拒绝消耗一个令牌，
+ * 令牌耗尽的 IP 在校验签名之前直接被拒绝（TokenAuthenticationFilter 返回 429）
+ * 跟踪的 IP 数有上限，写满时由 Caffeine 淘汰较旧的条目，新出现的 IP 始终会被跟踪
+ */
+@Component
+public class AuthRejectionTracker {
+
+    // 最后一次被拒绝后超过该时长的 IP 自动过期
+    private static final Duration IDLE_EXPIRY = Duration.ofMinutes(10);
+
+    private static final class Client {
+        final AtomicLong rejections = new AtomicLong();
+        final TokenBucket bucket;
+
+        Client(TokenBucket bucket) {
+            this.bucket = bucket;
+        }
+    }
+
+    private final Cache<String, Client> clients;
+
+    private final boolean limiterEnabled;
+    private final int burst;
+    private final double refillPerSecond;
+
+    public AuthRejectionTracker(@Value("${app.auth-rejection.limiter-enabled:true}") boolean limiterEnabled,
+                                @Value("${app.auth-rejection.burst:20}") int burst,
+                                @Value("${app.auth-rejection.refill-per-second:1}") double refillPerSecond,
+                                @Value("${app.auth-rejection.max-tracked-clients:10000}") int maxTrackedClients,
+                                MeterRegistry meterRegistry) {
+        this.limiterEnabled = limiterEnabled;
+        this.burst = Math.max(1, burst);
+        this.refillPerSecond = refillPerSecond > 0 ? refillPerSecond : 1;
+        this.clients = Caffeine.newBuilder()
+                .maximumSize(Math.max(1, maxTrackedClients))
+                .expireAfterWrite(IDLE_EXPIRY)
+                .build();
+        Gauge.builder("auth.rejections.tracked.clients", clients, Cache::estimatedSize)
+                .description("Client IPs with recent authentication rejections")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 该 IP 的令牌是否已耗尽；未被拒绝过的 IP 不受限
+     */
+    public boolean isThrottled(String clientIp) {
+        if (!limiterEnabled) {
+            return false;
+        }
+        Client client = clients.getIfPresent(clientIp);
+        return client != null && client.bucket.availableTokens() < 1;
+    }
+
+    public void recordRejection(String clientIp) {
+        // compute 视为写入，每次被拒绝都会重新计算过期时间
+        clients.asMap().compute(clientIp, (ip, client) -> {
+            if (client == null) {
+                client = new Client(new TokenBucket(burst, refillPerSecond));
+            }
+            client.rejections.incrementAndGet();
+            client.bucket.tryConsume(1);
+            return client;
+        });
+    }
+
+    /**
+     * 被拒绝次数最多的前 limit 个 IP
+     */
+    public Map<String, Long> topClients(int limit) {
+        List<Map.Entry<String, Long>> entries = clients.asMap().entrySet().stream()
+                .map(e -> Map.entry(e.getKey(), e.getValue().rejections.get()))
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(limit)
+                .toList();
+        Map<String, Long> result = new LinkedHashMap<>();
+        entries.forEach(e -> result.put(e.getKey(), e.getValue()));
+        return result;
+    }
+
+    public long trackedClients() {
+        return clients.estimatedSize();
+    }
+}
@@ -0,0 +1,38 @@
+package com.houseleasing.houseleasingmanagementsystem.security;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 过滤器拒绝响应的公共部分：错误体为 success / message / code 三个字段，
+ * 启动时按原因序列化一次，拒绝路径只写预先生成的字节
+ */
+final class ErrorResponses {
+
+    private ErrorResponses() {
+    }
+
+    static byte[] errorBody(int code, String message) {
+        Map<String, Object> errorResponse = new LinkedHashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("message", message);
+        errorResponse.put("code", code);
+        try {
+            return new ObjectMapper().writeValueAsBytes(errorResponse);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static void write(HttpServletResponse response, int status, byte[] body) throws IOException {
+        response.setStatus(status);
+        response.setContentType("application/json;charset=UTF-8");
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+}
@@ -0,0 +1,34 @@
+package com.houseleasing.houseleasingmanagementsystem.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.houseleasing.houseleasingmanagementsystem.util.TokenBucket;
+
+import java.time.Duration;
+
+/**
+ * 单机内存令牌桶；key 数有上限，写满时由 Caffeine 淘汰较旧的桶，空闲 10 分钟的桶自动过期
+ * 新 key 始终会建桶并按限额判断，不会因为存储已满而被直接放行
+ */
+public class InMemoryRateLimitStore implements RateLimitStore {
+
+    private static final Duration IDLE_EXPIRY = Duration.ofMinutes(10);
+
+    private final Cache<String, TokenBucket> buckets;
+
+    public InMemoryRateLimitStore(int maxKeys) {
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(Math.max(1, maxKeys))
+                .expireAfterAccess(IDLE_EXPIRY)
+                .build();
+    }
+
+    @Override
+    public boolean tryAcquire(String key, double ratePerSecond, int burst) {
+        return buckets.get(key, k -> new TokenBucket(burst, ratePerSecond)).tryConsume(1);
+    }
+
+    public long size() {
+        return buckets.estimatedSize();
+    }
+}
@@ -0,0 +1,211 @@
+package com.houseleasing.houseleasingmanagementsystem.security;
+
+import com.houseleasing.houseleasingmanagementsystem.config.RateLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * /api/* 限流与准入控制，注册在 TokenAuthenticationFilter 之后
+ * 1. 按接口类别（报表、统计、搜索、其它）分别计算预算：每个 token 一个令牌桶，每个 IP 一个令牌桶
+ * 2. 全局和按类别的并发上限，取不到许可立即返回 429，不排队占用 Tomcat 线程和数据库连接
+ * 异步请求（流式报表导出）在异步处理结束后才归还并发许可
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    enum EndpointClass {
+        DEFAULT, SEARCH, REPORT, STATS
+    }
+
+    enum Shed {
+        TOKEN_RATE("请求过于频繁，请稍后再试"),
+        IP_RATE("请求过于频繁，请稍后再试"),
+        CONCURRENCY("服务繁忙，请稍后再试");
+
+        final byte[] body;
+
+        Shed(String message) {
+            this.body = ErrorResponses.errorBody(429, message);
+        }
+    }
+
+    private final RateLimitProperties properties;
+    private final RateLimitStore store;
+    private final Semaphore globalPermits;
+    private final Map<EndpointClass, Semaphore> classPermits = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Map<Shed, Counter>> shedCounters = new EnumMap<>(EndpointClass.class);
+
+    public RateLimitFilter(RateLimitProperties properties, RateLimitStore store, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.store = store;
+        this.globalPermits = properties.getMaxConcurrent() > 0 ? new Semaphore(properties.getMaxConcurrent()) : null;
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            int max = budget(endpointClass).getMaxConcurrent();
+            if (max > 0) {
+                classPermits.put(endpointClass, new Semaphore(max));
+            }
+            Map<Shed, Counter> counters = new EnumMap<>(Shed.class);
+            for (Shed shed : Shed.values()) {
+                counters.put(shed, Counter.builder("http.server.requests.shed")
+                        .description("Requests rejected with 429 by rate limiting or admission control")
+                        .tag("endpoint", endpointClass.name().toLowerCase())
+                        .tag("reason", shed.name().toLowerCase())
+                        .register(meterRegistry));
+            }
+            shedCounters.put(endpointClass, counters);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !properties.isEnabled() || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        EndpointClass endpointClass = classify(request.getRequestURI());
+        RateLimitProperties.Budget budget = budget(endpointClass);
+
+        String token = bearerToken(request);
+        if (token != null && !acquire("t:" + endpointClass + ":" + token, budget.getRatePerSecond(), budget.getBurst())) {
+            shed(response, endpointClass, Shed.TOKEN_RATE);
+            return;
+        }
+        double ipMultiplier = properties.getIpMultiplier();
+        if (!acquire("ip:" + endpointClass + ":" + request.getRemoteAddr(),
+                budget.getRatePerSecond() * ipMultiplier, (int) Math.ceil(budget.getBurst() * ipMultiplier))) {
+            shed(response, endpointClass, Shed.IP_RATE);
+            return;
+        }
+
+        Semaphore classPermit = classPermits.get(endpointClass);
+        if (globalPermits != null && !globalPermits.tryAcquire()) {
+            shed(response, endpointClass, Shed.CONCURRENCY);
+            return;
+        }
+        if (classPermit != null && !classPermit.tryAcquire()) {
+            if (globalPermits != null) globalPermits.release();
+            shed(response, endpointClass, Shed.CONCURRENCY);
+            return;
+        }
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new PermitReleasingListener(classPermit));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                release(classPermit);
+            }
+        }
+    }
+
+    private boolean acquire(String key, double ratePerSecond, int burst) {
+        // 预算未配置（速率或突发量不大于 0）时不限流
+        if (ratePerSecond <= 0 || burst <= 0) {
+            return true;
+        }
+        return store.tryAcquire(key, ratePerSecond, burst);
+    }
+
+    private void release(Semaphore classPermit) {
+        if (classPermit != null) classPermit.release();
+        if (globalPermits != null) globalPermits.release();
+    }
+
+    private void shed(HttpServletResponse response, EndpointClass endpointClass, Shed shed) throws IOException {
+        shedCounters.get(endpointClass).get(shed).increment();
+        response.setHeader("Retry-After", "1");
+        ErrorResponses.write(response, 429, shed.body);
+    }
+
+    static EndpointClass classify(String path) {
+        if (path.startsWith("/api/stats")) {
+            return EndpointClass.STATS;
+        }
+        if (path.startsWith("/api/rent-payments/report") || path.equals("/api/contracts/import")) {
+            return EndpointClass.REPORT;
+        }
+        if (path.contains("/search")) {
+            return EndpointClass.SEARCH;
+        }
+        return EndpointClass.DEFAULT;
+    }
+
+    private RateLimitProperties.Budget budget(EndpointClass endpointClass) {
+        return switch (endpointClass) {
+            case SEARCH -> properties.getSearch();
+            case REPORT -> properties.getReport();
+            case STATS -> properties.getStats();
+            case DEFAULT -> properties.getDefaults();
+        };
+    }
+
+    // 只取签名末尾 16 个字符作为 key，不在限流存储中保存完整 token
+    private static String bearerToken(HttpServletRequest request) {
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader == null || !authHeader.startsWith("Bearer ") || authHeader.length() <= 7) {
+            return null;
+        }
+        return authHeader.length() > 7 + 16 ? authHeader.substring(authHeader.length() - 16) : authHeader.substring(7);
+    }
+
+    private final class PermitReleasingListener implements AsyncListener {
+
+        private final Semaphore classPermit;
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        PermitReleasingListener(Semaphore classPermit) {
+            this.classPermit = classPermit;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            releaseOnce();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            releaseOnce();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            releaseOnce();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // 异步处理再次开始时（如超时后重新派发），监听器需要重新注册
+            event.getAsyncContext().addListener(this);
+        }
+
+        // onTimeout / onError 之后还会触发 onComplete，只归还一次
+        private void releaseOnce() {
+            if (released.compareAndSet(false, true)) {
+                release(classPermit);
+            }
+        }
+    }
+}
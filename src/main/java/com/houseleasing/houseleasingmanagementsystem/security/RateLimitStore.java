@@ -0,0 +1,13 @@
+package com.houseleasing.houseleasingmanagementsystem.security;
+
+/**
+ * 限流令牌桶的存储；默认为单机内存实现（InMemoryRateLimitStore），
+ * 多实例部署共享限额时可另行注册一个实现（如基于 Redis），RateLimitConfig 中的默认实现随之让位
+ */
+public interface RateLimitStore {
+
+    /**
+     * 从 key 对应的令牌桶取一个令牌；桶不存在时按 ratePerSecond / burst 创建
+     */
+    boolean tryAcquire(String key, double ratePerSecond, int burst);
+}
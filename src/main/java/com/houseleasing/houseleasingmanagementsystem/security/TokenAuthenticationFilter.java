@@ -1,7 +1,8 @@
 package com.houseleasing.houseleasingmanagementsystem.security;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.houseleasing.houseleasingmanagementsystem.util.TokenUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -12,19 +13,50 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.HashMap;
+import java.util.EnumMap;
 import java.util.Map;
 
 /**
  * Token验证过滤器
  * 拦截所有API请求（除了登录接口），验证token
+ * 拒绝响应按原因预先序列化为 UTF-8 字节，拒绝路径不创建 ObjectMapper / Map；
+ * 反复认证失败的 IP 由 AuthRejectionTracker 限流，令牌耗尽后在校验签名之前直接返回 429
+ * 客户端 IP 取 request.getRemoteAddr()，部署在反向代理后时需配置 server.forward-headers-strategy
  */
 @Component
 public class TokenAuthenticationFilter extends OncePerRequestFilter {
 
+    enum Rejection {
+        MISSING_TOKEN(HttpServletResponse.SC_UNAUTHORIZED, "缺少认证token"),
+        INVALID_TOKEN(HttpServletResponse.SC_UNAUTHORIZED, "Token无效或已过期"),
+        THROTTLED(429, "认证失败次数过多，请稍后再试");
+
+        final int status;
+        final byte[] body;
+
+        Rejection(int status, String message) {
+            this.status = status;
+            this.body = ErrorResponses.errorBody(status, message);
+        }
+    }
+
     @Autowired
     private TokenUtil tokenUtil;
 
+    @Autowired
+    private AuthRejectionTracker rejectionTracker;
+
+    private final Map<Rejection, Counter> rejectionCounters = new EnumMap<>(Rejection.class);
+
+    public TokenAuthenticationFilter(MeterRegistry meterRegistry) {
+        for (Rejection rejection : Rejection.values()) {
+            rejectionCounters.put(rejection, Counter.builder("auth.rejections")
+                    .description("Requests rejected by the token authentication filter")
+                    .tag("reason", rejection.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
     @Override
     protected void doFilterInternal(
             @NonNull HttpServletRequest request,
@@ -43,16 +75,22 @@ public class TokenAuthenticationFilter extends OncePerRequestFilter {
 
         // 如果是API请求，需要验证token
         if (path.startsWith("/api/")) {
+            String clientIp = request.getRemoteAddr();
             String authHeader = request.getHeader("Authorization");
 
             if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-                sendUnauthorizedResponse(response, "缺少认证token");
+                reject(response, rejectionTracker.isThrottled(clientIp) ? Rejection.THROTTLED : Rejection.MISSING_TOKEN, clientIp);
                 return;
             }
 
             String token = authHeader.substring(7);
+            // 被限流的 IP 只放行近期校验通过的 token，其余请求不做签名校验
+            if (rejectionTracker.isThrottled(clientIp) && !tokenUtil.isRecentlyValidated(token)) {
+                reject(response, Rejection.THROTTLED, clientIp);
+                return;
+            }
             if (!tokenUtil.validateToken(token)) {
-                sendUnauthorizedResponse(response, "Token无效或已过期");
+                reject(response, Rejection.INVALID_TOKEN, clientIp);
                 return;
             }
         }
@@ -60,16 +98,9 @@ public class TokenAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
-    private void sendUnauthorizedResponse(HttpServletResponse response, String message) throws IOException {
-        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-        response.setContentType("application/json;charset=UTF-8");
-
-        Map<String, Object> errorResponse = new HashMap<>();
-        errorResponse.put("success", false);
-        errorResponse.put("message", message);
-        errorResponse.put("code", 401);
-
-        ObjectMapper mapper = new ObjectMapper();
-        response.getWriter().write(mapper.writeValueAsString(errorResponse));
+    private void reject(HttpServletResponse response, Rejection rejection, String clientIp) throws IOException {
+        rejectionTracker.recordRejection(clientIp);
+        rejectionCounters.get(rejection).increment();
+        ErrorResponses.write(response, rejection.status, rejection.body);
     }
 }
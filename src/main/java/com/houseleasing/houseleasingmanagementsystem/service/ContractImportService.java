@@ -0,0 +1,11 @@
+package com.houseleasing.houseleasingmanagementsystem.service;
+
+import com.houseleasing.houseleasingmanagementsystem.dto.ContractImportResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface ContractImportService {
+    // 流式导入合同（format: csv / jsonl），按块提交并生成租金计划；单行错误只记录不中断
+    ContractImportResult importContracts(InputStream in, String format) throws IOException;
+}
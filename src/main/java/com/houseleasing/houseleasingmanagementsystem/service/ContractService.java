@@ -1,7 +1,9 @@
 package com.houseleasing.houseleasingmanagementsystem.service;
 
+import com.houseleasing.houseleasingmanagementsystem.dto.KeysetPage;
 import com.houseleasing.houseleasingmanagementsystem.model.Contract;
 import com.houseleasing.houseleasingmanagementsystem.model.enums.ContractStatus;
+import com.houseleasing.houseleasingmanagementsystem.repository.projection.ContractListItem;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -18,7 +20,7 @@ public interface ContractService {
 
     Contract getByContractNo(String contractNo);
 
-    Page<Contract> searchContracts(
+    Page<ContractListItem> searchContracts(
             String contractNo,
             Long houseId,
             Long landlordId,
@@ -31,6 +33,21 @@ public interface ContractService {
             Pageable pageable
     );
 
+    // 游标分页版本（按 id 升序，不执行 count 查询）
+    KeysetPage<ContractListItem> searchContractsKeyset(
+            String contractNo,
+            Long houseId,
+            Long landlordId,
+            Long tenantId,
+            ContractStatus status,
+            LocalDate startDateFrom,
+            LocalDate startDateTo,
+            LocalDate endDateFrom,
+            LocalDate endDateTo,
+            String cursor,
+            int size
+    );
+
     // 模板数据：返回签约所需基本字段（房源、房东、租客信息通过各自接口前端拼装）
 }
 
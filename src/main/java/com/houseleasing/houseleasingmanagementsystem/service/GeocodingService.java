@@ -0,0 +1,10 @@
+package com.houseleasing.houseleasingmanagementsystem.service;
+
+import com.houseleasing.houseleasingmanagementsystem.dto.GeoPoint;
+
+import java.util.Optional;
+
+public interface GeocodingService {
+    // 把地址或地名（如地铁站）解析为坐标，无法识别时返回 empty
+    Optional<GeoPoint> geocode(String address);
+}
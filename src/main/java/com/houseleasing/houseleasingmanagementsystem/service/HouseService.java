@@ -1,11 +1,15 @@
 package com.houseleasing.houseleasingmanagementsystem.service;
 
+import com.houseleasing.houseleasingmanagementsystem.dto.GeoFilter;
+import com.houseleasing.houseleasingmanagementsystem.dto.KeysetPage;
 import com.houseleasing.houseleasingmanagementsystem.model.House;
 import com.houseleasing.houseleasingmanagementsystem.model.enums.HouseStatus;
+import com.houseleasing.houseleasingmanagementsystem.repository.projection.HouseListItem;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
+import java.util.Map;
 
 public interface HouseService {
     Page<House> getAllHouses(Pageable pageable);
@@ -18,10 +22,24 @@ public interface HouseService {
 
     void deleteHouse(Long id);
 
-    Page<House> searchHouses(String address, String houseType, Double minArea, Double maxArea,
-                             Double minRent, Double maxRent, String decoration, String facilities,
-                             HouseStatus status, Boolean recommended, Long landlordId, String landlordName,
-                             Pageable pageable);
+    // q 为关键词：在地址、描述、配套设施上全文检索（中文 ngram 分词），结果按相关度排序，可与其它条件组合
+    // geo 不为空时按半径/边界框筛选并按距离排序（优先于相关度）
+    Page<HouseListItem> searchHouses(String q, String address, String houseType, Double minArea, Double maxArea,
+                                     Double minRent, Double maxRent, String decoration, String facilities,
+                                     HouseStatus status, Boolean recommended, Long landlordId, String landlordName,
+                                     GeoFilter geo, Pageable pageable);
+
+    // 分面计数：各户型/装修/状态/推荐取值在其余条件下的房源数；内存索引未就绪时返回 null
+    Map<String, Map<String, Integer>> searchFacets(String houseType, Double minArea, Double maxArea,
+                                                   Double minRent, Double maxRent, String decoration,
+                                                   HouseStatus status, Boolean recommended, Long landlordId,
+                                                   GeoFilter geo);
+
+    // 游标分页版本（按 id 升序，不执行 count 查询）
+    KeysetPage<HouseListItem> searchHousesKeyset(String address, String houseType, Double minArea, Double maxArea,
+                                        Double minRent, Double maxRent, String decoration, String facilities,
+                                        HouseStatus status, Boolean recommended, Long landlordId, String landlordName,
+                                        String cursor, int size);
 
     List<House> findByRentBetween(Double minRent, Double maxRent); // 租金范围查询
 
@@ -1,7 +1,9 @@
 package com.houseleasing.houseleasingmanagementsystem.service;
 
+import com.houseleasing.houseleasingmanagementsystem.dto.KeysetPage;
 import com.houseleasing.houseleasingmanagementsystem.model.MaintenanceRequest;
 import com.houseleasing.houseleasingmanagementsystem.model.enums.MaintenanceStatus;
+import com.houseleasing.houseleasingmanagementsystem.repository.projection.MaintenanceRequestListItem;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -16,19 +18,19 @@ public interface MaintenanceRequestService {
     MaintenanceRequest getMaintenanceRequestById(Long id);
 
     // 获取所有维修申请（分页）
-    Page<MaintenanceRequest> getAllMaintenanceRequests(Pageable pageable);
+    Page<MaintenanceRequestListItem> getAllMaintenanceRequests(Pageable pageable);
 
     // 根据租客ID获取维修申请（分页）
-    Page<MaintenanceRequest> getMaintenanceRequestsByTenantId(Long tenantId, Pageable pageable);
+    Page<MaintenanceRequestListItem> getMaintenanceRequestsByTenantId(Long tenantId, Pageable pageable);
 
     // 根据状态获取维修申请（分页）
-    Page<MaintenanceRequest> getMaintenanceRequestsByStatus(MaintenanceStatus status, Pageable pageable);
+    Page<MaintenanceRequestListItem> getMaintenanceRequestsByStatus(MaintenanceStatus status, Pageable pageable);
 
     // 根据租客ID和状态获取维修申请（分页）
-    Page<MaintenanceRequest> getMaintenanceRequestsByTenantIdAndStatus(Long tenantId, MaintenanceStatus status, Pageable pageable);
+    Page<MaintenanceRequestListItem> getMaintenanceRequestsByTenantIdAndStatus(Long tenantId, MaintenanceStatus status, Pageable pageable);
 
     // 搜索维修申请（支持多条件筛选，包括描述模糊搜索）
-    Page<MaintenanceRequest> searchMaintenanceRequests(
+    Page<MaintenanceRequestListItem> searchMaintenanceRequests(
             Long tenantId,
             Long houseId,
             MaintenanceStatus status,
@@ -38,6 +40,18 @@ public interface MaintenanceRequestService {
             Pageable pageable
     );
 
+    // 游标分页版本（按创建时间、id 倒序，不执行 count 查询）
+    KeysetPage<MaintenanceRequestListItem> searchMaintenanceRequestsKeyset(
+            Long tenantId,
+            Long houseId,
+            MaintenanceStatus status,
+            String description,
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            String cursor,
+            int size
+    );
+
     // 更新维修状态
     MaintenanceRequest updateMaintenanceStatus(Long id, MaintenanceStatus status);
 
@@ -0,0 +1,8 @@
+package com.houseleasing.houseleasingmanagementsystem.service;
+
+import java.time.LocalDate;
+
+public interface PenaltyService {
+    // 按配置规则将未支付、未封顶的逾期租金罚金累计到 today，返回本次更新条数
+    int applyPenalties(LocalDate today);
+}
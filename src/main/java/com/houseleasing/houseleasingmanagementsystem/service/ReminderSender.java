@@ -0,0 +1,17 @@
+package com.houseleasing.houseleasingmanagementsystem.service;
+
+import com.houseleasing.houseleasingmanagementsystem.dto.TenantReminder;
+
+import java.util.List;
+
+/**
+ * 提醒发送通道（短信、邮件、消息队列等），默认实现写入 reminder_outbox 表
+ * 自定义实现注册为 Spring Bean 即可替换默认通道
+ */
+public interface ReminderSender {
+
+    /**
+     * 发送一批提醒；抛出异常表示整批未送达，这批记录不会标记为已提醒，下次运行会重试
+     */
+    void send(List<TenantReminder> reminders) throws Exception;
+}
@@ -0,0 +1,12 @@
+package com.houseleasing.houseleasingmanagementsystem.service;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+public interface ReminderService {
+
+    /**
+     * 为即将到期和已逾期的租金批量发送提醒，返回本次运行的统计
+     */
+    Map<String, Object> dispatch(LocalDate today);
+}
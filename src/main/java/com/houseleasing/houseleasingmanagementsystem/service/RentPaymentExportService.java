@@ -0,0 +1,15 @@
+package com.houseleasing.houseleasingmanagementsystem.service;
+
+import com.houseleasing.houseleasingmanagementsystem.model.enums.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+public interface RentPaymentExportService {
+
+    /**
+     * 将应付日期在 [from, to] 内的租金记录逐行写出到 out，返回写出的行数
+     */
+    long export(LocalDate from, LocalDate to, ExportFormat format, OutputStream out) throws IOException;
+}
@@ -1,13 +1,17 @@
 package com.houseleasing.houseleasingmanagementsystem.service;
 
+import com.houseleasing.houseleasingmanagementsystem.dto.KeysetPage;
 import com.houseleasing.houseleasingmanagementsystem.model.Contract;
 import com.houseleasing.houseleasingmanagementsystem.model.RentPayment;
 import com.houseleasing.houseleasingmanagementsystem.model.enums.PaymentStatus;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.ReportGroupBy;
+import com.houseleasing.houseleasingmanagementsystem.repository.projection.RentPaymentListItem;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 public interface RentPaymentService {
     RentPayment create(RentPayment rentPayment);
@@ -15,17 +19,28 @@ public interface RentPaymentService {
     void delete(Long id);
     RentPayment getById(Long id);
 
-    Page<RentPayment> search(Long contractId,
-                             PaymentStatus status,
-                             LocalDate dueFrom,
-                             LocalDate dueTo,
-                             Pageable pageable);
+    Page<RentPaymentListItem> search(Long contractId,
+                                     PaymentStatus status,
+                                     LocalDate dueFrom,
+                                     LocalDate dueTo,
+                                     Pageable pageable);
+
+    // 游标分页版本（按应付日期、id 升序，不执行 count 查询）
+    KeysetPage<RentPaymentListItem> searchKeyset(Long contractId,
+                                                 PaymentStatus status,
+                                                 LocalDate dueFrom,
+                                                 LocalDate dueTo,
+                                                 String cursor,
+                                                 int size);
 
     // 报表：按日期范围统计
-    List<RentPayment> listByDueDateBetween(LocalDate from, LocalDate to);
+    List<RentPaymentListItem> listByDueDateBetween(LocalDate from, LocalDate to);
+
+    // 报表：按维度分组汇总（应收、实收、罚金、收缴率），数据库端聚合
+    Map<String, Object> summarize(LocalDate from, LocalDate to, ReportGroupBy groupBy);
 
     // 提醒：找出即将到期或已逾期未付记录
-    List<RentPayment> listOverduePending(LocalDate beforeDate);
+    List<RentPaymentListItem> listOverduePending(LocalDate beforeDate);
 
     // 标记已提醒/逾期处理
     RentPayment markReminded(Long id);
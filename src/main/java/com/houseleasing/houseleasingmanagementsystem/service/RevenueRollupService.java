@@ -0,0 +1,37 @@
+package com.houseleasing.houseleasingmanagementsystem.service;
+
+import com.houseleasing.houseleasingmanagementsystem.model.RentPayment;
+
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * 月度租金收入汇总表（monthly_revenue_rollup）的维护与读取
+ */
+public interface RevenueRollupService {
+
+    /**
+     * 一条租金记录对汇总表的贡献值（修改/删除前先 capture，修改后再 capture 一次求差）
+     */
+    record Contribution(YearMonth month, Long landlordId, Long houseId, double amount, double paid) {
+    }
+
+    // 计算租金记录当前的贡献值；dueDate 为空时返回 null（不计入汇总）
+    Contribution capture(RentPayment rentPayment);
+
+    // 将 before -> after 的差值写入汇总表；新增时 before 为 null，删除时 after 为 null
+    void applyChange(Contribution before, Contribution after);
+
+    // 批量新增的租金记录，按月份/房东/房源合并后再写入汇总表
+    void applyInserted(Collection<RentPayment> rentPayments);
+
+    // 合同更换房东或房源后，把该合同已有租金的汇总从旧维度迁移到新维度
+    void reassignContract(Long contractId, Long oldLandlordId, Long oldHouseId, Long newLandlordId, Long newHouseId);
+
+    // 从 rent_payments 全量重建汇总表，返回写入的汇总行数
+    int rebuild();
+
+    // 读取月份区间内每月应收合计（全部房源）
+    Map<YearMonth, Double> monthlyTotals(YearMonth from, YearMonth to);
+}
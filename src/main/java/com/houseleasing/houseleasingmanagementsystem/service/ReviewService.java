@@ -1,9 +1,12 @@
 package com.houseleasing.houseleasingmanagementsystem.service;
 
+import com.houseleasing.houseleasingmanagementsystem.dto.KeysetPage;
 import com.houseleasing.houseleasingmanagementsystem.model.Review;
 import com.houseleasing.houseleasingmanagementsystem.model.enums.ReviewType;
+import com.houseleasing.houseleasingmanagementsystem.repository.projection.ReviewListItem;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import java.util.List;
 
@@ -32,27 +35,36 @@ public interface ReviewService {
     /**
      * 分页获取所有评价
      */
-    Page<Review> getAllReviews(Pageable pageable);
+    Page<ReviewListItem> getAllReviews(Pageable pageable);
+
+    /**
+     * 游标分页查询评价（各过滤条件可组合，按 sortField、id 排序，不执行 count 查询）
+     * sortField 支持 createdAt、rating、id
+     */
+    KeysetPage<ReviewListItem> searchReviewsKeyset(Long reviewerId, Long revieweeId, Long contractId,
+                                                   ReviewType reviewType, Integer minRating,
+                                                   String sortField, Sort.Direction direction,
+                                                   String cursor, int size);
 
     /**
      * 根据合同ID分页查询评价
      */
-    Page<Review> getReviewsByContractId(Long contractId, Pageable pageable);
+    Page<ReviewListItem> getReviewsByContractId(Long contractId, Pageable pageable);
 
     /**
      * 根据评价人ID分页查询评价
      */
-    Page<Review> getReviewsByReviewerId(Long reviewerId, Pageable pageable);
+    Page<ReviewListItem> getReviewsByReviewerId(Long reviewerId, Pageable pageable);
 
     /**
      * 根据被评价人ID分页查询评价
      */
-    Page<Review> getReviewsByRevieweeId(Long revieweeId, Pageable pageable);
+    Page<ReviewListItem> getReviewsByRevieweeId(Long revieweeId, Pageable pageable);
 
     /**
      * 根据评价类型分页查询评价
      */
-    Page<Review> getReviewsByType(ReviewType reviewType, Pageable pageable);
+    Page<ReviewListItem> getReviewsByType(ReviewType reviewType, Pageable pageable);
 
     /**
      * 查询特定用户的平均评分
@@ -62,7 +74,7 @@ public interface ReviewService {
     /**
      * 查询特定评分范围的评价
      */
-    Page<Review> getReviewsByMinRating(Integer minRating, Pageable pageable);
+    Page<ReviewListItem> getReviewsByMinRating(Integer minRating, Pageable pageable);
 
     /**
      * 统计用户收到的评价数量
@@ -77,6 +89,6 @@ public interface ReviewService {
     /**
      * 查询合同的所有评价
      */
-    List<Review> getReviewsByContract(Long contractId);
+    List<ReviewListItem> getReviewsByContract(Long contractId);
 }
 
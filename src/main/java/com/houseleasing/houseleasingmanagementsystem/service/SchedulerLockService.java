@@ -0,0 +1,13 @@
+package com.houseleasing.houseleasingmanagementsystem.service;
+
+import java.time.Duration;
+
+/**
+ * 基于数据库行的定时任务运行锁，保证多节点部署时同一任务同一时间只在一个节点执行
+ */
+public interface SchedulerLockService {
+    // 尝试加锁；lockAtMost 为锁的最长持有时间（节点宕机后自动过期）
+    boolean tryLock(String name, Duration lockAtMost);
+
+    void unlock(String name);
+}
@@ -0,0 +1,18 @@
+package com.houseleasing.houseleasingmanagementsystem.service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+public interface StatsService {
+    // 概览中有子查询超时或失败时，payload 带 partial=true，缺失的部分列在 unavailableWidgets 中
+    String PARTIAL = "partial";
+    String UNAVAILABLE_WIDGETS = "unavailableWidgets";
+
+    // 统计面板概览；from/to 限定收入曲线的月份范围，为空时默认最近 6 个月
+    Map<String, Object> overview(LocalDate from, LocalDate to);
+
+    // 按月汇总的收入曲线（包含 from 与 to 所在月份）
+    List<Map<String, Object>> monthlyIncomeSeries(YearMonth from, YearMonth to);
+}
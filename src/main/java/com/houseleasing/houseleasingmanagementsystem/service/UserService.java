@@ -1,13 +1,15 @@
 package com.houseleasing.houseleasingmanagementsystem.service;
 
+import com.houseleasing.houseleasingmanagementsystem.dto.KeysetPage;
 import com.houseleasing.houseleasingmanagementsystem.model.User;
+import com.houseleasing.houseleasingmanagementsystem.repository.projection.UserListItem;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
 
 public interface UserService {
-    Page<User> getAllUsers(Pageable pageable);
+    Page<UserListItem> getAllUsers(Pageable pageable);
 
     User getUserById(Long id);
 
@@ -21,7 +23,10 @@ public interface UserService {
     List<User> getByRealName(String realName);
 
     // 分页模糊查询（按姓名关键字）
-    Page<User> searchByRealName(String realName, Pageable pageable);
+    Page<UserListItem> searchByRealName(String realName, Pageable pageable);
+
+    // 游标分页模糊查询（按 id 升序，不执行 count 查询）
+    KeysetPage<UserListItem> searchByRealNameKeyset(String realName, String cursor, int size);
 
     User getByIdCard(String idCard);
 }
@@ -0,0 +1,289 @@
+package com.houseleasing.houseleasingmanagementsystem.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.houseleasing.houseleasingmanagementsystem.cache.StatsOverviewCache;
+import com.houseleasing.houseleasingmanagementsystem.dto.ContractImportResult;
+import com.houseleasing.houseleasingmanagementsystem.dto.ContractImportResult.ErrorCode;
+import com.houseleasing.houseleasingmanagementsystem.dto.ContractImportRow;
+import com.houseleasing.houseleasingmanagementsystem.model.Contract;
+import com.houseleasing.houseleasingmanagementsystem.model.House;
+import com.houseleasing.houseleasingmanagementsystem.model.RentPayment;
+import com.houseleasing.houseleasingmanagementsystem.model.User;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.ContractStatus;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.PaymentCycle;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.PaymentMethod;
+import com.houseleasing.houseleasingmanagementsystem.repository.*;
+import com.houseleasing.houseleasingmanagementsystem.service.ContractImportService;
+import com.houseleasing.houseleasingmanagementsystem.service.RevenueRollupService;
+import com.houseleasing.houseleasingmanagementsystem.util.RentScheduleCalculator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class ContractImportServiceImpl implements ContractImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContractImportServiceImpl.class);
+
+    @Value("${app.contract-import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Autowired
+    private HouseRepository houseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ContractRepository contractRepository;
+
+    @Autowired
+    private ContractBatchRepository contractBatchRepository;
+
+    @Autowired
+    private RentPaymentBatchRepository rentPaymentBatchRepository;
+
+    @Autowired
+    private RevenueRollupService revenueRollupService;
+
+    @Autowired
+    private StatsOverviewCache statsOverviewCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private static final class ParsedRow {
+        final long line;
+        final ContractImportRow row;
+
+        ParsedRow(long line, ContractImportRow row) {
+            this.line = line;
+            this.row = row;
+        }
+    }
+
+    @Override
+    public ContractImportResult importContracts(InputStream in, String format) throws IOException {
+        boolean csv;
+        if ("csv".equalsIgnoreCase(format)) {
+            csv = true;
+        } else if ("jsonl".equalsIgnoreCase(format) || "ndjson".equalsIgnoreCase(format)) {
+            csv = false;
+        } else {
+            throw new IllegalArgumentException("不支持的导入格式: " + format + "（支持 csv / jsonl）");
+        }
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        ContractImportResult result = new ContractImportResult();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+
+        // 逐行读取，只在内存中保留一个块
+        List<ParsedRow> chunk = new ArrayList<>(chunkSize);
+        String[] header = null;
+        long lineNo = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            if (lineNo == 1 && line.startsWith("\uFEFF")) {
+                line = line.substring(1);
+            }
+            if (line.isBlank()) continue;
+            if (csv && header == null) {
+                header = parseCsvLine(line);
+                continue;
+            }
+            result.setTotalRows(result.getTotalRows() + 1);
+            try {
+                ContractImportRow row = csv
+                        ? fromCsv(header, parseCsvLine(line))
+                        : objectMapper.readValue(line, ContractImportRow.class);
+                chunk.add(new ParsedRow(lineNo, row));
+            } catch (Exception e) {
+                logger.debug("contract import line {} could not be parsed", lineNo, e);
+                result.addError(lineNo, null, ErrorCode.PARSE_ERROR);
+            }
+            if (chunk.size() >= chunkSize) {
+                processChunk(chunk, result, tx);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            processChunk(chunk, result, tx);
+        }
+        if (result.getImported() > 0) {
+            statsOverviewCache.invalidate();
+        }
+        return result;
+    }
+
+    // 一个块一个事务：批量查引用 -> 校验 -> 批量插入合同 -> 回查主键 -> 批量插入租金计划
+    private void processChunk(List<ParsedRow> chunk, ContractImportResult result, TransactionTemplate tx) {
+        List<ParsedRow> accepted = new ArrayList<>();
+        try {
+            int[] counts = tx.execute(status -> {
+                Set<Long> houseIds = new HashSet<>();
+                Set<Long> userIds = new HashSet<>();
+                Set<String> contractNos = new HashSet<>();
+                for (ParsedRow pr : chunk) {
+                    if (pr.row.getHouseId() != null) houseIds.add(pr.row.getHouseId());
+                    if (pr.row.getLandlordId() != null) userIds.add(pr.row.getLandlordId());
+                    if (pr.row.getTenantId() != null) userIds.add(pr.row.getTenantId());
+                    if (pr.row.getContractNo() != null) contractNos.add(pr.row.getContractNo().trim());
+                }
+                Map<Long, House> houses = houseRepository.findAllById(houseIds).stream()
+                        .collect(Collectors.toMap(House::getId, Function.identity()));
+                Map<Long, User> users = userRepository.findAllById(userIds).stream()
+                        .collect(Collectors.toMap(User::getId, Function.identity()));
+                Set<String> existingNos = contractNos.isEmpty() ? Set.of()
+                        : contractRepository.findIdsByContractNoIn(contractNos).stream()
+                        .map(r -> (String) r[0]).collect(Collectors.toSet());
+
+                List<Contract> contracts = new ArrayList<>();
+                Set<String> seen = new HashSet<>();
+                for (ParsedRow pr : chunk) {
+                    ErrorCode error = validate(pr.row, houses, users, existingNos, seen);
+                    if (error != null) {
+                        result.addError(pr.line, pr.row.getContractNo(), error);
+                        continue;
+                    }
+                    accepted.add(pr);
+                    contracts.add(toContract(pr.row, houses, users));
+                }
+                if (contracts.isEmpty()) return new int[]{0, 0};
+
+                contractBatchRepository.batchInsert(contracts);
+                Map<String, Long> ids = contractRepository.findIdsByContractNoIn(
+                                contracts.stream().map(Contract::getContractNo).collect(Collectors.toList()))
+                        .stream().collect(Collectors.toMap(r -> (String) r[0], r -> (Long) r[1]));
+                List<RentPayment> schedule = new ArrayList<>();
+                for (Contract c : contracts) {
+                    c.setId(ids.get(c.getContractNo()));
+                    schedule.addAll(RentScheduleCalculator.build(c, false));
+                }
+                rentPaymentBatchRepository.batchInsert(schedule);
+                revenueRollupService.applyInserted(schedule);
+                return new int[]{contracts.size(), schedule.size()};
+            });
+            result.setImported(result.getImported() + counts[0]);
+            result.setRentPaymentsCreated(result.getRentPaymentsCreated() + counts[1]);
+        } catch (RuntimeException e) {
+            // 整块回滚：本块中通过校验的行全部记为失败
+            // 底层异常只写日志，返回给调用方的是固定错误码
+            logger.warn("contract import chunk failed, {} rows rolled back", accepted.size(), e);
+            ErrorCode code = e instanceof DataIntegrityViolationException
+                    ? ErrorCode.CONSTRAINT_VIOLATION : ErrorCode.WRITE_FAILED;
+            for (ParsedRow pr : accepted) {
+                result.addError(pr.line, pr.row.getContractNo(), code);
+            }
+        }
+    }
+
+    private ErrorCode validate(ContractImportRow row, Map<Long, House> houses, Map<Long, User> users,
+                               Set<String> existingNos, Set<String> seen) {
+        if (row.getContractNo() == null || row.getContractNo().isBlank()) return ErrorCode.MISSING_CONTRACT_NO;
+        String no = row.getContractNo().trim();
+        if (existingNos.contains(no)) return ErrorCode.CONTRACT_NO_EXISTS;
+        if (!seen.add(no)) return ErrorCode.DUPLICATE_IN_FILE;
+        if (row.getHouseId() == null || !houses.containsKey(row.getHouseId())) return ErrorCode.HOUSE_NOT_FOUND;
+        if (row.getLandlordId() == null || !users.containsKey(row.getLandlordId())) return ErrorCode.LANDLORD_NOT_FOUND;
+        if (row.getTenantId() == null || !users.containsKey(row.getTenantId())) return ErrorCode.TENANT_NOT_FOUND;
+        if (row.getStartDate() == null || row.getEndDate() == null) return ErrorCode.MISSING_DATES;
+        if (row.getEndDate().isBefore(row.getStartDate())) return ErrorCode.INVALID_DATE_RANGE;
+        if (row.getRentAmount() == null || row.getRentAmount() <= 0) return ErrorCode.INVALID_RENT_AMOUNT;
+        return null;
+    }
+
+    private Contract toContract(ContractImportRow row, Map<Long, House> houses, Map<Long, User> users) {
+        Contract c = new Contract();
+        c.setContractNo(row.getContractNo().trim());
+        c.setHouse(houses.get(row.getHouseId()));
+        c.setLandlord(users.get(row.getLandlordId()));
+        c.setTenant(users.get(row.getTenantId()));
+        c.setStartDate(row.getStartDate());
+        c.setEndDate(row.getEndDate());
+        c.setRentAmount(row.getRentAmount());
+        c.setPaymentCycle(row.getPaymentCycle());
+        c.setPaymentMethod(row.getPaymentMethod());
+        c.setBreachClause(row.getBreachClause());
+        c.setStatus(row.getStatus() != null ? row.getStatus() : ContractStatus.DRAFT);
+        c.setSignedAt(LocalDateTime.now());
+        return c;
+    }
+
+    private ContractImportRow fromCsv(String[] header, String[] values) {
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < header.length && i < values.length; i++) {
+            String v = values[i].trim();
+            if (!v.isEmpty()) fields.put(header[i].trim().toLowerCase(Locale.ROOT), v);
+        }
+        ContractImportRow row = new ContractImportRow();
+        row.setContractNo(fields.get("contractno"));
+        row.setHouseId(parseLong(fields.get("houseid")));
+        row.setLandlordId(parseLong(fields.get("landlordid")));
+        row.setTenantId(parseLong(fields.get("tenantid")));
+        row.setStartDate(fields.containsKey("startdate") ? LocalDate.parse(fields.get("startdate")) : null);
+        row.setEndDate(fields.containsKey("enddate") ? LocalDate.parse(fields.get("enddate")) : null);
+        row.setRentAmount(fields.containsKey("rentamount") ? Double.valueOf(fields.get("rentamount")) : null);
+        row.setPaymentCycle(fields.containsKey("paymentcycle")
+                ? PaymentCycle.valueOf(fields.get("paymentcycle").toUpperCase(Locale.ROOT)) : null);
+        row.setPaymentMethod(fields.containsKey("paymentmethod")
+                ? PaymentMethod.valueOf(fields.get("paymentmethod").toUpperCase(Locale.ROOT)) : null);
+        row.setStatus(fields.containsKey("status")
+                ? ContractStatus.valueOf(fields.get("status").toUpperCase(Locale.ROOT)) : null);
+        row.setBreachClause(fields.get("breachclause"));
+        return row;
+    }
+
+    private Long parseLong(String v) {
+        return v == null ? null : Long.valueOf(v);
+    }
+
+    // 解析单行 CSV，支持双引号包裹的字段及 "" 转义
+    private String[] parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder cur = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char ch = line.charAt(i);
+            if (quoted) {
+                if (ch == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        cur.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    cur.append(ch);
+                }
+            } else if (ch == '"') {
+                quoted = true;
+            } else if (ch == ',') {
+                values.add(cur.toString());
+                cur.setLength(0);
+            } else {
+                cur.append(ch);
+            }
+        }
+        values.add(cur.toString());
+        return values.toArray(new String[0]);
+    }
+}
@@ -1,17 +1,24 @@
 package com.houseleasing.houseleasingmanagementsystem.service.impl;
 
+import com.houseleasing.houseleasingmanagementsystem.cache.StatsOverviewCache;
+import com.houseleasing.houseleasingmanagementsystem.dto.KeysetPage;
 import com.houseleasing.houseleasingmanagementsystem.model.Contract;
 import com.houseleasing.houseleasingmanagementsystem.model.enums.ContractStatus;
 import com.houseleasing.houseleasingmanagementsystem.repository.ContractRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.NaturalIdRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.TwoPhasePageRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.projection.ContractListItem;
 import com.houseleasing.houseleasingmanagementsystem.service.ContractService;
 import com.houseleasing.houseleasingmanagementsystem.service.RentPaymentService;
-import jakarta.persistence.criteria.JoinType;
+import com.houseleasing.houseleasingmanagementsystem.service.RevenueRollupService;
 import jakarta.persistence.criteria.Predicate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -27,6 +34,18 @@ public class ContractServiceImpl implements ContractService {
     @Autowired
     private RentPaymentService rentPaymentService;
 
+    @Autowired
+    private RevenueRollupService revenueRollupService;
+
+    @Autowired
+    private StatsOverviewCache statsOverviewCache;
+
+    @Autowired
+    private TwoPhasePageRepository twoPhasePageRepository;
+
+    @Autowired
+    private NaturalIdRepository naturalIdRepository;
+
     @Override
     public Contract createContract(Contract contract) {
         if (contract.getStatus() == null) {
@@ -35,13 +54,17 @@ public class ContractServiceImpl implements ContractService {
         Contract saved = contractRepository.save(contract);
         // 生成租金计划，默认不把第一期标为已付款（新合同默认未缴费）
         rentPaymentService.generateScheduleForContract(saved, false);
+        statsOverviewCache.invalidate();
         return getContractById(saved.getId());
     }
 
     @Override
+    @Transactional
     public Contract updateContract(Long id, Contract contractDetails) {
         Contract c = getContractById(id);
         if (c == null) return null;
+        Long oldLandlordId = c.getLandlordId();
+        Long oldHouseId = c.getHouseId();
         c.setContractNo(contractDetails.getContractNo());
         c.setHouse(contractDetails.getHouse());
         c.setTenant(contractDetails.getTenant());
@@ -54,12 +77,18 @@ public class ContractServiceImpl implements ContractService {
         c.setBreachClause(contractDetails.getBreachClause());
         c.setStatus(contractDetails.getStatus());
         Contract saved = contractRepository.save(c);
+        // 房东或房源变更时，同步迁移月度收入汇总
+        revenueRollupService.reassignContract(saved.getId(), oldLandlordId, oldHouseId,
+                saved.getLandlord() != null ? saved.getLandlord().getId() : null,
+                saved.getHouse() != null ? saved.getHouse().getId() : null);
+        statsOverviewCache.invalidate();
         return getContractById(saved.getId());
     }
 
     @Override
     public void deleteContract(Long id) {
         contractRepository.deleteById(id);
+        statsOverviewCache.invalidate();
     }
 
     @Override
@@ -70,26 +99,51 @@ public class ContractServiceImpl implements ContractService {
 
     @Override
     public Contract getByContractNo(String contractNo) {
-        return contractRepository.findByContractNo(contractNo);
+        return naturalIdRepository.findBySimpleNaturalId(Contract.class, contractNo).orElse(null);
     }
 
     @Override
-    public Page<Contract> searchContracts(String contractNo,
-                                          Long houseId,
-                                          Long landlordId,
-                                          Long tenantId,
-                                          ContractStatus status,
-                                          LocalDate startDateFrom,
-                                          LocalDate startDateTo,
-                                          LocalDate endDateFrom,
-                                          LocalDate endDateTo,
-                                          Pageable pageable) {
-        Specification<Contract> spec = (root, query, cb) -> {
-            if (query != null && Contract.class.equals(query.getResultType())) {
-                root.fetch("house", JoinType.LEFT);
-                root.fetch("landlord", JoinType.LEFT);
-                root.fetch("tenant", JoinType.LEFT);
-            }
+    @Transactional(readOnly = true)
+    public Page<ContractListItem> searchContracts(String contractNo,
+                                                  Long houseId,
+                                                  Long landlordId,
+                                                  Long tenantId,
+                                                  ContractStatus status,
+                                                  LocalDate startDateFrom,
+                                                  LocalDate startDateTo,
+                                                  LocalDate endDateFrom,
+                                                  LocalDate endDateTo,
+                                                  Pageable pageable) {
+        Specification<Contract> spec = searchSpec(contractNo, houseId, landlordId, tenantId, status,
+                startDateFrom, startDateTo, endDateFrom, endDateTo);
+        // 先分页查 id，再按 id 投影列表行（含房源地址、房东/租客姓名）
+        return twoPhasePageRepository.findPage(Contract.class, spec, pageable,
+                contractRepository::findListItemsByIdIn, ContractListItem::id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<ContractListItem> searchContractsKeyset(String contractNo,
+                                                              Long houseId,
+                                                              Long landlordId,
+                                                              Long tenantId,
+                                                              ContractStatus status,
+                                                              LocalDate startDateFrom,
+                                                              LocalDate startDateTo,
+                                                              LocalDate endDateFrom,
+                                                              LocalDate endDateTo,
+                                                              String cursor,
+                                                              int size) {
+        Specification<Contract> spec = searchSpec(contractNo, houseId, landlordId, tenantId, status,
+                startDateFrom, startDateTo, endDateFrom, endDateTo);
+        return twoPhasePageRepository.findKeysetPage(Contract.class, spec, "id", Sort.Direction.ASC, cursor, size,
+                contractRepository::findListItemsByIdIn, ContractListItem::id);
+    }
+
+    private Specification<Contract> searchSpec(String contractNo, Long houseId, Long landlordId, Long tenantId,
+                                               ContractStatus status, LocalDate startDateFrom, LocalDate startDateTo,
+                                               LocalDate endDateFrom, LocalDate endDateTo) {
+        return (root, query, cb) -> {
             List<Predicate> ps = new ArrayList<>();
             if (contractNo != null && !contractNo.isBlank()) {
                 ps.add(cb.like(root.get("contractNo"), "%" + contractNo + "%"));
@@ -120,6 +174,5 @@ public class ContractServiceImpl implements ContractService {
             }
             return cb.and(ps.toArray(new Predicate[0]));
         };
-        return contractRepository.findAll(spec, pageable);
     }
 }
@@ -1,28 +1,61 @@
 package com.houseleasing.houseleasingmanagementsystem.service.impl;
 
+import com.houseleasing.houseleasingmanagementsystem.cache.HouseSearchIndex;
+import com.houseleasing.houseleasingmanagementsystem.cache.StatsOverviewCache;
+import com.houseleasing.houseleasingmanagementsystem.config.FullTextFunctionContributor;
+import com.houseleasing.houseleasingmanagementsystem.config.HouseFullTextIndexInitializer;
+import com.houseleasing.houseleasingmanagementsystem.dto.GeoFilter;
+import com.houseleasing.houseleasingmanagementsystem.dto.GeoPoint;
+import com.houseleasing.houseleasingmanagementsystem.dto.KeysetPage;
 import com.houseleasing.houseleasingmanagementsystem.model.House;
 import com.houseleasing.houseleasingmanagementsystem.model.enums.HouseStatus;
 import com.houseleasing.houseleasingmanagementsystem.repository.HouseRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.TwoPhasePageRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.projection.HouseListItem;
+import com.houseleasing.houseleasingmanagementsystem.service.GeocodingService;
 import com.houseleasing.houseleasingmanagementsystem.service.HouseService;
-import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
 public class HouseServiceImpl implements HouseService {
 
+    // MySQL ngram_token_size 默认值，短于该长度的关键词无法命中全文索引
+    private static final int MIN_FULLTEXT_LENGTH = 2;
+
     @Autowired
     private HouseRepository houseRepository;
 
+    @Autowired
+    private StatsOverviewCache statsOverviewCache;
+
+    @Autowired
+    private HouseSearchIndex houseSearchIndex;
+
+    @Autowired
+    private TwoPhasePageRepository twoPhasePageRepository;
+
+    @Autowired
+    private GeocodingService geocodingService;
+
+    @Autowired
+    private HouseFullTextIndexInitializer fullTextIndex;
+
     @Override
     public Page<House> getAllHouses(Pageable pageable) {
         return houseRepository.findAll(pageable);
@@ -36,13 +69,20 @@ public class HouseServiceImpl implements HouseService {
 
     @Override
     public House createHouse(House house) {
-        return houseRepository.save(house);
+        if (house.getLatitude() == null || house.getLongitude() == null) {
+            locate(house);
+        }
+        House saved = houseRepository.save(house);
+        statsOverviewCache.invalidate();
+        houseSearchIndex.refreshAfterCommit(saved.getId());
+        return saved;
     }
 
     @Override
     public House updateHouse(Long id, House houseDetails) {
         House house = getHouseById(id);
         if (house != null) {
+            boolean addressChanged = !Objects.equals(house.getAddress(), houseDetails.getAddress());
             house.setAddress(houseDetails.getAddress());
             house.setHouseType(houseDetails.getHouseType());
             house.setArea(houseDetails.getArea());
@@ -56,28 +96,155 @@ public class HouseServiceImpl implements HouseService {
             if (houseDetails.getLandlord() != null) {
                 house.setLandlord(houseDetails.getLandlord());
             }
-            return houseRepository.save(house);
+            if (houseDetails.getLatitude() != null && houseDetails.getLongitude() != null) {
+                house.setLatitude(houseDetails.getLatitude());
+                house.setLongitude(houseDetails.getLongitude());
+            } else if (addressChanged || house.getLatitude() == null || house.getLongitude() == null) {
+                // 地址变化后原坐标失效，按新地址重新解析
+                locate(house);
+            }
+            House saved = houseRepository.save(house);
+            statsOverviewCache.invalidate();
+            houseSearchIndex.refreshAfterCommit(id);
+            return saved;
         }
         return null;
     }
 
+    // 按地址离线解析坐标，解析不到时置空（不参与地理筛选）
+    private void locate(House house) {
+        Optional<GeoPoint> point = geocodingService.geocode(house.getAddress());
+        house.setLatitude(point.map(GeoPoint::latitude).orElse(null));
+        house.setLongitude(point.map(GeoPoint::longitude).orElse(null));
+    }
+
     @Override
     public void deleteHouse(Long id) {
         houseRepository.deleteById(id);
+        statsOverviewCache.invalidate();
+        houseSearchIndex.refreshAfterCommit(id);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<House> searchHouses(String address, String houseType, Double minArea, Double maxArea,
-                                    Double minRent, Double maxRent, String decoration, String facilities,
-                                    HouseStatus status, Boolean recommended, Long landlordId, String landlordName,
-                                    Pageable pageable) {
+    public Page<HouseListItem> searchHouses(String q, String address, String houseType, Double minArea, Double maxArea,
+                                            Double minRent, Double maxRent, String decoration, String facilities,
+                                            HouseStatus status, Boolean recommended, Long landlordId, String landlordName,
+                                            GeoFilter geo, Pageable pageable) {
+        String keyword = q == null ? "" : q.trim();
+        if (keyword.isEmpty() && indexable(address, facilities, landlordName) && houseSearchIndex.supports(pageable.getSort())) {
+            // 只含等值/范围条件时由内存索引完成，不访问数据库
+            return houseSearchIndex.search(new HouseSearchIndex.Filter(houseType, decoration, status, recommended,
+                    landlordId, minRent, maxRent, minArea, maxArea, geo), pageable);
+        }
+        Specification<House> spec = searchSpec(address, houseType, minArea, maxArea, minRent, maxRent,
+                decoration, facilities, status, recommended, landlordId, landlordName);
+        if (geo != null) {
+            // 地理筛选按距离排序；关键词此时只作为过滤条件
+            spec = spec.and(geoSpec(geo));
+            if (!keyword.isEmpty()) {
+                spec = spec.and(keywordSpec(keyword));
+            }
+            return twoPhasePageRepository.findPage(House.class, spec,
+                    (root, cb) -> cb.asc(squaredDistance(root, cb, geo)), pageable,
+                    houseRepository::findListItemsByIdIn, HouseListItem::id);
+        }
+        if (keyword.isEmpty()) {
+            // 先分页查 id，再按 id 投影列表行（含房东姓名）
+            return twoPhasePageRepository.findPage(House.class, spec, pageable,
+                    houseRepository::findListItemsByIdIn, HouseListItem::id);
+        }
+        spec = spec.and(keywordSpec(keyword));
+        if (!fullText(keyword)) {
+            return twoPhasePageRepository.findPage(House.class, spec, pageable,
+                    houseRepository::findListItemsByIdIn, HouseListItem::id);
+        }
+        // id 查询按相关度降序，其后才是调用方指定的排序
+        return twoPhasePageRepository.findPage(House.class, spec,
+                (root, cb) -> cb.desc(relevance(root, cb, keyword)), pageable,
+                houseRepository::findListItemsByIdIn, HouseListItem::id);
+    }
+
+    // 全文索引不存在（创建失败或未创建）时 MATCH 会报错，一律走模糊匹配
+    private boolean fullText(String keyword) {
+        return fullTextIndex.isAvailable() && keyword.codePointCount(0, keyword.length()) >= MIN_FULLTEXT_LENGTH;
+    }
 
-        Specification<House> spec = (root, query, cb) -> {
-            // Ensure fetch join only applied to root queries (not count query)
-            if (query != null && House.class.equals(query.getResultType())) {
-                root.fetch("landlord", JoinType.LEFT);
+    private Specification<House> keywordSpec(String keyword) {
+        if (!fullText(keyword)) {
+            // 单字不足一个 ngram 词元，全文索引无法命中，退化为模糊匹配
+            String pattern = "%" + keyword + "%";
+            return (root, query, cb) -> cb.or(
+                    cb.like(root.get("address"), pattern),
+                    cb.like(root.get("description"), pattern),
+                    cb.like(root.get("facilities"), pattern));
+        }
+        return (root, query, cb) -> cb.greaterThan(relevance(root, cb, keyword), 0.0);
+    }
+
+    // 边界框走 (latitude, longitude) 索引；半径按等距矩形近似判断，城市范围内误差可忽略
+    private static Specification<House> geoSpec(GeoFilter geo) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.between(root.get("latitude"), geo.minLat(), geo.maxLat()));
+            predicates.add(cb.between(root.get("longitude"), geo.minLng(), geo.maxLng()));
+            if (geo.radiusKm() != null) {
+                double r = geo.radiusDegrees();
+                predicates.add(cb.le(squaredDistance(root, cb, geo), r * r));
             }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    // 以纬度度数为单位的距离平方：dLat² + (dLng·cos(centerLat))²
+    private static Expression<Double> squaredDistance(Root<House> root, CriteriaBuilder cb, GeoFilter geo) {
+        Expression<Double> dLat = cb.diff(root.<Double>get("latitude"), geo.centerLat());
+        Expression<Double> dLng = cb.prod(cb.diff(root.<Double>get("longitude"), geo.centerLng()), geo.lngScale());
+        return cb.sum(cb.prod(dLat, dLat), cb.prod(dLng, dLng));
+    }
+
+    @Override
+    public Map<String, Map<String, Integer>> searchFacets(String houseType, Double minArea, Double maxArea,
+                                                          Double minRent, Double maxRent, String decoration,
+                                                          HouseStatus status, Boolean recommended, Long landlordId,
+                                                          GeoFilter geo) {
+        if (!houseSearchIndex.isReady()) {
+            return null;
+        }
+        return houseSearchIndex.facets(new HouseSearchIndex.Filter(houseType, decoration, status, recommended,
+                landlordId, minRent, maxRent, minArea, maxArea, geo));
+    }
+
+    // 模糊匹配类条件（地址、配套设施、房东姓名）需要走数据库
+    private boolean indexable(String address, String facilities, String landlordName) {
+        return houseSearchIndex.isReady()
+                && (address == null || address.isBlank())
+                && (facilities == null || facilities.isBlank())
+                && (landlordName == null || landlordName.isBlank());
+    }
+
+    // MATCH(address, description, facilities) AGAINST(keyword)，关键词以绑定参数传入
+    private static Expression<Double> relevance(Root<House> root, CriteriaBuilder cb, String keyword) {
+        return cb.function(FullTextFunctionContributor.HOUSE_FULLTEXT, Double.class,
+                root.get("address"), root.get("description"), root.get("facilities"), cb.literal(keyword));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<HouseListItem> searchHousesKeyset(String address, String houseType, Double minArea, Double maxArea,
+                                                       Double minRent, Double maxRent, String decoration, String facilities,
+                                                       HouseStatus status, Boolean recommended, Long landlordId, String landlordName,
+                                                       String cursor, int size) {
+        Specification<House> spec = searchSpec(address, houseType, minArea, maxArea, minRent, maxRent,
+                decoration, facilities, status, recommended, landlordId, landlordName);
+        return twoPhasePageRepository.findKeysetPage(House.class, spec, "id", Sort.Direction.ASC, cursor, size,
+                houseRepository::findListItemsByIdIn, HouseListItem::id);
+    }
+
+    private Specification<House> searchSpec(String address, String houseType, Double minArea, Double maxArea,
+                                            Double minRent, Double maxRent, String decoration, String facilities,
+                                            HouseStatus status, Boolean recommended, Long landlordId, String landlordName) {
+        return (root, query, cb) -> {
             List<Predicate> predicates = new ArrayList<>();
             if (address != null && !address.isBlank()) {
                 predicates.add(cb.like(root.get("address"), "%" + address + "%"));
@@ -118,8 +285,6 @@ public class HouseServiceImpl implements HouseService {
             }
             return cb.and(predicates.toArray(new Predicate[0]));
         };
-
-        return houseRepository.findAll(spec, pageable);
     }
 
     @Override
@@ -137,7 +302,9 @@ public class HouseServiceImpl implements HouseService {
         House house = getHouseById(id);
         if (house != null) {
             house.setRecommended(!house.getRecommended());
-            return houseRepository.save(house);
+            House saved = houseRepository.save(house);
+            houseSearchIndex.refreshAfterCommit(id);
+            return saved;
         }
         return null;
     }
@@ -0,0 +1,78 @@
+package com.houseleasing.houseleasingmanagementsystem.service.impl;
+
+import com.houseleasing.houseleasingmanagementsystem.dto.GeoPoint;
+import com.houseleasing.houseleasingmanagementsystem.service.GeocodingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 离线地理编码：从本地对照表（名称,纬度,经度,精度级别）查找地址中包含的最精确地名
+ * 级别越大越精确（城市 1、区 2、商圈 3、地铁站/小区 4），同级取名称最长者；接入在线地图服务前的替代实现
+ */
+@Service
+public class LocalGeocodingServiceImpl implements GeocodingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalGeocodingServiceImpl.class);
+
+    private record Entry(String name, GeoPoint point, int level) {
+    }
+
+    // 按级别、名称长度降序，第一个命中即为最精确
+    private final List<Entry> entries;
+
+    public LocalGeocodingServiceImpl(@Value("${app.geocoding.lookup-file:classpath:geo/geocode-lookup.csv}") Resource lookupFile) {
+        this.entries = load(lookupFile);
+        logger.info("geocoding lookup table loaded {} entries from {}", entries.size(), lookupFile.getDescription());
+    }
+
+    @Override
+    public Optional<GeoPoint> geocode(String address) {
+        if (address == null || address.isBlank()) {
+            return Optional.empty();
+        }
+        String text = address.trim();
+        for (Entry entry : entries) {
+            if (text.contains(entry.name())) {
+                return Optional.of(entry.point());
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static List<Entry> load(Resource lookupFile) {
+        List<Entry> result = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(lookupFile.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                String[] cols = line.split(",");
+                if (cols.length < 3) {
+                    logger.warn("skip malformed geocoding line: {}", line);
+                    continue;
+                }
+                int level = cols.length > 3 ? Integer.parseInt(cols[3].trim()) : 1;
+                result.add(new Entry(cols[0].trim(),
+                        new GeoPoint(Double.parseDouble(cols[1].trim()), Double.parseDouble(cols[2].trim())), level));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("failed to read geocoding lookup table " + lookupFile.getDescription(), e);
+        }
+        result.sort(Comparator.comparingInt(Entry::level).reversed()
+                .thenComparing(e -> e.name().length(), Comparator.reverseOrder()));
+        return List.copyOf(result);
+    }
+}
@@ -1,13 +1,22 @@
 package com.houseleasing.houseleasingmanagementsystem.service.impl;
 
+import com.houseleasing.houseleasingmanagementsystem.cache.StatsOverviewCache;
+import com.houseleasing.houseleasingmanagementsystem.dto.KeysetPage;
+import com.houseleasing.houseleasingmanagementsystem.model.Contract;
 import com.houseleasing.houseleasingmanagementsystem.model.MaintenanceRequest;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.ContractStatus;
 import com.houseleasing.houseleasingmanagementsystem.model.enums.MaintenanceStatus;
 import com.houseleasing.houseleasingmanagementsystem.repository.MaintenanceRequestRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.TwoPhasePageRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.projection.MaintenanceRequestListItem;
 import com.houseleasing.houseleasingmanagementsystem.service.MaintenanceRequestService;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -23,13 +32,19 @@ public class MaintenanceRequestServiceImpl implements MaintenanceRequestService
     @Autowired
     private MaintenanceRequestRepository maintenanceRequestRepository;
 
+    @Autowired
+    private StatsOverviewCache statsOverviewCache;
+
+    @Autowired
+    private TwoPhasePageRepository twoPhasePageRepository;
+
     @Override
     public MaintenanceRequest createMaintenanceRequest(MaintenanceRequest maintenanceRequest) {
         // 默认状态为待处理
         if (maintenanceRequest.getStatus() == null) {
             maintenanceRequest.setStatus(MaintenanceStatus.PENDING);
         }
-        return maintenanceRequestRepository.save(maintenanceRequest);
+        return saveAndInvalidate(maintenanceRequest);
     }
 
     @Override
@@ -41,41 +56,31 @@ public class MaintenanceRequestServiceImpl implements MaintenanceRequestService
 
     @Override
     @Transactional(readOnly = true)
-    public Page<MaintenanceRequest> getAllMaintenanceRequests(Pageable pageable) {
-        Page<MaintenanceRequest> page = maintenanceRequestRepository.findAllWithHouse(pageable);
-        // force initialize transient getters for serialization
-        page.getContent().forEach(m -> {
-            if (m.getHouse() != null) {
-                m.getHouseAddress();
-                m.getHouseId();
-            }
-        });
-        return page;
+    public Page<MaintenanceRequestListItem> getAllMaintenanceRequests(Pageable pageable) {
+        return maintenanceRequestRepository.findListItems(pageable);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<MaintenanceRequest> getMaintenanceRequestsByTenantId(Long tenantId, Pageable pageable) {
-        return maintenanceRequestRepository.findByTenantId(tenantId, pageable);
+    public Page<MaintenanceRequestListItem> getMaintenanceRequestsByTenantId(Long tenantId, Pageable pageable) {
+        return maintenanceRequestRepository.findListItemsByTenantId(tenantId, pageable);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<MaintenanceRequest> getMaintenanceRequestsByStatus(MaintenanceStatus status, Pageable pageable) {
-        Page<MaintenanceRequest> page = maintenanceRequestRepository.findByStatusWithHouse(status, pageable);
-        page.getContent().forEach(m -> { if (m.getHouse() != null) { m.getHouseAddress(); m.getHouseId(); } });
-        return page;
+    public Page<MaintenanceRequestListItem> getMaintenanceRequestsByStatus(MaintenanceStatus status, Pageable pageable) {
+        return maintenanceRequestRepository.findListItemsByStatus(status, pageable);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<MaintenanceRequest> getMaintenanceRequestsByTenantIdAndStatus(Long tenantId, MaintenanceStatus status, Pageable pageable) {
-        return maintenanceRequestRepository.findByTenantIdAndStatus(tenantId, status, pageable);
+    public Page<MaintenanceRequestListItem> getMaintenanceRequestsByTenantIdAndStatus(Long tenantId, MaintenanceStatus status, Pageable pageable) {
+        return maintenanceRequestRepository.findListItemsByTenantIdAndStatus(tenantId, status, pageable);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<MaintenanceRequest> searchMaintenanceRequests(
+    public Page<MaintenanceRequestListItem> searchMaintenanceRequests(
             Long tenantId,
             Long houseId,
             MaintenanceStatus status,
@@ -84,14 +89,44 @@ public class MaintenanceRequestServiceImpl implements MaintenanceRequestService
             LocalDateTime endDate,
             Pageable pageable) {
 
-        Specification<MaintenanceRequest> spec = (root, query, cb) -> {
+        Specification<MaintenanceRequest> spec = searchSpec(tenantId, houseId, status, description, startDate, endDate);
+        // 先分页查 id，再按 id 投影列表行（含房源地址）
+        return twoPhasePageRepository.findPage(MaintenanceRequest.class, spec, pageable,
+                maintenanceRequestRepository::findListItemsByIdIn, MaintenanceRequestListItem::id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<MaintenanceRequestListItem> searchMaintenanceRequestsKeyset(
+            Long tenantId,
+            Long houseId,
+            MaintenanceStatus status,
+            String description,
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            String cursor,
+            int size) {
+        Specification<MaintenanceRequest> spec = searchSpec(tenantId, houseId, status, description, startDate, endDate);
+        return twoPhasePageRepository.findKeysetPage(MaintenanceRequest.class, spec,
+                "createdAt", Sort.Direction.DESC, cursor, size,
+                maintenanceRequestRepository::findListItemsByIdIn, MaintenanceRequestListItem::id);
+    }
+
+    private Specification<MaintenanceRequest> searchSpec(Long tenantId, Long houseId, MaintenanceStatus status,
+                                                         String description, LocalDateTime startDate,
+                                                         LocalDateTime endDate) {
+        return (root, query, cb) -> {
             List<Predicate> predicates = new ArrayList<>();
 
             if (tenantId != null) {
-                // 通过房源的有效合同关联租客
-                var contractJoin = root.join("house").join("contracts");
-                predicates.add(cb.equal(contractJoin.get("tenant").get("id"), tenantId));
-                predicates.add(cb.equal(contractJoin.get("status"), "ACTIVE"));
+                // 通过房源的有效合同关联租客（House 上没有合同集合，用 EXISTS 子查询）
+                Subquery<Long> contracts = query.subquery(Long.class);
+                Root<Contract> c = contracts.from(Contract.class);
+                contracts.select(c.get("id")).where(
+                        cb.equal(c.get("house"), root.get("house")),
+                        cb.equal(c.get("tenant").get("id"), tenantId),
+                        cb.equal(c.get("status"), ContractStatus.ACTIVE));
+                predicates.add(cb.exists(contracts));
             }
 
             if (houseId != null) {
@@ -116,11 +151,6 @@ public class MaintenanceRequestServiceImpl implements MaintenanceRequestService
 
             return cb.and(predicates.toArray(new Predicate[0]));
         };
-
-        Page<MaintenanceRequest> page = maintenanceRequestRepository.findAll(spec, pageable);
-        // force initialize transient getters for serialization when repository query didn't fetch house
-        page.getContent().forEach(m -> { if (m.getHouse() != null) { m.getHouseAddress(); m.getHouseId(); } });
-        return page;
     }
 
     @Override
@@ -136,7 +166,7 @@ public class MaintenanceRequestServiceImpl implements MaintenanceRequestService
                 maintenanceRequest.setCompletedAt(LocalDateTime.now());
             }
 
-            return maintenanceRequestRepository.save(maintenanceRequest);
+            return saveAndInvalidate(maintenanceRequest);
         }
         return null;
     }
@@ -147,7 +177,7 @@ public class MaintenanceRequestServiceImpl implements MaintenanceRequestService
         MaintenanceRequest maintenanceRequest = getMaintenanceRequestById(id);
         if (maintenanceRequest != null) {
             maintenanceRequest.setCost(cost);
-            return maintenanceRequestRepository.save(maintenanceRequest);
+            return saveAndInvalidate(maintenanceRequest);
         }
         return null;
     }
@@ -159,7 +189,7 @@ public class MaintenanceRequestServiceImpl implements MaintenanceRequestService
         if (maintenanceRequest != null) {
             maintenanceRequest.setStatus(MaintenanceStatus.COMPLETED);
             maintenanceRequest.setCompletedAt(LocalDateTime.now());
-            return maintenanceRequestRepository.save(maintenanceRequest);
+            return saveAndInvalidate(maintenanceRequest);
         }
         return null;
     }
@@ -170,7 +200,7 @@ public class MaintenanceRequestServiceImpl implements MaintenanceRequestService
         MaintenanceRequest maintenanceRequest = getMaintenanceRequestById(id);
         if (maintenanceRequest != null) {
             maintenanceRequest.setStatus(MaintenanceStatus.PAID);
-            return maintenanceRequestRepository.save(maintenanceRequest);
+            return saveAndInvalidate(maintenanceRequest);
         }
         return null;
     }
@@ -204,7 +234,7 @@ public class MaintenanceRequestServiceImpl implements MaintenanceRequestService
                 maintenanceRequest.setHouse(maintenanceRequestDetails.getHouse());
             }
 
-            return maintenanceRequestRepository.save(maintenanceRequest);
+            return saveAndInvalidate(maintenanceRequest);
         }
         return null;
     }
@@ -212,6 +242,13 @@ public class MaintenanceRequestServiceImpl implements MaintenanceRequestService
     @Override
     public void deleteMaintenanceRequest(Long id) {
         maintenanceRequestRepository.deleteById(id);
+        statsOverviewCache.invalidate();
     }
-}
 
+    // 维修申请的写操作都会影响统计面板的待处理列表
+    private MaintenanceRequest saveAndInvalidate(MaintenanceRequest maintenanceRequest) {
+        MaintenanceRequest saved = maintenanceRequestRepository.save(maintenanceRequest);
+        statsOverviewCache.invalidate();
+        return saved;
+    }
+}
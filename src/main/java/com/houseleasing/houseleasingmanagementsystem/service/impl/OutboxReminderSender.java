@@ -0,0 +1,41 @@
+package com.houseleasing.houseleasingmanagementsystem.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.houseleasing.houseleasingmanagementsystem.dto.TenantReminder;
+import com.houseleasing.houseleasingmanagementsystem.service.ReminderSender;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 默认发送通道：每个租客一行写入 reminder_outbox，一批一条 JDBC 批量插入
+ */
+public class OutboxReminderSender implements ReminderSender {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO reminder_outbox (tenant_id, tenant_phone, payload, created_at) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public OutboxReminderSender(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void send(List<TenantReminder> reminders) throws Exception {
+        if (reminders.isEmpty()) return;
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = new ArrayList<>(reminders.size());
+        for (TenantReminder r : reminders) {
+            args.add(new Object[]{r.getTenantId(), r.getTenantPhone(), objectMapper.writeValueAsString(r), now});
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, args,
+                new int[]{Types.BIGINT, Types.VARCHAR, Types.LONGVARCHAR, Types.TIMESTAMP});
+    }
+}
@@ -0,0 +1,56 @@
+package com.houseleasing.houseleasingmanagementsystem.service.impl;
+
+import com.houseleasing.houseleasingmanagementsystem.config.PenaltyProperties;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.PaymentCycle;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.PaymentStatus;
+import com.houseleasing.houseleasingmanagementsystem.repository.RentPaymentRepository;
+import com.houseleasing.houseleasingmanagementsystem.service.PenaltyService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+
+/**
+ * 逾期罚金引擎：罚金 = min(租金 × 日费率 × 逾期天数, 租金 × 上限比例)，逾期天数自应付日起算
+ * 每次运行对未支付、未封顶的逾期记录重新计算到当天，达到上限后标记已处理
+ * 按 id 区间分块、按支付周期执行集合更新，每条更新语句单独提交
+ */
+@Service
+public class PenaltyServiceImpl implements PenaltyService {
+
+    @Autowired
+    private RentPaymentRepository rentPaymentRepository;
+
+    @Autowired
+    private PenaltyProperties penaltyProperties;
+
+    private final Counter appliedCounter;
+
+    public PenaltyServiceImpl(MeterRegistry meterRegistry) {
+        this.appliedCounter = Counter.builder("rent.payments.penalty.applied")
+                .description("Penalty accruals written to overdue rent payments")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public int applyPenalties(LocalDate today) {
+        Long minId = rentPaymentRepository.findMinUnprocessedIdByStatus(PaymentStatus.OVERDUE);
+        Long maxId = rentPaymentRepository.findMaxUnprocessedIdByStatus(PaymentStatus.OVERDUE);
+        if (minId == null || maxId == null) return 0;
+        long chunkSize = Math.max(1, penaltyProperties.getChunkSize());
+        int total = 0;
+        for (long from = minId; from <= maxId; from += chunkSize) {
+            long to = Math.min(from + chunkSize - 1, maxId);
+            for (PaymentCycle cycle : PaymentCycle.values()) {
+                PenaltyProperties.Rule rule = penaltyProperties.ruleFor(cycle);
+                int updated = rentPaymentRepository.applyPenaltyInIdRange(from, to, cycle.name(),
+                        rule.getDailyRate(), rule.getCapRate(), today, today.minusDays(rule.getGraceDays()));
+                total += updated;
+            }
+        }
+        appliedCounter.increment(total);
+        return total;
+    }
+}
@@ -0,0 +1,188 @@
+package com.houseleasing.houseleasingmanagementsystem.service.impl;
+
+import com.houseleasing.houseleasingmanagementsystem.config.ReminderProperties;
+import com.houseleasing.houseleasingmanagementsystem.dto.TenantReminder;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.PaymentStatus;
+import com.houseleasing.houseleasingmanagementsystem.repository.RentPaymentRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.projection.ReminderCandidate;
+import com.houseleasing.houseleasingmanagementsystem.service.ReminderSender;
+import com.houseleasing.houseleasingmanagementsystem.service.ReminderService;
+import com.houseleasing.houseleasingmanagementsystem.util.TokenBucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 批量提醒流水线：按租客分批读取 → 按租客合并 → 限速发送 → 整批回写提醒时间
+ * 一批发送完成后才读取下一批，内存中最多只有一批数据；发送慢时读取随之放慢
+ * 读取按租客排序且批次不拆开同一租客，一次运行中每个租客只收到一条消息（单个租客记录超过一批时除外）
+ */
+@Service
+public class ReminderServiceImpl implements ReminderService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReminderServiceImpl.class);
+
+    private static final List<PaymentStatus> REMINDABLE = List.of(PaymentStatus.PENDING, PaymentStatus.OVERDUE);
+
+    @Autowired
+    private RentPaymentRepository rentPaymentRepository;
+
+    @Autowired
+    private ReminderSender reminderSender;
+
+    private final ReminderProperties reminderProperties;
+
+    private final TokenBucket rateLimiter;
+
+    private final Counter messagesSent;
+    private final Counter paymentsReminded;
+    private final Counter batchesFailed;
+    private final Timer dispatchTimer;
+
+    // 上次运行中等待最久的记录从可提醒到提醒发出经过的秒数
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    public ReminderServiceImpl(ReminderProperties reminderProperties, MeterRegistry meterRegistry) {
+        this.reminderProperties = reminderProperties;
+        this.rateLimiter = new TokenBucket(Math.max(1, reminderProperties.getBurst()),
+                reminderProperties.getRatePerSecond());
+        this.messagesSent = Counter.builder("rent.reminders.messages.sent")
+                .description("Reminder messages handed to the sender (one per tenant per run)")
+                .register(meterRegistry);
+        this.paymentsReminded = Counter.builder("rent.reminders.payments")
+                .description("Rent payments marked as reminded")
+                .register(meterRegistry);
+        this.batchesFailed = Counter.builder("rent.reminders.batches.failed")
+                .description("Reminder batches the sender failed to deliver")
+                .register(meterRegistry);
+        this.dispatchTimer = Timer.builder("rent.reminders.dispatch")
+                .description("Duration of a full reminder dispatch run")
+                .register(meterRegistry);
+        Gauge.builder("rent.reminders.lag.seconds", lagSeconds, AtomicLong::get)
+                .description("Longest time a payment waited between becoming remindable and its reminder being sent in the last run")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Map<String, Object> dispatch(LocalDate today) {
+        long start = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate dueBefore = today.plusDays(reminderProperties.getDueSoonDays());
+        LocalDateTime remindedBefore = now.minus(reminderProperties.getResendAfter());
+        int batchSize = Math.max(1, reminderProperties.getBatchSize());
+        PageRequest page = PageRequest.of(0, batchSize);
+
+        long afterTenantId = -1;
+        long afterId = 0;
+        int batches = 0, failed = 0, messages = 0, payments = 0;
+        long maxLag = 0;
+        try {
+            while (true) {
+                List<ReminderCandidate> candidates = rentPaymentRepository.findReminderCandidates(
+                        afterTenantId, afterId, REMINDABLE, dueBefore, remindedBefore, page);
+                if (candidates.isEmpty()) break;
+                if (candidates.size() == batchSize) {
+                    candidates = withoutTrailingTenant(candidates);
+                }
+                ReminderCandidate last = candidates.get(candidates.size() - 1);
+                afterTenantId = tenantKey(last);
+                afterId = last.getPaymentId();
+                batches++;
+
+                List<TenantReminder> reminders = groupByTenant(candidates);
+                try {
+                    rateLimiter.acquire(reminders.size());
+                    reminderSender.send(reminders);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    logger.warn("reminder dispatch interrupted after {} batches", batches);
+                    break;
+                } catch (Exception e) {
+                    // 整批未送达：不回写提醒时间，下次运行重试
+                    failed++;
+                    batchesFailed.increment();
+                    logger.warn("reminder batch ending at payment id {} failed: {}", afterId, e.getMessage());
+                    continue;
+                }
+
+                LocalDateTime sentAt = LocalDateTime.now();
+                List<Long> ids = new ArrayList<>(candidates.size());
+                for (ReminderCandidate c : candidates) {
+                    ids.add(c.getPaymentId());
+                    LocalDateTime eligibleAt = eligibleAt(c);
+                    if (eligibleAt != null) {
+                        maxLag = Math.max(maxLag, Duration.between(eligibleAt, sentAt).getSeconds());
+                    }
+                }
+                rentPaymentRepository.markRemindedByIds(ids, sentAt);
+
+                messages += reminders.size();
+                payments += ids.size();
+                messagesSent.increment(reminders.size());
+                paymentsReminded.increment(ids.size());
+            }
+        } finally {
+            dispatchTimer.record(Duration.ofNanos(System.nanoTime() - start));
+            lagSeconds.set(maxLag);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("batches", batches);
+        result.put("failedBatches", failed);
+        result.put("messages", messages);
+        result.put("payments", payments);
+        result.put("elapsedMillis", Duration.ofNanos(System.nanoTime() - start).toMillis());
+        return result;
+    }
+
+    // 一页取满时最后一个租客的记录可能还没取完，留给下一批从该租客开头重新读取；
+    // 整页都是同一租客（记录数超过一批）时只能分多条发送
+    private List<ReminderCandidate> withoutTrailingTenant(List<ReminderCandidate> candidates) {
+        long lastTenant = tenantKey(candidates.get(candidates.size() - 1));
+        int end = candidates.size();
+        while (end > 0 && tenantKey(candidates.get(end - 1)) == lastTenant) end--;
+        return end == 0 ? candidates : candidates.subList(0, end);
+    }
+
+    private static long tenantKey(ReminderCandidate c) {
+        return c.getTenantId() == null ? 0 : c.getTenantId();
+    }
+
+    // 记录可以提醒的时间：应付日期 - 提前天数；提醒过的记录要等到上次提醒 + 重发间隔之后
+    private LocalDateTime eligibleAt(ReminderCandidate c) {
+        if (c.getDueDate() == null) return null;
+        LocalDateTime eligibleAt = c.getDueDate().minusDays(reminderProperties.getDueSoonDays()).atStartOfDay();
+        if (c.getRemindedAt() != null) {
+            LocalDateTime resendAt = c.getRemindedAt().plus(reminderProperties.getResendAfter());
+            if (resendAt.isAfter(eligibleAt)) eligibleAt = resendAt;
+        }
+        return eligibleAt;
+    }
+
+    // 同一批内按租客合并成一条消息
+    private List<TenantReminder> groupByTenant(List<ReminderCandidate> candidates) {
+        Map<Long, TenantReminder> byTenant = new LinkedHashMap<>();
+        for (ReminderCandidate c : candidates) {
+            TenantReminder reminder = byTenant.computeIfAbsent(c.getTenantId(),
+                    id -> new TenantReminder(id, c.getTenantName(), c.getTenantPhone()));
+            reminder.getItems().add(new TenantReminder.Item(c.getPaymentId(), c.getContractNo(),
+                    c.getHouseAddress(), c.getDueDate(), c.getAmount(), c.getStatus()));
+        }
+        return new ArrayList<>(byTenant.values());
+    }
+}
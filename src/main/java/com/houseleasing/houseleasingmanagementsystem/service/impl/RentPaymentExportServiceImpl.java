@@ -0,0 +1,172 @@
+package com.houseleasing.houseleasingmanagementsystem.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.ExportFormat;
+import com.houseleasing.houseleasingmanagementsystem.repository.RentPaymentReportRepository;
+import com.houseleasing.houseleasingmanagementsystem.service.RentPaymentExportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * 租金报表流式导出：数据库游标逐行读取，逐行写入输出流，内存占用与行数无关
+ */
+@Service
+public class RentPaymentExportServiceImpl implements RentPaymentExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // 列类型（与 RentPaymentReportRepository.COLUMNS 对应）
+    private static final int LONG = 0, TEXT = 1, DATE = 2, DATETIME = 3, DECIMAL = 4, BOOL = 5;
+    private static final int[] TYPES = {
+            LONG, LONG, TEXT, TEXT, TEXT, TEXT,
+            DATE, DECIMAL, TEXT, DATETIME, DATE, DATE,
+            DATETIME, BOOL, DECIMAL
+    };
+
+    @Autowired
+    private RentPaymentReportRepository rentPaymentReportRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    public long export(LocalDate from, LocalDate to, ExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        long[] rows = {0};
+        try {
+            if (format == ExportFormat.CSV) {
+                writer.write('\uFEFF'); // BOM，Excel 直接打开不乱码
+                writeCsvLine(writer, RentPaymentReportRepository.COLUMNS);
+                rentPaymentReportRepository.streamByDueDateBetween(from, to, rs -> {
+                    writeCsvRow(writer, rs);
+                    rows[0]++;
+                });
+            } else {
+                JsonGenerator gen = objectMapper.getFactory().createGenerator(writer);
+                gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                rentPaymentReportRepository.streamByDueDateBetween(from, to, rs -> {
+                    writeJsonRow(gen, rs);
+                    rows[0]++;
+                });
+                gen.flush();
+            }
+        } catch (UncheckedIOException e) {
+            // 客户端断开等写出失败，终止游标读取
+            throw e.getCause();
+        }
+        writer.flush();
+        return rows[0];
+    }
+
+    private void writeCsvRow(Writer writer, ResultSet rs) throws SQLException {
+        try {
+            for (int i = 0; i < TYPES.length; i++) {
+                if (i > 0) writer.write(',');
+                String value = readText(rs, i);
+                if (value != null) writeCsvValue(writer, value);
+            }
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeJsonRow(JsonGenerator gen, ResultSet rs) throws SQLException {
+        try {
+            gen.writeStartObject();
+            for (int i = 0; i < TYPES.length; i++) {
+                String name = RentPaymentReportRepository.COLUMNS[i];
+                int col = i + 1;
+                switch (TYPES[i]) {
+                    case LONG -> {
+                        long v = rs.getLong(col);
+                        if (rs.wasNull()) gen.writeNullField(name); else gen.writeNumberField(name, v);
+                    }
+                    case DECIMAL -> {
+                        BigDecimal v = rs.getBigDecimal(col);
+                        if (v == null) gen.writeNullField(name); else gen.writeNumberField(name, v);
+                    }
+                    case BOOL -> {
+                        boolean v = rs.getBoolean(col);
+                        if (rs.wasNull()) gen.writeNullField(name); else gen.writeBooleanField(name, v);
+                    }
+                    default -> {
+                        String v = readText(rs, i);
+                        if (v == null) gen.writeNullField(name); else gen.writeStringField(name, v);
+                    }
+                }
+            }
+            gen.writeEndObject();
+            gen.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // 读取第 i 列（从 0 开始）并转为文本，日期使用 ISO 格式，与 JSON 接口保持一致
+    private String readText(ResultSet rs, int i) throws SQLException {
+        int col = i + 1;
+        switch (TYPES[i]) {
+            case DATE -> {
+                LocalDate v = rs.getObject(col, LocalDate.class);
+                return v == null ? null : v.toString();
+            }
+            case DATETIME -> {
+                LocalDateTime v = rs.getObject(col, LocalDateTime.class);
+                return v == null ? null : DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(v);
+            }
+            case DECIMAL -> {
+                BigDecimal v = rs.getBigDecimal(col);
+                return v == null ? null : v.toPlainString();
+            }
+            case BOOL -> {
+                boolean v = rs.getBoolean(col);
+                return rs.wasNull() ? null : String.valueOf(v);
+            }
+            case LONG -> {
+                long v = rs.getLong(col);
+                return rs.wasNull() ? null : String.valueOf(v);
+            }
+            default -> {
+                return rs.getString(col);
+            }
+        }
+    }
+
+    private void writeCsvLine(Writer writer, String[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) writer.write(',');
+            writeCsvValue(writer, values[i]);
+        }
+        writer.write('\n');
+    }
+
+    // 含逗号、引号或换行的值用双引号包裹，内部引号写两次
+    private void writeCsvValue(Writer writer, String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch == ',' || ch == '"' || ch == '\n' || ch == '\r') {
+                quote = true;
+                break;
+            }
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
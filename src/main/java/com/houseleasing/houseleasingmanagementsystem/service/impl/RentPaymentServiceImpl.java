@@ -1,18 +1,25 @@
 package com.houseleasing.houseleasingmanagementsystem.service.impl;
 
+import com.houseleasing.houseleasingmanagementsystem.cache.StatsOverviewCache;
+import com.houseleasing.houseleasingmanagementsystem.dto.KeysetPage;
 import com.houseleasing.houseleasingmanagementsystem.model.Contract;
 import com.houseleasing.houseleasingmanagementsystem.model.RentPayment;
-import com.houseleasing.houseleasingmanagementsystem.model.enums.PaymentCycle;
 import com.houseleasing.houseleasingmanagementsystem.model.enums.PaymentStatus;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.ReportGroupBy;
 import com.houseleasing.houseleasingmanagementsystem.repository.ContractRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.RentPaymentBatchRepository;
 import com.houseleasing.houseleasingmanagementsystem.repository.RentPaymentRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.TwoPhasePageRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.projection.RentPaymentListItem;
+import com.houseleasing.houseleasingmanagementsystem.repository.projection.ReportSummaryRow;
 import com.houseleasing.houseleasingmanagementsystem.service.RentPaymentService;
-import jakarta.persistence.criteria.Join;
-import jakarta.persistence.criteria.JoinType;
+import com.houseleasing.houseleasingmanagementsystem.service.RevenueRollupService;
+import com.houseleasing.houseleasingmanagementsystem.util.RentScheduleCalculator;
 import jakarta.persistence.criteria.Predicate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -21,7 +28,12 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class RentPaymentServiceImpl implements RentPaymentService {
@@ -32,6 +44,18 @@ public class RentPaymentServiceImpl implements RentPaymentService {
     @Autowired
     private ContractRepository contractRepository;
 
+    @Autowired
+    private RentPaymentBatchRepository rentPaymentBatchRepository;
+
+    @Autowired
+    private RevenueRollupService revenueRollupService;
+
+    @Autowired
+    private StatsOverviewCache statsOverviewCache;
+
+    @Autowired
+    private TwoPhasePageRepository twoPhasePageRepository;
+
     @Override
     @Transactional
     public RentPayment create(RentPayment rentPayment) {
@@ -55,6 +79,8 @@ public class RentPaymentServiceImpl implements RentPaymentService {
             rentPayment.setPeriodEnd(rentPayment.getPeriodStart().plusMonths(1).minusDays(1));
         }
         RentPayment saved = rentPaymentRepository.save(rentPayment);
+        revenueRollupService.applyChange(null, revenueRollupService.capture(saved));
+        statsOverviewCache.invalidate();
         return getById(saved.getId());
     }
 
@@ -63,6 +89,7 @@ public class RentPaymentServiceImpl implements RentPaymentService {
     public RentPayment update(Long id, RentPayment rentPayment) {
         RentPayment rp = getById(id);
         if (rp == null) return null;
+        RevenueRollupService.Contribution before = revenueRollupService.capture(rp);
         // 更新可修改字段
         rp.setDueDate(rentPayment.getDueDate());
         rp.setAmount(rentPayment.getAmount());
@@ -72,12 +99,20 @@ public class RentPaymentServiceImpl implements RentPaymentService {
         rp.setPeriodEnd(rentPayment.getPeriodEnd());
         rp.setPenalty(rentPayment.getPenalty());
         rentPaymentRepository.save(rp);
+        revenueRollupService.applyChange(before, revenueRollupService.capture(rp));
+        statsOverviewCache.invalidate();
         return getById(rp.getId());
     }
 
     @Override
+    @Transactional
     public void delete(Long id) {
-        rentPaymentRepository.deleteById(id);
+        RentPayment rp = rentPaymentRepository.findById(id).orElse(null);
+        if (rp == null) return;
+        RevenueRollupService.Contribution before = revenueRollupService.capture(rp);
+        rentPaymentRepository.delete(rp);
+        revenueRollupService.applyChange(before, null);
+        statsOverviewCache.invalidate();
     }
 
     @Override
@@ -86,22 +121,34 @@ public class RentPaymentServiceImpl implements RentPaymentService {
     }
 
     @Override
-    public Page<RentPayment> search(Long contractId,
-                                    PaymentStatus status,
-                                    LocalDate dueFrom,
-                                    LocalDate dueTo,
-                                    Pageable pageable) {
-        Specification<RentPayment> spec = (root, query, cb) -> {
-            if (RentPayment.class.equals(query.getResultType())) {
-                var cFetch = root.fetch("contract", JoinType.LEFT);
-                // fetch nested associations to support transient getters safely
-                try {
-                    var contractJoin = (Join<?, ?>) cFetch;
-                    contractJoin.fetch("house", JoinType.LEFT);
-                    contractJoin.fetch("landlord", JoinType.LEFT);
-                    contractJoin.fetch("tenant", JoinType.LEFT);
-                } catch (ClassCastException ignored) { /* for count queries */ }
-            }
+    @Transactional(readOnly = true)
+    public Page<RentPaymentListItem> search(Long contractId,
+                                            PaymentStatus status,
+                                            LocalDate dueFrom,
+                                            LocalDate dueTo,
+                                            Pageable pageable) {
+        // 逾期状态由 OverdueSweepJob 定时持久化，这里不再在读取时修改状态
+        // 先分页查 id，再按 id 投影列表行（含合同编号、租客/房东姓名、房源地址）
+        return twoPhasePageRepository.findPage(RentPayment.class, searchSpec(contractId, status, dueFrom, dueTo),
+                pageable, rentPaymentRepository::findListItemsByIdIn, RentPaymentListItem::id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<RentPaymentListItem> searchKeyset(Long contractId,
+                                                        PaymentStatus status,
+                                                        LocalDate dueFrom,
+                                                        LocalDate dueTo,
+                                                        String cursor,
+                                                        int size) {
+        return twoPhasePageRepository.findKeysetPage(RentPayment.class, searchSpec(contractId, status, dueFrom, dueTo),
+                "dueDate", Sort.Direction.ASC, cursor, size,
+                rentPaymentRepository::findListItemsByIdIn, RentPaymentListItem::id);
+    }
+
+    private Specification<RentPayment> searchSpec(Long contractId, PaymentStatus status,
+                                                  LocalDate dueFrom, LocalDate dueTo) {
+        return (root, query, cb) -> {
             List<Predicate> ps = new ArrayList<>();
             if (contractId != null) {
                 ps.add(cb.equal(root.get("contract").get("id"), contractId));
@@ -117,24 +164,75 @@ public class RentPaymentServiceImpl implements RentPaymentService {
             }
             return cb.and(ps.toArray(new Predicate[0]));
         };
-        Page<RentPayment> page = rentPaymentRepository.findAll(spec, pageable);
-        page.getContent().forEach(rp -> {
-            if (rp.getStatus() == PaymentStatus.PENDING && rp.getDueDate() != null && rp.getDueDate().isBefore(LocalDate.now())) {
-                rp.setStatus(PaymentStatus.OVERDUE);
-            }
-        });
-        return page;
     }
 
     @Override
-    public List<RentPayment> listByDueDateBetween(LocalDate from, LocalDate to) {
-        return rentPaymentRepository.findByDueDateBetween(from, to);
+    public List<RentPaymentListItem> listByDueDateBetween(LocalDate from, LocalDate to) {
+        return rentPaymentRepository.findListItemsByDueDateBetween(from, to);
+    }
+
+    @Override
+    public Map<String, Object> summarize(LocalDate from, LocalDate to, ReportGroupBy groupBy) {
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new IllegalArgumentException("日期范围不正确");
+        }
+        List<ReportSummaryRow> rows = switch (groupBy) {
+            case MONTH -> rentPaymentRepository.summarizeByMonth(from, to);
+            case LANDLORD -> rentPaymentRepository.summarizeByLandlord(from, to);
+            case HOUSE -> rentPaymentRepository.summarizeByHouse(from, to);
+            case STATUS -> rentPaymentRepository.summarizeByStatus(from, to);
+            case METHOD -> rentPaymentRepository.summarizeByPaymentMethod(from, to);
+        };
+
+        long count = 0;
+        double total = 0, paid = 0, penalty = 0;
+        List<Map<String, Object>> groups = new ArrayList<>(rows.size());
+        for (ReportSummaryRow row : rows) {
+            Object key = row.getGroupKey();
+            if (groupBy == ReportGroupBy.MONTH && key instanceof Number n) {
+                int yyyymm = n.intValue();
+                key = String.format("%04d-%02d", yyyymm / 100, yyyymm % 100);
+            }
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("key", key);
+            if (groupBy == ReportGroupBy.LANDLORD || groupBy == ReportGroupBy.HOUSE) {
+                item.put("label", row.getGroupLabel());
+            }
+            item.putAll(summaryMap(row.getPaymentCount(), row.getTotalAmount(),
+                    row.getPaidAmount(), row.getPenaltyTotal()));
+            groups.add(item);
+            count += row.getPaymentCount() == null ? 0 : row.getPaymentCount();
+            total += row.getTotalAmount() == null ? 0 : row.getTotalAmount();
+            paid += row.getPaidAmount() == null ? 0 : row.getPaidAmount();
+            penalty += row.getPenaltyTotal() == null ? 0 : row.getPenaltyTotal();
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("from", from);
+        result.put("to", to);
+        result.put("groupBy", groupBy);
+        result.put("totals", summaryMap(count, total, paid, penalty));
+        result.put("groups", groups);
+        return result;
+    }
+
+    // 收缴率 = 实收 / 应收（应收为 0 时为 0）
+    private static Map<String, Object> summaryMap(Long count, Double total, Double paid, Double penalty) {
+        double t = total == null ? 0 : total;
+        double p = paid == null ? 0 : paid;
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("paymentCount", count == null ? 0 : count);
+        m.put("totalAmount", t);
+        m.put("paidAmount", p);
+        m.put("penaltyTotal", penalty == null ? 0 : penalty);
+        m.put("collectionRate", t > 0 ? Math.round(p / t * 10000) / 10000.0 : 0.0);
+        return m;
     }
 
     @Override
-    public List<RentPayment> listOverduePending(LocalDate beforeDate) {
+    public List<RentPaymentListItem> listOverduePending(LocalDate beforeDate) {
         // 返回 dueDate 在 beforeDate 之前，状态为 PENDING 或 OVERDUE 的记录
-        return rentPaymentRepository.findOverdueBefore(beforeDate, Arrays.asList(PaymentStatus.PENDING, PaymentStatus.OVERDUE));
+        return rentPaymentRepository.findOverdueListItems(beforeDate, Arrays.asList(PaymentStatus.PENDING, PaymentStatus.OVERDUE));
     }
 
     @Override
@@ -152,6 +250,7 @@ public class RentPaymentServiceImpl implements RentPaymentService {
     public RentPayment markOverdueProcessed(Long id, Double penalty) {
         RentPayment rp = rentPaymentRepository.findById(id).orElse(null);
         if (rp == null) return null;
+        RevenueRollupService.Contribution before = revenueRollupService.capture(rp);
         rp.setOverdueProcessed(true);
         rp.setPenalty(penalty);
         // 设置逾期即将状态持久化为 OVERDUE（除非已经支付）
@@ -159,6 +258,8 @@ public class RentPaymentServiceImpl implements RentPaymentService {
             rp.setStatus(PaymentStatus.OVERDUE);
         }
         rentPaymentRepository.save(rp);
+        revenueRollupService.applyChange(before, revenueRollupService.capture(rp));
+        statsOverviewCache.invalidate();
         return getById(rp.getId());
     }
 
@@ -167,9 +268,12 @@ public class RentPaymentServiceImpl implements RentPaymentService {
     public RentPayment markPaid(Long id) {
         RentPayment rp = rentPaymentRepository.findById(id).orElse(null);
         if (rp == null) return null;
+        RevenueRollupService.Contribution before = revenueRollupService.capture(rp);
         rp.setStatus(PaymentStatus.PAID);
         rp.setPaidAt(LocalDateTime.now());
         rentPaymentRepository.save(rp);
+        revenueRollupService.applyChange(before, revenueRollupService.capture(rp));
+        statsOverviewCache.invalidate();
         return getById(rp.getId());
     }
 
@@ -177,62 +281,16 @@ public class RentPaymentServiceImpl implements RentPaymentService {
     @Transactional
     public void generateScheduleForContract(Contract contract, boolean markFirstPaid) {
         if (contract == null || contract.getId() == null) return;
-        // 防止重复生成：若已存在租金记录则跳过生成
-        if (rentPaymentRepository.existsByContract_Id(contract.getId())) {
-            // already generated; do nothing
-            return;
-        }
-        LocalDate cursor = contract.getStartDate();
-        LocalDate end = contract.getEndDate();
-        PaymentCycle cycle = contract.getPaymentCycle();
-        if (cycle == null) cycle = PaymentCycle.MONTHLY;
-        int stepMonths;
-        switch (cycle) {
-            case MONTHLY:
-                stepMonths = 1;
-                break;
-            case QUARTERLY:
-                stepMonths = 3;
-                break;
-            case HALF_YEARLY:
-                stepMonths = 6;
-                break;
-            case YEARLY:
-                stepMonths = 12;
-                break;
-            default:
-                stepMonths = 1;
-                break;
-        }
-        boolean first = true;
-        while (!cursor.isAfter(end)) {
-            LocalDate periodStart = cursor.withDayOfMonth(1);
-            LocalDate dueDate = cursor; // 可以根据业务改为 periodStart 或期末
-            LocalDate periodEnd = periodStart.plusMonths(stepMonths).minusDays(1);
-            if (periodEnd.isAfter(end)) periodEnd = end;
-
-            // Skip creation if a rent payment with same contract and dueDate already exists
-            if (rentPaymentRepository.existsByContract_IdAndDueDate(contract.getId(), dueDate)) {
-                cursor = periodStart.plusMonths(stepMonths);
-                first = false;
-                continue;
-            }
-
-            RentPayment rp = new RentPayment();
-            rp.setContract(contract);
-            rp.setDueDate(dueDate);
-            rp.setAmount(contract.getRentAmount());
-            rp.setStatus(first && markFirstPaid ? PaymentStatus.PAID : PaymentStatus.PENDING);
-            if (first && markFirstPaid) {
-                rp.setPaidAt(LocalDateTime.now());
-            }
-            rp.setPeriodStart(periodStart);
-            rp.setPeriodEnd(periodEnd);
-            rp.setOverdueProcessed(false);
-            rentPaymentRepository.save(rp);
-
-            cursor = periodStart.plusMonths(stepMonths);
-            first = false;
-        }
+        // 在内存中计算全部期数，再一次查出已存在的应付日期，只补齐缺失的期数（防止重复生成）
+        List<RentPayment> schedule = RentScheduleCalculator.build(contract, markFirstPaid);
+        if (schedule.isEmpty()) return;
+        Set<LocalDate> existing = new HashSet<>(rentPaymentRepository.findDueDatesByContractId(contract.getId()));
+        List<RentPayment> missing = schedule.stream()
+                .filter(rp -> !existing.contains(rp.getDueDate()))
+                .collect(Collectors.toList());
+        if (missing.isEmpty()) return;
+        rentPaymentBatchRepository.batchInsert(missing);
+        revenueRollupService.applyInserted(missing);
+        statsOverviewCache.invalidate();
     }
 }
@@ -0,0 +1,155 @@
+package com.houseleasing.houseleasingmanagementsystem.service.impl;
+
+import com.houseleasing.houseleasingmanagementsystem.model.Contract;
+import com.houseleasing.houseleasingmanagementsystem.model.MonthlyRevenueRollup;
+import com.houseleasing.houseleasingmanagementsystem.model.RentPayment;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.PaymentStatus;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.RollupScope;
+import com.houseleasing.houseleasingmanagementsystem.repository.MonthlyRevenueRollupRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.RentPaymentRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.projection.MonthlyRevenue;
+import com.houseleasing.houseleasingmanagementsystem.service.RevenueRollupService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.YearMonth;
+import java.util.*;
+
+@Service
+public class RevenueRollupServiceImpl implements RevenueRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(RevenueRollupServiceImpl.class);
+
+    // 汇总表中表示“不区分该维度”的ID
+    private static final long ANY = 0L;
+
+    @Autowired
+    private MonthlyRevenueRollupRepository rollupRepository;
+
+    @Autowired
+    private RentPaymentRepository rentPaymentRepository;
+
+    @Value("${app.revenue-rollup.rebuild-on-startup:true}")
+    private boolean rebuildOnStartup;
+
+    @Override
+    public Contribution capture(RentPayment rentPayment) {
+        if (rentPayment == null || rentPayment.getDueDate() == null) return null;
+        Long landlordId = null;
+        Long houseId = null;
+        Contract contract = rentPayment.getContract();
+        if (contract != null) {
+            // 代理对象的 getId() 不会触发懒加载
+            landlordId = contract.getLandlord() != null ? contract.getLandlord().getId() : null;
+            houseId = contract.getHouse() != null ? contract.getHouse().getId() : null;
+        }
+        double amount = rentPayment.getAmount() == null ? 0.0 : rentPayment.getAmount();
+        double paid = rentPayment.getStatus() == PaymentStatus.PAID ? amount : 0.0;
+        return new Contribution(YearMonth.from(rentPayment.getDueDate()), landlordId, houseId, amount, paid);
+    }
+
+    @Override
+    @Transactional
+    public void applyChange(Contribution before, Contribution after) {
+        if (Objects.equals(before, after)) return;
+        if (before != null && after != null && sameKey(before, after)) {
+            upsert(after.month(), after.landlordId(), after.houseId(),
+                    after.amount() - before.amount(), after.paid() - before.paid(), 0);
+            return;
+        }
+        if (before != null) {
+            upsert(before.month(), before.landlordId(), before.houseId(), -before.amount(), -before.paid(), -1);
+        }
+        if (after != null) {
+            upsert(after.month(), after.landlordId(), after.houseId(), after.amount(), after.paid(), 1);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void applyInserted(Collection<RentPayment> rentPayments) {
+        // 同一月份/房东/房源的记录先在内存中合并，减少写汇总表的次数
+        Map<Contribution, double[]> merged = new LinkedHashMap<>();
+        for (RentPayment rp : rentPayments) {
+            Contribution c = capture(rp);
+            if (c == null) continue;
+            Contribution key = new Contribution(c.month(), c.landlordId(), c.houseId(), 0.0, 0.0);
+            double[] acc = merged.computeIfAbsent(key, k -> new double[3]);
+            acc[0] += c.amount();
+            acc[1] += c.paid();
+            acc[2] += 1;
+        }
+        merged.forEach((key, acc) ->
+                upsert(key.month(), key.landlordId(), key.houseId(), acc[0], acc[1], (long) acc[2]));
+    }
+
+    @Override
+    @Transactional
+    public void reassignContract(Long contractId, Long oldLandlordId, Long oldHouseId, Long newLandlordId, Long newHouseId) {
+        if (contractId == null) return;
+        if (Objects.equals(oldLandlordId, newLandlordId) && Objects.equals(oldHouseId, newHouseId)) return;
+        for (MonthlyRevenue row : rentPaymentRepository.sumRevenueByContractGroupByMonth(contractId)) {
+            YearMonth month = YearMonth.of(row.getIncomeYear(), row.getIncomeMonth());
+            double total = row.getTotal() == null ? 0.0 : row.getTotal();
+            double paid = row.getPaid() == null ? 0.0 : row.getPaid();
+            long count = row.getPaymentCount() == null ? 0L : row.getPaymentCount();
+            upsert(month, oldLandlordId, oldHouseId, -total, -paid, -count);
+            upsert(month, newLandlordId, newHouseId, total, paid, count);
+        }
+    }
+
+    @Override
+    @Transactional
+    public int rebuild() {
+        rollupRepository.deleteAllRows();
+        int rows = rollupRepository.rebuildAllScope();
+        rows += rollupRepository.rebuildLandlordScope();
+        rows += rollupRepository.rebuildHouseScope();
+        return rows;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<YearMonth, Double> monthlyTotals(YearMonth from, YearMonth to) {
+        Map<YearMonth, Double> totals = new HashMap<>();
+        for (MonthlyRevenueRollup row : rollupRepository.findByScopeAndRevenueMonthBetween(
+                RollupScope.ALL, from.toString(), to.toString())) {
+            totals.put(YearMonth.parse(row.getRevenueMonth()), row.getTotalAmount());
+        }
+        return totals;
+    }
+
+    // 首次部署或汇总表被清空时，启动后自动从明细重建一次
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuildIfEmpty() {
+        if (!rebuildOnStartup) return;
+        if (rollupRepository.count() == 0 && rentPaymentRepository.count() > 0) {
+            int rows = rebuild();
+            log.info("monthly_revenue_rollup rebuilt on startup, {} rows", rows);
+        }
+    }
+
+    private boolean sameKey(Contribution a, Contribution b) {
+        return a.month().equals(b.month())
+                && Objects.equals(a.landlordId(), b.landlordId())
+                && Objects.equals(a.houseId(), b.houseId());
+    }
+
+    // 同一差值同时累加到 全部 / 房东 / 房源 三个维度
+    private void upsert(YearMonth month, Long landlordId, Long houseId, double amount, double paid, long count) {
+        if (amount == 0.0 && paid == 0.0 && count == 0) return;
+        String m = month.toString();
+        long landlord = landlordId == null ? ANY : landlordId;
+        long house = houseId == null ? ANY : houseId;
+        rollupRepository.upsertDelta(m, RollupScope.ALL.name(), ANY, ANY, amount, paid, count);
+        rollupRepository.upsertDelta(m, RollupScope.LANDLORD.name(), landlord, ANY, amount, paid, count);
+        rollupRepository.upsertDelta(m, RollupScope.HOUSE.name(), landlord, house, amount, paid, count);
+    }
+}
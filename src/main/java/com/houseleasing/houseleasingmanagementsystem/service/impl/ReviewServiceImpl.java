@@ -1,31 +1,51 @@
 package com.houseleasing.houseleasingmanagementsystem.service.impl;
 
+import com.houseleasing.houseleasingmanagementsystem.cache.StatsOverviewCache;
+import com.houseleasing.houseleasingmanagementsystem.dto.KeysetPage;
 import com.houseleasing.houseleasingmanagementsystem.model.Review;
 import com.houseleasing.houseleasingmanagementsystem.model.enums.ReviewType;
 import com.houseleasing.houseleasingmanagementsystem.repository.ReviewRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.TwoPhasePageRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.projection.ReviewListItem;
 import com.houseleasing.houseleasingmanagementsystem.service.ReviewService;
+import jakarta.persistence.criteria.Predicate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 @Service
 @Transactional
 public class ReviewServiceImpl implements ReviewService {
 
+    // 游标分页允许的排序字段（需为 Review 的非关联属性）
+    private static final Set<String> KEYSET_SORT_FIELDS = Set.of("createdAt", "rating", "id");
+
     @Autowired
     private ReviewRepository reviewRepository;
 
+    @Autowired
+    private StatsOverviewCache statsOverviewCache;
+
+    @Autowired
+    private TwoPhasePageRepository twoPhasePageRepository;
+
     @Override
     public Review createReview(Review review) {
         // 验证评分范围
         if (review.getRating() < 1 || review.getRating() > 5) {
             throw new IllegalArgumentException("评分必须在1-5之间");
         }
-        return reviewRepository.save(review);
+        Review saved = reviewRepository.save(review);
+        statsOverviewCache.invalidate();
+        return saved;
     }
 
     @Override
@@ -44,7 +64,9 @@ public class ReviewServiceImpl implements ReviewService {
             }
             existingReview.setRating(review.getRating());
             existingReview.setComment(review.getComment());
-            return reviewRepository.save(existingReview);
+            Review saved = reviewRepository.save(existingReview);
+            statsOverviewCache.invalidate();
+            return saved;
         }
         return null;
     }
@@ -52,36 +74,59 @@ public class ReviewServiceImpl implements ReviewService {
     @Override
     public void deleteReview(Long id) {
         reviewRepository.deleteById(id);
+        statsOverviewCache.invalidate();
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<Review> getAllReviews(Pageable pageable) {
-        return reviewRepository.findAllWithRelations(pageable);
+    public Page<ReviewListItem> getAllReviews(Pageable pageable) {
+        return pageListItems(null, pageable);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<Review> getReviewsByContractId(Long contractId, Pageable pageable) {
-        return reviewRepository.findByContract_Id(contractId, pageable);
+    public KeysetPage<ReviewListItem> searchReviewsKeyset(Long reviewerId, Long revieweeId, Long contractId,
+                                                          ReviewType reviewType, Integer minRating,
+                                                          String sortField, Sort.Direction direction,
+                                                          String cursor, int size) {
+        if (!KEYSET_SORT_FIELDS.contains(sortField)) {
+            throw new IllegalArgumentException("游标分页只支持按 createdAt、rating、id 排序");
+        }
+        Specification<Review> spec = (root, query, cb) -> {
+            List<Predicate> ps = new ArrayList<>();
+            if (reviewerId != null) ps.add(cb.equal(root.get("reviewer").get("id"), reviewerId));
+            if (revieweeId != null) ps.add(cb.equal(root.get("reviewee").get("id"), revieweeId));
+            if (contractId != null) ps.add(cb.equal(root.get("contract").get("id"), contractId));
+            if (reviewType != null) ps.add(cb.equal(root.get("reviewType"), reviewType));
+            if (minRating != null) ps.add(cb.greaterThanOrEqualTo(root.get("rating"), minRating));
+            return cb.and(ps.toArray(new Predicate[0]));
+        };
+        return twoPhasePageRepository.findKeysetPage(Review.class, spec, sortField, direction, cursor, size,
+                reviewRepository::findListItemsByIdIn, ReviewListItem::id);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<Review> getReviewsByReviewerId(Long reviewerId, Pageable pageable) {
-        return reviewRepository.findByReviewerIdWithRelations(reviewerId, pageable);
+    public Page<ReviewListItem> getReviewsByContractId(Long contractId, Pageable pageable) {
+        return pageListItems((root, query, cb) -> cb.equal(root.get("contract").get("id"), contractId), pageable);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<Review> getReviewsByRevieweeId(Long revieweeId, Pageable pageable) {
-        return reviewRepository.findByRevieweeIdWithRelations(revieweeId, pageable);
+    public Page<ReviewListItem> getReviewsByReviewerId(Long reviewerId, Pageable pageable) {
+        return pageListItems((root, query, cb) -> cb.equal(root.get("reviewer").get("id"), reviewerId), pageable);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<Review> getReviewsByType(ReviewType reviewType, Pageable pageable) {
-        return reviewRepository.findByReviewTypeWithRelations(reviewType, pageable);
+    public Page<ReviewListItem> getReviewsByRevieweeId(Long revieweeId, Pageable pageable) {
+        return pageListItems((root, query, cb) -> cb.equal(root.get("reviewee").get("id"), revieweeId), pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ReviewListItem> getReviewsByType(ReviewType reviewType, Pageable pageable) {
+        return pageListItems((root, query, cb) -> cb.equal(root.get("reviewType"), reviewType), pageable);
     }
 
     @Override
@@ -93,8 +138,8 @@ public class ReviewServiceImpl implements ReviewService {
 
     @Override
     @Transactional(readOnly = true)
-    public Page<Review> getReviewsByMinRating(Integer minRating, Pageable pageable) {
-        return reviewRepository.findByRatingGreaterThanEqualWithRelations(minRating, pageable);
+    public Page<ReviewListItem> getReviewsByMinRating(Integer minRating, Pageable pageable) {
+        return pageListItems((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("rating"), minRating), pageable);
     }
 
     @Override
@@ -111,8 +156,13 @@ public class ReviewServiceImpl implements ReviewService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<Review> getReviewsByContract(Long contractId) {
-        return reviewRepository.findByContract_Id(contractId);
+    public List<ReviewListItem> getReviewsByContract(Long contractId) {
+        return reviewRepository.findListItemsByContractId(contractId);
     }
-}
 
+    // 两阶段分页：先分页查 id，再按 id 投影列表行（含合同编号、评价人/被评价人姓名）
+    private Page<ReviewListItem> pageListItems(Specification<Review> filter, Pageable pageable) {
+        return twoPhasePageRepository.findPage(Review.class, filter, pageable,
+                reviewRepository::findListItemsByIdIn, ReviewListItem::id);
+    }
+}
@@ -0,0 +1,47 @@
+package com.houseleasing.houseleasingmanagementsystem.service.impl;
+
+import com.houseleasing.houseleasingmanagementsystem.repository.SchedulerLockRepository;
+import com.houseleasing.houseleasingmanagementsystem.service.SchedulerLockService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Service
+public class SchedulerLockServiceImpl implements SchedulerLockService {
+
+    // 节点标识：JVM 名称（pid@host）+ 随机后缀，避免同机多实例冲突
+    private final String owner = ManagementFactory.getRuntimeMXBean().getName() + "-"
+            + UUID.randomUUID().toString().substring(0, 8);
+
+    @Autowired
+    private SchedulerLockRepository schedulerLockRepository;
+
+    // 不包在外层事务中：每条语句独立提交，其它节点立即可见
+    @Override
+    public boolean tryLock(String name, Duration lockAtMost) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = now.plus(lockAtMost);
+        if (schedulerLockRepository.tryAcquire(name, owner, now, until) == 1) {
+            return true;
+        }
+        if (schedulerLockRepository.existsById(name)) {
+            return false;
+        }
+        // 首次运行：插入锁记录，并发插入时只有一个节点成功
+        try {
+            return schedulerLockRepository.insertLock(name, owner, now, until) == 1;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void unlock(String name) {
+        schedulerLockRepository.release(name, owner, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,208 @@
+package com.houseleasing.houseleasingmanagementsystem.service.impl;
+
+import com.houseleasing.houseleasingmanagementsystem.model.Review;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.ContractStatus;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.MaintenanceStatus;
+import com.houseleasing.houseleasingmanagementsystem.repository.*;
+import com.houseleasing.houseleasingmanagementsystem.repository.projection.MaintenanceRequestListItem;
+import com.houseleasing.houseleasingmanagementsystem.service.RevenueRollupService;
+import com.houseleasing.houseleasingmanagementsystem.service.StatsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+@Service
+public class StatsServiceImpl implements StatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatsServiceImpl.class);
+
+    // 默认展示最近 6 个月
+    private static final int DEFAULT_SERIES_MONTHS = 6;
+
+    // 收入曲线最多展示的月份数，防止任意 from/to 造成超长序列
+    private static final int MAX_SERIES_MONTHS = 120;
+
+    // 子查询不可用时以空列表代替的部分，其余以 null 代替
+    private static final Set<String> LIST_WIDGETS = Set.of("monthlyIncomeSeries", "pendingMaintenances", "recentReviews");
+
+    @Autowired
+    private HouseRepository houseRepository;
+
+    @Autowired
+    private ContractRepository contractRepository;
+
+    @Autowired
+    private RevenueRollupService revenueRollupService;
+
+    @Autowired
+    private MaintenanceRequestRepository maintenanceRequestRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    @Qualifier("statsQueryExecutor")
+    private Executor statsQueryExecutor;
+
+    private final long widgetTimeoutMs;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    public StatsServiceImpl(PlatformTransactionManager transactionManager,
+                            @Value("${app.stats.widget-timeout-ms:2000}") long widgetTimeoutMs) {
+        this.widgetTimeoutMs = widgetTimeoutMs;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // 事务超时（秒，向上取整）作为 JDBC 查询超时下发，超时的子查询在数据库侧被取消，不再继续占用连接
+        this.readOnlyTransaction.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(widgetTimeoutMs + 999)));
+    }
+
+    /**
+     * 各子查询在 statsQueryExecutor 上并行执行，每个子查询一个只读事务；
+     * 超过 widget 超时或失败的子查询不拖垮整个面板，返回部分结果（partial=true，缺失项列在 unavailableWidgets）
+     */
+    @Override
+    public Map<String, Object> overview(LocalDate from, LocalDate to) {
+        // 收入曲线范围：默认截止到本月的最近 6 个月
+        YearMonth thisMonth = YearMonth.now();
+        YearMonth seriesTo = to != null ? YearMonth.from(to) : thisMonth;
+        YearMonth seriesFrom = from != null ? YearMonth.from(from) : seriesTo.minusMonths(DEFAULT_SERIES_MONTHS - 1);
+        // 参数非法时在调用线程直接抛出
+        checkSeriesRange(seriesFrom, seriesTo);
+
+        Map<String, CompletableFuture<?>> widgets = new LinkedHashMap<>();
+        widgets.put("totalHouses", query(houseRepository::count));
+        // count rented houses by active contracts using ContractStatus
+        widgets.put("rentedHouses", query(() -> contractRepository.countByStatus(ContractStatus.ACTIVE)));
+        widgets.put("activeTenants", query(userRepository::count));
+        CompletableFuture<List<Map<String, Object>>> series = query(() -> monthlyIncomeSeries(seriesFrom, seriesTo));
+        widgets.put("monthlyIncomeSeries", series);
+        // monthly income - 本月在曲线范围内时直接复用，否则单独汇总一次
+        if (!thisMonth.isBefore(seriesFrom) && !thisMonth.isAfter(seriesTo)) {
+            int index = (int) seriesFrom.until(thisMonth, ChronoUnit.MONTHS);
+            widgets.put("monthlyIncome", series.thenApply(points -> points.get(index).get("value")));
+        } else {
+            widgets.put("monthlyIncome", query(() ->
+                    revenueRollupService.monthlyTotals(thisMonth, thisMonth).getOrDefault(thisMonth, 0.0)));
+        }
+        widgets.put("pendingMaintenances", query(this::pendingMaintenances));
+        widgets.put("recentReviews", query(this::recentReviews));
+
+        // 所有子查询同时开始，共用同一个截止时间
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(widgetTimeoutMs);
+        Map<String, Object> result = new HashMap<>();
+        List<String> unavailable = new ArrayList<>();
+        for (Map.Entry<String, CompletableFuture<?>> widget : widgets.entrySet()) {
+            String name = widget.getKey();
+            try {
+                result.put(name, widget.getValue().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                widget.getValue().cancel(true);
+                logger.warn("stats overview widget {} timed out after {} ms", name, widgetTimeoutMs);
+                unavailable.add(name);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RejectedExecutionException) {
+                    logger.warn("stats overview widget {} rejected: stats query executor is saturated", name);
+                } else {
+                    logger.warn("stats overview widget {} failed", name, e.getCause());
+                }
+                unavailable.add(name);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                unavailable.add(name);
+            }
+        }
+        for (String name : unavailable) {
+            result.put(name, LIST_WIDGETS.contains(name) ? List.of() : null);
+        }
+        if (!unavailable.isEmpty()) {
+            result.put(PARTIAL, true);
+            result.put(UNAVAILABLE_WIDGETS, unavailable);
+        }
+        return result;
+    }
+
+    // 线程池已满时不在调用线程上执行，该子查询直接记为不可用
+    private <T> CompletableFuture<T> query(Supplier<T> supplier) {
+        try {
+            return CompletableFuture.supplyAsync(() -> readOnlyTransaction.execute(status -> supplier.get()), statsQueryExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    // pending maintenances
+    // 列表投影已带出房源地址，无需加载实体
+    private List<Map<String, Object>> pendingMaintenances() {
+        List<MaintenanceRequestListItem> pending = maintenanceRequestRepository.findListItemsByStatus(MaintenanceStatus.PENDING, PageRequest.of(0, 10)).getContent();
+        return pending.stream().map(mr -> {
+            Map<String, Object> map = new HashMap<>();
+            map.put("id", mr.id());
+            map.put("date", mr.createdAt() == null ? null : mr.createdAt().toLocalDate().toString());
+            map.put("houseAddress", mr.houseAddress());
+            map.put("issue", mr.description());
+            return map;
+        }).collect(Collectors.toList());
+    }
+
+    // recent reviews
+    private List<Map<String, Object>> recentReviews() {
+        List<Review> reviews = reviewRepository.findRecentWithReviewer(PageRequest.of(0, 5));
+        return reviews.stream().map(rv -> {
+            Map<String, Object> map = new HashMap<>();
+            map.put("id", rv.getId());
+            map.put("author", rv.getReviewer() == null ? null : rv.getReviewer().getRealName());
+            map.put("content", rv.getComment());
+            map.put("date", rv.getCreatedAt() == null ? null : rv.getCreatedAt().toLocalDate().toString());
+            return map;
+        }).collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> monthlyIncomeSeries(YearMonth from, YearMonth to) {
+        checkSeriesRange(from, to);
+        // 从月度收入汇总表按月读取（每月一行），缺失的月份补 0
+        Map<YearMonth, Double> totals = revenueRollupService.monthlyTotals(from, to);
+        List<Map<String, Object>> series = new ArrayList<>();
+        for (YearMonth ym = from; !ym.isAfter(to); ym = ym.plusMonths(1)) {
+            Map<String, Object> p = new HashMap<>();
+            p.put("label", ym.getMonthValue() + "月");
+            p.put("value", totals.getOrDefault(ym, 0.0));
+            series.add(p);
+        }
+        return series;
+    }
+
+    private static void checkSeriesRange(YearMonth from, YearMonth to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from 不能晚于 to");
+        }
+        if (from.until(to, ChronoUnit.MONTHS) >= MAX_SERIES_MONTHS) {
+            throw new IllegalArgumentException("统计范围不能超过 " + MAX_SERIES_MONTHS + " 个月");
+        }
+    }
+}
@@ -1,11 +1,19 @@
 package com.houseleasing.houseleasingmanagementsystem.service.impl;
 
+import com.houseleasing.houseleasingmanagementsystem.cache.HouseSearchIndex;
+import com.houseleasing.houseleasingmanagementsystem.cache.StatsOverviewCache;
+import com.houseleasing.houseleasingmanagementsystem.dto.KeysetPage;
 import com.houseleasing.houseleasingmanagementsystem.model.User;
+import com.houseleasing.houseleasingmanagementsystem.repository.NaturalIdRepository;
 import com.houseleasing.houseleasingmanagementsystem.repository.UserRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.TwoPhasePageRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.projection.UserListItem;
 import com.houseleasing.houseleasingmanagementsystem.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -17,9 +25,21 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private StatsOverviewCache statsOverviewCache;
+
+    @Autowired
+    private HouseSearchIndex houseSearchIndex;
+
+    @Autowired
+    private TwoPhasePageRepository twoPhasePageRepository;
+
+    @Autowired
+    private NaturalIdRepository naturalIdRepository;
+
     @Override
-    public Page<User> getAllUsers(Pageable pageable) {
-        return userRepository.findAll(pageable);
+    public Page<UserListItem> getAllUsers(Pageable pageable) {
+        return userRepository.findListItems(pageable);
     }
 
     @Override
@@ -30,7 +50,9 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public User createUser(User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        statsOverviewCache.invalidate();
+        return saved;
     }
 
     @Override
@@ -40,7 +62,10 @@ public class UserServiceImpl implements UserService {
             user.setRealName(userDetails.getRealName());
             user.setIdCard(userDetails.getIdCard());
             user.setPhone(userDetails.getPhone());
-            return userRepository.save(user);
+            User saved = userRepository.save(user);
+            // 房源列表行带有房东姓名
+            houseSearchIndex.refreshLandlordAfterCommit(saved.getId());
+            return saved;
         }
         return null;
     }
@@ -48,6 +73,7 @@ public class UserServiceImpl implements UserService {
     @Override
     public void deleteUser(Long id) {
         userRepository.deleteById(id);
+        statsOverviewCache.invalidate();
     }
 
     @Override
@@ -57,15 +83,29 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public Page<User> searchByRealName(String realName, Pageable pageable) {
+    public Page<UserListItem> searchByRealName(String realName, Pageable pageable) {
         if (realName == null || realName.isBlank()) {
-            return userRepository.findAll(pageable);
+            return userRepository.findListItems(pageable);
         }
-        return userRepository.findByRealNameContainingIgnoreCase(realName, pageable);
+        return twoPhasePageRepository.findPage(User.class, realNameSpec(realName), pageable,
+                userRepository::findListItemsByIdIn, UserListItem::id);
+    }
+
+    @Override
+    public KeysetPage<UserListItem> searchByRealNameKeyset(String realName, String cursor, int size) {
+        return twoPhasePageRepository.findKeysetPage(User.class, realNameSpec(realName), "id", Sort.Direction.ASC,
+                cursor, size, userRepository::findListItemsByIdIn, UserListItem::id);
+    }
+
+    // 姓名模糊匹配（忽略大小写）；为空时不过滤
+    private static Specification<User> realNameSpec(String realName) {
+        if (realName == null || realName.isBlank()) return null;
+        String pattern = "%" + realName.toLowerCase() + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get("realName")), pattern);
     }
 
     @Override
     public User getByIdCard(String idCard) {
-        return userRepository.findByIdCard(idCard).orElse(null);
+        return naturalIdRepository.findBySimpleNaturalId(User.class, idCard).orElse(null);
     }
 }
@@ -0,0 +1,131 @@
+package com.houseleasing.houseleasingmanagementsystem.util;
+
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 游标（keyset）分页辅助：按 (排序字段, id) 定位上一页最后一行，用 WHERE 条件代替 OFFSET，且不执行 count 查询
+ * 无论翻到第几页，数据库都只扫描 size + 1 行；查询本身由 TwoPhasePageRepository.findKeysetPage 执行
+ * 游标令牌对调用方不透明，内容为 排序字段|方向|值类型|值|id 的 Base64url 编码
+ * 空值按 MySQL 规则排序（升序在前、降序在后）
+ */
+public final class KeysetPager {
+
+    public static final int MAX_SIZE = 500;
+
+    private KeysetPager() {
+    }
+
+    /**
+     * 每页行数限制在 [1, MAX_SIZE]
+     */
+    public static int limit(int size) {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+    /**
+     * 游标之后的过滤条件；cursor 为空（第一页）时返回 null
+     * valueType 为排序字段的 Java 类型，游标中的值类型必须与之一致（防止篡改后的游标在查询执行时才出错）
+     * 游标与当前排序字段/方向不一致或无法解析时抛出 IllegalArgumentException
+     */
+    public static <T> Specification<T> after(String cursor, String sortField, Sort.Direction direction,
+                                             Class<?> valueType) {
+        if (cursor == null || cursor.isBlank()) return null;
+        Cursor c = decode(cursor, sortField, direction);
+        if (c.value() != null && !typeCode(c.value().getClass()).equals(typeCode(valueType))) {
+            throw new IllegalArgumentException("cursor 无效");
+        }
+        return after(c);
+    }
+
+    /**
+     * 生成下一页游标：value 为本页最后一行的排序字段值（按 id 排序时传 null）
+     */
+    public static String encode(String sortField, Sort.Direction direction, Object value, Long id) {
+        return encode(new Cursor(sortField, direction, value, id));
+    }
+
+    // 位于游标之后的行：(字段, id) 严格大于（升序）或小于（降序）游标位置
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> Specification<T> after(Cursor c) {
+        return (root, query, cb) -> {
+            boolean asc = c.direction() == Sort.Direction.ASC;
+            Path<Long> id = root.get("id");
+            Predicate idAfter = asc ? cb.greaterThan(id, c.id()) : cb.lessThan(id, c.id());
+            if ("id".equals(c.field())) return idAfter;
+
+            Path<Comparable> field = root.get(c.field());
+            if (c.value() == null) {
+                Predicate sameNull = cb.and(cb.isNull(field), idAfter);
+                // 升序时空值在前，之后还有全部非空行；降序时空值在最后
+                return asc ? cb.or(sameNull, cb.isNotNull(field)) : sameNull;
+            }
+            Comparable v = (Comparable) c.value();
+            Predicate beyond = asc ? cb.greaterThan(field, v) : cb.lessThan(field, v);
+            Predicate tie = cb.and(cb.equal(field, v), idAfter);
+            return asc ? cb.or(beyond, tie) : cb.or(beyond, tie, cb.isNull(field));
+        };
+    }
+
+    private record Cursor(String field, Sort.Direction direction, Object value, Long id) {
+    }
+
+    private static String encode(Cursor c) {
+        Object v = c.value();
+        String type = v == null ? "n" : typeCode(v.getClass());
+        String text = v == null ? "" : v.toString();
+        String raw = c.field() + "|" + c.direction().name() + "|" + type + "|" + text + "|" + c.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // 值类型代码：n 空值、l Long、i Integer、f 浮点、t LocalDateTime、d LocalDate、s 其它（按字符串比较）
+    private static String typeCode(Class<?> type) {
+        if (type == Long.class || type == long.class) return "l";
+        if (type == Integer.class || type == int.class) return "i";
+        if (type == Double.class || type == double.class || type == Float.class || type == float.class) return "f";
+        if (type == LocalDateTime.class) return "t";
+        if (type == LocalDate.class) return "d";
+        return "s";
+    }
+
+    private static Cursor decode(String token, String expectedField, Sort.Direction expectedDirection) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int p1 = raw.indexOf('|');
+            int p2 = raw.indexOf('|', p1 + 1);
+            int p3 = raw.indexOf('|', p2 + 1);
+            int p4 = raw.lastIndexOf('|');
+            if (p1 < 0 || p2 < 0 || p3 < 0 || p4 <= p3) throw new IllegalArgumentException();
+            String field = raw.substring(0, p1);
+            Sort.Direction direction = Sort.Direction.valueOf(raw.substring(p1 + 1, p2));
+            if (!field.equals(expectedField) || direction != expectedDirection) {
+                throw new IllegalArgumentException("cursor 与当前排序不一致");
+            }
+            String type = raw.substring(p2 + 1, p3);
+            String text = raw.substring(p3 + 1, p4);
+            Long id = Long.valueOf(raw.substring(p4 + 1));
+            Object value = switch (type) {
+                case "n" -> null;
+                case "l" -> Long.valueOf(text);
+                case "i" -> Integer.valueOf(text);
+                case "f" -> Double.valueOf(text);
+                case "t" -> LocalDateTime.parse(text);
+                case "d" -> LocalDate.parse(text);
+                case "s" -> text;
+                default -> throw new IllegalArgumentException();
+            };
+            return new Cursor(field, direction, value, id);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            String msg = e.getMessage() != null && e.getMessage().startsWith("cursor") ? e.getMessage() : "cursor 无效";
+            throw new IllegalArgumentException(msg);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.houseleasing.houseleasingmanagementsystem.util;
+
+import com.houseleasing.houseleasingmanagementsystem.model.Contract;
+import com.houseleasing.houseleasingmanagementsystem.model.RentPayment;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.PaymentCycle;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.PaymentStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 根据合同计算完整的租金计划（纯内存计算，不访问数据库）
+ */
+public final class RentScheduleCalculator {
+
+    private RentScheduleCalculator() {
+    }
+
+    /**
+     * 支付周期对应的月数
+     */
+    public static int stepMonths(PaymentCycle cycle) {
+        if (cycle == null) return 1;
+        switch (cycle) {
+            case QUARTERLY:
+                return 3;
+            case HALF_YEARLY:
+                return 6;
+            case YEARLY:
+                return 12;
+            case MONTHLY:
+            default:
+                return 1;
+        }
+    }
+
+    /**
+     * 生成合同期内每一期的租金记录；若 markFirstPaid=true 则第一期标记为已支付
+     */
+    public static List<RentPayment> build(Contract contract, boolean markFirstPaid) {
+        List<RentPayment> schedule = new ArrayList<>();
+        if (contract == null || contract.getStartDate() == null || contract.getEndDate() == null) {
+            return schedule;
+        }
+        LocalDate cursor = contract.getStartDate();
+        LocalDate end = contract.getEndDate();
+        int stepMonths = stepMonths(contract.getPaymentCycle());
+        boolean first = true;
+        while (!cursor.isAfter(end)) {
+            LocalDate periodStart = cursor.withDayOfMonth(1);
+            LocalDate dueDate = cursor; // 可以根据业务改为 periodStart 或期末
+            LocalDate periodEnd = periodStart.plusMonths(stepMonths).minusDays(1);
+            if (periodEnd.isAfter(end)) periodEnd = end;
+
+            RentPayment rp = new RentPayment();
+            rp.setContract(contract);
+            rp.setDueDate(dueDate);
+            rp.setAmount(contract.getRentAmount());
+            rp.setStatus(first && markFirstPaid ? PaymentStatus.PAID : PaymentStatus.PENDING);
+            if (first && markFirstPaid) {
+                rp.setPaidAt(LocalDateTime.now());
+            }
+            rp.setPeriodStart(periodStart);
+            rp.setPeriodEnd(periodEnd);
+            rp.setOverdueProcessed(false);
+            schedule.add(rp);
+
+            cursor = periodStart.plusMonths(stepMonths);
+            first = false;
+        }
+        return schedule;
+    }
+}
@@ -0,0 +1,89 @@
+package com.houseleasing.houseleasingmanagementsystem.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 令牌桶限流：容量 capacity，每秒补充 refillPerSecond 个令牌
+ * 使用 ReentrantLock 而非 synchronized，避免虚拟线程被钉住
+ */
+public class TokenBucket {
+
+    private final double capacity;
+    private final double refillPerNano;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private double tokens;
+    private long lastRefill;
+
+    public TokenBucket(double capacity, double refillPerSecond) {
+        if (capacity <= 0 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("capacity 和 refillPerSecond 必须大于0");
+        }
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+    }
+
+    /**
+     * 立即尝试取 permits 个令牌，不足时返回 false（不等待）
+     */
+    public boolean tryConsume(int permits) {
+        lock.lock();
+        try {
+            refill(System.nanoTime());
+            if (tokens >= permits) {
+                tokens -= permits;
+                return true;
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 阻塞直到取得 permits 个令牌；permits 超过容量时按容量计算，避免永久等待
+     */
+    public void acquire(int permits) throws InterruptedException {
+        double need = Math.min(permits, capacity);
+        while (true) {
+            long waitNanos;
+            lock.lock();
+            try {
+                long now = System.nanoTime();
+                refill(now);
+                if (tokens >= need) {
+                    tokens -= need;
+                    return;
+                }
+                waitNanos = (long) Math.ceil((need - tokens) / refillPerNano);
+            } finally {
+                lock.unlock();
+            }
+            TimeUnit.NANOSECONDS.sleep(Math.max(waitNanos, 1));
+        }
+    }
+
+    /**
+     * 当前可用的令牌数（不消耗）
+     */
+    public double availableTokens() {
+        lock.lock();
+        try {
+            refill(System.nanoTime());
+            return tokens;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void refill(long now) {
+        long elapsed = now - lastRefill;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * refillPerNano);
+            lastRefill = now;
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package com.houseleasing.houseleasingmanagementsystem.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
@@ -8,26 +12,45 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 
 /**
  * 简单的Token工具类，用于WebUI口令验证
+ * 签名密钥和解析器在启动时构建一次；校验通过的 token 以 SHA-256 摘要缓存到其过期时间，
+ * 重复请求只需计算摘要，不再解析 JSON、校验签名
  */
 @Component
 public class TokenUtil {
 
-    @Value("${app.secret-key:mySecretKeyForHouseLeasingSystem2024!@#}")
-    private String secretKey;
+    private final Long expiration;
 
-    @Value("${app.token.expiration:86400}") // 默认24小时
-    private Long expiration;
+    private final SecretKey signingKey;
 
-    private SecretKey getSigningKey() {
+    // JwtParser 不可变，可在线程间共享
+    private final JwtParser parser;
+
+    // token 摘要 -> 过期时间（毫秒）；只缓存校验通过的 token，缓存不保存 token 原文
+    // 条目在 token 过期时自动失效，写满后按 Caffeine 的淘汰策略移除；validationCacheSize <= 0 时为 null（不缓存）
+    private final Cache<String, Long> validatedTokens;
+
+    public TokenUtil(@Value("${app.secret-key:mySecretKeyForHouseLeasingSystem2024!@#}") String secretKey,
+                     @Value("${app.token.expiration:86400}") Long expiration, // 默认24小时
+                     @Value("${app.token.validation-cache-size:10000}") int validationCacheSize) {
+        this.expiration = expiration;
         // 确保密钥长度至少32字节
-        byte[] keyBytes = secretKey.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+        this.signingKey = Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+        this.validatedTokens = validationCacheSize <= 0 ? null : Caffeine.newBuilder()
+                .maximumSize(validationCacheSize)
+                .expireAfter(Expiry.<String, Long>writing((digest, expiresAt) ->
+                        Duration.ofMillis(Math.max(0, expiresAt - System.currentTimeMillis()))))
+                .build();
     }
 
     /**
@@ -42,7 +65,7 @@ public class TokenUtil {
                 .subject("webui-access")
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration * 1000))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
@@ -50,17 +73,49 @@ public class TokenUtil {
      * 验证token是否有效
      */
     public boolean validateToken(String token) {
+        if (token == null || token.isEmpty()) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        String digest = validatedTokens != null ? digest(token) : null;
+        if (digest != null) {
+            Long expiresAt = validatedTokens.getIfPresent(digest);
+            if (expiresAt != null && expiresAt > now) {
+                return true;
+            }
+        }
         try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-
-            return claims.getExpiration().after(new Date());
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            long expiresAt = claims.getExpiration().getTime();
+            if (expiresAt <= now) {
+                return false;
+            }
+            if (digest != null) {
+                validatedTokens.put(digest, expiresAt);
+            }
+            return true;
         } catch (Exception e) {
             return false;
         }
     }
-}
 
+    /**
+     * token 是否在已校验缓存中且尚未过期；只查缓存，不校验签名
+     */
+    public boolean isRecentlyValidated(String token) {
+        if (validatedTokens == null || token == null || token.isEmpty()) {
+            return false;
+        }
+        Long expiresAt = validatedTokens.getIfPresent(digest(token));
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
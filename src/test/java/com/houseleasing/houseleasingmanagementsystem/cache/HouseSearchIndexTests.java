@@ -0,0 +1,166 @@
+package com.houseleasing.houseleasingmanagementsystem.cache;
+
+import com.houseleasing.houseleasingmanagementsystem.dto.GeoFilter;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.HouseStatus;
+import com.houseleasing.houseleasingmanagementsystem.repository.HouseRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.projection.HouseListItem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 房源内存索引的筛选、排序、分页与分面计数（不启动 Spring）
+ */
+class HouseSearchIndexTests {
+
+    private static final HouseSearchIndex.Filter ALL =
+            new HouseSearchIndex.Filter(null, null, null, null, null, null, null, null, null, null);
+
+    private HouseSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new HouseSearchIndex();
+        index.load(List.of(
+                house(3L, "两室一厅", 3000.0, 60.0, "精装", HouseStatus.AVAILABLE, 1L),
+                house(1L, "一室一厅", 1500.0, 35.0, "简装", HouseStatus.AVAILABLE, 1L),
+                house(2L, "两室一厅", 2500.0, null, "简装", HouseStatus.RENTED, 2L),
+                house(4L, "三室一厅", 5000.0, 90.0, "精装", HouseStatus.AVAILABLE, 2L)));
+    }
+
+    @Test
+    void filtersAndPagesInIdOrder() {
+        Page<HouseListItem> page = index.search(ALL, PageRequest.of(1, 3));
+        assertEquals(4, page.getTotalElements());
+        assertEquals(List.of(4L), ids(page));
+
+        HouseSearchIndex.Filter filter = new HouseSearchIndex.Filter("两室一厅", null, null, null, null, 2600.0, null, null, null, null);
+        assertEquals(List.of(3L), ids(index.search(filter, PageRequest.of(0, 10))));
+
+        // 面积为空的房源不满足面积范围
+        HouseSearchIndex.Filter area = new HouseSearchIndex.Filter(null, null, null, null, null, null, null, 0.0, null, null);
+        assertEquals(List.of(1L, 3L, 4L), ids(index.search(area, PageRequest.of(0, 10))));
+    }
+
+    @Test
+    void sortsByRentAndIdDescending() {
+        assertEquals(List.of(4L, 3L, 2L, 1L), ids(index.search(ALL, PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "rent")))));
+        assertEquals(List.of(4L, 3L), ids(index.search(ALL, PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "id")))));
+        HouseSearchIndex.Filter landlord = new HouseSearchIndex.Filter(null, null, null, null, 2L, null, null, null, null, null);
+        assertEquals(List.of(2L, 4L), ids(index.search(landlord, PageRequest.of(0, 10, Sort.by("rent")))));
+    }
+
+    @Test
+    void facetCountsIgnoreOwnDimension() {
+        HouseSearchIndex.Filter filter = new HouseSearchIndex.Filter(null, "精装", HouseStatus.AVAILABLE, null, null, null, null, null, null, null);
+        Map<String, Map<String, Integer>> facets = index.facets(filter);
+        assertEquals(Map.of("两室一厅", 1, "三室一厅", 1), facets.get(HouseSearchIndex.FACET_HOUSE_TYPE));
+        // 装修分面不受“精装”自身限制，只受状态限制
+        assertEquals(Map.of("精装", 2, "简装", 1), facets.get(HouseSearchIndex.FACET_DECORATION));
+        assertEquals(Map.of("AVAILABLE", 2), facets.get(HouseSearchIndex.FACET_STATUS));
+    }
+
+    @Test
+    void upsertAndRemoveKeepIdOrder() {
+        index.upsert(house(3L, "两室一厅", 3200.0, 60.0, "豪装", HouseStatus.RENTED, 1L));
+        index.remove(1L);
+        index.upsert(house(0L, "一室一厅", 1200.0, 30.0, "毛坯", HouseStatus.AVAILABLE, 3L));
+
+        assertEquals(List.of(0L, 2L, 3L, 4L), ids(index.search(ALL, PageRequest.of(0, 10))));
+        HouseSearchIndex.Filter rented = new HouseSearchIndex.Filter(null, null, HouseStatus.RENTED, null, null, null, null, null, null, null);
+        assertEquals(List.of(2L, 3L), ids(index.search(rented, PageRequest.of(0, 10))));
+        assertEquals(Map.of("精装", 1, "简装", 1, "豪装", 1, "毛坯", 1), index.facets(ALL).get(HouseSearchIndex.FACET_DECORATION));
+    }
+
+    @Test
+    void geoFiltersSortByDistance() {
+        GeoFilter radius = GeoFilter.of(39.9325, 116.40, 2.0, null, null, null, null);
+        HouseSearchIndex.Filter near = new HouseSearchIndex.Filter(null, null, null, null, null, null, null, null, null, radius);
+        assertEquals(List.of(3L, 4L, 2L), ids(index.search(near, PageRequest.of(0, 10))));
+        HouseSearchIndex.Filter nearAvailable = new HouseSearchIndex.Filter(null, null, HouseStatus.AVAILABLE, null, null, null, null, null, null, radius);
+        assertEquals(List.of(3L, 4L), ids(index.search(nearAvailable, PageRequest.of(0, 10))));
+        assertEquals(Map.of("AVAILABLE", 2, "RENTED", 1), index.facets(nearAvailable).get(HouseSearchIndex.FACET_STATUS));
+
+        GeoFilter box = GeoFilter.of(null, null, null, 39.915, 39.925, 116.3, 116.5);
+        HouseSearchIndex.Filter inBox = new HouseSearchIndex.Filter(null, null, null, null, null, null, null, null, null, box);
+        assertEquals(List.of(2L), ids(index.search(inBox, PageRequest.of(0, 10))));
+
+        // 坐标被清空的房源不再出现在地理搜索中
+        index.upsert(new HouseListItem(3L, "地址3", "两室一厅", 60.0, 3000.0, "精装", null, HouseStatus.AVAILABLE, null,
+                false, null, null, null, null, 1L, "房东1"));
+        assertEquals(List.of(4L, 2L), ids(index.search(near, PageRequest.of(0, 10))));
+    }
+
+    @Test
+    void refreshBeforeLoadIsAppliedAfterRebuild() {
+        HouseRepository repository = mock(HouseRepository.class);
+        HouseSearchIndex fresh = new HouseSearchIndex();
+        ReflectionTestUtils.setField(fresh, "houseRepository", repository);
+        ReflectionTestUtils.setField(fresh, "enabled", true);
+        // 全量加载读到的快照早于房源 5 的提交
+        when(repository.findAllListItems()).thenReturn(List.of(house(1L, "一室一厅", 1500.0, 35.0, "简装", HouseStatus.AVAILABLE, 1L)));
+        when(repository.findListItemsByIdIn(List.of(5L))).thenReturn(List.of(house(5L, "两室一厅", 2800.0, 55.0, "精装", HouseStatus.AVAILABLE, 1L)));
+
+        fresh.refreshAfterCommit(5L);
+        fresh.rebuild();
+
+        assertEquals(List.of(1L, 5L), ids(fresh.search(ALL, PageRequest.of(0, 10))));
+    }
+
+    @Test
+    void olderRefreshReadCannotOverwriteNewerOne() throws Exception {
+        HouseRepository repository = mock(HouseRepository.class);
+        ReflectionTestUtils.setField(index, "houseRepository", repository);
+        ReflectionTestUtils.setField(index, "enabled", true);
+        CountDownLatch firstReading = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        AtomicInteger reads = new AtomicInteger();
+        // 第一次刷新读到租金 3100 的旧快照后卡住；第二次刷新读到租金 3200 的新快照
+        when(repository.findListItemsByIdIn(List.of(3L))).thenAnswer(invocation -> {
+            if (reads.incrementAndGet() == 1) {
+                firstReading.countDown();
+                releaseFirst.await(5, TimeUnit.SECONDS);
+                return List.of(house(3L, "两室一厅", 3100.0, 60.0, "精装", HouseStatus.AVAILABLE, 1L));
+            }
+            return List.of(house(3L, "两室一厅", 3200.0, 60.0, "精装", HouseStatus.AVAILABLE, 1L));
+        });
+
+        Thread first = new Thread(() -> index.refreshAfterCommit(3L));
+        first.start();
+        assertTrue(firstReading.await(5, TimeUnit.SECONDS));
+        Thread second = new Thread(() -> index.refreshAfterCommit(3L));
+        second.start();
+        second.join(200);
+        releaseFirst.countDown();
+        first.join(5000);
+        second.join(5000);
+
+        HouseSearchIndex.Filter newRent = new HouseSearchIndex.Filter(null, null, null, null, null, 3200.0, 3200.0, null, null, null);
+        assertEquals(List.of(3L), ids(index.search(newRent, PageRequest.of(0, 10))));
+    }
+
+    private static List<Long> ids(Page<HouseListItem> page) {
+        return page.getContent().stream().map(HouseListItem::id).toList();
+    }
+
+    private static HouseListItem house(Long id, String houseType, Double rent, Double area, String decoration,
+                                       HouseStatus status, Long landlordId) {
+        // 纬度每个 id 相差 0.01°（约 1.1 km），经度相同
+        return new HouseListItem(id, "地址" + id, houseType, area, rent, decoration, null, status, null,
+                false, 39.90 + 0.01 * id, 116.40, null, null, landlordId, "房东" + landlordId);
+    }
+}
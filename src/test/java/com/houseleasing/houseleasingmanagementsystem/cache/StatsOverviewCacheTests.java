@@ -0,0 +1,113 @@
+package com.houseleasing.houseleasingmanagementsystem.cache;
+
+import com.houseleasing.houseleasingmanagementsystem.service.StatsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 统计概览快照缓存的冷启动加载：同一 key 的并发请求只执行一次概览查询（不启动 Spring）
+ */
+class StatsOverviewCacheTests {
+
+    private static final int CALLERS = 8;
+    private static final LocalDate FROM = LocalDate.of(2024, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2024, 12, 31);
+
+    private final StatsService statsService = mock(StatsService.class);
+    private final ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+    private StatsOverviewCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new StatsOverviewCache();
+        ReflectionTestUtils.setField(cache, "statsService", statsService);
+        ReflectionTestUtils.setField(cache, "refreshExecutor", (Executor) Runnable::run);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 30L);
+        ReflectionTestUtils.setField(cache, "maxEntries", 64);
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void concurrentColdRequestsShareOneLoad() throws Exception {
+        Map<String, Object> payload = Map.of("totalHouses", 1L);
+        CountDownLatch release = new CountDownLatch(1);
+        when(statsService.overview(any(), any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return payload;
+        });
+
+        List<Future<Map<String, Object>>> results = startCallers();
+        // 等其余请求都进入等待后再放行第一次加载
+        Thread.sleep(200);
+        release.countDown();
+
+        for (Future<Map<String, Object>> result : results) {
+            assertSame(payload, result.get(5, TimeUnit.SECONDS));
+        }
+        verify(statsService, times(1)).overview(FROM, TO);
+        // 加载完成后直接命中快照
+        assertSame(payload, cache.get(FROM, TO));
+        verify(statsService, times(1)).overview(FROM, TO);
+    }
+
+    @Test
+    void failedLoadIsSharedAndNotCached() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(statsService.overview(any(), any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            throw new IllegalArgumentException("开始日期不能晚于结束日期");
+        });
+
+        List<Future<Map<String, Object>>> results = startCallers();
+        Thread.sleep(200);
+        release.countDown();
+
+        for (Future<Map<String, Object>> result : results) {
+            Exception e = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertTrue(e.getCause() instanceof IllegalArgumentException, e.toString());
+        }
+        verify(statsService, times(1)).overview(FROM, TO);
+
+        // 失败不缓存，下次访问重新加载
+        Map<String, Object> payload = Map.of("totalHouses", 2L);
+        doReturn(payload).when(statsService).overview(any(), any());
+        assertEquals(payload, cache.get(FROM, TO));
+        verify(statsService, times(2)).overview(FROM, TO);
+    }
+
+    private List<Future<Map<String, Object>>> startCallers() {
+        List<Future<Map<String, Object>>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(callers.submit(() -> cache.get(FROM, TO)));
+        }
+        return results;
+    }
+}
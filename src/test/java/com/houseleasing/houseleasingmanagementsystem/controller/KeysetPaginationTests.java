@@ -0,0 +1,267 @@
+package com.houseleasing.houseleasingmanagementsystem.controller;
+
+import com.houseleasing.houseleasingmanagementsystem.dto.KeysetPage;
+import com.houseleasing.houseleasingmanagementsystem.model.Contract;
+import com.houseleasing.houseleasingmanagementsystem.model.House;
+import com.houseleasing.houseleasingmanagementsystem.model.MaintenanceRequest;
+import com.houseleasing.houseleasingmanagementsystem.model.RentPayment;
+import com.houseleasing.houseleasingmanagementsystem.model.User;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.ContractStatus;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.HouseStatus;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.MaintenanceStatus;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.PaymentStatus;
+import com.houseleasing.houseleasingmanagementsystem.repository.ContractRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.HouseRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.MaintenanceRequestRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.RentPaymentRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.UserRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.projection.MaintenanceRequestListItem;
+import com.houseleasing.houseleasingmanagementsystem.repository.projection.RentPaymentListItem;
+import com.houseleasing.houseleasingmanagementsystem.service.MaintenanceRequestService;
+import com.houseleasing.houseleasingmanagementsystem.service.RentPaymentService;
+import com.houseleasing.houseleasingmanagementsystem.util.KeysetPager;
+import com.houseleasing.houseleasingmanagementsystem.util.TokenUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * 游标分页：排序字段存在重复值和空值时，沿 next 游标翻到最后一页，拼接结果与 OFFSET 分页完全一致（无遗漏、无重复）
+ * 无法解析或被篡改的游标返回 400
+ * 使用独立的内存库，避免与其它测试类的种子数据互相影响
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:keyset_pagination;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+class KeysetPaginationTests {
+
+    private static final int ROWS = 14;
+    private static final int CONTRACTS = 5;
+    private static final LocalDate DUE_BASE = LocalDate.of(2024, 1, 1);
+    private static final LocalDateTime CREATED_BASE = LocalDateTime.of(2024, 1, 1, 8, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TokenUtil tokenUtil;
+
+    @Autowired
+    private RentPaymentService rentPaymentService;
+
+    @Autowired
+    private MaintenanceRequestService maintenanceRequestService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private HouseRepository houseRepository;
+
+    @Autowired
+    private ContractRepository contractRepository;
+
+    @Autowired
+    private RentPaymentRepository rentPaymentRepository;
+
+    @Autowired
+    private MaintenanceRequestRepository maintenanceRequestRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long houseId;
+
+    @BeforeEach
+    void seed() {
+        if (houseRepository.count() > 0) {
+            houseId = houseRepository.findAll().get(0).getId();
+            return;
+        }
+        User landlord = userRepository.save(user("keyset-landlord", "KEYSET-L"));
+        User tenant = userRepository.save(user("keyset-tenant", "KEYSET-T"));
+
+        House house = new House();
+        house.setAddress("Keyset Road 1");
+        house.setRent(3000.0);
+        house.setStatus(HouseStatus.RENTED);
+        house.setRecommended(false);
+        house.setLandlord(landlord);
+        house = houseRepository.save(house);
+
+        // (合同, 应付日期) 唯一，租金记录分散到多个合同上才能制造重复的应付日期
+        List<Contract> contracts = new ArrayList<>();
+        for (int c = 0; c < CONTRACTS; c++) {
+            Contract contract = new Contract();
+            contract.setContractNo("KEYSET-" + c);
+            contract.setHouse(house);
+            contract.setLandlord(landlord);
+            contract.setTenant(tenant);
+            contract.setStartDate(DUE_BASE);
+            contract.setEndDate(DUE_BASE.plusYears(1));
+            contract.setRentAmount(3000.0);
+            contract.setStatus(ContractStatus.ACTIVE);
+            contracts.add(contractRepository.save(contract));
+        }
+
+        for (int i = 0; i < ROWS; i++) {
+            // 应付日期只有 3 个不同值，另有若干行为空：翻页边界必然落在相同值之间
+            RentPayment payment = new RentPayment();
+            payment.setContract(contracts.get(i % CONTRACTS));
+            payment.setDueDate(i % 5 == 4 ? null : DUE_BASE.plusDays(i % 3));
+            payment.setAmount(3000.0);
+            payment.setStatus(PaymentStatus.PENDING);
+            rentPaymentRepository.save(payment);
+
+            MaintenanceRequest request = new MaintenanceRequest();
+            request.setHouse(house);
+            request.setDescription("keyset " + i);
+            request.setStatus(MaintenanceStatus.PENDING);
+            request = maintenanceRequestRepository.save(request);
+            // 创建时间由审计监听器写入，这里直接改库制造重复值和空值
+            Timestamp createdAt = i % 5 == 0 ? null : Timestamp.valueOf(CREATED_BASE.plusHours(i % 3));
+            jdbcTemplate.update("UPDATE maintenance_requests SET created_at = ? WHERE id = ?", createdAt, request.getId());
+        }
+        houseId = house.getId();
+    }
+
+    @Test
+    void rentPaymentCursorsWalkDuplicateAndNullDueDatesInOffsetOrder() {
+        for (int size : new int[]{1, 3, 4, ROWS, ROWS + 1}) {
+            List<RentPaymentListItem> keyset = walk(cursor -> rentPaymentService.searchKeyset(
+                    null, null, null, null, cursor, size), size);
+            List<RentPaymentListItem> offset = offsetPages(page -> rentPaymentService.search(null, null, null, null,
+                    PageRequest.of(page, size, Sort.by(Sort.Order.asc("dueDate"), Sort.Order.asc("id")))));
+
+            assertEquals(ROWS, keyset.size(), "size " + size);
+            assertEquals(ids(offset, RentPaymentListItem::id), ids(keyset, RentPaymentListItem::id), "size " + size);
+            assertEquals(ROWS, new HashSet<>(ids(keyset, RentPaymentListItem::id)).size());
+            // 空值在前，其余按应付日期、id 升序
+            List<RentPaymentListItem> expected = new ArrayList<>(keyset);
+            expected.sort(Comparator.comparing(RentPaymentListItem::dueDate, Comparator.nullsFirst(Comparator.naturalOrder()))
+                    .thenComparing(RentPaymentListItem::id));
+            assertEquals(expected, keyset, "size " + size);
+        }
+    }
+
+    @Test
+    void maintenanceCursorsWalkDescendingWithNullsLast() {
+        for (int size : new int[]{1, 3, 4, ROWS, ROWS + 1}) {
+            List<MaintenanceRequestListItem> keyset = walk(cursor -> maintenanceRequestService.searchMaintenanceRequestsKeyset(
+                    null, houseId, null, null, null, null, cursor, size), size);
+            List<MaintenanceRequestListItem> offset = offsetPages(page -> maintenanceRequestService.searchMaintenanceRequests(
+                    null, houseId, null, null, null, null,
+                    PageRequest.of(page, size, Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id")))));
+
+            assertEquals(ROWS, keyset.size(), "size " + size);
+            assertEquals(ids(offset, MaintenanceRequestListItem::id), ids(keyset, MaintenanceRequestListItem::id), "size " + size);
+            List<MaintenanceRequestListItem> expected = new ArrayList<>(keyset);
+            expected.sort(Comparator.comparing(MaintenanceRequestListItem::createdAt,
+                            Comparator.nullsFirst(Comparator.<LocalDateTime>naturalOrder()))
+                    .thenComparing(MaintenanceRequestListItem::id).reversed());
+            assertEquals(expected, keyset, "size " + size);
+        }
+    }
+
+    @Test
+    void garbageOrTamperedCursorsAreBadRequests() throws Exception {
+        String token = "Bearer " + tokenUtil.generateToken();
+        String rentPaymentCursor = KeysetPager.encode("dueDate", Sort.Direction.ASC, DUE_BASE, 1L);
+        String[] rentPayments = {
+                "garbage!",
+                "Zm9v",                                                            // 解码后不是游标格式
+                encode("dueDate|ASC|d|not-a-date|1"),
+                encode("dueDate|ASC|d|2024-01-01|1; DROP TABLE rent_payments"),
+                KeysetPager.encode("createdAt", Sort.Direction.DESC, CREATED_BASE, 1L), // 另一个接口的游标
+                KeysetPager.encode("dueDate", Sort.Direction.DESC, DUE_BASE, 1L),
+                encode("dueDate|ASC|t|2024-01-01T08:00|1"),                        // 值类型与字段不符
+                encode("dueDate|ASC|s|2024-01-01|1")
+        };
+        for (String cursor : rentPayments) {
+            int status = mockMvc.perform(get("/api/rent-payments/search").param("cursor", cursor)
+                    .header("Authorization", token)).andReturn().getResponse().getStatus();
+            assertEquals(400, status, cursor);
+        }
+        String[] maintenance = {
+                "garbage!",
+                rentPaymentCursor,
+                encode("createdAt|DESC|d|2024-01-01|1"),
+                encode("createdAt|DESC|l|5|1")
+        };
+        for (String cursor : maintenance) {
+            int status = mockMvc.perform(get("/api/maintenance-requests/search").param("cursor", cursor)
+                    .header("Authorization", token)).andReturn().getResponse().getStatus();
+            assertEquals(400, status, cursor);
+        }
+        // 合法游标仍正常返回
+        int status = mockMvc.perform(get("/api/rent-payments/search").param("cursor", rentPaymentCursor)
+                .header("Authorization", token)).andReturn().getResponse().getStatus();
+        assertEquals(200, status);
+    }
+
+    // 沿 next 游标翻页直到最后一页；除最后一页外每页都是满页
+    private static <R> List<R> walk(Function<String, KeysetPage<R>> search, int size) {
+        List<R> all = new ArrayList<>();
+        String cursor = null;
+        for (int i = 0; i <= ROWS; i++) {
+            KeysetPage<R> page = search.apply(cursor);
+            all.addAll(page.getContent());
+            cursor = page.getNextCursor();
+            if (cursor == null) return all;
+            assertEquals(size, page.getContent().size());
+        }
+        assertNull(cursor, "keyset walk did not terminate");
+        return all;
+    }
+
+    private static <R> List<R> offsetPages(IntFunction<Page<R>> search) {
+        List<R> all = new ArrayList<>();
+        for (int page = 0; ; page++) {
+            Page<R> result = search.apply(page);
+            all.addAll(result.getContent());
+            if (!result.hasNext()) return all;
+        }
+    }
+
+    private static <R> List<Long> ids(List<R> rows, Function<R, Long> id) {
+        return rows.stream().map(id).toList();
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static User user(String name, String idCard) {
+        User user = new User();
+        user.setRealName(name);
+        user.setIdCard(idCard);
+        user.setPhone("13800000000");
+        return user;
+    }
+}
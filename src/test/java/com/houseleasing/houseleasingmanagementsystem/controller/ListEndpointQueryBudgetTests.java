@@ -0,0 +1,276 @@
+package com.houseleasing.houseleasingmanagementsystem.controller;
+
+import com.houseleasing.houseleasingmanagementsystem.cache.StatsOverviewCache;
+import com.houseleasing.houseleasingmanagementsystem.model.Contract;
+import com.houseleasing.houseleasingmanagementsystem.model.House;
+import com.houseleasing.houseleasingmanagementsystem.model.MaintenanceRequest;
+import com.houseleasing.houseleasingmanagementsystem.model.RentPayment;
+import com.houseleasing.houseleasingmanagementsystem.model.Review;
+import com.houseleasing.houseleasingmanagementsystem.model.User;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.ContractStatus;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.HouseStatus;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.MaintenanceStatus;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.PaymentStatus;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.ReviewType;
+import com.houseleasing.houseleasingmanagementsystem.monitoring.SlowQueryLog;
+import com.houseleasing.houseleasingmanagementsystem.monitoring.SqlMetricsHeaderAdvice;
+import com.houseleasing.houseleasingmanagementsystem.repository.ContractRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.HouseRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.MaintenanceRequestRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.RentPaymentRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.ReviewRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.UserRepository;
+import com.houseleasing.houseleasingmanagementsystem.util.TokenUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * 列表接口 SQL 语句数预算：每个列表接口在一页 20 行的数据量下执行的语句数不得超过固定预算
+ * 若某个接口在序列化或组装结果时逐行触发懒加载（N+1），语句数会随行数增长而超出预算
+ * 使用独立的内存库，避免与其它测试类的种子数据互相影响
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query_budget;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "app.sql-metrics.debug-header=true",
+        "app.sql-metrics.slow-query-ms=0"
+})
+class ListEndpointQueryBudgetTests {
+
+    private static final int ROWS = 30;
+    private static final int PAGE_SIZE = 20;
+    // 两阶段分页：id 查询 + 列表投影查询 + count 查询，另留 1 条余量
+    private static final long LIST_BUDGET = 4;
+    // 统计概览：每个子查询一条语句
+    private static final long STATS_OVERVIEW_BUDGET = 8;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TokenUtil tokenUtil;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private HouseRepository houseRepository;
+
+    @Autowired
+    private ContractRepository contractRepository;
+
+    @Autowired
+    private RentPaymentRepository rentPaymentRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private MaintenanceRequestRepository maintenanceRequestRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private SlowQueryLog slowQueryLog;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private StatsOverviewCache statsOverviewCache;
+
+    private User sharedLandlord;
+    private Contract firstContract;
+
+    @BeforeEach
+    void seed() {
+        if (houseRepository.count() > 0) {
+            sharedLandlord = userRepository.findAll(PageRequest.of(0, 1)).getContent().get(0);
+            firstContract = contractRepository.findAll(PageRequest.of(0, 1)).getContent().get(0);
+            return;
+        }
+        // 所有房源同属一个房东，按房东/被评价人过滤的接口也能返回整页
+        sharedLandlord = userRepository.save(user("landlord", "BUDGET-L"));
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < ROWS; i++) {
+            User tenant = userRepository.save(user("tenant" + i, "BUDGET-T" + i));
+
+            House house = new House();
+            house.setAddress("Budget Road " + i);
+            house.setRent(2000.0 + i);
+            house.setStatus(HouseStatus.AVAILABLE);
+            house.setRecommended(i % 2 == 0);
+            house.setLandlord(sharedLandlord);
+            house = houseRepository.save(house);
+
+            Contract contract = new Contract();
+            contract.setContractNo("BUDGET-" + i);
+            contract.setHouse(house);
+            contract.setLandlord(sharedLandlord);
+            contract.setTenant(tenant);
+            contract.setStartDate(start);
+            contract.setEndDate(start.plusYears(1));
+            contract.setRentAmount(2000.0 + i);
+            contract.setStatus(ContractStatus.ACTIVE);
+            contract = contractRepository.save(contract);
+            if (firstContract == null) firstContract = contract;
+
+            RentPayment payment = new RentPayment();
+            payment.setContract(contract);
+            payment.setDueDate(start.plusDays(i));
+            payment.setAmount(2000.0 + i);
+            payment.setStatus(PaymentStatus.PENDING);
+            rentPaymentRepository.save(payment);
+
+            Review review = new Review();
+            review.setContract(contract);
+            review.setReviewer(tenant);
+            review.setReviewee(sharedLandlord);
+            review.setReviewType(ReviewType.TENANT_TO_LANDLORD);
+            review.setRating(5);
+            review.setComment("budget " + i);
+            reviewRepository.save(review);
+
+            MaintenanceRequest request = new MaintenanceRequest();
+            request.setHouse(house);
+            request.setDescription("leak " + i);
+            request.setStatus(MaintenanceStatus.PENDING);
+            maintenanceRequestRepository.save(request);
+        }
+    }
+
+    @Test
+    void listEndpointsStayWithinStatementBudget() throws Exception {
+        String page = "page=0&size=" + PAGE_SIZE;
+        Map<String, Long> budgets = new LinkedHashMap<>();
+        budgets.put("/api/houses/search?" + page, LIST_BUDGET);
+        budgets.put("/api/contracts/search?" + page, LIST_BUDGET);
+        budgets.put("/api/rent-payments/search?" + page, LIST_BUDGET);
+        budgets.put("/api/rent-payments/overdue?beforeDate=2030-01-01", 1L);
+        budgets.put("/api/rent-payments/report?from=2024-01-01&to=2024-12-31", 1L);
+        budgets.put("/api/rent-payments/report/summary?from=2024-01-01&to=2024-12-31&groupBy=landlord", 1L);
+        budgets.put("/api/reviews?" + page, LIST_BUDGET);
+        budgets.put("/api/reviews/contract/" + firstContract.getId() + "?" + page, LIST_BUDGET);
+        budgets.put("/api/reviews/contract/" + firstContract.getId() + "/all", 1L);
+        budgets.put("/api/reviews/reviewee/" + sharedLandlord.getId() + "?" + page, LIST_BUDGET);
+        budgets.put("/api/reviews/type/TENANT_TO_LANDLORD?" + page, LIST_BUDGET);
+        budgets.put("/api/reviews/high-rating?" + page, LIST_BUDGET);
+        budgets.put("/api/maintenance-requests?" + page, LIST_BUDGET);
+        budgets.put("/api/maintenance-requests/status/PENDING?" + page, LIST_BUDGET);
+        budgets.put("/api/maintenance-requests/search?" + page, LIST_BUDGET);
+        budgets.put("/api/users?" + page, LIST_BUDGET);
+        budgets.put("/api/users/search?realName=tenant&" + page, LIST_BUDGET);
+        budgets.put("/api/users/search-raw?realName=tenant", 1L);
+
+        String token = "Bearer " + tokenUtil.generateToken();
+        Statistics stats = statistics();
+        List<String> violations = new ArrayList<>();
+        for (Map.Entry<String, Long> e : budgets.entrySet()) {
+            stats.clear();
+            int status = mockMvc.perform(get(e.getKey()).header("Authorization", token))
+                    .andReturn().getResponse().getStatus();
+            long statements = stats.getPrepareStatementCount();
+            assertEquals(200, status, e.getKey());
+            if (statements > e.getValue()) {
+                violations.add(e.getKey() + " executed " + statements + " statements (budget " + e.getValue() + ")");
+            }
+        }
+        assertTrue(violations.isEmpty(), String.join("\n", violations));
+    }
+
+    @Test
+    void lazyAssociationsAreInitializedInBatches() {
+        // 清空二级缓存，让懒加载必须访问数据库
+        entityManagerFactory.getCache().evictAll();
+        Statistics stats = statistics();
+        stats.clear();
+        new TransactionTemplate(transactionManager).executeWithoutResult(tx -> {
+            List<Review> reviews = reviewRepository.findAll(PageRequest.of(0, PAGE_SIZE)).getContent();
+            reviews.forEach(r -> r.getReviewer().getRealName());
+        });
+        // 分页查询 + count 查询 + 一次 IN 批量加载 20 个评价人（逐行加载则为 22 条）
+        assertTrue(stats.getPrepareStatementCount() <= 3,
+                "lazy reviewer loading executed " + stats.getPrepareStatementCount() + " statements");
+    }
+
+    @Test
+    void sqlMetricsAreAttributedToTheHandler() throws Exception {
+        String handler = "ReviewController.getAllReviews";
+        Statistics stats = statistics();
+        stats.clear();
+        slowQueryLog.clear();
+        MockHttpServletResponse response = mockMvc.perform(get("/api/reviews?page=0&size=" + PAGE_SIZE)
+                        .header("Authorization", "Bearer " + tokenUtil.generateToken()))
+                .andReturn().getResponse();
+
+        assertEquals(200, response.getStatus());
+        assertEquals(handler, response.getHeader(SqlMetricsHeaderAdvice.HEADER_HANDLER));
+        long statements = Long.parseLong(response.getHeader(SqlMetricsHeaderAdvice.HEADER_STATEMENTS));
+        assertEquals(stats.getPrepareStatementCount(), statements);
+        assertTrue(Long.parseLong(response.getHeader(SqlMetricsHeaderAdvice.HEADER_ROWS)) >= PAGE_SIZE);
+        // 阈值为 0，每条语句都进入慢 SQL 采样，且归属到同一个处理器
+        assertEquals(statements, slowQueryLog.totalRecorded());
+        assertTrue(slowQueryLog.recent().stream().allMatch(e -> handler.equals(e.handler())));
+        assertTrue(meterRegistry.get("http.server.sql.statements").tag("handler", handler)
+                .summary().totalAmount() >= statements);
+    }
+
+    @Test
+    void statsOverviewCountsSubQueriesRunOnTheStatsPool() throws Exception {
+        String handler = "StatsController.overview";
+        statsOverviewCache.invalidate();
+        Statistics stats = statistics();
+        stats.clear();
+        MockHttpServletResponse response = mockMvc.perform(get("/api/stats/overview")).andReturn().getResponse();
+
+        assertEquals(200, response.getStatus());
+        assertEquals(handler, response.getHeader(SqlMetricsHeaderAdvice.HEADER_HANDLER));
+        // 子查询在 stats-query-* 线程上执行，语句仍计入本次请求
+        long statements = Long.parseLong(response.getHeader(SqlMetricsHeaderAdvice.HEADER_STATEMENTS));
+        assertEquals(stats.getPrepareStatementCount(), statements);
+        assertTrue(statements > 0 && statements <= STATS_OVERVIEW_BUDGET,
+                "stats overview executed " + statements + " statements (budget " + STATS_OVERVIEW_BUDGET + ")");
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private static User user(String name, String idCard) {
+        User user = new User();
+        user.setRealName(name);
+        user.setIdCard(idCard);
+        user.setPhone("13900000000");
+        return user;
+    }
+}
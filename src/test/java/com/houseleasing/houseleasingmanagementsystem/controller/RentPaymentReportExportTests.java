@@ -0,0 +1,262 @@
+package com.houseleasing.houseleasingmanagementsystem.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.houseleasing.houseleasingmanagementsystem.model.Contract;
+import com.houseleasing.houseleasingmanagementsystem.model.House;
+import com.houseleasing.houseleasingmanagementsystem.model.RentPayment;
+import com.houseleasing.houseleasingmanagementsystem.model.User;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.ContractStatus;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.HouseStatus;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.PaymentStatus;
+import com.houseleasing.houseleasingmanagementsystem.repository.ContractRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.HouseRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.RentPaymentReportRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.RentPaymentRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.UserRepository;
+import com.houseleasing.houseleasingmanagementsystem.util.TokenUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * 租金报表流式导出的字节内容：CSV 的 BOM 与转义、NDJSON 每行一个对象、gzip 压缩、应付日期范围过滤
+ * 导出走异步请求（StreamingResponseBody），需要 asyncDispatch 取回完整响应
+ * 使用独立的内存库，避免与其它测试类的种子数据互相影响
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:report_export;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "app.rate-limit.report.burst=100"
+})
+class RentPaymentReportExportTests {
+
+    private static final String RANGE = "from=2024-03-01&to=2024-03-31";
+    // 需要转义的租客姓名与房源地址
+    private static final String TENANT = "Li, \"Lei\"";
+    private static final String ADDRESS = "Line 1\nLine 2";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TokenUtil tokenUtil;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private HouseRepository houseRepository;
+
+    @Autowired
+    private ContractRepository contractRepository;
+
+    @Autowired
+    private RentPaymentRepository rentPaymentRepository;
+
+    // 范围内记录的 id，按应付日期排序（导出顺序）
+    private List<Long> inRange;
+    private Long contractId;
+
+    @BeforeEach
+    void seed() {
+        if (contractRepository.count() == 0) {
+            insertPayments();
+        }
+        inRange = rentPaymentRepository.findAll().stream()
+                .filter(p -> p.getDueDate().getMonthValue() == 3)
+                .sorted(Comparator.comparing(RentPayment::getDueDate))
+                .map(RentPayment::getId).toList();
+        contractId = contractRepository.findAll().get(0).getId();
+    }
+
+    private void insertPayments() {
+        User landlord = userRepository.save(user("report-landlord", "REPORT-L"));
+        User tenant = userRepository.save(user(TENANT, "REPORT-T"));
+        House house = new House();
+        house.setAddress(ADDRESS);
+        house.setRent(1500.0);
+        house.setStatus(HouseStatus.RENTED);
+        house.setRecommended(false);
+        house.setLandlord(landlord);
+        house = houseRepository.save(house);
+
+        Contract contract = new Contract();
+        contract.setContractNo("REPORT-1");
+        contract.setHouse(house);
+        contract.setLandlord(landlord);
+        contract.setTenant(tenant);
+        contract.setStartDate(LocalDate.of(2024, 1, 1));
+        contract.setEndDate(LocalDate.of(2024, 12, 31));
+        contract.setRentAmount(1500.0);
+        contract.setStatus(ContractStatus.ACTIVE);
+        contract = contractRepository.save(contract);
+
+        // 范围两端各有一条范围外的记录；3 月 15 日的记录已支付
+        for (String due : new String[]{"2024-02-29", "2024-03-01", "2024-03-31", "2024-03-15", "2024-04-01"}) {
+            RentPayment payment = new RentPayment();
+            payment.setContract(contract);
+            payment.setDueDate(LocalDate.parse(due));
+            payment.setAmount(1500.5);
+            payment.setStatus(PaymentStatus.PENDING);
+            if (due.equals("2024-03-15")) {
+                payment.setStatus(PaymentStatus.PAID);
+                payment.setPaidAt(LocalDateTime.of(2024, 3, 14, 9, 30));
+            }
+            rentPaymentRepository.save(payment);
+        }
+    }
+
+    @Test
+    void csvStartsWithBomAndQuotesSpecialCharacters() throws Exception {
+        MockHttpServletResponse response = export("format=csv&" + RANGE);
+        assertTrue(response.getContentType().startsWith("text/csv"), response.getContentType());
+        assertEquals("attachment; filename=\"rent-payments-2024-03-01-2024-03-31.csv\"",
+                response.getHeader(HttpHeaders.CONTENT_DISPOSITION));
+
+        byte[] bytes = response.getContentAsByteArray();
+        assertArrayEquals(new byte[]{(byte) 0xEF, (byte) 0xBB, (byte) 0xBF}, Arrays.copyOf(bytes, 3));
+        String csv = new String(bytes, 3, bytes.length - 3, StandardCharsets.UTF_8);
+        assertTrue(csv.startsWith(String.join(",", RentPaymentReportRepository.COLUMNS) + "\n"));
+
+        // 逗号和引号触发引号包裹且内部引号加倍；换行保留在引号内
+        String quotedTenant = "\"Li, \"\"Lei\"\"\"";
+        String quotedAddress = "\"Line 1\nLine 2\"";
+        List<String> rows = csvRows(csv.substring(csv.indexOf('\n') + 1));
+        String[] expectedDue = {"2024-03-01", "2024-03-15", "2024-03-31"};
+        assertEquals(expectedDue.length, rows.size(), "only the March rows are exported");
+        for (int i = 0; i < rows.size(); i++) {
+            assertTrue(rows.get(i).startsWith(inRange.get(i) + "," + contractId + ",REPORT-1," + quotedTenant + ",report-landlord,"
+                    + quotedAddress + "," + expectedDue[i] + ",1500.5,"), rows.get(i));
+        }
+        // 空值写为空字段
+        assertTrue(rows.get(1).contains(",PAID,2024-03-14T09:30:00,"), rows.get(1));
+        assertTrue(rows.get(0).contains(",PENDING,,"), rows.get(0));
+    }
+
+    @Test
+    void ndjsonWritesOneObjectPerLine() throws Exception {
+        MockHttpServletResponse response = export("format=ndjson&" + RANGE);
+        assertTrue(response.getContentType().startsWith("application/x-ndjson"), response.getContentType());
+
+        String body = response.getContentAsString(StandardCharsets.UTF_8);
+        assertTrue(body.endsWith("\n"));
+        String[] lines = body.split("\n");
+        assertEquals(3, lines.length);
+        List<Long> ids = new ArrayList<>();
+        for (String line : lines) {
+            JsonNode row = objectMapper.readTree(line);
+            ids.add(row.get("id").asLong());
+            assertEquals(TENANT, row.get("tenantName").asText());
+            assertEquals(ADDRESS, row.get("houseAddress").asText());
+            assertTrue(row.get("amount").isNumber());
+            assertEquals(1500.5, row.get("amount").asDouble());
+            assertTrue(row.get("remindedAt").isNull());
+            assertEquals(contractId, row.get("contractId").asLong());
+            assertTrue(row.get("dueDate").asText().startsWith("2024-03-"));
+        }
+        assertEquals(inRange, ids);
+        assertEquals("PAID", objectMapper.readTree(lines[1]).get("status").asText());
+        assertEquals("2024-03-14T09:30:00", objectMapper.readTree(lines[1]).get("paidAt").asText());
+    }
+
+    @Test
+    void gzipBodyInflatesToTheSameBytes() throws Exception {
+        byte[] plain = export("format=csv&" + RANGE).getContentAsByteArray();
+        MockHttpServletResponse gzipped = export("format=csv&gzip=true&" + RANGE);
+        assertEquals("gzip", gzipped.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertArrayEquals(plain, gunzip(gzipped.getContentAsByteArray()));
+
+        byte[] ndjson = export("format=ndjson&" + RANGE).getContentAsByteArray();
+        assertArrayEquals(ndjson, gunzip(export("format=ndjson&gzip=true&" + RANGE).getContentAsByteArray()));
+    }
+
+    @Test
+    void emptyRangeExportsOnlyTheHeader() throws Exception {
+        byte[] bytes = export("format=csv&from=2024-05-01&to=2024-05-31").getContentAsByteArray();
+        assertEquals(String.join(",", RentPaymentReportRepository.COLUMNS) + "\n",
+                new String(bytes, 3, bytes.length - 3, StandardCharsets.UTF_8));
+        assertEquals("", export("format=ndjson&from=2024-05-01&to=2024-05-31").getContentAsString());
+    }
+
+    @Test
+    void invalidFormatOrRangeIsBadRequest() throws Exception {
+        String token = "Bearer " + tokenUtil.generateToken();
+        assertEquals(400, mockMvc.perform(get("/api/rent-payments/report?format=xml&" + RANGE)
+                .header("Authorization", token)).andReturn().getResponse().getStatus());
+        assertEquals(400, mockMvc.perform(get("/api/rent-payments/report?format=csv&from=2024-04-01&to=2024-03-01")
+                .header("Authorization", token)).andReturn().getResponse().getStatus());
+    }
+
+    private MockHttpServletResponse export(String query) throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/rent-payments/report?" + query)
+                        .header("Authorization", "Bearer " + tokenUtil.generateToken()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MockHttpServletResponse response = mockMvc.perform(asyncDispatch(started)).andReturn().getResponse();
+        assertEquals(200, response.getStatus());
+        return response;
+    }
+
+    // 按行拆分 CSV 正文，引号内的换行属于同一行
+    private static List<String> csvRows(String body) {
+        List<String> rows = new ArrayList<>();
+        boolean quoted = false;
+        int start = 0;
+        for (int i = 0; i < body.length(); i++) {
+            char ch = body.charAt(i);
+            if (ch == '"') {
+                quoted = !quoted;
+            } else if (ch == '\n' && !quoted) {
+                rows.add(body.substring(start, i));
+                start = i + 1;
+            }
+        }
+        return rows;
+    }
+
+    private static byte[] gunzip(byte[] bytes) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static User user(String name, String idCard) {
+        User user = new User();
+        user.setRealName(name);
+        user.setIdCard(idCard);
+        user.setPhone("13800000000");
+        return user;
+    }
+}
@@ -0,0 +1,153 @@
+package com.houseleasing.houseleasingmanagementsystem.job;
+
+import com.houseleasing.houseleasingmanagementsystem.model.Contract;
+import com.houseleasing.houseleasingmanagementsystem.model.House;
+import com.houseleasing.houseleasingmanagementsystem.model.RentPayment;
+import com.houseleasing.houseleasingmanagementsystem.model.User;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.ContractStatus;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.HouseStatus;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.PaymentStatus;
+import com.houseleasing.houseleasingmanagementsystem.repository.ContractRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.HouseRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.RentPaymentRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * 逾期清扫按 id 区间分块：id 有空洞（整块为空）、最后一块不满、应付日期等于当天的记录不算逾期
+ * 测试配置关闭了定时任务，这里直接构造任务对象并调用 sweep
+ * 清扫会更新库中所有到期记录，使用独立的内存库，避免改动其它测试类的种子数据
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:overdue_sweep;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+class OverdueSweepJobTests {
+
+    private static final LocalDate TODAY = LocalDate.of(2000, 1, 1);
+    private static final long CHUNK_SIZE = 3;
+
+    @Autowired
+    private RentPaymentRepository rentPaymentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private HouseRepository houseRepository;
+
+    @Autowired
+    private ContractRepository contractRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void sweepsIdChunksAcrossGapsUpToTheDueDateBoundary() {
+        Contract contract = contract();
+        // 按插入顺序的应付日期（相对今天的天数）；第 4 条为已支付，第 5、10 条不早于今天
+        int[] dueOffsets = {-12, -11, -10, -9, 0, -8, -7, -6, -5, 1, -4, -1, -2};
+        PaymentStatus[] statuses = new PaymentStatus[dueOffsets.length];
+        Arrays.fill(statuses, PaymentStatus.PENDING);
+        statuses[3] = PaymentStatus.PAID;
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < dueOffsets.length; i++) {
+            RentPayment payment = new RentPayment();
+            payment.setContract(contract);
+            payment.setDueDate(TODAY.plusDays(dueOffsets[i]));
+            payment.setAmount(1000.0);
+            payment.setStatus(statuses[i]);
+            ids.add(rentPaymentRepository.save(payment).getId());
+        }
+        // 第 6~8 条（一整块）被删除
+        rentPaymentRepository.deleteAllById(ids.subList(6, 9));
+
+        RentPaymentRepository repository = mock(RentPaymentRepository.class, delegatesTo(rentPaymentRepository));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        OverdueSweepJob job = new OverdueSweepJob(meterRegistry);
+        ReflectionTestUtils.setField(job, "rentPaymentRepository", repository);
+        ReflectionTestUtils.setField(job, "chunkSize", CHUNK_SIZE);
+
+        assertEquals(7, job.sweep(TODAY));
+        assertEquals(7.0, meterRegistry.get("rent.payments.overdue.transitioned").counter().count());
+
+        // 区间从最小 id 开始、首尾相接地覆盖到最大 id，最后一块只含 1 个 id
+        ArgumentCaptor<Long> from = ArgumentCaptor.forClass(Long.class);
+        ArgumentCaptor<Long> to = ArgumentCaptor.forClass(Long.class);
+        verify(repository, atLeastOnce()).markOverdueInIdRange(from.capture(), to.capture(), eq(TODAY), any(), any());
+        List<Long> expectedFrom = new ArrayList<>();
+        List<Long> expectedTo = new ArrayList<>();
+        long minId = ids.get(0);
+        long maxId = ids.get(ids.size() - 1);
+        for (long f = minId; f <= maxId; f += CHUNK_SIZE) {
+            expectedFrom.add(f);
+            expectedTo.add(Math.min(f + CHUNK_SIZE - 1, maxId));
+        }
+        assertEquals(expectedFrom, from.getAllValues());
+        assertEquals(expectedTo, to.getAllValues());
+        assertEquals(maxId, expectedFrom.get(expectedFrom.size() - 1));
+
+        entityManagerFactory.getCache().evictAll();
+        for (int i = 0; i < dueOffsets.length; i++) {
+            if (i >= 6 && i <= 8) continue;
+            PaymentStatus expected = statuses[i] == PaymentStatus.PENDING && dueOffsets[i] < 0
+                    ? PaymentStatus.OVERDUE : statuses[i];
+            assertEquals(expected, rentPaymentRepository.findById(ids.get(i)).orElseThrow().getStatus(),
+                    "due " + TODAY.plusDays(dueOffsets[i]));
+        }
+
+        // 再次清扫没有可转换的记录
+        assertEquals(0, job.sweep(TODAY));
+    }
+
+    private Contract contract() {
+        User landlord = userRepository.save(user("sweep-landlord", "SWEEP-L"));
+        User tenant = userRepository.save(user("sweep-tenant", "SWEEP-T"));
+        House house = new House();
+        house.setAddress("Sweep Road 1");
+        house.setRent(1000.0);
+        house.setStatus(HouseStatus.RENTED);
+        house.setRecommended(false);
+        house.setLandlord(landlord);
+        house = houseRepository.save(house);
+
+        Contract contract = new Contract();
+        contract.setContractNo("SWEEP-1");
+        contract.setHouse(house);
+        contract.setLandlord(landlord);
+        contract.setTenant(tenant);
+        contract.setStartDate(TODAY.minusYears(1));
+        contract.setEndDate(TODAY.plusYears(1));
+        contract.setRentAmount(1000.0);
+        contract.setStatus(ContractStatus.ACTIVE);
+        return contractRepository.save(contract);
+    }
+
+    private static User user(String name, String idCard) {
+        User user = new User();
+        user.setRealName(name);
+        user.setIdCard(idCard);
+        user.setPhone("13800000000");
+        return user;
+    }
+}
@@ -0,0 +1,45 @@
+package com.houseleasing.houseleasingmanagementsystem.monitoring;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * 监控端点（含原始 SQL、客户端 IP）只在本机管理端口上提供，应用端口上不可访问，且不提供清空操作
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "management.server.port=0")
+@ActiveProfiles("test")
+class ManagementEndpointExposureTests {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @LocalServerPort
+    private int serverPort;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Test
+    void monitoringEndpointsAreOnlyServedOnTheManagementPort() {
+        assertNotEquals(serverPort, managementPort);
+        for (String endpoint : new String[]{"slowqueries", "authrejections"}) {
+            assertEquals(404, status(HttpMethod.GET, serverPort, endpoint), endpoint);
+            assertEquals(200, status(HttpMethod.GET, managementPort, endpoint), endpoint);
+        }
+        assertEquals(405, status(HttpMethod.DELETE, managementPort, "slowqueries"));
+    }
+
+    private int status(HttpMethod method, int port, String endpoint) {
+        return restTemplate.exchange("http://127.0.0.1:" + port + "/actuator/" + endpoint, method, null, String.class)
+                .getStatusCode().value();
+    }
+}
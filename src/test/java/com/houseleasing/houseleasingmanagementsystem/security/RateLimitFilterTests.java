@@ -0,0 +1,102 @@
+package com.houseleasing.houseleasingmanagementsystem.security;
+
+import com.houseleasing.houseleasingmanagementsystem.config.RateLimitProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 限流过滤器的接口分类、令牌桶与并发上限（不启动 Spring）
+ */
+class RateLimitFilterTests {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void classifiesExpensiveEndpoints() {
+        assertEquals(RateLimitFilter.EndpointClass.STATS, RateLimitFilter.classify("/api/stats/overview"));
+        assertEquals(RateLimitFilter.EndpointClass.REPORT, RateLimitFilter.classify("/api/rent-payments/report/summary"));
+        assertEquals(RateLimitFilter.EndpointClass.SEARCH, RateLimitFilter.classify("/api/houses/search/facets"));
+        assertEquals(RateLimitFilter.EndpointClass.DEFAULT, RateLimitFilter.classify("/api/houses/1"));
+    }
+
+    @Test
+    void eachTokenHasItsOwnBudgetPerEndpointClass() throws Exception {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setStats(new RateLimitProperties.Budget(0.001, 2, 0));
+        RateLimitFilter filter = filter(properties);
+
+        assertEquals(200, call(filter, "/api/stats/overview", "Bearer token-a").getStatus());
+        assertEquals(200, call(filter, "/api/stats/overview", "Bearer token-a").getStatus());
+        MockHttpServletResponse shed = call(filter, "/api/stats/overview", "Bearer token-a");
+        assertEquals(429, shed.getStatus());
+        assertEquals("1", shed.getHeader("Retry-After"));
+        // 其它 token、其它类别的接口不受影响
+        assertEquals(200, call(filter, "/api/stats/overview", "Bearer token-b").getStatus());
+        assertEquals(200, call(filter, "/api/houses/1", "Bearer token-a").getStatus());
+        assertEquals(1.0, meterRegistry.get("http.server.requests.shed")
+                .tag("endpoint", "stats").tag("reason", "token_rate").counter().count());
+    }
+
+    @Test
+    void concurrencyCapShedsWhileRequestIsInFlight() throws Exception {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setReport(new RateLimitProperties.Budget(100, 100, 1));
+        RateLimitFilter filter = filter(properties);
+
+        // 第一个报表请求处理中时再发一个，超过类别并发上限
+        AtomicReference<MockHttpServletResponse> nested = new AtomicReference<>();
+        MockHttpServletRequest request = request("/api/rent-payments/report", "Bearer token-a");
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                try {
+                    nested.set(call(filter, "/api/rent-payments/report", "Bearer token-b"));
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }));
+        assertEquals(429, nested.get().getStatus());
+        // 第一个请求结束后许可已归还
+        assertEquals(200, call(filter, "/api/rent-payments/report", "Bearer token-b").getStatus());
+    }
+
+    @Test
+    void fullStoreDoesNotAdmitNewKeysUnlimited() {
+        InMemoryRateLimitStore store = new InMemoryRateLimitStore(2);
+        assertTrue(store.tryAcquire("a", 0.001, 1));
+        assertTrue(store.tryAcquire("b", 0.001, 1));
+        // 存储已满：新 key 照常建桶并受限额约束
+        assertTrue(store.tryAcquire("c", 0.001, 1));
+        assertFalse(store.tryAcquire("c", 0.001, 1));
+    }
+
+    private RateLimitFilter filter(RateLimitProperties properties) {
+        return new RateLimitFilter(properties, new InMemoryRateLimitStore(100), meterRegistry);
+    }
+
+    private static MockHttpServletResponse call(RateLimitFilter filter, String path, String authorization) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(path, authorization), response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String path, String authorization) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.addHeader("Authorization", authorization);
+        return request;
+    }
+}
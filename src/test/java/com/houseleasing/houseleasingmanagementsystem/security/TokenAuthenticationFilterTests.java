@@ -0,0 +1,84 @@
+package com.houseleasing.houseleasingmanagementsystem.security;
+
+import com.houseleasing.houseleasingmanagementsystem.util.TokenUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Token 过滤器的拒绝响应与按 IP 限流（不启动 Spring）
+ */
+class TokenAuthenticationFilterTests {
+
+    private TokenUtil tokenUtil;
+    private MeterRegistry meterRegistry;
+    private TokenAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        tokenUtil = new TokenUtil("mySecretKeyForHouseLeasingSystem2024!@#$", 3600L, 100);
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new TokenAuthenticationFilter(meterRegistry);
+        ReflectionTestUtils.setField(filter, "tokenUtil", tokenUtil);
+        // 每个 IP 只允许 2 次失败，几乎不补充
+        ReflectionTestUtils.setField(filter, "rejectionTracker",
+                new AuthRejectionTracker(true, 2, 0.001, 100, meterRegistry));
+    }
+
+    @Test
+    void rejectionBodyIsTheSameJsonAsBefore() throws Exception {
+        MockHttpServletResponse response = call("10.0.0.1", null);
+        assertEquals(401, response.getStatus());
+        assertEquals("{\"success\":false,\"message\":\"缺少认证token\",\"code\":401}", response.getContentAsString());
+
+        response = call("10.0.0.1", "Bearer not-a-token");
+        assertEquals(401, response.getStatus());
+        assertEquals("{\"success\":false,\"message\":\"Token无效或已过期\",\"code\":401}", response.getContentAsString());
+    }
+
+    @Test
+    void repeatedFailuresFromOneIpAreShedWith429() throws Exception {
+        String validToken = tokenUtil.generateToken();
+        assertEquals(200, call("10.0.0.2", "Bearer " + validToken).getStatus());
+
+        assertEquals(401, call("10.0.0.2", "Bearer bad").getStatus());
+        assertEquals(401, call("10.0.0.2", "Bearer bad").getStatus());
+        assertEquals(429, call("10.0.0.2", "Bearer bad").getStatus());
+        assertEquals(429, call("10.0.0.2", null).getStatus());
+        // 限流期间，已校验过的 token 仍可访问；其它 IP 不受影响
+        assertEquals(200, call("10.0.0.2", "Bearer " + validToken).getStatus());
+        assertEquals(429, call("10.0.0.2", "Bearer " + tokenUtil.generateToken() + "x").getStatus());
+        assertEquals(401, call("10.0.0.3", "Bearer bad").getStatus());
+
+        assertEquals(3.0, meterRegistry.get("auth.rejections").tag("reason", "throttled").counter().count());
+    }
+
+    @Test
+    void newClientsAreStillTrackedWhenTrackerIsFull() {
+        AuthRejectionTracker tracker = new AuthRejectionTracker(true, 1, 0.001, 2, meterRegistry);
+        tracker.recordRejection("10.0.1.1");
+        tracker.recordRejection("10.0.1.2");
+        // 已满时新 IP 照样被跟踪并限流，由较旧的条目让出位置
+        tracker.recordRejection("10.0.1.3");
+        assertTrue(tracker.isThrottled("10.0.1.3"));
+    }
+
+    private MockHttpServletResponse call(String ip, String authorization) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/houses");
+        request.setRemoteAddr(ip);
+        if (authorization != null) {
+            request.addHeader("Authorization", authorization);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,151 @@
+package com.houseleasing.houseleasingmanagementsystem.service;
+
+import com.houseleasing.houseleasingmanagementsystem.dto.ContractImportResult;
+import com.houseleasing.houseleasingmanagementsystem.dto.ContractImportResult.ErrorCode;
+import com.houseleasing.houseleasingmanagementsystem.dto.ContractImportResult.RowError;
+import com.houseleasing.houseleasingmanagementsystem.model.House;
+import com.houseleasing.houseleasingmanagementsystem.model.User;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.HouseStatus;
+import com.houseleasing.houseleasingmanagementsystem.repository.ContractRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.HouseRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.RentPaymentRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 合同批量导入：按块提交，单行错误只记录不影响其它行，错误以固定错误码返回
+ */
+@SpringBootTest(properties = "app.contract-import.chunk-size=2")
+@ActiveProfiles("test")
+class ContractImportServiceTests {
+
+    private static final String HEADER = "contractNo,houseId,landlordId,tenantId,startDate,endDate,rentAmount,paymentCycle";
+
+    @Autowired
+    private ContractImportService contractImportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private HouseRepository houseRepository;
+
+    @Autowired
+    private ContractRepository contractRepository;
+
+    @Autowired
+    private RentPaymentRepository rentPaymentRepository;
+
+    private Long houseId;
+    private Long landlordId;
+    private Long tenantId;
+
+    @BeforeEach
+    void seed() {
+        User landlord = userRepository.save(user("import-landlord", "IMP-L-" + System.nanoTime()));
+        User tenant = userRepository.save(user("import-tenant", "IMP-T-" + System.nanoTime()));
+        House house = new House();
+        house.setAddress("Import Address");
+        house.setRent(3000.0);
+        house.setStatus(HouseStatus.AVAILABLE);
+        house.setRecommended(false);
+        house.setLandlord(landlord);
+        houseId = houseRepository.save(house).getId();
+        landlordId = landlord.getId();
+        tenantId = tenant.getId();
+    }
+
+    @Test
+    void mixedRowsAcrossChunkBoundaries() throws Exception {
+        // 块大小为 2：第 1 块 [MIX-1, MIX-2]，第 2 块 [MIX-3, MIX-1]，第 3 块 [MIX-5]；第 5 行无法解析，不进入块
+        String csv = String.join("\n",
+                HEADER,
+                row("MIX-1", houseId, "2025-01-01", "2025-12-31", "3000", "MONTHLY"),
+                row("MIX-2", houseId, "2025-01-01", "2025-12-31", "0", "MONTHLY"),
+                row("MIX-3", houseId, "2025-01-01", "2025-06-30", "2500", "QUARTERLY"),
+                row("MIX-4", houseId, "2025/01/01", "2025-12-31", "3000", "MONTHLY"),
+                row("MIX-1", houseId, "2025-01-01", "2025-12-31", "3000", "MONTHLY"),
+                row("MIX-5", houseId, "2025-03-01", "2025-02-01", "3000", "MONTHLY"));
+
+        ContractImportResult result = contractImportService.importContracts(stream(csv), "csv");
+
+        assertEquals(6, result.getTotalRows());
+        assertEquals(2, result.getImported());
+        assertEquals(4, result.getFailed());
+        // MIX-1 按月 12 期，MIX-3 按季 2 期
+        assertEquals(14, result.getRentPaymentsCreated());
+        assertError(result.getErrors().get(0), 3, ErrorCode.INVALID_RENT_AMOUNT);
+        assertError(result.getErrors().get(1), 5, ErrorCode.PARSE_ERROR);
+        // 前一个块已提交的合同编号，在后续块中视为已存在
+        assertError(result.getErrors().get(2), 6, ErrorCode.CONTRACT_NO_EXISTS);
+        assertError(result.getErrors().get(3), 7, ErrorCode.INVALID_DATE_RANGE);
+        assertNotNull(contractRepository.findByContractNo("MIX-1"));
+        assertNotNull(contractRepository.findByContractNo("MIX-3"));
+        assertNull(contractRepository.findByContractNo("MIX-2"));
+        assertEquals(12, rentPaymentRepository.findDueDatesByContractId(
+                contractRepository.findByContractNo("MIX-1").getId()).size());
+    }
+
+    @Test
+    void unresolvedReferencesAreReportedPerRow() throws Exception {
+        long missing = Long.MAX_VALUE;
+        String jsonl = String.join("\n",
+                json("REF-1", missing, landlordId, tenantId),
+                json("REF-2", houseId, missing, tenantId),
+                json("REF-3", houseId, landlordId, missing),
+                json("REF-4", houseId, landlordId, tenantId));
+
+        ContractImportResult result = contractImportService.importContracts(stream(jsonl), "jsonl");
+
+        assertEquals(4, result.getTotalRows());
+        assertEquals(1, result.getImported());
+        List<RowError> errors = result.getErrors();
+        assertEquals(3, errors.size());
+        assertError(errors.get(0), 1, ErrorCode.HOUSE_NOT_FOUND);
+        assertError(errors.get(1), 2, ErrorCode.LANDLORD_NOT_FOUND);
+        assertError(errors.get(2), 3, ErrorCode.TENANT_NOT_FOUND);
+        assertNull(contractRepository.findByContractNo("REF-1"));
+        assertNotNull(contractRepository.findByContractNo("REF-4"));
+    }
+
+    private void assertError(RowError error, long line, ErrorCode code) {
+        assertEquals(line, error.getLine());
+        assertEquals(code, error.getCode());
+        assertEquals(code.getMessage(), error.getMessage());
+    }
+
+    private String row(String contractNo, Long house, String start, String end, String rent, String cycle) {
+        return String.join(",", contractNo, String.valueOf(house), String.valueOf(landlordId),
+                String.valueOf(tenantId), start, end, rent, cycle);
+    }
+
+    private static String json(String contractNo, Long house, Long landlord, Long tenant) {
+        return "{\"contractNo\":\"" + contractNo + "\",\"houseId\":" + house + ",\"landlordId\":" + landlord
+                + ",\"tenantId\":" + tenant + ",\"startDate\":\"2025-01-01\",\"endDate\":\"2025-12-31\""
+                + ",\"rentAmount\":3000,\"paymentCycle\":\"MONTHLY\"}";
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static User user(String name, String idCard) {
+        User u = new User();
+        u.setRealName(name);
+        u.setIdCard(idCard);
+        u.setRole("TENANT");
+        return u;
+    }
+}
@@ -0,0 +1,70 @@
+package com.houseleasing.houseleasingmanagementsystem.service;
+
+import com.houseleasing.houseleasingmanagementsystem.config.HouseFullTextIndexInitializer;
+import com.houseleasing.houseleasingmanagementsystem.model.House;
+import com.houseleasing.houseleasingmanagementsystem.model.User;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.HouseStatus;
+import com.houseleasing.houseleasingmanagementsystem.repository.HouseRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.UserRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.projection.HouseListItem;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * 关键词搜索：没有全文索引时（H2 上不存在）退化为模糊匹配，而不是执行 MATCH 报错
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class HouseKeywordSearchTests {
+
+    @Autowired
+    private HouseService houseService;
+
+    @Autowired
+    private HouseFullTextIndexInitializer fullTextIndex;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private HouseRepository houseRepository;
+
+    @Test
+    void keywordSearchFallsBackToLikeWithoutFullTextIndex() {
+        User landlord = new User();
+        landlord.setRealName("keyword-landlord");
+        landlord.setIdCard("KW-L");
+        landlord.setRole("LANDLORD");
+        landlord = userRepository.save(landlord);
+        Long byAddress = house(landlord, "kwfallback Road 1", null).getId();
+        Long byDescription = house(landlord, "Other Road 2", "near kwfallback park").getId();
+        house(landlord, "Other Road 3", "quiet");
+
+        assertFalse(fullTextIndex.isAvailable());
+        Page<HouseListItem> result = houseService.searchHouses("kwfallback", null, null, null, null, null, null,
+                null, null, null, null, null, null, null, PageRequest.of(0, 10));
+
+        assertEquals(List.of(byAddress, byDescription),
+                result.getContent().stream().map(HouseListItem::id).sorted().toList());
+    }
+
+    private House house(User landlord, String address, String description) {
+        House house = new House();
+        house.setAddress(address);
+        house.setDescription(description);
+        house.setRent(1500.0);
+        house.setStatus(HouseStatus.AVAILABLE);
+        house.setRecommended(false);
+        house.setLandlord(landlord);
+        return houseRepository.save(house);
+    }
+}
@@ -0,0 +1,208 @@
+package com.houseleasing.houseleasingmanagementsystem.service;
+
+import com.houseleasing.houseleasingmanagementsystem.dto.KeysetPage;
+import com.houseleasing.houseleasingmanagementsystem.model.Contract;
+import com.houseleasing.houseleasingmanagementsystem.model.House;
+import com.houseleasing.houseleasingmanagementsystem.model.RentPayment;
+import com.houseleasing.houseleasingmanagementsystem.model.Review;
+import com.houseleasing.houseleasingmanagementsystem.model.User;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.ContractStatus;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.HouseStatus;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.PaymentStatus;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.ReviewType;
+import com.houseleasing.houseleasingmanagementsystem.repository.ContractRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.HouseRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.RentPaymentRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.ReviewRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.UserRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.projection.ContractListItem;
+import com.houseleasing.houseleasingmanagementsystem.repository.projection.HouseListItem;
+import com.houseleasing.houseleasingmanagementsystem.repository.projection.RentPaymentListItem;
+import com.houseleasing.houseleasingmanagementsystem.repository.projection.ReviewListItem;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 分页搜索的 SQL 语句数回归测试：每页固定 id 查询 + 列表投影查询 + count 查询，与页码无关，
+ * 且不允许在内存中分页（测试配置开启了 fail_on_pagination_over_collection_fetch）
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class PagedSearchQueryTests {
+
+    private static final int PAGE_SIZE = 5;
+    private static final int ROWS = 20;
+    private static final long STATEMENTS_PER_PAGE = 3;
+
+    @Autowired
+    private HouseService houseService;
+
+    @Autowired
+    private ContractService contractService;
+
+    @Autowired
+    private RentPaymentService rentPaymentService;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private HouseRepository houseRepository;
+
+    @Autowired
+    private ContractRepository contractRepository;
+
+    @Autowired
+    private RentPaymentRepository rentPaymentRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void seed() {
+        if (houseRepository.count() > 0) return;
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < ROWS; i++) {
+            User landlord = userRepository.save(user("landlord" + i, "L" + i));
+            User tenant = userRepository.save(user("tenant" + i, "T" + i));
+
+            House house = new House();
+            house.setAddress("Address " + i);
+            house.setRent(1000.0 + i);
+            house.setStatus(HouseStatus.AVAILABLE);
+            house.setRecommended(false);
+            house.setLandlord(landlord);
+            house = houseRepository.save(house);
+
+            Contract contract = new Contract();
+            contract.setContractNo("C-" + i);
+            contract.setHouse(house);
+            contract.setLandlord(landlord);
+            contract.setTenant(tenant);
+            contract.setStartDate(start);
+            contract.setEndDate(start.plusYears(1));
+            contract.setRentAmount(1000.0 + i);
+            contract.setStatus(ContractStatus.ACTIVE);
+            contract = contractRepository.save(contract);
+
+            RentPayment payment = new RentPayment();
+            payment.setContract(contract);
+            payment.setDueDate(start.plusDays(i));
+            payment.setAmount(1000.0 + i);
+            payment.setStatus(PaymentStatus.PENDING);
+            rentPaymentRepository.save(payment);
+
+            Review review = new Review();
+            review.setContract(contract);
+            review.setReviewer(tenant);
+            review.setReviewee(landlord);
+            review.setReviewType(ReviewType.TENANT_TO_LANDLORD);
+            review.setRating(1 + i % 5);
+            review.setComment("comment " + i);
+            reviewRepository.save(review);
+        }
+    }
+
+    @Test
+    void houseSearchUsesConstantStatementsPerPage() {
+        assertConstantStatements(page -> {
+            Page<HouseListItem> result = houseService.searchHouses(null, null, null, null, null, null, null, null, null,
+                    null, null, null, null, null, PageRequest.of(page, PAGE_SIZE));
+            assertNotNull(result.getContent().get(0).landlordName());
+            return result;
+        });
+    }
+
+    @Test
+    void contractSearchUsesConstantStatementsPerPage() {
+        assertConstantStatements(page -> {
+            Page<ContractListItem> result = contractService.searchContracts(null, null, null, null, null,
+                    null, null, null, null, PageRequest.of(page, PAGE_SIZE));
+            assertNotNull(result.getContent().get(0).tenantName());
+            return result;
+        });
+    }
+
+    @Test
+    void rentPaymentSearchUsesConstantStatementsPerPage() {
+        assertConstantStatements(page -> {
+            Page<RentPaymentListItem> result = rentPaymentService.search(null, null, null, null, PageRequest.of(page, PAGE_SIZE));
+            assertNotNull(result.getContent().get(0).houseAddress());
+            return result;
+        });
+    }
+
+    @Test
+    void reviewListingUsesConstantStatementsPerPage() {
+        assertConstantStatements(page -> {
+            Page<ReviewListItem> result = reviewService.getAllReviews(
+                    PageRequest.of(page, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "createdAt")));
+            assertNotNull(result.getContent().get(0).reviewerName());
+            return result;
+        });
+    }
+
+    @Test
+    void rentPaymentKeysetWalksAllRowsWithTwoStatementsPerPage() {
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        String cursor = null;
+        int seen = 0;
+        LocalDate previous = null;
+        for (int i = 0; i < ROWS / PAGE_SIZE; i++) {
+            stats.clear();
+            KeysetPage<RentPaymentListItem> result = rentPaymentService.searchKeyset(null, null, null, null, cursor, PAGE_SIZE);
+            assertEquals(2, stats.getPrepareStatementCount(), "statements for keyset page " + i);
+            for (RentPaymentListItem item : result.getContent()) {
+                assertNotNull(item.contractNo());
+                if (previous != null) assertTrue(!item.dueDate().isBefore(previous));
+                previous = item.dueDate();
+            }
+            seen += result.getContent().size();
+            cursor = result.getNextCursor();
+        }
+        assertEquals(ROWS, seen);
+    }
+
+    // 第一页和最后一页（都是满页）执行的语句数相同，结果数量和总数正确
+    private void assertConstantStatements(IntFunction<Page<?>> search) {
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        int lastPage = ROWS / PAGE_SIZE - 1;
+        for (int page : new int[]{0, lastPage}) {
+            stats.clear();
+            Page<?> result = search.apply(page);
+            assertEquals(PAGE_SIZE, result.getContent().size());
+            assertEquals(ROWS, result.getTotalElements());
+            assertEquals(STATEMENTS_PER_PAGE, stats.getPrepareStatementCount(), "statements for page " + page);
+        }
+    }
+
+    private static User user(String name, String idCard) {
+        User user = new User();
+        user.setRealName(name);
+        user.setIdCard(idCard);
+        user.setPhone("13800000000");
+        return user;
+    }
+}
@@ -0,0 +1,214 @@
+package com.houseleasing.houseleasingmanagementsystem.service;
+
+import com.houseleasing.houseleasingmanagementsystem.model.Contract;
+import com.houseleasing.houseleasingmanagementsystem.model.House;
+import com.houseleasing.houseleasingmanagementsystem.model.RentPayment;
+import com.houseleasing.houseleasingmanagementsystem.model.User;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.ContractStatus;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.HouseStatus;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.PaymentCycle;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.PaymentStatus;
+import com.houseleasing.houseleasingmanagementsystem.repository.ContractRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.HouseRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.RentPaymentRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 逾期罚金引擎：罚金 = min(租金 × 日费率 × 逾期天数, 租金 × 上限比例)，宽限期内不计；
+ * 每天累计一次直到支付或封顶，按周期的规则只覆盖配置了的字段
+ */
+@SpringBootTest(properties = {
+        "app.penalty.default-rule.daily-rate=0.0005",
+        "app.penalty.default-rule.cap-rate=0.1",
+        "app.penalty.default-rule.grace-days=3",
+        "app.penalty.rules.QUARTERLY.daily-rate=0.001",
+        "app.penalty.rules.HALF_YEARLY.cap-rate=0.004",
+        "app.penalty.rules.YEARLY.grace-days=7"})
+@ActiveProfiles("test")
+class PenaltyServiceTests {
+
+    private static final double AMOUNT = 1000.0;
+
+    private static final AtomicInteger SEQ = new AtomicInteger();
+
+    @Autowired
+    private PenaltyService penaltyService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private HouseRepository houseRepository;
+
+    @Autowired
+    private ContractRepository contractRepository;
+
+    @Autowired
+    private RentPaymentRepository rentPaymentRepository;
+
+    private House house;
+    private User landlord;
+    private User tenant;
+
+    // 每个用例用各自的“今天”，避免其它用例的记录因累计日期已在之后而被跳过
+    private LocalDate today;
+
+    @BeforeEach
+    void seed() {
+        int n = SEQ.incrementAndGet();
+        landlord = userRepository.save(user("penalty-landlord", "PEN-L-" + n));
+        tenant = userRepository.save(user("penalty-tenant", "PEN-T-" + n));
+        House h = new House();
+        h.setAddress("Penalty Address " + n);
+        h.setRent(AMOUNT);
+        h.setStatus(HouseStatus.AVAILABLE);
+        h.setRecommended(false);
+        h.setLandlord(landlord);
+        house = houseRepository.save(h);
+        today = LocalDate.of(2030, 1, 1).plusYears(n);
+    }
+
+    @Test
+    void penaltyIsAmountTimesDailyRateTimesDaysOverdue() {
+        Long id = overdue(PaymentCycle.MONTHLY, today.minusDays(10));
+
+        penaltyService.applyPenalties(today);
+
+        RentPayment rp = rentPaymentRepository.findById(id).orElseThrow();
+        assertEquals(5.0, rp.getPenalty(), 1e-9);
+        assertEquals(today, rp.getPenaltyAccruedThrough());
+        assertEquals(false, rp.getOverdueProcessed());
+    }
+
+    @Test
+    void penaltyKeepsAccruingUntilCapped() {
+        Long id = overdue(PaymentCycle.MONTHLY, today.minusDays(10));
+
+        penaltyService.applyPenalties(today);
+        penaltyService.applyPenalties(today.plusDays(30));
+        RentPayment rp = rentPaymentRepository.findById(id).orElseThrow();
+        assertEquals(20.0, rp.getPenalty(), 1e-9);
+        assertEquals(false, rp.getOverdueProcessed());
+
+        // 第 201 天超过上限 10%，按上限计并标记已处理，此后不再变化
+        penaltyService.applyPenalties(today.plusDays(191));
+        rp = rentPaymentRepository.findById(id).orElseThrow();
+        assertEquals(100.0, rp.getPenalty(), 1e-9);
+        assertEquals(true, rp.getOverdueProcessed());
+
+        penaltyService.applyPenalties(today.plusDays(400));
+        rp = rentPaymentRepository.findById(id).orElseThrow();
+        assertEquals(100.0, rp.getPenalty(), 1e-9);
+        assertEquals(today.plusDays(191), rp.getPenaltyAccruedThrough());
+    }
+
+    @Test
+    void paidPaymentStopsAccruing() {
+        Long id = overdue(PaymentCycle.MONTHLY, today.minusDays(10));
+        penaltyService.applyPenalties(today);
+
+        RentPayment paid = rentPaymentRepository.findById(id).orElseThrow();
+        paid.setStatus(PaymentStatus.PAID);
+        rentPaymentRepository.save(paid);
+        penaltyService.applyPenalties(today.plusDays(30));
+
+        assertEquals(5.0, rentPaymentRepository.findById(id).orElseThrow().getPenalty(), 1e-9);
+    }
+
+    @Test
+    void noPenaltyWithinGracePeriod() {
+        Long inGrace = overdue(PaymentCycle.MONTHLY, today.minusDays(3));
+        Long pastGrace = overdue(PaymentCycle.MONTHLY, today.minusDays(4));
+
+        penaltyService.applyPenalties(today);
+
+        RentPayment rp = rentPaymentRepository.findById(inGrace).orElseThrow();
+        assertNull(rp.getPenalty());
+        assertNull(rp.getPenaltyAccruedThrough());
+        // 过了宽限期后，逾期天数仍从应付日起算
+        assertEquals(2.0, rentPaymentRepository.findById(pastGrace).orElseThrow().getPenalty(), 1e-9);
+    }
+
+    // 10 天逾期：QUARTERLY 只覆盖日费率；HALF_YEARLY 只覆盖上限（4 元）；YEARLY 宽限 7 天；其余字段沿用默认规则
+    @ParameterizedTest
+    @CsvSource({
+            "MONTHLY, 10, 5.0, false",
+            "QUARTERLY, 10, 10.0, false",
+            "HALF_YEARLY, 10, 4.0, true",
+            "YEARLY, 7, , false",
+            "YEARLY, 10, 5.0, false"})
+    void rulePerPaymentCycle(PaymentCycle cycle, int daysOverdue, Double expectedPenalty, boolean capped) {
+        Long id = overdue(cycle, today.minusDays(daysOverdue));
+
+        penaltyService.applyPenalties(today);
+
+        RentPayment rp = rentPaymentRepository.findById(id).orElseThrow();
+        if (expectedPenalty == null) {
+            assertNull(rp.getPenalty());
+        } else {
+            assertEquals(expectedPenalty, rp.getPenalty(), 1e-9);
+            assertEquals(capped, rp.getOverdueProcessed());
+        }
+    }
+
+    @Test
+    void secondRunOnTheSameDayChangesNothing() {
+        Long accruing = overdue(PaymentCycle.MONTHLY, today.minusDays(10));
+        Long capped = overdue(PaymentCycle.MONTHLY, today.minusDays(500));
+
+        penaltyService.applyPenalties(today);
+        assertEquals(0, penaltyService.applyPenalties(today));
+
+        RentPayment rp = rentPaymentRepository.findById(accruing).orElseThrow();
+        assertEquals(5.0, rp.getPenalty(), 1e-9);
+        assertEquals(false, rp.getOverdueProcessed());
+        assertEquals(today, rp.getPenaltyAccruedThrough());
+        rp = rentPaymentRepository.findById(capped).orElseThrow();
+        assertEquals(100.0, rp.getPenalty(), 1e-9);
+        assertEquals(true, rp.getOverdueProcessed());
+        assertEquals(today, rp.getPenaltyAccruedThrough());
+    }
+
+    private Long overdue(PaymentCycle cycle, LocalDate dueDate) {
+        Contract c = new Contract();
+        c.setContractNo("PEN-" + SEQ.incrementAndGet());
+        c.setHouse(house);
+        c.setLandlord(landlord);
+        c.setTenant(tenant);
+        c.setStartDate(dueDate);
+        c.setEndDate(dueDate.plusYears(1));
+        c.setRentAmount(AMOUNT);
+        c.setPaymentCycle(cycle);
+        c.setStatus(ContractStatus.ACTIVE);
+        c = contractRepository.save(c);
+
+        RentPayment rp = new RentPayment();
+        rp.setContract(c);
+        rp.setDueDate(dueDate);
+        rp.setAmount(AMOUNT);
+        rp.setStatus(PaymentStatus.OVERDUE);
+        rp.setOverdueProcessed(false);
+        return rentPaymentRepository.save(rp).getId();
+    }
+
+    private static User user(String name, String idCard) {
+        User u = new User();
+        u.setRealName(name);
+        u.setIdCard(idCard);
+        u.setRole("TENANT");
+        return u;
+    }
+}
@@ -0,0 +1,132 @@
+package com.houseleasing.houseleasingmanagementsystem.service;
+
+import com.houseleasing.houseleasingmanagementsystem.dto.TenantReminder;
+import com.houseleasing.houseleasingmanagementsystem.model.Contract;
+import com.houseleasing.houseleasingmanagementsystem.model.House;
+import com.houseleasing.houseleasingmanagementsystem.model.RentPayment;
+import com.houseleasing.houseleasingmanagementsystem.model.User;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.ContractStatus;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.HouseStatus;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.PaymentStatus;
+import com.houseleasing.houseleasingmanagementsystem.repository.ContractRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.HouseRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.RentPaymentRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * 批量提醒：批次不拆开同一租客，一次运行中每个租客只收到一条消息；提醒时间记为该批实际发出的时间
+ */
+@SpringBootTest(properties = "app.reminder.batch-size=3")
+@ActiveProfiles("test")
+class ReminderServiceTests {
+
+    @Autowired
+    private ReminderService reminderService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private HouseRepository houseRepository;
+
+    @Autowired
+    private ContractRepository contractRepository;
+
+    @Autowired
+    private RentPaymentRepository rentPaymentRepository;
+
+    @MockitoBean
+    private ReminderSender reminderSender;
+
+    @Test
+    void eachTenantGetsOneMessagePerRun() throws Exception {
+        List<TenantReminder> sent = new ArrayList<>();
+        List<LocalDateTime> sendTimes = new ArrayList<>();
+        doAnswer(invocation -> {
+            sendTimes.add(LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS));
+            return sent.addAll(invocation.getArgument(0));
+        }).when(reminderSender).send(anyList());
+
+        User landlord = userRepository.save(user("reminder-landlord", "REM-L"));
+        User first = userRepository.save(user("reminder-tenant-1", "REM-T1"));
+        User second = userRepository.save(user("reminder-tenant-2", "REM-T2"));
+        LocalDate today = LocalDate.now();
+        // 两个租客的记录按 id 交错插入；按 id 分批（每批 3 条）时两人都会被拆到两批
+        Contract a = contract("REM-A", landlord, first);
+        Contract b = contract("REM-B", landlord, second);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            ids.add(payment(a, today.minusDays(10 + i)));
+            ids.add(payment(b, today.minusDays(10 + i)));
+        }
+
+        reminderService.dispatch(today);
+
+        assertEquals(1, sent.stream().filter(r -> first.getId().equals(r.getTenantId())).count());
+        assertEquals(1, sent.stream().filter(r -> second.getId().equals(r.getTenantId())).count());
+        assertEquals(2, sent.stream().filter(r -> first.getId().equals(r.getTenantId()))
+                .findFirst().orElseThrow().getItems().size());
+        assertEquals(2, sent.stream().filter(r -> second.getId().equals(r.getTenantId()))
+                .findFirst().orElseThrow().getItems().size());
+
+        // 回写的提醒时间不早于第一批的发送时间（而不是本次运行开始的时间）
+        assertFalse(sendTimes.isEmpty());
+        for (Long id : ids) {
+            LocalDateTime remindedAt = rentPaymentRepository.findById(id).orElseThrow().getRemindedAt();
+            assertFalse(remindedAt.isBefore(sendTimes.get(0)), "payment " + id + " reminded at " + remindedAt);
+        }
+    }
+
+    private Contract contract(String contractNo, User landlord, User tenant) {
+        House house = new House();
+        house.setAddress(contractNo + " Address");
+        house.setRent(2000.0);
+        house.setStatus(HouseStatus.RENTED);
+        house.setRecommended(false);
+        house.setLandlord(landlord);
+        house = houseRepository.save(house);
+        Contract c = new Contract();
+        c.setContractNo(contractNo);
+        c.setHouse(house);
+        c.setLandlord(landlord);
+        c.setTenant(tenant);
+        c.setStartDate(LocalDate.now().minusMonths(1));
+        c.setEndDate(LocalDate.now().plusYears(1));
+        c.setRentAmount(2000.0);
+        c.setStatus(ContractStatus.ACTIVE);
+        return contractRepository.save(c);
+    }
+
+    private Long payment(Contract contract, LocalDate dueDate) {
+        RentPayment rp = new RentPayment();
+        rp.setContract(contract);
+        rp.setDueDate(dueDate);
+        rp.setAmount(2000.0);
+        rp.setStatus(PaymentStatus.OVERDUE);
+        return rentPaymentRepository.save(rp).getId();
+    }
+
+    private static User user(String name, String idCard) {
+        User u = new User();
+        u.setRealName(name);
+        u.setIdCard(idCard);
+        u.setRole("TENANT");
+        return u;
+    }
+}
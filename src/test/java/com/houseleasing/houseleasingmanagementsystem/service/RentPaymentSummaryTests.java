@@ -0,0 +1,261 @@
+package com.houseleasing.houseleasingmanagementsystem.service;
+
+import com.houseleasing.houseleasingmanagementsystem.model.Contract;
+import com.houseleasing.houseleasingmanagementsystem.model.House;
+import com.houseleasing.houseleasingmanagementsystem.model.RentPayment;
+import com.houseleasing.houseleasingmanagementsystem.model.User;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.ContractStatus;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.HouseStatus;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.PaymentMethod;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.PaymentStatus;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.ReportGroupBy;
+import com.houseleasing.houseleasingmanagementsystem.repository.ContractRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.HouseRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.RentPaymentRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 租金报表汇总：每个分组维度的笔数、应收、实收、罚金与收缴率，合计等于各分组之和，应收为 0 的分组收缴率为 0
+ * 种子数据会新增房源与合同，使用独立的内存库，避免影响按总数断言的其它测试类
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:report_summary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+class RentPaymentSummaryTests {
+
+    private static final LocalDate FROM = LocalDate.of(2024, 3, 1);
+    private static final LocalDate TO = LocalDate.of(2024, 4, 30);
+
+    @Autowired
+    private RentPaymentService rentPaymentService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private HouseRepository houseRepository;
+
+    @Autowired
+    private ContractRepository contractRepository;
+
+    @Autowired
+    private RentPaymentRepository rentPaymentRepository;
+
+    private Long landlordA;
+    private Long landlordB;
+    private Long house1;
+    private Long house2;
+    private Long house3;
+
+    @BeforeEach
+    void seed() {
+        if (contractRepository.count() == 0) {
+            insertPayments();
+        }
+        landlordA = userRepository.findAll().stream().filter(u -> "summary-landlord-a".equals(u.getRealName())).findFirst().orElseThrow().getId();
+        landlordB = userRepository.findAll().stream().filter(u -> "summary-landlord-b".equals(u.getRealName())).findFirst().orElseThrow().getId();
+        house1 = houseId("Summary Road 1");
+        house2 = houseId("Summary Road 2");
+        house3 = houseId("Summary Road 3");
+    }
+
+    /*
+     * 房东 A：房源 1（银行转账，两期 1000 均已付；另有一期在范围外）、房源 3（现金，两期应收 0）
+     * 房东 B：房源 2（支付宝，3 月 2000 逾期罚金 50，4 月 2000 逾期后已付罚金 20）
+     */
+    private void insertPayments() {
+        User a = userRepository.save(user("summary-landlord-a", "SUMMARY-A"));
+        User b = userRepository.save(user("summary-landlord-b", "SUMMARY-B"));
+        User tenant = userRepository.save(user("summary-tenant", "SUMMARY-T"));
+        Contract c1 = contract("SUMMARY-1", house("Summary Road 1", a), tenant, PaymentMethod.BANK_TRANSFER);
+        Contract c2 = contract("SUMMARY-2", house("Summary Road 2", b), tenant, PaymentMethod.ALIPAY);
+        Contract c3 = contract("SUMMARY-3", house("Summary Road 3", a), tenant, PaymentMethod.CASH);
+
+        payment(c1, "2024-03-05", 1000.0, PaymentStatus.PAID, null);
+        payment(c1, "2024-04-05", 1000.0, PaymentStatus.PAID, null);
+        payment(c1, "2024-05-05", 1000.0, PaymentStatus.PENDING, null);
+        payment(c1, "2024-02-29", 1000.0, PaymentStatus.PAID, 5.0);
+        payment(c2, "2024-03-10", 2000.0, PaymentStatus.OVERDUE, 50.0);
+        payment(c2, "2024-04-10", 2000.0, PaymentStatus.PAID, 20.0);
+        payment(c3, "2024-03-15", 0.0, PaymentStatus.PAID, null);
+        payment(c3, "2024-04-15", 0.0, PaymentStatus.PENDING, null);
+    }
+
+    @Test
+    void groupsByMonth() {
+        Map<String, Object> result = summarize(ReportGroupBy.MONTH);
+        Map<Object, Map<String, Object>> groups = groups(result);
+        assertEquals(List.of("2024-03", "2024-04"), List.copyOf(groups.keySet()));
+        assertSummary(groups.get("2024-03"), 3, 3000.0, 1000.0, 50.0, 0.3333);
+        assertSummary(groups.get("2024-04"), 3, 3000.0, 3000.0, 20.0, 1.0);
+        groups.values().forEach(g -> assertFalse(g.containsKey("label")));
+    }
+
+    @Test
+    void groupsByLandlordWithLabels() {
+        Map<Object, Map<String, Object>> groups = groups(summarize(ReportGroupBy.LANDLORD));
+        assertEquals(2, groups.size());
+        assertEquals("summary-landlord-a", groups.get(landlordA).get("label"));
+        assertEquals("summary-landlord-b", groups.get(landlordB).get("label"));
+        assertSummary(groups.get(landlordA), 4, 2000.0, 2000.0, 0.0, 1.0);
+        assertSummary(groups.get(landlordB), 2, 4000.0, 2000.0, 70.0, 0.5);
+    }
+
+    @Test
+    void groupsByHouseIncludingZeroExpectedAmount() {
+        Map<Object, Map<String, Object>> groups = groups(summarize(ReportGroupBy.HOUSE));
+        assertEquals(List.of(house1, house2, house3), List.copyOf(groups.keySet()));
+        assertEquals("Summary Road 3", groups.get(house3).get("label"));
+        assertSummary(groups.get(house1), 2, 2000.0, 2000.0, 0.0, 1.0);
+        assertSummary(groups.get(house2), 2, 4000.0, 2000.0, 70.0, 0.5);
+        // 应收为 0 时收缴率为 0，而不是 NaN
+        assertSummary(groups.get(house3), 2, 0.0, 0.0, 0.0, 0.0);
+    }
+
+    @Test
+    void groupsByStatus() {
+        Map<Object, Map<String, Object>> groups = groups(summarize(ReportGroupBy.STATUS));
+        assertEquals(3, groups.size());
+        assertSummary(groups.get(PaymentStatus.PAID), 4, 4000.0, 4000.0, 20.0, 1.0);
+        assertSummary(groups.get(PaymentStatus.OVERDUE), 1, 2000.0, 0.0, 50.0, 0.0);
+        assertSummary(groups.get(PaymentStatus.PENDING), 1, 0.0, 0.0, 0.0, 0.0);
+        groups.values().forEach(g -> assertFalse(g.containsKey("label")));
+    }
+
+    @Test
+    void groupsByContractPaymentMethod() {
+        Map<Object, Map<String, Object>> groups = groups(summarize(ReportGroupBy.METHOD));
+        assertEquals(3, groups.size());
+        assertSummary(groups.get(PaymentMethod.BANK_TRANSFER), 2, 2000.0, 2000.0, 0.0, 1.0);
+        assertSummary(groups.get(PaymentMethod.ALIPAY), 2, 4000.0, 2000.0, 70.0, 0.5);
+        assertSummary(groups.get(PaymentMethod.CASH), 2, 0.0, 0.0, 0.0, 0.0);
+    }
+
+    @Test
+    void totalsAreTheSumOfGroupsForEveryDimension() {
+        for (ReportGroupBy groupBy : ReportGroupBy.values()) {
+            Map<String, Object> result = summarize(groupBy);
+            assertEquals(FROM, result.get("from"));
+            assertEquals(TO, result.get("to"));
+            assertEquals(groupBy, result.get("groupBy"));
+            @SuppressWarnings("unchecked")
+            Map<String, Object> totals = (Map<String, Object>) result.get("totals");
+            assertSummary(totals, 6, 6000.0, 4000.0, 70.0, 0.6667);
+
+            long count = 0;
+            double total = 0, paid = 0, penalty = 0;
+            for (Map<String, Object> g : groups(result).values()) {
+                count += ((Number) g.get("paymentCount")).longValue();
+                total += (Double) g.get("totalAmount");
+                paid += (Double) g.get("paidAmount");
+                penalty += (Double) g.get("penaltyTotal");
+            }
+            assertEquals(6, count, groupBy.name());
+            assertEquals(6000.0, total, 1e-9, groupBy.name());
+            assertEquals(4000.0, paid, 1e-9, groupBy.name());
+            assertEquals(70.0, penalty, 1e-9, groupBy.name());
+        }
+    }
+
+    @Test
+    void emptyRangeHasZeroTotals() {
+        for (ReportGroupBy groupBy : ReportGroupBy.values()) {
+            Map<String, Object> result = rentPaymentService.summarize(LocalDate.of(2030, 1, 1), LocalDate.of(2030, 1, 31), groupBy);
+            assertTrue(((List<?>) result.get("groups")).isEmpty(), groupBy.name());
+            @SuppressWarnings("unchecked")
+            Map<String, Object> totals = (Map<String, Object>) result.get("totals");
+            assertSummary(totals, 0, 0.0, 0.0, 0.0, 0.0);
+        }
+    }
+
+    @Test
+    void invalidRangeIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> rentPaymentService.summarize(TO, FROM, ReportGroupBy.MONTH));
+        assertThrows(IllegalArgumentException.class, () -> rentPaymentService.summarize(null, TO, ReportGroupBy.MONTH));
+    }
+
+    private Map<String, Object> summarize(ReportGroupBy groupBy) {
+        return rentPaymentService.summarize(FROM, TO, groupBy);
+    }
+
+    // 分组按 key 索引，保留返回顺序
+    @SuppressWarnings("unchecked")
+    private static Map<Object, Map<String, Object>> groups(Map<String, Object> result) {
+        Map<Object, Map<String, Object>> byKey = new LinkedHashMap<>();
+        for (Map<String, Object> g : (List<Map<String, Object>>) result.get("groups")) {
+            byKey.put(g.get("key"), g);
+        }
+        return byKey;
+    }
+
+    private static void assertSummary(Map<String, Object> summary, long count, double total, double paid,
+                                      double penalty, double rate) {
+        assertEquals(count, ((Number) summary.get("paymentCount")).longValue(), summary.toString());
+        assertEquals(total, (Double) summary.get("totalAmount"), 1e-9, summary.toString());
+        assertEquals(paid, (Double) summary.get("paidAmount"), 1e-9, summary.toString());
+        assertEquals(penalty, ((Number) summary.get("penaltyTotal")).doubleValue(), 1e-9, summary.toString());
+        assertEquals(rate, (Double) summary.get("collectionRate"), summary.toString());
+    }
+
+    private Long houseId(String address) {
+        return houseRepository.findAll().stream().filter(h -> address.equals(h.getAddress())).findFirst().orElseThrow().getId();
+    }
+
+    private House house(String address, User landlord) {
+        House house = new House();
+        house.setAddress(address);
+        house.setRent(1000.0);
+        house.setStatus(HouseStatus.RENTED);
+        house.setRecommended(false);
+        house.setLandlord(landlord);
+        return houseRepository.save(house);
+    }
+
+    private Contract contract(String no, House house, User tenant, PaymentMethod method) {
+        Contract contract = new Contract();
+        contract.setContractNo(no);
+        contract.setHouse(house);
+        contract.setLandlord(house.getLandlord());
+        contract.setTenant(tenant);
+        contract.setStartDate(LocalDate.of(2024, 1, 1));
+        contract.setEndDate(LocalDate.of(2024, 12, 31));
+        contract.setRentAmount(house.getRent());
+        contract.setPaymentMethod(method);
+        contract.setStatus(ContractStatus.ACTIVE);
+        return contractRepository.save(contract);
+    }
+
+    private void payment(Contract contract, String due, double amount, PaymentStatus status, Double penalty) {
+        RentPayment payment = new RentPayment();
+        payment.setContract(contract);
+        payment.setDueDate(LocalDate.parse(due));
+        payment.setAmount(amount);
+        payment.setStatus(status);
+        payment.setPenalty(penalty);
+        rentPaymentRepository.save(payment);
+    }
+
+    private static User user(String name, String idCard) {
+        User user = new User();
+        user.setRealName(name);
+        user.setIdCard(idCard);
+        user.setPhone("13800000000");
+        return user;
+    }
+}
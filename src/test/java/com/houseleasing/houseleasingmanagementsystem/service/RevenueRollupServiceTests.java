@@ -0,0 +1,188 @@
+package com.houseleasing.houseleasingmanagementsystem.service;
+
+import com.houseleasing.houseleasingmanagementsystem.dto.ContractImportResult;
+import com.houseleasing.houseleasingmanagementsystem.model.Contract;
+import com.houseleasing.houseleasingmanagementsystem.model.House;
+import com.houseleasing.houseleasingmanagementsystem.model.MonthlyRevenueRollup;
+import com.houseleasing.houseleasingmanagementsystem.model.RentPayment;
+import com.houseleasing.houseleasingmanagementsystem.model.User;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.ContractStatus;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.HouseStatus;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.PaymentCycle;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.PaymentStatus;
+import com.houseleasing.houseleasingmanagementsystem.model.enums.RollupScope;
+import com.houseleasing.houseleasingmanagementsystem.repository.ContractRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.HouseRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.MonthlyRevenueRollupRepository;
+import com.houseleasing.houseleasingmanagementsystem.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 月度收入汇总表的增量维护：每一步写操作之后，全部 / 房东 / 房源三个维度都与从明细全量重建的结果一致
+ * 只比较 2091 年的月份（其它测试的租金记录不经过增量维护，不参与比较）
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class RevenueRollupServiceTests {
+
+    private static final String YEAR = "2091-";
+
+    @Autowired
+    private RevenueRollupService revenueRollupService;
+
+    @Autowired
+    private RentPaymentService rentPaymentService;
+
+    @Autowired
+    private ContractService contractService;
+
+    @Autowired
+    private ContractImportService contractImportService;
+
+    @Autowired
+    private MonthlyRevenueRollupRepository rollupRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private HouseRepository houseRepository;
+
+    @Autowired
+    private ContractRepository contractRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void incrementalMaintenanceMatchesRebuild() throws Exception {
+        entityManagerFactory.getCache().evictAll();
+        User landlordA = userRepository.save(user("rollup-landlord-a", "ROLLUP-LA"));
+        User landlordB = userRepository.save(user("rollup-landlord-b", "ROLLUP-LB"));
+        User tenant = userRepository.save(user("rollup-tenant", "ROLLUP-T"));
+        House houseA = houseRepository.save(house("Rollup A", landlordA));
+        House houseB = houseRepository.save(house("Rollup B", landlordB));
+        Contract contract = new Contract();
+        contract.setContractNo("ROLLUP-1");
+        contract.setHouse(houseA);
+        contract.setLandlord(landlordA);
+        contract.setTenant(tenant);
+        contract.setStartDate(LocalDate.of(2091, 1, 1));
+        contract.setEndDate(LocalDate.of(2091, 12, 31));
+        contract.setRentAmount(1000.0);
+        contract.setPaymentCycle(PaymentCycle.MONTHLY);
+        contract.setStatus(ContractStatus.ACTIVE);
+        contract = contractRepository.save(contract);
+        revenueRollupService.rebuild();
+
+        RentPayment january = rentPaymentService.create(payment(contract, LocalDate.of(2091, 1, 5), 1000.0));
+        RentPayment february = rentPaymentService.create(payment(contract, LocalDate.of(2091, 2, 5), 1000.0));
+        assertMatchesRebuild("create");
+
+        rentPaymentService.markPaid(january.getId());
+        assertMatchesRebuild("markPaid");
+
+        RentPayment changed = payment(contract, LocalDate.of(2091, 1, 5), 1200.0);
+        changed.setStatus(PaymentStatus.PAID);
+        rentPaymentService.update(january.getId(), changed);
+        // 修改应付日期，贡献值从 2 月移到 3 月
+        rentPaymentService.update(february.getId(), payment(contract, LocalDate.of(2091, 3, 5), 900.0));
+        assertMatchesRebuild("update amount and due date");
+
+        Contract reassigned = new Contract();
+        reassigned.setContractNo(contract.getContractNo());
+        reassigned.setHouse(houseB);
+        reassigned.setLandlord(landlordB);
+        reassigned.setTenant(tenant);
+        reassigned.setStartDate(contract.getStartDate());
+        reassigned.setEndDate(contract.getEndDate());
+        reassigned.setRentAmount(contract.getRentAmount());
+        reassigned.setPaymentCycle(contract.getPaymentCycle());
+        reassigned.setStatus(contract.getStatus());
+        contractService.updateContract(contract.getId(), reassigned);
+        Map<String, List<Long>> rows = assertMatchesRebuild("reassign landlord and house");
+        assertTrue(rows.containsKey(key("2091-01", RollupScope.HOUSE, landlordB.getId(), houseB.getId())));
+        assertTrue(rows.keySet().stream().noneMatch(k -> k.contains("|" + landlordA.getId() + "|")));
+
+        rentPaymentService.delete(february.getId());
+        assertMatchesRebuild("delete");
+
+        String csv = "contractNo,houseId,landlordId,tenantId,startDate,endDate,rentAmount,paymentCycle\n"
+                + String.join(",", "ROLLUP-2", String.valueOf(houseA.getId()), String.valueOf(landlordA.getId()),
+                String.valueOf(tenant.getId()), "2091-01-01", "2091-06-30", "1500", "MONTHLY");
+        ContractImportResult result = contractImportService.importContracts(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), "csv");
+        assertEquals(1, result.getImported());
+        rows = assertMatchesRebuild("batch import");
+        assertTrue(rows.containsKey(key("2091-06", RollupScope.HOUSE, landlordA.getId(), houseA.getId())));
+    }
+
+    // 增量维护后的汇总行与全量重建后的汇总行逐行比较；返回比较的行
+    private Map<String, List<Long>> assertMatchesRebuild(String step) {
+        Map<String, List<Long>> incremental = snapshot();
+        revenueRollupService.rebuild();
+        Map<String, List<Long>> rebuilt = snapshot();
+        assertEquals(rebuilt, incremental, "rollup after " + step);
+        return rebuilt;
+    }
+
+    // 金额按分比较；增量维护在删除/迁移后留下的全 0 行，重建时不会产生，不参与比较
+    private Map<String, List<Long>> snapshot() {
+        Map<String, List<Long>> rows = new TreeMap<>();
+        for (MonthlyRevenueRollup row : rollupRepository.findAll()) {
+            if (!row.getRevenueMonth().startsWith(YEAR)) continue;
+            List<Long> values = List.of(Math.round(row.getTotalAmount() * 100), Math.round(row.getPaidAmount() * 100),
+                    row.getPaymentCount());
+            if (values.equals(List.of(0L, 0L, 0L))) continue;
+            rows.put(key(row.getRevenueMonth(), row.getScope(), row.getLandlordId(), row.getHouseId()), values);
+        }
+        return rows;
+    }
+
+    private static String key(String month, RollupScope scope, Long landlordId, Long houseId) {
+        return month + "|" + scope + "|" + landlordId + "|" + houseId;
+    }
+
+    private static RentPayment payment(Contract contract, LocalDate dueDate, double amount) {
+        RentPayment rp = new RentPayment();
+        Contract ref = new Contract();
+        ref.setId(contract.getId());
+        rp.setContract(ref);
+        rp.setDueDate(dueDate);
+        rp.setAmount(amount);
+        rp.setStatus(PaymentStatus.PENDING);
+        return rp;
+    }
+
+    private static House house(String address, User landlord) {
+        House house = new House();
+        house.setAddress(address);
+        house.setRent(1000.0);
+        house.setStatus(HouseStatus.RENTED);
+        house.setRecommended(false);
+        house.setLandlord(landlord);
+        return house;
+    }
+
+    private static User user(String name, String idCard) {
+        User u = new User();
+        u.setRealName(name);
+        u.setIdCard(idCard);
+        u.setRole("LANDLORD");
+        return u;
+    }
+}
@@ -0,0 +1,75 @@
+package com.houseleasing.houseleasingmanagementsystem.service;
+
+import com.houseleasing.houseleasingmanagementsystem.repository.SchedulerLockRepository;
+import com.houseleasing.houseleasingmanagementsystem.service.impl.SchedulerLockServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 定时任务运行锁：锁未过期时其它节点拿不到锁，过期后（节点宕机未释放）可被其它节点接管
+ * 每个 SchedulerLockServiceImpl 实例代表一个节点（节点标识在实例内随机生成）
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SchedulerLockServiceTests {
+
+    @Autowired
+    private SchedulerLockRepository schedulerLockRepository;
+
+    @Test
+    void secondNodeIsRefusedUntilTheHolderReleases() {
+        SchedulerLockService nodeA = node();
+        SchedulerLockService nodeB = node();
+
+        // 首次运行插入锁记录
+        assertTrue(nodeA.tryLock("lock-test-release", Duration.ofMinutes(30)));
+        assertFalse(nodeB.tryLock("lock-test-release", Duration.ofMinutes(30)));
+        // 持有者自己在过期前也不能重复加锁（上一轮尚未结束）
+        assertFalse(nodeA.tryLock("lock-test-release", Duration.ofMinutes(30)));
+
+        // 非持有者的释放不生效
+        nodeB.unlock("lock-test-release");
+        assertFalse(nodeB.tryLock("lock-test-release", Duration.ofMinutes(30)));
+
+        nodeA.unlock("lock-test-release");
+        assertTrue(nodeB.tryLock("lock-test-release", Duration.ofMinutes(30)));
+        assertFalse(nodeA.tryLock("lock-test-release", Duration.ofMinutes(30)));
+    }
+
+    @Test
+    void expiredLockIsTakenOverByAnotherNode() throws InterruptedException {
+        SchedulerLockService crashed = node();
+        SchedulerLockService nodeB = node();
+        SchedulerLockService nodeC = node();
+
+        assertTrue(crashed.tryLock("lock-test-expiry", Duration.ofMillis(200)));
+        assertFalse(nodeB.tryLock("lock-test-expiry", Duration.ofMinutes(30)));
+
+        // 持有者未释放，锁到期后由 nodeB 接管
+        Thread.sleep(300);
+        assertTrue(nodeB.tryLock("lock-test-expiry", Duration.ofMinutes(30)));
+        String owner = schedulerLockRepository.findById("lock-test-expiry").orElseThrow().getLockedBy();
+        assertEquals(ReflectionTestUtils.getField(nodeB, "owner"), owner);
+
+        // 原持有者恢复后的释放不影响新持有者
+        crashed.unlock("lock-test-expiry");
+        assertFalse(nodeC.tryLock("lock-test-expiry", Duration.ofMinutes(30)));
+        assertNotEquals(ReflectionTestUtils.getField(crashed, "owner"), owner);
+    }
+
+    private SchedulerLockService node() {
+        SchedulerLockServiceImpl node = new SchedulerLockServiceImpl();
+        ReflectionTestUtils.setField(node, "schedulerLockRepository", schedulerLockRepository);
+        return node;
+    }
+}
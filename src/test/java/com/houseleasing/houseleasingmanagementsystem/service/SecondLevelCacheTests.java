@@ -0,0 +1,63 @@
+package com.houseleasing.houseleasingmanagementsystem.service;
+
+import com.houseleasing.houseleasingmanagementsystem.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 用户实体与身份证号自然键走二级缓存：重复查询不发 SQL，更新/删除后缓存同步
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SecondLevelCacheTests {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void repeatedLookupsAreServedFromCache() {
+        // JCache 的 CacheManager 在 JVM 内共享，其它测试上下文 create-drop 重建表后留下的同 id 旧条目先清掉
+        entityManagerFactory.getCache().evictAll();
+        User created = userService.createUser(user("cache-user", "CACHE-001"));
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        userService.getUserById(created.getId());
+        userService.getByIdCard("CACHE-001");
+        stats.clear();
+        assertEquals("cache-user", userService.getUserById(created.getId()).getRealName());
+        assertEquals(created.getId(), userService.getByIdCard("CACHE-001").getId());
+        assertEquals(0, stats.getPrepareStatementCount());
+        assertEquals(1, stats.getNaturalIdCacheHitCount());
+        assertTrue(stats.getSecondLevelCacheHitCount() >= 2);
+
+        // 更新后缓存中是新值，旧身份证号不再命中
+        User changes = user("cache-user-renamed", "CACHE-002");
+        userService.updateUser(created.getId(), changes);
+        assertEquals("cache-user-renamed", userService.getUserById(created.getId()).getRealName());
+        assertEquals(created.getId(), userService.getByIdCard("CACHE-002").getId());
+        assertNull(userService.getByIdCard("CACHE-001"));
+
+        userService.deleteUser(created.getId());
+        assertNull(userService.getUserById(created.getId()));
+    }
+
+    private static User user(String name, String idCard) {
+        User u = new User();
+        u.setRealName(name);
+        u.setIdCard(idCard);
+        u.setRole("TENANT");
+        return u;
+    }
+}
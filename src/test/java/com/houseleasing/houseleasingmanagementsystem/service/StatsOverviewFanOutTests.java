@@ -0,0 +1,116 @@
+package com.houseleasing.houseleasingmanagementsystem.service;
+
+import com.houseleasing.houseleasingmanagementsystem.repository.ReviewRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * 统计概览并行子查询：单个子查询超时只降级为部分结果，不影响其他部分
+ */
+@SpringBootTest(properties = "app.stats.widget-timeout-ms=300")
+@ActiveProfiles("test")
+class StatsOverviewFanOutTests {
+
+    @Autowired
+    private StatsService statsService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private ReviewRepository reviewRepository;
+
+    @Test
+    void slowWidgetDegradesToPartialPayload() {
+        when(reviewRepository.findRecentWithReviewer(any())).thenAnswer(invocation -> {
+            Thread.sleep(2000);
+            return List.of();
+        });
+
+        long start = System.nanoTime();
+        Map<String, Object> overview = statsService.overview(null, null);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMs < 1500, "overview should not wait for the slow widget: " + elapsedMs + " ms");
+        assertEquals(true, overview.get(StatsService.PARTIAL));
+        assertEquals(List.of("recentReviews"), overview.get(StatsService.UNAVAILABLE_WIDGETS));
+        assertEquals(List.of(), overview.get("recentReviews"));
+        assertNotNull(overview.get("totalHouses"));
+        assertNotNull(overview.get("monthlyIncome"));
+        assertEquals(6, ((List<?>) overview.get("monthlyIncomeSeries")).size());
+    }
+
+    @Test
+    void completePayloadIsNotMarkedPartial() {
+        when(reviewRepository.findRecentWithReviewer(any())).thenReturn(List.of());
+        // 首次调用时线程池线程和各查询尚未预热，可能超过 300 ms 的预算
+        statsService.overview(null, null);
+
+        Map<String, Object> overview = statsService.overview(null, null);
+
+        assertFalse(overview.containsKey(StatsService.PARTIAL));
+        assertFalse(overview.containsKey(StatsService.UNAVAILABLE_WIDGETS));
+    }
+
+    @Test
+    void subQueryTransactionCarriesTheWidgetTimeout() {
+        AtomicLong timeToLiveMs = new AtomicLong(-1);
+        when(reviewRepository.findRecentWithReviewer(any())).thenAnswer(invocation -> {
+            EntityManagerHolder holder = (EntityManagerHolder) TransactionSynchronizationManager.getResource(entityManagerFactory);
+            if (holder != null && holder.hasTimeout()) timeToLiveMs.set(holder.getTimeToLiveInMillis());
+            return List.of();
+        });
+
+        statsService.overview(null, null);
+
+        // 300 ms 向上取整为 1 秒，随子查询的 JDBC 语句一起下发
+        assertTrue(timeToLiveMs.get() > 0 && timeToLiveMs.get() <= 1000, "time to live " + timeToLiveMs.get());
+    }
+
+    @Test
+    void saturatedExecutorMarksWidgetsUnavailable() {
+        Object target = AopTestUtils.getTargetObject(statsService);
+        Executor executor = (Executor) ReflectionTestUtils.getField(target, "statsQueryExecutor");
+        ReflectionTestUtils.setField(target, "statsQueryExecutor", (Executor) task -> {
+            throw new RejectedExecutionException("saturated");
+        });
+        try {
+            Map<String, Object> overview = statsService.overview(null, null);
+
+            assertEquals(true, overview.get(StatsService.PARTIAL));
+            assertTrue(((List<?>) overview.get(StatsService.UNAVAILABLE_WIDGETS)).contains("totalHouses"));
+            assertEquals(List.of(), overview.get("recentReviews"));
+        } finally {
+            ReflectionTestUtils.setField(target, "statsQueryExecutor", executor);
+        }
+    }
+
+    @Test
+    void invalidRangeFailsBeforeFanOut() {
+        assertThrows(IllegalArgumentException.class,
+                () -> statsService.overview(LocalDate.now(), LocalDate.now().minusMonths(1)));
+    }
+}
@@ -0,0 +1,94 @@
+package com.houseleasing.houseleasingmanagementsystem.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 游标令牌的编码与解析（不启动 Spring）；游标条件在数据库上的效果见 KeysetPaginationTests
+ */
+class KeysetPagerTests {
+
+    @Test
+    void cursorIsBase64urlOfFieldDirectionTypeValueAndId() {
+        assertEquals("dueDate|ASC|d|2024-03-01|42",
+                raw(KeysetPager.encode("dueDate", Sort.Direction.ASC, LocalDate.of(2024, 3, 1), 42L)));
+        assertEquals("createdAt|DESC|t|2024-03-01T08:30|7",
+                raw(KeysetPager.encode("createdAt", Sort.Direction.DESC, LocalDateTime.of(2024, 3, 1, 8, 30), 7L)));
+        assertEquals("dueDate|ASC|n||5", raw(KeysetPager.encode("dueDate", Sort.Direction.ASC, null, 5L)));
+        assertEquals("rating|DESC|i|4|9", raw(KeysetPager.encode("rating", Sort.Direction.DESC, 4, 9L)));
+        // 字符串值中的分隔符不影响解析：id 取最后一段
+        String text = KeysetPager.encode("comment", Sort.Direction.ASC, "a|b", 3L);
+        assertEquals("comment|ASC|s|a|b|3", raw(text));
+        assertNotNull(KeysetPager.after(text, "comment", Sort.Direction.ASC, String.class));
+    }
+
+    @Test
+    void encodedCursorsDecodeForTheSameSort() {
+        assertNull(KeysetPager.after(null, "dueDate", Sort.Direction.ASC, LocalDate.class));
+        assertNull(KeysetPager.after(" ", "dueDate", Sort.Direction.ASC, LocalDate.class));
+        assertNotNull(KeysetPager.after(KeysetPager.encode("dueDate", Sort.Direction.ASC, LocalDate.of(2024, 3, 1), 1L),
+                "dueDate", Sort.Direction.ASC, LocalDate.class));
+        assertNotNull(KeysetPager.after(KeysetPager.encode("dueDate", Sort.Direction.ASC, null, 1L),
+                "dueDate", Sort.Direction.ASC, LocalDate.class));
+        assertNotNull(KeysetPager.after(KeysetPager.encode("createdAt", Sort.Direction.DESC, LocalDateTime.now(), 1L),
+                "createdAt", Sort.Direction.DESC, LocalDateTime.class));
+        assertNotNull(KeysetPager.after(KeysetPager.encode("id", Sort.Direction.ASC, null, 1L),
+                "id", Sort.Direction.ASC, Long.class));
+    }
+
+    @Test
+    void cursorForAnotherSortIsRejected() {
+        String cursor = KeysetPager.encode("dueDate", Sort.Direction.ASC, LocalDate.of(2024, 3, 1), 1L);
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> KeysetPager.after(cursor, "createdAt", Sort.Direction.ASC, LocalDateTime.class));
+        assertEquals("cursor 与当前排序不一致", e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> KeysetPager.after(cursor, "dueDate", Sort.Direction.DESC, LocalDate.class));
+    }
+
+    @Test
+    void malformedOrTamperedCursorsAreRejected() {
+        String[] cursors = {
+                "not base64!",
+                "%%%",
+                encode("dueDate|ASC|d|2024-03-01"),          // 缺少 id
+                encode("dueDate"),
+                encode("dueDate|UP|d|2024-03-01|1"),         // 未知方向
+                encode("dueDate|ASC|x|2024-03-01|1"),        // 未知类型
+                encode("dueDate|ASC|d|2024-13-45|1"),        // 日期无法解析
+                encode("dueDate|ASC|d|2024-03-01|abc"),      // id 不是数字
+                encode("dueDate|ASC|l|yesterday|1"),
+                encode("dueDate|ASC|t|2024-03-01T08:00|1")   // 值类型与排序字段类型不符
+        };
+        for (String cursor : cursors) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                    () -> KeysetPager.after(cursor, "dueDate", Sort.Direction.ASC, LocalDate.class), cursor);
+            assertEquals("cursor 无效", e.getMessage(), cursor);
+        }
+    }
+
+    @Test
+    void pageSizeIsClamped() {
+        assertEquals(1, KeysetPager.limit(0));
+        assertEquals(1, KeysetPager.limit(-5));
+        assertEquals(20, KeysetPager.limit(20));
+        assertEquals(KeysetPager.MAX_SIZE, KeysetPager.limit(100_000));
+    }
+
+    private static String raw(String cursor) {
+        return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,71 @@
+package com.houseleasing.houseleasingmanagementsystem.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Token 校验与已校验 token 缓存（不启动 Spring）
+ */
+class TokenUtilTests {
+
+    private static final String SECRET = "mySecretKeyForHouseLeasingSystem2024!@#$";
+
+    @Test
+    void validTokenIsAcceptedAgainFromCache() {
+        TokenUtil tokenUtil = new TokenUtil(SECRET, 3600L, 10);
+        String token = tokenUtil.generateToken();
+        assertTrue(tokenUtil.validateToken(token));
+        assertTrue(tokenUtil.validateToken(token));
+    }
+
+    @Test
+    void tamperedOrForeignTokensAreRejected() {
+        TokenUtil tokenUtil = new TokenUtil(SECRET, 3600L, 10);
+        String token = tokenUtil.generateToken();
+        assertTrue(tokenUtil.validateToken(token));
+
+        // 载荷被改动的 token 与缓存中的摘要不同，仍需校验签名
+        String[] parts = token.split("\\.");
+        String tampered = parts[0] + "." + parts[1].substring(0, parts[1].length() - 2) + "x" + "." + parts[2];
+        assertFalse(tokenUtil.validateToken(tampered));
+
+        TokenUtil other = new TokenUtil(SECRET + "other", 3600L, 10);
+        assertFalse(tokenUtil.validateToken(other.generateToken()));
+        assertFalse(tokenUtil.validateToken(""));
+        assertFalse(tokenUtil.validateToken(null));
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        TokenUtil expired = new TokenUtil(SECRET, -60L, 10);
+        assertFalse(expired.validateToken(expired.generateToken()));
+    }
+
+    @Test
+    void fullOrDisabledCacheStillValidates() {
+        TokenUtil tokenUtil = new TokenUtil(SECRET, 3600L, 1);
+        String first = tokenUtil.generateToken();
+        String second = new TokenUtil(SECRET, 7200L, 0).generateToken();
+        assertTrue(tokenUtil.validateToken(first));
+        assertTrue(tokenUtil.validateToken(second));
+        assertTrue(tokenUtil.validateToken(second));
+
+        TokenUtil uncached = new TokenUtil(SECRET, 3600L, 0);
+        assertTrue(uncached.validateToken(first));
+    }
+
+    @Test
+    void cachedEntryExpiresWithTheToken() throws InterruptedException {
+        TokenUtil tokenUtil = new TokenUtil(SECRET, 2L, 10);
+        String token = tokenUtil.generateToken();
+        assertTrue(tokenUtil.validateToken(token));
+        assertTrue(tokenUtil.isRecentlyValidated(token));
+
+        // exp 精确到秒，最多 2 秒后过期；缓存条目随之失效，不会把过期 token 当作已校验
+        Thread.sleep(2100);
+        assertFalse(tokenUtil.isRecentlyValidated(token));
+        assertFalse(tokenUtil.validateToken(token));
+    }
+}